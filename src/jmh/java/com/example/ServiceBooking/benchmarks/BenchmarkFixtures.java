@@ -0,0 +1,161 @@
+package com.example.ServiceBooking.benchmarks;
+
+import com.example.ServiceBooking.auth.JwtUtil;
+import com.example.ServiceBooking.auth.User;
+import com.example.ServiceBooking.auth.UserRepository;
+import com.example.ServiceBooking.bookings.BookingMetrics;
+import com.example.ServiceBooking.bookings.BookingRepository;
+import com.example.ServiceBooking.bookings.BookingService;
+import com.example.ServiceBooking.bookings.BookingStateMachine;
+import com.example.ServiceBooking.bookings.events.BookingEventRepository;
+import com.example.ServiceBooking.bookings.events.BookingEventService;
+import com.example.ServiceBooking.bookings.unifiedfiltering.BookingFilterService;
+import com.example.ServiceBooking.customer.AddressRepository;
+import com.example.ServiceBooking.geo.ProviderGeoIndex;
+import com.example.ServiceBooking.geo.ServiceAreaIndex;
+import com.example.ServiceBooking.notification.BroadcastEmailRetryRepository;
+import com.example.ServiceBooking.notification.BroadcastNotificationRepository;
+import com.example.ServiceBooking.notification.BroadcastReadMarkerRepository;
+import com.example.ServiceBooking.notification.NotificationArchiveRepository;
+import com.example.ServiceBooking.notification.NotificationEmailSender;
+import com.example.ServiceBooking.notification.NotificationLanes;
+import com.example.ServiceBooking.notification.NotificationMetrics;
+import com.example.ServiceBooking.notification.NotificationRepository;
+import com.example.ServiceBooking.notification.NotificationService;
+import com.example.ServiceBooking.notification.NotificationUnreadCounterRepository;
+import com.example.ServiceBooking.notification.NotificationWindows;
+import com.example.ServiceBooking.notification.stream.NotificationStreamHub;
+import com.example.ServiceBooking.providermanagement.ProviderAvailabilityRepository;
+import com.example.ServiceBooking.providermanagement.ProviderProfileRepository;
+import com.example.ServiceBooking.providermanagement.ProviderServiceAreaRepository;
+import com.example.ServiceBooking.providermanagement.ProviderServiceRepository;
+import com.example.ServiceBooking.ranking.ProviderRankingService;
+import com.example.ServiceBooking.ratings.RatingReviewRepository;
+import com.example.ServiceBooking.servicecatalog.ServiceCategoryRepository;
+import com.example.ServiceBooking.servicecatalog.SubServiceRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Wires services by hand from fakes, the same way Spring would through their constructors.
+ * Keep in sync with constructor changes in the services under benchmark.
+ */
+final class BenchmarkFixtures {
+
+    static final String CITY = "Pune";
+    static final SimpleMeterRegistry METRICS = new SimpleMeterRegistry();
+    static final String SECRET = "y7K1qV0L6yK5u9y7sFZyQX7hZrV0nZxN8H0LwQ2p+ks=";
+
+    private BenchmarkFixtures() {
+    }
+
+    static JwtUtil jwtUtil() {
+        JwtUtil jwtUtil = new JwtUtil();
+        Fakes.setField(jwtUtil, "secret", SECRET);
+        Fakes.setField(jwtUtil, "expiration", 86_400_000L);
+        return jwtUtil;
+    }
+
+    static User user(Long id, String city) {
+        User u = new User();
+        u.setId(id);
+        u.setName("User " + id);
+        u.setEmail("user" + id + "@example.com");
+        u.setCity(city);
+        return u;
+    }
+
+    static UserRepository userRepo() {
+        return Fakes.of(UserRepository.class, Map.of(
+                "findById", a -> Optional.of(user((Long) a[0], CITY)),
+                "findAllById", a -> {
+                    List<User> users = new ArrayList<>();
+                    for (Object id : (Iterable<?>) a[0]) users.add(user((Long) id, CITY));
+                    return users;
+                },
+                "findUserIdsByNameLike", a -> List.of(1L, 2L, 3L)
+        ));
+    }
+
+    static JavaMailSender noopMailSender() {
+        return Fakes.of(JavaMailSender.class, Map.of("send", a -> null));
+    }
+
+    static NotificationService notificationService(NotificationRepository repo) {
+        return new NotificationService(repo, Fakes.of(NotificationUnreadCounterRepository.class, Map.of("add", a -> 1)),
+                Fakes.of(BroadcastNotificationRepository.class, Map.of(
+                        "findTop50BySentFalseAndDeliverAfterLessThanEqualOrderByBroadcastIdAsc", a -> List.of())),
+                Fakes.of(BroadcastReadMarkerRepository.class, Map.of()),
+                Fakes.of(BroadcastEmailRetryRepository.class, Map.of(
+                        "findTop200ByNextAttemptAtLessThanEqualOrderByRetryIdAsc", a -> List.of())),
+                Fakes.of(NotificationArchiveRepository.class, Map.of()),
+                userRepo(), new NotificationEmailSender(noopMailSender()),
+                new NotificationMetrics(METRICS), new NotificationStreamHub(METRICS, 64, 50, 5, 1_800_000, 25, 10, 1, 10_000),
+                new NotificationWindows(0, 120, 300, 300, 900), new NotificationLanes(50, 50, 10));
+    }
+
+    static NotificationRepository notificationRepo(Map<String, Function<Object[], Object>> extra) {
+        Map<String, Function<Object[], Object>> answers = new HashMap<>(Map.of(
+                "findByUserIdAndBookingId", a -> Optional.empty(),
+                "save", a -> a[0],
+                "saveAll", a -> a[0],
+                "markSent", a -> ((List<?>) a[0]).size(),
+                "countBySentFalse", a -> 0L
+        ));
+        answers.putAll(extra);
+        return Fakes.of(NotificationRepository.class, answers);
+    }
+
+    static ProviderRankingService rankingService() {
+        return new ProviderRankingService(
+                Fakes.of(RatingReviewRepository.class, Map.of()),
+                Fakes.of(BookingRepository.class, Map.of()),
+                90, 5, 144
+        );
+    }
+
+    static BookingService bookingService(BookingRepository bookingRepo,
+                                         ProviderAvailabilityRepository availabilityRepo,
+                                         ProviderServiceRepository providerServiceRepo,
+                                         ProviderProfileRepository providerProfileRepo) {
+        return new BookingService(
+                bookingRepo,
+                notificationService(notificationRepo(Map.of())),
+                Fakes.of(SubServiceRepository.class, Map.of()),
+                availabilityRepo,
+                providerServiceRepo,
+                providerProfileRepo,
+                userRepo(),
+                rankingService(),
+                new BookingMetrics(METRICS),
+                bookingEventService(),
+                bookingStateMachine(bookingRepo, availabilityRepo),
+                Fakes.of(AddressRepository.class, Map.of(
+                        "findFirstByCustomer_CustomerIdAndDefaultAddressTrue", a -> Optional.empty())),
+                new ProviderGeoIndex(providerProfileRepo, 0.05, 25, 50, 20, 20),
+                new ServiceAreaIndex(Fakes.of(ProviderServiceAreaRepository.class, Map.of()), 600_000)
+        );
+    }
+
+    static BookingEventService bookingEventService() {
+        return new BookingEventService(Fakes.of(BookingEventRepository.class, Map.of("save", a -> a[0])));
+    }
+
+    static BookingStateMachine bookingStateMachine(BookingRepository bookingRepo,
+                                                   ProviderAvailabilityRepository availabilityRepo) {
+        return new BookingStateMachine(bookingRepo, new BookingMetrics(METRICS), bookingEventService(), availabilityRepo);
+    }
+
+    static BookingFilterService bookingFilterService(BookingRepository bookingRepo,
+                                                     ServiceCategoryRepository categoryRepo,
+                                                     SubServiceRepository subServiceRepo) {
+        return new BookingFilterService(bookingRepo, userRepo(), categoryRepo, subServiceRepo);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.ServiceBooking.benchmarks;
+
+import com.example.ServiceBooking.auth.Role;
+import com.example.ServiceBooking.bookings.BookingRepository;
+import com.example.ServiceBooking.bookings.dto.BookingFilterRequest;
+import com.example.ServiceBooking.bookings.dto.BookingResponse;
+import com.example.ServiceBooking.bookings.dto.BookingStatus;
+import com.example.ServiceBooking.bookings.unifiedfiltering.BookingFilterService;
+import com.example.ServiceBooking.servicecatalog.ServiceCategory;
+import com.example.ServiceBooking.servicecatalog.ServiceCategoryRepository;
+import com.example.ServiceBooking.servicecatalog.SubServiceRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// Specification building + sort mapping for the unified filter (repository returns an empty page)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingFilterBenchmark {
+
+    private BookingFilterService filterService;
+    private BookingFilterRequest fullRequest;
+    private BookingFilterRequest emptyRequest;
+    private final Pageable pageable = PageRequest.of(0, 20);
+
+    @Setup
+    public void setup() {
+        ServiceCategory category = new ServiceCategory();
+        category.setId(7L);
+        category.setName("Cleaning");
+
+        filterService = BenchmarkFixtures.bookingFilterService(
+                Fakes.of(BookingRepository.class, Map.of(
+                        "findAll", a -> Page.empty((Pageable) a[1])
+                )),
+                Fakes.of(ServiceCategoryRepository.class, Map.of(
+                        "findByNameIgnoreCase", a -> Optional.of(category)
+                )),
+                Fakes.of(SubServiceRepository.class, Map.of(
+                        "findSubServiceIdsByCategoryId", a -> List.of(70L, 71L, 72L)
+                ))
+        );
+
+        fullRequest = new BookingFilterRequest("asha", "ravi", "Cleaning", BookingStatus.ACCEPTED,
+                LocalDate.now().minusDays(30), LocalDate.now(), "amount", "ASC", null);
+        emptyRequest = new BookingFilterRequest(null, null, null, null, null, null, null, null, null);
+    }
+
+    @Benchmark
+    public Page<BookingResponse> allFilters() {
+        return filterService.filterBookings(10L, Role.CUSTOMER, fullRequest, pageable);
+    }
+
+    @Benchmark
+    public Page<BookingResponse> noFilters() {
+        return filterService.filterBookings(10L, Role.ADMIN, emptyRequest, pageable);
+    }
+}
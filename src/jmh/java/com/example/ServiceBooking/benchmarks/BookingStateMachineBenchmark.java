@@ -0,0 +1,105 @@
+package com.example.ServiceBooking.benchmarks;
+
+import com.example.ServiceBooking.bookings.Booking;
+import com.example.ServiceBooking.bookings.BookingAction;
+import com.example.ServiceBooking.bookings.BookingRepository;
+import com.example.ServiceBooking.bookings.BookingStateMachine;
+import com.example.ServiceBooking.bookings.dto.BookingStatus;
+import com.example.ServiceBooking.providermanagement.ProviderAvailabilityRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// Engine overhead per transition: rule lookup, UPDATE parameter building, hooks (metrics, outbox, slot release).
+// The repository answers instantly, so this is the CPU cost on top of the single conditional UPDATE.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingStateMachineBenchmark {
+
+    private static final Long BOOKING_ID = 1L;
+    private static final Long CUSTOMER_ID = 10L;
+    private static final Long PROVIDER_ID = 20L;
+
+    private final Booking postImage = new Booking();
+    private final Booking completed = new Booking();
+
+    private BookingStateMachine accepting;
+    private BookingStateMachine rejecting;
+
+    private BookingStateMachine.Request complete;
+    private BookingStateMachine.Request cancel;
+
+    @Setup
+    public void setup() {
+        postImage.setId(BOOKING_ID);
+        postImage.setCustomerId(CUSTOMER_ID);
+        postImage.setProviderId(PROVIDER_ID);
+        postImage.setCity(BenchmarkFixtures.CITY);
+        postImage.setDateTime(LocalDateTime.now().plusDays(1).withMinute(0).withSecond(0).withNano(0));
+        postImage.setStatus(BookingStatus.CANCELLED);
+        postImage.setPreviousStatus(BookingStatus.ACCEPTED);
+
+        completed.setId(BOOKING_ID);
+        completed.setCustomerId(CUSTOMER_ID);
+        completed.setProviderId(PROVIDER_ID);
+        completed.setStatus(BookingStatus.COMPLETED);
+
+        ProviderAvailabilityRepository availabilityRepo = Fakes.of(ProviderAvailabilityRepository.class, Map.of(
+                "releaseSlot", a -> 1
+        ));
+
+        accepting = BenchmarkFixtures.bookingStateMachine(
+                Fakes.of(BookingRepository.class, Map.of(
+                        "applyTransition", a -> 1,
+                        "findById", a -> Optional.of(postImage)
+                )),
+                availabilityRepo);
+
+        // UPDATE matched nothing: slow path reads the row and explains the rejection
+        rejecting = BenchmarkFixtures.bookingStateMachine(
+                Fakes.of(BookingRepository.class, Map.of(
+                        "applyTransition", a -> 0,
+                        "findById", a -> Optional.of(completed)
+                )),
+                availabilityRepo);
+
+        complete = BookingStateMachine.Request.of(BookingAction.COMPLETE, BOOKING_ID, PROVIDER_ID);
+        cancel = BookingStateMachine.Request.of(BookingAction.CANCEL, BOOKING_ID, CUSTOMER_ID);
+    }
+
+    @Benchmark
+    public Booking complete() {
+        return accepting.apply(complete);
+    }
+
+    @Benchmark
+    public Booking cancelWithSlotRelease() {
+        return accepting.apply(cancel);
+    }
+
+    @Benchmark
+    public Object rejectedCancel() {
+        try {
+            return rejecting.apply(cancel);
+        } catch (RuntimeException ex) {
+            return ex;
+        }
+    }
+
+    @Benchmark
+    public Object validateInMemory() {
+        try {
+            accepting.validate(BookingAction.START, completed, PROVIDER_ID, null);
+            return null;
+        } catch (RuntimeException ex) {
+            return ex;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.ServiceBooking.benchmarks;
+
+import com.example.ServiceBooking.analytics.columnar.BookingColumnStore;
+import com.example.ServiceBooking.analytics.columnar.ColumnarDimension;
+import com.example.ServiceBooking.analytics.columnar.ColumnarQueryEngine;
+import com.example.ServiceBooking.analytics.columnar.ColumnarTimeBasis;
+import com.example.ServiceBooking.analytics.dto.ColumnarQueryRequest;
+import com.example.ServiceBooking.analytics.dto.ColumnarQueryResponse;
+import com.example.ServiceBooking.bookings.Booking;
+import com.example.ServiceBooking.bookings.BookingRepository;
+import com.example.ServiceBooking.bookings.dto.BookingStatus;
+import com.example.ServiceBooking.bookings.events.BookingEventRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// ad-hoc admin reports over the in-memory booking snapshot (city x status x month and a filtered group-by)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColumnarQueryBenchmark {
+
+    private static final String[] CITIES = {"Pune", "Mumbai", "Delhi", "Bengaluru", "Chennai", "Hyderabad", "Kolkata", "Jaipur"};
+    private static final BookingStatus[] STATUSES = BookingStatus.values();
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Param({"1000000"})
+    public int bookings;
+
+    @Param({"1", "4"})
+    public int parallelism;
+
+    private ColumnarQueryEngine engine;
+    private ColumnarQueryRequest cityStatusMonth;
+    private ColumnarQueryRequest filteredByService;
+
+    @Setup
+    public void setup() {
+        BookingRepository bookingRepo = Fakes.of(BookingRepository.class, Map.of(
+                "findByIdGreaterThanOrderByIdAsc", a -> page((Long) a[0], ((Pageable) a[1]).getPageSize())
+        ));
+        BookingColumnStore store = new BookingColumnStore(
+                bookingRepo, Fakes.of(BookingEventRepository.class, Map.of()), 10_000, 120, false);
+        store.reload();
+
+        engine = new ColumnarQueryEngine(store, parallelism, 65_536);
+
+        cityStatusMonth = new ColumnarQueryRequest(
+                List.of(ColumnarDimension.CITY, ColumnarDimension.STATUS, ColumnarDimension.MONTH),
+                ColumnarTimeBasis.CREATED, null, null, null, null, null, null, 1000);
+        filteredByService = new ColumnarQueryRequest(
+                List.of(ColumnarDimension.SERVICE),
+                ColumnarTimeBasis.CREATED, START.plusMonths(3), START.plusMonths(9),
+                List.of("pune", "mumbai"), List.of(BookingStatus.COMPLETED), null, null, 100);
+    }
+
+    private List<Booking> page(long afterId, int size) {
+        List<Booking> page = new ArrayList<>(size);
+        for (long id = afterId + 1; id <= Math.min(afterId + size, bookings); id++) {
+            SplittableRandom rnd = new SplittableRandom(id);
+            Booking b = new Booking();
+            b.setId(id);
+            b.setCity(CITIES[rnd.nextInt(CITIES.length)]);
+            b.setServiceId(1L + rnd.nextInt(200));
+            b.setProviderId(1L + rnd.nextInt(20_000));
+            b.setStatus(STATUSES[rnd.nextInt(STATUSES.length)]);
+            b.setCreatedAt(START.plusMinutes(rnd.nextInt(2 * 365 * 24 * 60)));
+            b.setDateTime(b.getCreatedAt().plusDays(2));
+            b.setPrice(BigDecimal.valueOf(200 + rnd.nextInt(5000)));
+            page.add(b);
+        }
+        return page;
+    }
+
+    @TearDown
+    public void tearDown() {
+        engine.shutdown();
+    }
+
+    @Benchmark
+    public ColumnarQueryResponse groupByCityStatusMonth() {
+        return engine.query(cityStatusMonth);
+    }
+
+    @Benchmark
+    public ColumnarQueryResponse filteredGroupByService() {
+        return engine.query(filteredByService);
+    }
+}
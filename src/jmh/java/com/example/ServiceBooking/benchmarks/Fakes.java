@@ -0,0 +1,50 @@
+package com.example.ServiceBooking.benchmarks;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Minimal in-memory stand-ins for Spring Data repositories and other interfaces.
+ * Only the methods named in {@code answers} are implemented; anything else fails loudly,
+ * so a benchmark can't silently measure a code path it didn't set up.
+ */
+final class Fakes {
+
+    private Fakes() {
+    }
+
+    static <T> T of(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (self, method, args) -> {
+            switch (method.getName()) {
+                case "toString":
+                    return "Fake" + type.getSimpleName();
+                case "hashCode":
+                    return System.identityHashCode(self);
+                case "equals":
+                    return self == args[0];
+                default:
+                    break;
+            }
+
+            Function<Object[], Object> answer = answers.get(method.getName());
+            if (answer == null) {
+                throw new UnsupportedOperationException("Not faked: " + type.getSimpleName() + "." + method.getName());
+            }
+            return answer.apply(args == null ? new Object[0] : args);
+        });
+        return type.cast(proxy);
+    }
+
+    // for @Value fields on beans constructed outside Spring
+    static void setField(Object target, String name, Object value) {
+        try {
+            Field f = target.getClass().getDeclaredField(name);
+            f.setAccessible(true);
+            f.set(target, value);
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("Cannot set field " + name, ex);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.ServiceBooking.benchmarks;
+
+import com.example.ServiceBooking.auth.JwtUtil;
+import com.example.ServiceBooking.auth.Role;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// JwtFilter runs extractClaims on every authenticated request
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtUtil = BenchmarkFixtures.jwtUtil();
+        token = jwtUtil.generateToken(42L, Role.CUSTOMER);
+    }
+
+    @Benchmark
+    public Claims extractClaims() {
+        return jwtUtil.extractClaims(token);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.ServiceBooking.benchmarks;
+
+import com.example.ServiceBooking.common.mail.FakeSmtpServer;
+import com.example.ServiceBooking.common.mail.PooledJavaMailSender;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.io.IOException;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+// Messages/sec through a real SMTP client against FakeSmtpServer: a connection per send (plain
+// JavaMailSenderImpl) vs pooled connections. replyDelayMicros approximates the round trip to the relay;
+// with STARTTLS + AUTH on a real server the per-connection cost is several round trips more than here.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MailTransportBenchmark {
+
+    @Param({"0", "1000"})
+    public long replyDelayMicros;
+
+    private FakeSmtpServer server;
+    private JavaMailSenderImpl perMessage;
+    private PooledJavaMailSender pooled;
+    private SimpleMailMessage message;
+
+    @Setup
+    public void setup() throws IOException {
+        server = new FakeSmtpServer(TimeUnit.MICROSECONDS.toNanos(replyDelayMicros));
+
+        perMessage = new JavaMailSenderImpl();
+        perMessage.setHost("127.0.0.1");
+        perMessage.setPort(server.port());
+        Properties props = new Properties();
+        // skip the local hostname lookup JavaMail does for EHLO
+        props.setProperty("mail.smtp.localhost", "localhost");
+        perMessage.setJavaMailProperties(props);
+
+        pooled = new PooledJavaMailSender(new SimpleMeterRegistry(), 4, 100, 60_000, 10_000)
+                .configuredFrom(perMessage);
+
+        message = new SimpleMailMessage();
+        message.setFrom("noreply@example.com");
+        message.setTo("user42@example.com");
+        message.setSubject("Booking #42 update");
+        message.setText("Your job has started for Booking #42");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        pooled.close();
+        server.close();
+    }
+
+    @Benchmark
+    public void connectionPerMessage() {
+        perMessage.send(message);
+    }
+
+    @Benchmark
+    public void pooled() {
+        pooled.send(message);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void pooledConcurrent() {
+        pooled.send(message);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.ServiceBooking.benchmarks;
+
+import com.example.ServiceBooking.notification.Notification;
+import com.example.ServiceBooking.notification.NotificationPriority;
+import com.example.ServiceBooking.notification.NotificationService;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+// One dispatcher tick with a backlog in both shared lanes: 50 transactional + 50 bulk users due
+// (3 pending rows each) -> 40 + 10 served, batched user lookup + one (digest) email body per user
+// (SMTP is a no-op)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NotificationDispatchBenchmark {
+
+    private static final int USERS = 50;
+    private static final int PER_USER = 3;
+
+    private NotificationService notificationService;
+
+    @Setup
+    public void setup() {
+        notificationService = BenchmarkFixtures.notificationService(BenchmarkFixtures.notificationRepo(Map.of(
+                "findUsersWithDueNotifications", a -> a[0] == NotificationPriority.BULK
+                        ? LongStream.rangeClosed(USERS + 1, 2L * USERS).boxed().toList()
+                        : a[0] == NotificationPriority.TRANSACTIONAL
+                        ? LongStream.rangeClosed(1, USERS).boxed().toList()
+                        : List.of(),
+                "findByUserIdInAndSentFalseAndPriorityInOrderByUpdatedAtAsc", a -> pendingBatch()
+        )));
+    }
+
+    private static List<Notification> pendingBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Notification> pending = new ArrayList<>(2 * USERS * PER_USER);
+        for (long i = 1; i <= 2 * USERS * PER_USER; i++) {
+            Notification n = new Notification();
+            n.setNotificationId(i);
+            n.setUserId((i - 1) % (2 * USERS) + 1);
+            n.setPriority(n.getUserId() > USERS ? NotificationPriority.BULK : NotificationPriority.TRANSACTIONAL);
+            n.setBookingId(i);
+            n.setMessage("Your job has started for Booking #" + i);
+            n.setCreatedAt(now);
+            n.setUpdatedAt(now);
+            pending.add(n);
+        }
+        return pending;
+    }
+
+    @Benchmark
+    public int dispatchPendingNotifications() {
+        return notificationService.dispatchPendingNotifications();
+    }
+}
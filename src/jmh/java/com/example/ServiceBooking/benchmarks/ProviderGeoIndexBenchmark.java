@@ -0,0 +1,144 @@
+package com.example.ServiceBooking.benchmarks;
+
+import com.example.ServiceBooking.geo.GeoMatch;
+import com.example.ServiceBooking.geo.ProviderGeoGrid;
+import com.example.ServiceBooking.geo.ProviderGeoIndex;
+import com.example.ServiceBooking.providermanagement.ProviderProfileRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Provider matching at 100k located providers: 90% clustered around eight metros (~15 km spread), 10% spread
+// over the country; one provider in eight offers the requested service. Grid kNN / radius queries vs a full
+// scan of the same arrays, plus the cost of rebuilding the index from the location query.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProviderGeoIndexBenchmark {
+
+    private static final double[][] METROS = {
+            {18.52, 73.86}, {19.08, 72.88}, {28.61, 77.21}, {12.97, 77.59},
+            {13.08, 80.27}, {17.39, 78.49}, {22.57, 88.36}, {26.91, 75.79}
+    };
+    private static final int QUERIES = 1024;
+
+    @Param({"100000"})
+    public int providers;
+
+    @Param({"0.05"})
+    public double cellDegrees;
+
+    private ProviderGeoIndex index;
+    private long[] ids;
+    private double[] lats;
+    private double[] lons;
+    private Set<Long> offering;
+    private double[][] queries;
+    private int next;
+
+    @Setup
+    public void setup() {
+        SplittableRandom rnd = new SplittableRandom(42);
+        ids = new long[providers];
+        lats = new double[providers];
+        lons = new double[providers];
+        offering = new HashSet<>();
+        List<ProviderProfileRepository.ProviderLocationProjection> rows = new ArrayList<>(providers);
+
+        for (int i = 0; i < providers; i++) {
+            double[] p = rnd.nextInt(10) == 0
+                    ? new double[]{8 + rnd.nextDouble() * 24, 68 + rnd.nextDouble() * 22}
+                    : aroundMetro(rnd);
+            ids[i] = i + 1;
+            lats[i] = p[0];
+            lons[i] = p[1];
+            if (rnd.nextInt(8) == 0) offering.add(ids[i]);
+            rows.add(location(ids[i], lats[i], lons[i]));
+        }
+
+        index = new ProviderGeoIndex(Fakes.of(ProviderProfileRepository.class, Map.of(
+                "findOnlineProviderLocations", a -> rows
+        )), cellDegrees, 25, 50, 20, 20);
+        index.refresh();
+
+        queries = new double[QUERIES][];
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = aroundMetro(rnd);
+        }
+    }
+
+    @Benchmark
+    public List<GeoMatch> assignmentCandidates() {
+        double[] q = nextQuery();
+        return index.assignmentCandidates(q[0], q[1], offering::contains);
+    }
+
+    @Benchmark
+    public List<GeoMatch> assignmentCandidatesFullScan() {
+        double[] q = nextQuery();
+        return fullScanNearest(q[0], q[1], 20, 20);
+    }
+
+    @Benchmark
+    public List<GeoMatch> withinFiveKm() {
+        double[] q = nextQuery();
+        return index.within(q[0], q[1], 5, null);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int rebuild() {
+        index.refresh();
+        return index.size();
+    }
+
+    private List<GeoMatch> fullScanNearest(double lat, double lon, int k, double maxKm) {
+        PriorityQueue<GeoMatch> heap = new PriorityQueue<>(Comparator.comparingDouble(GeoMatch::distanceKm).reversed());
+        for (int i = 0; i < ids.length; i++) {
+            if (!offering.contains(ids[i])) continue;
+            double d = ProviderGeoGrid.distanceKm(lat, lon, lats[i], lons[i]);
+            if (d > maxKm) continue;
+            if (heap.size() < k) {
+                heap.offer(new GeoMatch(ids[i], d));
+            } else if (d < heap.peek().distanceKm()) {
+                heap.poll();
+                heap.offer(new GeoMatch(ids[i], d));
+            }
+        }
+        List<GeoMatch> result = new ArrayList<>(heap);
+        result.sort(Comparator.comparingDouble(GeoMatch::distanceKm));
+        return result;
+    }
+
+    private double[] nextQuery() {
+        return queries[next++ & (QUERIES - 1)];
+    }
+
+    private static double[] aroundMetro(SplittableRandom rnd) {
+        double[] metro = METROS[rnd.nextInt(METROS.length)];
+        return new double[]{metro[0] + gaussian(rnd) * 0.14, metro[1] + gaussian(rnd) * 0.14};
+    }
+
+    private static double gaussian(SplittableRandom rnd) {
+        return Math.sqrt(-2 * Math.log(1 - rnd.nextDouble())) * Math.cos(2 * Math.PI * rnd.nextDouble());
+    }
+
+    private static ProviderProfileRepository.ProviderLocationProjection location(long id, double lat, double lon) {
+        return new ProviderProfileRepository.ProviderLocationProjection() {
+            public Long getProviderId() { return id; }
+            public Double getLatitude() { return lat; }
+            public Double getLongitude() { return lon; }
+        };
+    }
+}
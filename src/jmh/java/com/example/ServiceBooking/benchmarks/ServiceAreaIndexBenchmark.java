@@ -0,0 +1,123 @@
+package com.example.ServiceBooking.benchmarks;
+
+import com.example.ServiceBooking.geo.ServiceAreaIndex;
+import com.example.ServiceBooking.providermanagement.ProviderServiceAreaRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Booking candidates for (pincode, sub-service) at 100k providers over eight cities of 100 pincodes each.
+// Providers declare 3-8 pincodes around a home pincode (some as 5- or 4-digit prefixes) and offer 1-3 of 40
+// sub-services. serviceAreaIndex = trie walk + bitset AND; cityFilter = the in-memory part of the old path
+// (every provider of the service filtered against the city's eligible set), before any slot query.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServiceAreaIndexBenchmark {
+
+    private static final int[] CITY_PREFIXES = {411, 400, 110, 560, 600, 500, 700, 302};
+    private static final int SUB_SERVICES = 40;
+    private static final int QUERIES = 1024;
+
+    @Param({"100000"})
+    public int providers;
+
+    private ServiceAreaIndex index;
+    private List<List<Long>> providersByService;
+    private List<Set<Long>> eligibleByCity;
+    private String[] queryPincodes;
+    private long[] queryServices;
+    private int[] queryCities;
+    private int next;
+
+    @Setup
+    public void setup() {
+        SplittableRandom rnd = new SplittableRandom(42);
+        List<ProviderServiceAreaRepository.AreaProjection> areas = new ArrayList<>();
+        List<ProviderServiceAreaRepository.OfferingProjection> offerings = new ArrayList<>();
+        providersByService = new ArrayList<>();
+        eligibleByCity = new ArrayList<>();
+        for (int s = 0; s <= SUB_SERVICES; s++) providersByService.add(new ArrayList<>());
+        for (int c = 0; c < CITY_PREFIXES.length; c++) eligibleByCity.add(new HashSet<>());
+
+        for (long id = 1; id <= providers; id++) {
+            int city = rnd.nextInt(CITY_PREFIXES.length);
+            eligibleByCity.get(city).add(id);
+
+            int home = rnd.nextInt(100);
+            for (int a = 3 + rnd.nextInt(6); a > 0; a--) {
+                String pincode = pincode(city, Math.floorMod(home + rnd.nextInt(-5, 6), 100));
+                int roll = rnd.nextInt(100);
+                String prefix = roll < 5 ? pincode.substring(0, 4) : roll < 25 ? pincode.substring(0, 5) : pincode;
+                areas.add(area(id, prefix));
+            }
+            for (int o = 1 + rnd.nextInt(3); o > 0; o--) {
+                long service = 1 + rnd.nextInt(SUB_SERVICES);
+                offerings.add(offering(id, service));
+                providersByService.get((int) service).add(id);
+            }
+        }
+
+        index = new ServiceAreaIndex(Fakes.of(ProviderServiceAreaRepository.class, Map.of(
+                "findOnlineProviderAreas", a -> areas,
+                "findOnlineAreaProviderOfferings", a -> offerings
+        )), 600_000);
+        index.refresh();
+
+        queryPincodes = new String[QUERIES];
+        queryServices = new long[QUERIES];
+        queryCities = new int[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            queryCities[i] = rnd.nextInt(CITY_PREFIXES.length);
+            queryPincodes[i] = pincode(queryCities[i], rnd.nextInt(100));
+            queryServices[i] = 1 + rnd.nextInt(SUB_SERVICES);
+        }
+    }
+
+    @Benchmark
+    public List<Long> serviceAreaIndex() {
+        int q = next++ & (QUERIES - 1);
+        return index.providersCovering(queryPincodes[q], queryServices[q]);
+    }
+
+    @Benchmark
+    public List<Long> cityFilter() {
+        int q = next++ & (QUERIES - 1);
+        Set<Long> eligibleInCity = eligibleByCity.get(queryCities[q]);
+        return providersByService.get((int) queryServices[q]).stream().filter(eligibleInCity::contains).toList();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int rebuild() {
+        index.refresh();
+        return index.size();
+    }
+
+    private static String pincode(int city, int local) {
+        return String.format("%d%03d", CITY_PREFIXES[city], local);
+    }
+
+    private static ProviderServiceAreaRepository.AreaProjection area(long id, String prefix) {
+        return new ProviderServiceAreaRepository.AreaProjection() {
+            public Long getProviderId() { return id; }
+            public String getPincodePrefix() { return prefix; }
+        };
+    }
+
+    private static ProviderServiceAreaRepository.OfferingProjection offering(long id, long subServiceId) {
+        return new ProviderServiceAreaRepository.OfferingProjection() {
+            public Long getProviderId() { return id; }
+            public Long getSubServiceId() { return subServiceId; }
+        };
+    }
+}
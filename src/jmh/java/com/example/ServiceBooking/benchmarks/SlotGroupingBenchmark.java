@@ -0,0 +1,74 @@
+package com.example.ServiceBooking.benchmarks;
+
+import com.example.ServiceBooking.bookings.BookingRepository;
+import com.example.ServiceBooking.bookings.BookingService;
+import com.example.ServiceBooking.bookings.dto.SlotResponse;
+import com.example.ServiceBooking.providermanagement.AvailabilityStatus;
+import com.example.ServiceBooking.providermanagement.ProviderAvailability;
+import com.example.ServiceBooking.providermanagement.ProviderAvailabilityRepository;
+import com.example.ServiceBooking.providermanagement.ProviderProfileRepository;
+import com.example.ServiceBooking.providermanagement.ProviderServiceRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+// getSlotsForService: provider filtering + grouping slots by start/end time
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SlotGroupingBenchmark {
+
+    @Param({"50", "500"})
+    public int providers;
+
+    @Param({"8"})
+    public int slotsPerProvider;
+
+    private final LocalDate date = LocalDate.now().plusDays(1);
+    private BookingService bookingService;
+
+    @Setup
+    public void setup() {
+        List<Long> providerIds = LongStream.rangeClosed(1, providers).boxed().toList();
+
+        List<ProviderAvailability> slots = new ArrayList<>();
+        for (Long pid : providerIds) {
+            for (int h = 0; h < slotsPerProvider; h++) {
+                ProviderAvailability s = new ProviderAvailability();
+                s.setProviderId(pid);
+                s.setDate(date);
+                s.setStartTime(LocalTime.of(9 + h, 0));
+                s.setEndTime(LocalTime.of(10 + h, 0));
+                s.setStatus(AvailabilityStatus.AVAILABLE);
+                slots.add(s);
+            }
+        }
+
+        bookingService = BenchmarkFixtures.bookingService(
+                Fakes.of(BookingRepository.class, Map.of()),
+                Fakes.of(ProviderAvailabilityRepository.class, Map.of(
+                        "findAvailableSlotsForProviders", a -> slots
+                )),
+                Fakes.of(ProviderServiceRepository.class, Map.of(
+                        "findProviderIdsBySubServiceId", a -> providerIds
+                )),
+                Fakes.of(ProviderProfileRepository.class, Map.of(
+                        "findEligibleProviderIdsByCity", a -> providerIds
+                ))
+        );
+    }
+
+    @Benchmark
+    public List<SlotResponse> getSlotsForService() {
+        return bookingService.getSlotsForService(1L, date, BenchmarkFixtures.CITY, null);
+    }
+}
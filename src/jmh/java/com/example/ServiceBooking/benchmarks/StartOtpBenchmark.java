@@ -0,0 +1,74 @@
+package com.example.ServiceBooking.benchmarks;
+
+import com.example.ServiceBooking.bookings.Booking;
+import com.example.ServiceBooking.bookings.BookingRepository;
+import com.example.ServiceBooking.bookings.BookingService;
+import com.example.ServiceBooking.bookings.dto.BookingStatus;
+import com.example.ServiceBooking.providermanagement.ProviderAvailabilityRepository;
+import com.example.ServiceBooking.providermanagement.ProviderProfileRepository;
+import com.example.ServiceBooking.providermanagement.ProviderServiceRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// BCrypt cost dominates both start-OTP paths (generate on resend, match on verify)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StartOtpBenchmark {
+
+    private static final Long BOOKING_ID = 1L;
+    private static final Long CUSTOMER_ID = 10L;
+    private static final Long PROVIDER_ID = 20L;
+    private static final String OTP = "4821";
+
+    private final Booking booking = new Booking();
+    private String otpHash;
+    private BookingService bookingService;
+
+    @Setup
+    public void setup() {
+        booking.setId(BOOKING_ID);
+        booking.setCustomerId(CUSTOMER_ID);
+        booking.setProviderId(PROVIDER_ID);
+        booking.setDateTime(LocalDateTime.now().plusDays(1));
+        otpHash = new BCryptPasswordEncoder().encode(OTP);
+
+        BookingRepository bookingRepo = Fakes.of(BookingRepository.class, Map.of(
+                "findById", a -> Optional.of(booking),
+                "save", a -> a[0],
+                "applyTransition", a -> 1
+        ));
+
+        bookingService = BenchmarkFixtures.bookingService(
+                bookingRepo,
+                Fakes.of(ProviderAvailabilityRepository.class, Map.of()),
+                Fakes.of(ProviderServiceRepository.class, Map.of()),
+                Fakes.of(ProviderProfileRepository.class, Map.of())
+        );
+    }
+
+    @Setup(Level.Invocation)
+    public void resetBooking() {
+        booking.setStatus(BookingStatus.ACCEPTED);
+        booking.setStartOtpHash(otpHash);
+        booking.setStartOtpVerifiedAt(null);
+    }
+
+    @Benchmark
+    public void resendStartOtp() {
+        bookingService.resendStartOtp(BOOKING_ID, CUSTOMER_ID);
+    }
+
+    @Benchmark
+    public void verifyStartOtp() {
+        bookingService.verifyStartOtp(BOOKING_ID, PROVIDER_ID, OTP);
+    }
+}
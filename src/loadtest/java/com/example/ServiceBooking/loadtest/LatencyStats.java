@@ -0,0 +1,91 @@
+package com.example.ServiceBooking.loadtest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint latency samples (all of them, not a histogram: a run is at most a few
+ * hundred thousand requests) plus error counts with the first distinct error messages.
+ */
+class LatencyStats {
+
+    private static final int MAX_DISTINCT_ERRORS = 5;
+
+    private final ConcurrentMap<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    record Summary(String endpoint, long count, long errors, double throughputPerSec,
+                   double meanMs, double p50Ms, double p95Ms, double p99Ms, double maxMs,
+                   Map<String, Long> errorSamples) {}
+
+    void record(String endpoint, long nanos, String error) {
+        endpoints.computeIfAbsent(endpoint, k -> new Endpoint()).add(nanos, error);
+    }
+
+    List<Summary> summarize(double wallSeconds) {
+        List<Summary> out = new ArrayList<>();
+        new TreeMap<>(endpoints).forEach((name, e) -> out.add(e.summarize(name, wallSeconds)));
+        return out;
+    }
+
+    private static final class Endpoint {
+        private long[] samples = new long[1024];
+        private int size;
+        private final LongAdder errors = new LongAdder();
+        private final ConcurrentMap<String, LongAdder> errorSamples = new ConcurrentHashMap<>();
+
+        synchronized void addSample(long nanos) {
+            if (size == samples.length) {
+                samples = Arrays.copyOf(samples, size * 2);
+            }
+            samples[size++] = nanos;
+        }
+
+        void add(long nanos, String error) {
+            addSample(nanos);
+            if (error != null) {
+                errors.increment();
+                LongAdder counter = errorSamples.get(error);
+                if (counter == null && errorSamples.size() < MAX_DISTINCT_ERRORS) {
+                    counter = errorSamples.computeIfAbsent(error, k -> new LongAdder());
+                }
+                if (counter != null) counter.increment();
+            }
+        }
+
+        synchronized Summary summarize(String name, double wallSeconds) {
+            long[] sorted = Arrays.copyOf(samples, size);
+            Arrays.sort(sorted);
+            long total = 0;
+            for (long s : sorted) total += s;
+
+            Map<String, Long> errs = new TreeMap<>();
+            errorSamples.forEach((k, v) -> errs.put(k, v.sum()));
+
+            return new Summary(
+                    name,
+                    size,
+                    errors.sum(),
+                    size / wallSeconds,
+                    size == 0 ? 0 : total / (double) size / 1e6,
+                    percentile(sorted, 0.50),
+                    percentile(sorted, 0.95),
+                    percentile(sorted, 0.99),
+                    size == 0 ? 0 : sorted[size - 1] / 1e6,
+                    errs
+            );
+        }
+
+        // nearest-rank
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) return 0;
+            int idx = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(idx, sorted.length - 1))] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.ServiceBooking.loadtest;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * One scripted customer journey over real HTTP:
+ * register -> verify OTP -> set password -> login -> slots -> bookSlot
+ * -> (provider) verify start OTP -> complete -> record cash -> mark paid -> (customer) rate.
+ * A failing step ends the journey; the failure is recorded against that endpoint.
+ */
+class LoadTestDriver {
+
+    private static final Pattern REGISTRATION_OTP = Pattern.compile("(\\d{6})");
+    private static final String CITY_PARAM = URLEncoder.encode(LoadTestSeeder.CITY, StandardCharsets.UTF_8);
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final JsonMapper json = JsonMapper.builder().build();
+
+    private final String baseUrl;
+    private final LoadTestSeeder.SeedResult seed;
+    private final RecordingMailSender mailbox;
+    private final Map<Long, String> providerTokens = new ConcurrentHashMap<>();
+    private final AtomicLong customerSeq = new AtomicLong();
+
+    private volatile LatencyStats stats = new LatencyStats();
+
+    LoadTestDriver(String baseUrl, LoadTestSeeder.SeedResult seed, RecordingMailSender mailbox) {
+        this.baseUrl = baseUrl;
+        this.seed = seed;
+        this.mailbox = mailbox;
+    }
+
+    void resetStats() {
+        stats = new LatencyStats();
+    }
+
+    LatencyStats stats() {
+        return stats;
+    }
+
+    /** Logs in every seeded provider once; providers act on the bookings assigned to them. */
+    void loginProvider(Long providerId, String email) {
+        JsonNode auth = call("POST /auth/login", () -> post("/auth/login", null,
+                Map.of("email", email, "password", LoadTestSeeder.PASSWORD)));
+        providerTokens.put(providerId, auth.get("token").asString());
+    }
+
+    /** @return true when the whole journey completed */
+    boolean runJourney() {
+        try {
+            journey();
+            return true;
+        } catch (StepFailed ex) {
+            return false;
+        }
+    }
+
+    private void journey() {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        String email = "lt" + customerSeq.incrementAndGet() + "-" + System.nanoTime() + "@load.test";
+
+        // ---- onboarding ----
+        call("POST /auth/customer/register", () -> post("/auth/customer/register", null,
+                Map.of("name", "Load Customer", "email", email, "city", LoadTestSeeder.CITY)));
+
+        String otp = find(REGISTRATION_OTP, mailbox.lastBodyFor(email), "POST /auth/verify-otp", "registration OTP not delivered");
+        call("POST /auth/verify-otp", () -> post("/auth/verify-otp", null, Map.of("email", email, "otp", otp)));
+        call("POST /auth/set-password", () -> post("/auth/set-password", null,
+                Map.of("email", email, "password", LoadTestSeeder.PASSWORD)));
+
+        String customerToken = call("POST /auth/login", () -> post("/auth/login", null,
+                Map.of("email", email, "password", LoadTestSeeder.PASSWORD))).get("token").asString();
+
+        // ---- browse + book ----
+        Long serviceId = seed.serviceIds().get(rnd.nextInt(seed.serviceIds().size()));
+        LocalDate day = seed.firstSlotDay().plusDays(rnd.nextInt(seed.slotDays()));
+
+        JsonNode slots = call("GET /bookings/slots", () -> get("/bookings/slots?serviceId=" + serviceId
+                + "&date=" + day + "&city=" + CITY_PARAM, customerToken));
+
+        LocalTime start = slots.isEmpty()
+                ? LocalTime.of(seed.firstHour() + rnd.nextInt(seed.lastHour() - seed.firstHour()), 0)
+                : LocalTime.parse(slots.get(rnd.nextInt(slots.size())).get("startTime").asString());
+
+        JsonNode booking = call("POST /bookings/slot", () -> post("/bookings/slot", customerToken, Map.of(
+                "serviceId", serviceId,
+                "dateTime", LocalDateTime.of(day, start).toString(),
+                "location", "Flat 1, Load Street")));
+        long bookingId = booking.get("bookingId").asLong();
+        long providerId = booking.get("providerId").asLong();
+        String providerToken = providerTokens.get(providerId);
+
+        // ---- start OTP is shared with the customer through in-app notifications ----
+        call("GET /notifications/unread-count", () -> get("/notifications/unread-count", customerToken));
+        JsonNode page = call("GET /notifications", () -> get("/notifications?size=100", customerToken));
+        Pattern startOtp = Pattern.compile("Booking #" + bookingId + " is: (\\d{4})");
+        String code = null;
+        for (JsonNode n : page.get("content")) {
+            Matcher m = startOtp.matcher(n.get("message").asString());
+            if (m.find()) code = m.group(1);
+        }
+        String startCode = code;
+        if (startCode == null) fail("POST /bookings/{id}/start/verify-otp", "start OTP notification missing");
+        call("PUT /notifications/read-all", () -> put("/notifications/read-all", customerToken, null));
+
+        call("POST /bookings/{id}/start/verify-otp", () -> post("/bookings/" + bookingId + "/start/verify-otp",
+                providerToken, Map.of("otp", startCode)));
+
+        call("PUT /api/provider/jobs/{id}/status", () -> put("/api/provider/jobs/" + bookingId
+                + "/status?status=COMPLETED", providerToken, null));
+
+        // ---- pay + rate ----
+        JsonNode payment = call("POST /payments/cash", () -> post("/payments/cash", providerToken, Map.of(
+                "bookingId", bookingId, "amount", seed.prices().get(serviceId))));
+        long paymentId = payment.get("paymentId").asLong();
+        call("PUT /payments/{id}/paid", () -> put("/payments/" + paymentId + "/paid", providerToken, null));
+
+        call("POST /ratings/submit-rating", () -> post("/ratings/submit-rating", customerToken, Map.of(
+                "bookingId", bookingId, "stars", 3 + rnd.nextInt(3))));
+    }
+
+    // ---- http helpers ----
+
+    private JsonNode call(String endpoint, Supplier<HttpRequest> request) {
+        HttpRequest req = request.get();
+        long t0 = System.nanoTime();
+        HttpResponse<String> res;
+        try {
+            res = http.send(req, HttpResponse.BodyHandlers.ofString());
+        } catch (Exception ex) {
+            stats.record(endpoint, System.nanoTime() - t0, ex.getClass().getSimpleName());
+            throw new StepFailed();
+        }
+        long elapsed = System.nanoTime() - t0;
+
+        if (res.statusCode() / 100 != 2) {
+            stats.record(endpoint, elapsed, res.statusCode() + " " + errorMessage(res.body()));
+            throw new StepFailed();
+        }
+        stats.record(endpoint, elapsed, null);
+        return res.body() == null || res.body().isBlank() ? json.createObjectNode() : json.readTree(res.body());
+    }
+
+    private String find(Pattern pattern, String text, String endpoint, String error) {
+        Matcher m = text == null ? null : pattern.matcher(text);
+        if (m == null || !m.find()) fail(endpoint, error);
+        return m.group(1);
+    }
+
+    private void fail(String endpoint, String error) {
+        stats.record(endpoint, 0, error);
+        throw new StepFailed();
+    }
+
+    private String errorMessage(String body) {
+        try {
+            JsonNode node = json.readTree(body);
+            return node.has("message") ? node.get("message").asString() : "";
+        } catch (RuntimeException ex) {
+            return "";
+        }
+    }
+
+    private HttpRequest get(String path, String token) {
+        return builder(path, token).GET().build();
+    }
+
+    private HttpRequest post(String path, String token, Object body) {
+        return builder(path, token).POST(bodyOf(body)).build();
+    }
+
+    private HttpRequest put(String path, String token, Object body) {
+        return builder(path, token).PUT(bodyOf(body)).build();
+    }
+
+    private HttpRequest.Builder builder(String path, String token) {
+        HttpRequest.Builder b = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json");
+        if (token != null) b.header("Authorization", "Bearer " + token);
+        return b;
+    }
+
+    private HttpRequest.BodyPublisher bodyOf(Object body) {
+        return body == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofString(json.writeValueAsString(body));
+    }
+
+    // control flow only; the failure itself is already recorded
+    private static final class StepFailed extends RuntimeException {
+        StepFailed() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.ServiceBooking.loadtest;
+
+import com.example.ServiceBooking.ServiceBookingApplication;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Boots the application on a random port with the "loadtest" profile (H2 + recording mail sender),
+ * seeds data, runs the scripted journey from N concurrent virtual users and prints per-endpoint
+ * throughput and p50/p95/p99 latency. The same numbers are written to target/loadtest-result.json.
+ *
+ * <pre>
+ * ./mvnw -Ploadtest -DskipTests test-compile exec:exec -Dloadtest.args="users=32 iterations=50"
+ * </pre>
+ *
+ * Options (key=value): users, iterations, warmup, providers, servicesPerProvider, categories,
+ * servicesPerCategory, customers, slotDays, history, out. Arguments starting with "--" go to Spring.
+ */
+public class LoadTestMain {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = parse(args);
+        int users = intOpt(opts, "users", 16);
+        int iterations = intOpt(opts, "iterations", 25);
+        int warmup = intOpt(opts, "warmup", 3);
+        String out = opts.getOrDefault("out", "target/loadtest-result.json");
+
+        LoadTestSeeder.SeedPlan plan = new LoadTestSeeder.SeedPlan(
+                intOpt(opts, "categories", 5),
+                intOpt(opts, "servicesPerCategory", 4),
+                intOpt(opts, "providers", 200),
+                intOpt(opts, "servicesPerProvider", 4),
+                intOpt(opts, "customers", 500),
+                intOpt(opts, "slotDays", 14),
+                intOpt(opts, "history", 5000)
+        );
+
+        SpringApplication app = new SpringApplication(ServiceBookingApplication.class);
+        app.setAdditionalProfiles("loadtest");
+
+        // --key=value arguments are passed through to Spring (e.g. --spring.jpa.show-sql=true)
+        String[] springArgs = Arrays.stream(args).filter(a -> a.startsWith("--")).toArray(String[]::new);
+
+        try (ConfigurableApplicationContext ctx = app.run(springArgs)) {
+            String port = ctx.getEnvironment().getProperty("local.server.port");
+            String baseUrl = "http://localhost:" + port;
+
+            long seedStart = System.nanoTime();
+            LoadTestSeeder.SeedResult seed = ctx.getBean(LoadTestSeeder.class).seed(plan);
+            System.out.printf("Seeded in %.1fs%n", (System.nanoTime() - seedStart) / 1e9);
+
+            RecordingMailSender mailbox = ctx.getBean(RecordingMailSender.class);
+            LoadTestDriver driver = new LoadTestDriver(baseUrl, seed, mailbox);
+
+            ExecutorService pool = Executors.newFixedThreadPool(users);
+            try {
+                List<Future<?>> logins = new ArrayList<>();
+                for (int i = 0; i < seed.providerIds().size(); i++) {
+                    Long id = seed.providerIds().get(i);
+                    String email = seed.providerEmails().get(i);
+                    logins.add(pool.submit(() -> driver.loginProvider(id, email)));
+                }
+                for (Future<?> f : logins) f.get();
+
+                if (warmup > 0) {
+                    run(pool, driver, users, warmup);
+                    driver.resetStats();
+                }
+
+                long mailBefore = mailbox.sentCount();
+                long t0 = System.nanoTime();
+                long completed = run(pool, driver, users, iterations);
+                double wallSeconds = (System.nanoTime() - t0) / 1e9;
+
+                report(driver.stats().summarize(wallSeconds), users, iterations, completed, wallSeconds,
+                        mailbox.sentCount() - mailBefore, out);
+                printServerMeters(ctx.getBean(MeterRegistry.class));
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+    }
+
+    private static long run(ExecutorService pool, LoadTestDriver driver, int users, int iterations) throws Exception {
+        AtomicLong completed = new AtomicLong();
+        List<Future<?>> vus = new ArrayList<>();
+        for (int u = 0; u < users; u++) {
+            vus.add(pool.submit(() -> {
+                for (int i = 0; i < iterations; i++) {
+                    if (driver.runJourney()) completed.incrementAndGet();
+                }
+            }));
+        }
+        for (Future<?> f : vus) f.get();
+        return completed.get();
+    }
+
+    private static void report(List<LatencyStats.Summary> rows, int users, int iterations, long completed,
+                               double wallSeconds, long mailsSent, String out) throws Exception {
+        long requests = rows.stream().mapToLong(LatencyStats.Summary::count).sum();
+        long errors = rows.stream().mapToLong(LatencyStats.Summary::errors).sum();
+
+        System.out.println();
+        System.out.printf("Virtual users: %d x %d journeys, wall %.1fs%n", users, iterations, wallSeconds);
+        System.out.printf("Journeys completed: %d/%d (%.2f/s), requests: %d (%.1f/s), errors: %d, mails: %d%n",
+                completed, (long) users * iterations, completed / wallSeconds, requests, requests / wallSeconds,
+                errors, mailsSent);
+        System.out.println();
+        System.out.printf("%-38s %8s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "count", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (LatencyStats.Summary r : rows) {
+            System.out.printf("%-38s %8d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    r.endpoint(), r.count(), r.errors(), r.throughputPerSec(), r.p50Ms(), r.p95Ms(), r.p99Ms(), r.maxMs());
+            r.errorSamples().forEach((msg, n) -> System.out.printf("    %6d x %s%n", n, msg));
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("users", users);
+        result.put("iterations", iterations);
+        result.put("wallSeconds", wallSeconds);
+        result.put("journeysCompleted", completed);
+        result.put("requests", requests);
+        result.put("errors", errors);
+        result.put("mailsSent", mailsSent);
+        result.put("endpoints", rows);
+
+        File file = new File(out);
+        if (file.getParentFile() != null) file.getParentFile().mkdirs();
+        JsonMapper.builder().build().writerWithDefaultPrettyPrinter().writeValue(file, result);
+        System.out.println();
+        System.out.println("Written " + file.getPath());
+    }
+
+    // server-side view of the same run (includes warmup): operation timers, transitions, contention, SQL per request
+    private static void printServerMeters(MeterRegistry registry) {
+        System.out.println();
+        System.out.printf("%-60s %10s %10s%n", "server meter", "count", "mean ms");
+        registry.find("booking.operation").timers().forEach(t -> System.out.printf("%-60s %10d %10.2f%n",
+                t.getId().getTag("operation") + " (exception=" + t.getId().getTag("exception") + ")",
+                t.count(), t.mean(TimeUnit.MILLISECONDS)));
+        registry.find("notification.lane.wait").timers().forEach(t -> System.out.printf("%-60s %10d %10.2f%n",
+                "notification.lane.wait (lane=" + t.getId().getTag("lane") + ")",
+                t.count(), t.mean(TimeUnit.MILLISECONDS)));
+        for (String name : List.of("booking.transitions", "booking.contention", "notification.dispatch", "notification.coalesced", "datasource.routing")) {
+            registry.find(name).counters().forEach(c -> System.out.printf("%-60s %10.0f%n",
+                    c.getId().getName() + c.getId().getTags(), c.count()));
+        }
+
+        System.out.println();
+        System.out.printf("%-60s %10s %10s%n", "repository method (top 10 by total time)", "count", "mean ms");
+        registry.find("spring.data.repository.invocations").timers().stream()
+                .sorted(Comparator.comparingDouble((Timer t) -> t.totalTime(TimeUnit.MILLISECONDS)).reversed())
+                .limit(10)
+                .forEach(t -> System.out.printf("%-60s %10d %10.2f%n",
+                        t.getId().getTag("repository") + "." + t.getId().getTag("method"),
+                        t.count(), t.mean(TimeUnit.MILLISECONDS)));
+        System.out.println();
+        System.out.printf("%-60s %10s %10s %10s%n", "SQL per request", "count", "mean stmts", "max stmts");
+        registry.find("sql.request.statements").summaries().forEach(s -> System.out.printf("%-60s %10d %10.1f %10.0f%n",
+                s.getId().getTag("method") + " " + s.getId().getTag("uri"), s.count(), s.mean(), s.max()));
+        registry.find("sql.n_plus_one").counters().forEach(c -> System.out.printf("%-60s %10.0f%n",
+                "N+1 " + c.getId().getTag("method") + " " + c.getId().getTag("uri") + " <- " + c.getId().getTag("origin"),
+                c.count()));
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> opts = new HashMap<>();
+        for (String a : args) {
+            int eq = a.indexOf('=');
+            if (eq > 0 && !a.startsWith("--")) opts.put(a.substring(0, eq), a.substring(eq + 1));
+        }
+        return opts;
+    }
+
+    private static int intOpt(Map<String, String> opts, String key, int def) {
+        return opts.containsKey(key) ? Integer.parseInt(opts.get(key)) : def;
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.ServiceBooking.loadtest;
+
+import com.example.ServiceBooking.auth.Role;
+import com.example.ServiceBooking.auth.Status;
+import com.example.ServiceBooking.auth.User;
+import com.example.ServiceBooking.auth.UserRepository;
+import com.example.ServiceBooking.bookings.Booking;
+import com.example.ServiceBooking.bookings.BookingRepository;
+import com.example.ServiceBooking.bookings.dto.BookingStatus;
+import com.example.ServiceBooking.providermanagement.AvailabilityStatus;
+import com.example.ServiceBooking.providermanagement.ProviderAvailability;
+import com.example.ServiceBooking.providermanagement.ProviderAvailabilityRepository;
+import com.example.ServiceBooking.providermanagement.ProviderProfile;
+import com.example.ServiceBooking.providermanagement.ProviderProfileRepository;
+import com.example.ServiceBooking.providermanagement.ProviderService;
+import com.example.ServiceBooking.providermanagement.ProviderServiceRepository;
+import com.example.ServiceBooking.ranking.ProviderRankingService;
+import com.example.ServiceBooking.ratings.RatingAggregateRebuildJob;
+import com.example.ServiceBooking.ratings.RatingReview;
+import com.example.ServiceBooking.ratings.RatingReviewRepository;
+import com.example.ServiceBooking.servicecatalog.ServiceCategory;
+import com.example.ServiceBooking.servicecatalog.ServiceCategoryRepository;
+import com.example.ServiceBooking.servicecatalog.SubService;
+import com.example.ServiceBooking.servicecatalog.SubServiceRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Generates a reproducible data set (fixed seed): catalog, approved providers with
+ * hourly slots, active customers, and completed history with ratings.
+ */
+@Slf4j
+@Component
+@Profile("loadtest")
+@RequiredArgsConstructor
+public class LoadTestSeeder {
+
+    public static final String CITY = "Pune";
+    public static final String PASSWORD = "Load@1234";
+
+    private static final int FIRST_HOUR = 8;
+    private static final int LAST_HOUR = 20;
+
+    private final UserRepository userRepo;
+    private final ServiceCategoryRepository categoryRepo;
+    private final SubServiceRepository subServiceRepo;
+    private final ProviderProfileRepository profileRepo;
+    private final ProviderServiceRepository providerServiceRepo;
+    private final ProviderAvailabilityRepository availabilityRepo;
+    private final BookingRepository bookingRepo;
+    private final RatingReviewRepository ratingRepo;
+    private final RatingAggregateRebuildJob aggregateRebuildJob;
+    private final ProviderRankingService rankingService;
+    private final PasswordEncoder passwordEncoder;
+
+    public record SeedPlan(int categories, int servicesPerCategory, int providers, int servicesPerProvider,
+                           int customers, int slotDays, int historyBookings) {}
+
+    public record SeedResult(List<Long> serviceIds, Map<Long, BigDecimal> prices, List<Long> providerIds,
+                             List<String> providerEmails,
+                             LocalDate firstSlotDay, int slotDays, int firstHour, int lastHour) {}
+
+    public SeedResult seed(SeedPlan plan) {
+        Random rnd = new Random(42);
+        // BCrypt is deliberately slow; every seeded account shares one hash
+        String passwordHash = passwordEncoder.encode(PASSWORD);
+
+        // ---- catalog ----
+        List<Long> serviceIds = new ArrayList<>();
+        Map<Long, BigDecimal> prices = new HashMap<>();
+        for (int c = 0; c < plan.categories(); c++) {
+            ServiceCategory category = new ServiceCategory();
+            category.setName("Category " + c);
+            category.setDescription("Seeded category " + c);
+            category = categoryRepo.save(category);
+
+            for (int s = 0; s < plan.servicesPerCategory(); s++) {
+                SubService sub = new SubService();
+                sub.setName("Service " + c + "." + s);
+                sub.setDescription("Seeded service");
+                sub.setBasePrice(BigDecimal.valueOf(299 + rnd.nextInt(20) * 50L));
+                sub.setCategory(category);
+                sub = subServiceRepo.save(sub);
+                serviceIds.add(sub.getId());
+                prices.put(sub.getId(), sub.getBasePrice());
+            }
+        }
+
+        // ---- providers + slots ----
+        LocalDate firstSlotDay = LocalDate.now().plusDays(1);
+        List<Long> providerIds = new ArrayList<>();
+        List<String> providerEmails = new ArrayList<>();
+        List<ProviderAvailability> slots = new ArrayList<>();
+        for (int p = 0; p < plan.providers(); p++) {
+            User user = userRepo.save(activeUser("provider" + p + "@load.test", "Provider " + p, Role.PROVIDER, passwordHash));
+
+            ProviderProfile profile = new ProviderProfile();
+            profile.setUser(user);
+            profile.setApproved(true);
+            profile.setOnline(true);
+            profile.setCity(CITY);
+            profile.setCreatedAt(LocalDateTime.now());
+            profile = profileRepo.save(profile);
+
+            for (int k = 0; k < plan.servicesPerProvider(); k++) {
+                Long serviceId = serviceIds.get(rnd.nextInt(serviceIds.size()));
+                providerServiceRepo.save(ProviderService.builder()
+                        .provider(profile)
+                        .subService(subServiceRepo.getReferenceById(serviceId))
+                        .build());
+            }
+
+            for (int d = 0; d < plan.slotDays(); d++) {
+                for (int h = FIRST_HOUR; h < LAST_HOUR; h++) {
+                    ProviderAvailability slot = new ProviderAvailability();
+                    slot.setProviderId(user.getId());
+                    slot.setDate(firstSlotDay.plusDays(d));
+                    slot.setStartTime(LocalTime.of(h, 0));
+                    slot.setEndTime(LocalTime.of(h + 1, 0));
+                    slot.setStatus(AvailabilityStatus.AVAILABLE);
+                    slots.add(slot);
+                }
+            }
+
+            providerIds.add(user.getId());
+            providerEmails.add(user.getEmail());
+        }
+        availabilityRepo.saveAll(slots);
+
+        // ---- customers ----
+        List<Long> customerIds = new ArrayList<>();
+        for (int c = 0; c < plan.customers(); c++) {
+            User user = userRepo.save(activeUser("customer" + c + "@load.test", "Customer " + c, Role.CUSTOMER, passwordHash));
+            customerIds.add(user.getId());
+        }
+
+        // ---- history (completed + mostly rated) ----
+        if (!customerIds.isEmpty() && plan.historyBookings() > 0) {
+            List<Booking> history = new ArrayList<>();
+            for (int i = 0; i < plan.historyBookings(); i++) {
+                Long serviceId = serviceIds.get(rnd.nextInt(serviceIds.size()));
+                LocalDateTime at = LocalDateTime.now().minusDays(1 + rnd.nextInt(365)).withMinute(0).withSecond(0).withNano(0);
+
+                Booking b = new Booking();
+                b.setCustomerId(customerIds.get(rnd.nextInt(customerIds.size())));
+                b.setProviderId(providerIds.get(rnd.nextInt(providerIds.size())));
+                b.setServiceId(serviceId);
+                b.setDateTime(at);
+                b.setCreatedAt(at.minusDays(2));
+                b.setLocation("Seeded address " + i);
+                b.setCity(CITY);
+                b.setPrice(prices.get(serviceId));
+                b.setStatus(rnd.nextInt(10) == 0 ? BookingStatus.CANCELLED : BookingStatus.COMPLETED);
+                history.add(b);
+            }
+            history = bookingRepo.saveAll(history);
+
+            List<RatingReview> ratings = new ArrayList<>();
+            for (Booking b : history) {
+                if (b.getStatus() != BookingStatus.COMPLETED || rnd.nextInt(4) == 0) continue;
+                RatingReview rr = new RatingReview();
+                rr.setBookingId(b.getId());
+                rr.setProviderId(b.getProviderId());
+                rr.setServiceId(b.getServiceId());
+                rr.setStars((int) Math.max(1, Math.min(5, Math.round(4 + rnd.nextGaussian()))));
+                rr.setCreatedAt(b.getDateTime().plusHours(3));
+                rr.setRatedAt(rr.getCreatedAt());
+                ratings.add(rr);
+            }
+            ratingRepo.saveAll(ratings);
+        }
+
+        aggregateRebuildJob.rebuildAll();
+        rankingService.refresh();
+
+        log.info("Seeded {} services, {} providers ({} slots), {} customers, {} history bookings",
+                serviceIds.size(), providerIds.size(), slots.size(), customerIds.size(), plan.historyBookings());
+
+        return new SeedResult(serviceIds, prices, providerIds, providerEmails,
+                firstSlotDay, plan.slotDays(), FIRST_HOUR, LAST_HOUR);
+    }
+
+    private User activeUser(String email, String name, Role role, String passwordHash) {
+        User u = new User();
+        u.setEmail(email);
+        u.setName(name);
+        u.setRole(role);
+        u.setCity(CITY);
+        u.setStatus(Status.ACTIVE);
+        u.setPassword(passwordHash);
+        return u;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.ServiceBooking.loadtest;
+
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.mail.MailParseException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process SMTP stand-in: keeps the last message body per recipient so the
+ * load driver can read registration OTPs, and counts everything sent.
+ */
+@Component
+@Primary
+@Profile("loadtest")
+public class RecordingMailSender implements JavaMailSender {
+
+    private final Session session = Session.getInstance(new Properties());
+    private final Map<String, String> lastBodyByRecipient = new ConcurrentHashMap<>();
+    private final AtomicLong sent = new AtomicLong();
+
+    public String lastBodyFor(String recipient) {
+        return lastBodyByRecipient.get(recipient);
+    }
+
+    public long sentCount() {
+        return sent.get();
+    }
+
+    @Override
+    public void send(SimpleMailMessage... messages) {
+        for (SimpleMailMessage m : messages) {
+            if (m.getTo() != null) {
+                for (String to : m.getTo()) {
+                    lastBodyByRecipient.put(to, String.valueOf(m.getText()));
+                }
+            }
+            sent.incrementAndGet();
+        }
+    }
+
+    @Override
+    public MimeMessage createMimeMessage() {
+        return new MimeMessage(session);
+    }
+
+    @Override
+    public MimeMessage createMimeMessage(InputStream contentStream) {
+        try {
+            return new MimeMessage(session, contentStream);
+        } catch (MessagingException ex) {
+            throw new MailParseException("Could not parse MIME message", ex);
+        }
+    }
+
+    @Override
+    public void send(MimeMessage... messages) {
+        for (MimeMessage m : messages) {
+            try {
+                Object content = m.getContent();
+                if (m.getAllRecipients() != null) {
+                    for (var to : m.getRecipients(Message.RecipientType.TO)) {
+                        lastBodyByRecipient.put(to.toString(), String.valueOf(content));
+                    }
+                }
+            } catch (MessagingException | IOException ex) {
+                throw new MailParseException("Could not read MIME message", ex);
+            }
+            sent.incrementAndGet();
+        }
+    }
+}
@@ -2,9 +2,11 @@ package com.example.ServiceBooking;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.resilience.annotation.EnableResilientMethods;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
 @EnableScheduling
+@EnableResilientMethods
 @SpringBootApplication
 public class ServiceBookingApplication {
 
@@ -40,11 +40,7 @@ public class AdminManagementController {
     @Operation(summary = "Dashboard metrics-ADMIN")
     @GetMapping("/dashboard")
     public DashboardResponse dashboard(@RequestParam(required = false) String city) {
-        log.trace("Entering dashboard method");
-        log.debug("Processing dashboard request");
-        log.info("Dashboard API called");
         DashboardResponse response = adminService.dashboard(city);
-        log.debug("Dashboard response generated successfully");
         return response;
     }
 
@@ -53,11 +49,7 @@ public class AdminManagementController {
     @PreAuthorize("hasRole('ADMIN')") // Ensure only admins can access this endpoint
     @GetMapping("/users/customers")
     public Page<User> customers(@PageableDefault(size = 20) Pageable pageable) {
-        log.trace("Entering customers method");
-        log.debug("Fetching customers with pagination");
-        log.info("View customers API called");
         Page<User> customers = adminService.viewCustomers(pageable);
-        log.debug("Retrieved customers page successfully");
         return customers;
     }
 
@@ -65,12 +57,8 @@ public class AdminManagementController {
     @PreAuthorize("hasRole('ADMIN')") // Ensure only admins can access this endpoint
     @PutMapping("/users/{userId}/suspend")
     public void suspend(@PathVariable Long userId, @Valid @RequestBody SuspendAccountRequest req) {
-        log.trace("Entering suspend method");
-        log.debug("Processing suspend request for user");
-        log.info("Suspend user API called");
         try {
             adminService.suspendAccount(userId, req.suspended());
-            log.debug("Suspend operation completed successfully");
         } catch (Exception e) {
             log.error("Error during suspend operation");
             throw e;
@@ -81,12 +69,8 @@ public class AdminManagementController {
     @PreAuthorize("hasRole('ADMIN')") // Ensure only admins can access this endpoint
     @PutMapping("/providers/{providerId}/approve")
     public void approveProvider(@PathVariable Long providerId, @RequestParam boolean approved) {
-        log.trace("Entering approveProvider method");
-        log.debug("Processing provider approval request");
-        log.info("Approve provider API called");
         try {
             adminService.approveProvider(providerId, approved);
-            log.debug("Provider approval updated successfully");
         } catch (Exception e) {
             log.error("Error during provider approval");
             throw e;
@@ -159,12 +143,8 @@ public class AdminManagementController {
     @PreAuthorize("hasRole('ADMIN')")
     @PutMapping("/subservices/{subServiceId}/price")
     public SubService updatePrice(@PathVariable Long subServiceId, @Valid @RequestBody UpdatePriceRequest req) {
-        log.trace("Entering updatePrice method");
-        log.debug("Processing subservice price update request");
-        log.info("Update subservice price API called");
         try {
             SubService subService = adminService.updateSubServicePrice(subServiceId, req.price());
-            log.debug("Subservice price updated successfully");
             return subService;
         } catch (Exception e) {
             log.error("Error during subservice price update");
@@ -179,11 +159,7 @@ public class AdminManagementController {
     public org.springframework.data.domain.Page<com.example.ServiceBooking.bookings.Booking> allBookings(
             @PageableDefault(size = 20, sort = "createdAt") Pageable pageable
     ) {
-        log.trace("Entering allBookings method");
-        log.debug("Fetching all bookings with pagination");
-        log.info("View all bookings API called");
         org.springframework.data.domain.Page<com.example.ServiceBooking.bookings.Booking> bookings = adminService.viewAllBookings(pageable);
-        log.debug("Bookings retrieved successfully");
         return bookings;
     }
 
@@ -191,12 +167,8 @@ public class AdminManagementController {
     @PreAuthorize("hasRole('ADMIN')")
     @PutMapping("/bookings/{bookingId}/assign")
     public void assignProvider(@PathVariable Long bookingId, @Valid @RequestBody ManualAssignProviderRequest req) {
-        log.trace("Entering assignProvider method");
-        log.debug("Processing manual provider assignment");
-        log.info("Manual assign provider API called");
         try {
             adminService.manualAssignProvider(bookingId, req.providerId());
-            log.debug("Provider assigned successfully");
         } catch (Exception e) {
             log.error("Error during manual provider assignment");
             throw e;
@@ -211,12 +183,8 @@ public class AdminManagementController {
             @RequestParam @NotNull(message = "From date is required") LocalDateTime from,
             @RequestParam @NotNull(message = "To date is required") LocalDateTime to
     ) {
-        log.trace("Entering bookingReport method");
-        log.debug("Processing booking report request");
-        log.info("Booking report API called");
         try {
             BookingReportResponse response = adminService.bookingReport(from, to);
-            log.debug("Booking report generated successfully");
             return response;
         } catch (Exception e) {
             log.error("Error during booking report generation");
@@ -230,12 +198,8 @@ public class AdminManagementController {
     public org.springframework.data.domain.Page<ProviderPerformanceResponse> providerPerformance(
             @PageableDefault(size = 20) Pageable pageable
     ) {
-        log.trace("Entering providerPerformance method");
-        log.debug("Processing provider performance report request");
-        log.info("Provider performance API called");
         try {
             org.springframework.data.domain.Page<ProviderPerformanceResponse> response = adminService.providerPerformance(pageable);
-            log.debug("Provider performance report generated successfully");
             return response;
         } catch (Exception e) {
             log.error("Error during provider performance report generation");
@@ -6,9 +6,14 @@ import com.example.ServiceBooking.admin.dto.*;
 import com.example.ServiceBooking.auth.*;
 import com.example.ServiceBooking.auth.dto.CreateUserRequest;
 import com.example.ServiceBooking.auth.dto.UserResponse;
+import com.example.ServiceBooking.common.httpcache.ResourceVersions;
 import com.example.ServiceBooking.bookings.Booking;
 import com.example.ServiceBooking.bookings.BookingRepository;
+import com.example.ServiceBooking.bookings.BookingAction;
+import com.example.ServiceBooking.bookings.BookingStateMachine;
 import com.example.ServiceBooking.bookings.dto.BookingStatus;
+import com.example.ServiceBooking.geo.ProviderGeoIndex;
+import com.example.ServiceBooking.geo.ServiceAreaIndex;
 import com.example.ServiceBooking.notification.NotificationService;
 import com.example.ServiceBooking.payment.PaymentRepository;
 import com.example.ServiceBooking.payment.PaymentStatus;
@@ -48,14 +53,18 @@ public class AdminManagementService {
     private final NotificationService notificationService;
     private final EmailService emailService;
     private final PasswordEncoder passwordEncoder;
+    private final ResourceVersions resourceVersions;
+    private final BookingStateMachine bookingStateMachine;
+    private final ProviderGeoIndex geoIndex;
+    private final ServiceAreaIndex serviceAreaIndex;
 
     @Value("${platform.commission.rate:0.20}")
     private BigDecimal commissionRate;
 
     // ---------- DASHBOARD ----------
 
+    @Transactional(readOnly = true)
     public DashboardResponse dashboard(String city) {
-        log.trace("Entering dashboard method");
         log.info("Admin dashboard requested");
         log.debug("Computing dashboard metrics");
 
@@ -103,7 +112,6 @@ public class AdminManagementService {
     // ---------- USER CONTROLS ----------
 
     public Page<User> viewCustomers(Pageable pageable) {
-        log.trace("Entering viewCustomers method");
         log.debug("Fetching customers from repository");
         log.info("Admin view customers requested");
         Page<User> customers = userRepo.findByRole(Role.CUSTOMER, pageable);
@@ -113,8 +121,6 @@ public class AdminManagementService {
 
     @Transactional
     public void suspendAccount(Long userId, boolean suspended) {
-        log.trace("Entering suspendAccount method");
-        log.debug("Processing account suspension request");
         log.info("Admin suspend/unsuspend account requested");
 
         User user = userRepo.findById(userId).orElseThrow(() -> {
@@ -135,8 +141,6 @@ public class AdminManagementService {
 
     @Transactional
     public void approveProvider(Long providerId, boolean approved) {
-        log.trace("Entering approveProvider method");
-        log.debug("Processing provider approval request");
         log.info("Admin provider approval requested");
 
         // IMPORTANT:
@@ -150,6 +154,8 @@ public class AdminManagementService {
 
         profile.setApproved(approved);
         providerProfileRepo.save(profile);
+        geoIndex.providerChanged(profile);
+        serviceAreaIndex.providerChanged();
 
         // Update the user status too (THIS is why login was still blocked)
         User user = profile.getUser();
@@ -265,8 +271,6 @@ public class AdminManagementService {
      */
     @Transactional
     public SubService updateSubServicePrice(Long subServiceId, BigDecimal price) {
-        log.trace("Entering updateSubServicePrice method");
-        log.debug("Processing subservice price update");
         log.info("Admin update pricing requested");
         if (price == null || price.compareTo(BigDecimal.ZERO) <= 0) {
             log.error("Price must be greater than zero");
@@ -281,14 +285,15 @@ public class AdminManagementService {
 
         s.setBasePrice(price); // adjust if your field name differs
         SubService saved = subServiceRepo.save(s);
+        resourceVersions.bump(ResourceVersions.CATALOG);
         log.debug("SubService price updated successfully");
         return saved;
     }
 
     // ---------- BOOKING CONTROLS ----------
 
+    @Transactional(readOnly = true)
     public Page<Booking> viewAllBookings(Pageable pageable) {
-        log.trace("Entering viewAllBookings method");
         log.debug("Fetching all bookings from repository");
         log.info("Admin view all bookings requested");
         Page<Booking> bookings = bookingRepo.findAllByOrderByCreatedAtDesc(pageable);
@@ -298,16 +303,8 @@ public class AdminManagementService {
 
     @Transactional
     public void manualAssignProvider(Long bookingId, Long providerId) {
-        log.trace("Entering manualAssignProvider method");
-        log.debug("Processing manual provider assignment");
         log.info("Admin manual provider assignment requested");
 
-        Booking booking = bookingRepo.findById(bookingId)
-                .orElseThrow(() -> {
-                    log.error("Booking not found");
-                    return new RuntimeException("Booking not found");
-                });
-
         ProviderProfile profile = providerProfileRepo.findById(providerId)
                 .orElseThrow(() -> {
                     log.error("Provider not found");
@@ -319,32 +316,12 @@ public class AdminManagementService {
             throw new RuntimeException("Provider not approved");
         }
 
-        if (booking.getCity() != null && profile.getCity() != null
-                && !booking.getCity().equalsIgnoreCase(profile.getCity())) {
-            throw new RuntimeException("Booking and provider are in different cities");
-        }
-
-        // minimal: allow assignment only if booking is PENDING
-        if (booking.getStatus() != BookingStatus.PENDING) {
-            log.warn("Booking status is not PENDING, rejecting assignment");
-            throw new RuntimeException("Only PENDING bookings can be assigned manually");
-        }
-
-        booking.setProviderId(providerId);
-        booking.setStatus(BookingStatus.ACCEPTED);
-        bookingRepo.save(booking);
-
-        // notify customer + provider (booking-based upsert)
-        notificationService.upsertBookingNotification(
-                booking.getCustomerId(),
-                booking.getId(),
-                "A provider has been assigned to your booking"
-        );
-        notificationService.upsertBookingNotification(
-                providerId,
-                booking.getId(),
-                "You have been assigned Booking #" + booking.getId()
-        );
+        // PENDING only + same city, as one conditional UPDATE; customer + provider are notified from the
+        // outbox (no admin id at hand, actor left null)
+        bookingStateMachine.apply(
+                BookingStateMachine.Request.of(BookingAction.ASSIGN, bookingId, null)
+                        .assigning(providerId)
+                        .inCity(profile.getCity()));
 
         log.debug("Manual provider assignment completed successfully");
         log.info("Manual provider assignment completed");
@@ -352,9 +329,8 @@ public class AdminManagementService {
 
     // ---------- REPORTS ----------
 
+    @Transactional(readOnly = true)
     public BookingReportResponse bookingReport(LocalDateTime from, LocalDateTime to) {
-        log.trace("Entering bookingReport method");
-        log.debug("Processing booking report generation");
         log.info("Admin booking report requested");
         if (from == null || to == null) {
             log.error("from and to parameters are required");
@@ -378,9 +354,8 @@ public class AdminManagementService {
      * Since your simplified Payment entity no longer stores providerId,
      * we compute performance from bookings table.
      */
+    @Transactional(readOnly = true)
     public Page<ProviderPerformanceResponse> providerPerformance(Pageable pageable) {
-        log.trace("Entering providerPerformance method");
-        log.debug("Processing provider performance report generation");
         log.info("Admin provider performance report requested");
         Page<ProviderPerformanceResponse> result = providerProfileRepo.findAll(pageable).map(profile -> {
             Long providerId = profile.getUserId();
@@ -0,0 +1,78 @@
+package com.example.ServiceBooking.admin.export;
+
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Column-major NDJSON: rows are buffered into batches of {@code batchRows}, and each batch is written
+ * as one line holding one array per column (the record-batch layout of columnar formats).
+ */
+final class ColumnarJsonTabularWriter implements TabularWriter {
+
+    private static final byte[] NEWLINE = {'\n'};
+
+    private final OutputStream out;
+    private final JsonMapper jsonMapper;
+    private final int batchRows;
+
+    private List<String> columns;
+    private List<List<Object>> batch;
+    private int rows;
+
+    ColumnarJsonTabularWriter(OutputStream out, JsonMapper jsonMapper, int batchRows) {
+        this.out = out;
+        this.jsonMapper = jsonMapper;
+        this.batchRows = batchRows;
+    }
+
+    @Override
+    public void header(List<String> columns) {
+        this.columns = columns;
+        this.batch = new ArrayList<>(columns.size());
+        for (int i = 0; i < columns.size(); i++) {
+            batch.add(new ArrayList<>(batchRows));
+        }
+    }
+
+    @Override
+    public void row(Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            batch.get(i).add(values[i]);
+        }
+        if (++rows == batchRows) {
+            flushBatch();
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (rows > 0) {
+            flushBatch();
+        }
+        out.flush();
+    }
+
+    private void flushBatch() throws IOException {
+        Map<String, List<Object>> byColumn = new LinkedHashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            byColumn.put(columns.get(i), batch.get(i));
+        }
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("rows", rows);
+        line.put("columns", byColumn);
+
+        out.write(jsonMapper.writeValueAsBytes(line));
+        out.write(NEWLINE);
+
+        for (List<Object> column : batch) {
+            column.clear();
+        }
+        rows = 0;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.ServiceBooking.admin.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+final class CsvTabularWriter implements TabularWriter {
+
+    private final Writer out;
+
+    CsvTabularWriter(OutputStream out) {
+        this.out = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void header(List<String> columns) throws IOException {
+        write(columns.toArray());
+    }
+
+    @Override
+    public void row(Object[] values) throws IOException {
+        write(values);
+    }
+
+    @Override
+    public void finish() throws IOException {
+        out.flush();
+    }
+
+    private void write(Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) out.write(',');
+            out.write(cell(values[i]));
+        }
+        out.write("\r\n");
+    }
+
+    private static String cell(Object value) {
+        if (value == null) return "";
+        if (value instanceof BigDecimal d) return d.toPlainString();
+        if (!(value instanceof CharSequence)) return value.toString();
+
+        String s = value.toString();
+        // spreadsheet formula injection: user text starting with = + - @ (or a tab/CR some spreadsheets skip) is not evaluated
+        if (!s.isEmpty() && "=+-@\t\r".indexOf(s.charAt(0)) >= 0) {
+            s = "'" + s;
+        }
+        if (s.indexOf(',') >= 0 || s.indexOf('"') >= 0 || s.indexOf('\n') >= 0 || s.indexOf('\r') >= 0) {
+            return '"' + s.replace("\"", "\"\"") + '"';
+        }
+        return s;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.ServiceBooking.admin.export;
+
+import com.example.ServiceBooking.auth.JwtUtil;
+import com.example.ServiceBooking.auth.Role;
+import com.example.ServiceBooking.bookings.dto.BookingFilterRequest;
+import com.example.ServiceBooking.payment.PaymentStatus;
+import com.example.ServiceBooking.support.dto.TicketStatus;
+import com.example.ServiceBooking.support.dto.TicketType;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+@Tag(name = "Admin Exports", description = "Streaming CSV / columnar exports of bookings, payments and tickets")
+@RestController
+@RequestMapping("/admin/export")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class ExportController {
+
+    private static final DateTimeFormatter FILE_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final ExportService exportService;
+
+    @Operation(summary = "Export bookings with the booking filter criteria-ADMIN")
+    @PostMapping("/bookings")
+    public ResponseEntity<StreamingResponseBody> bookings(
+            @Valid @RequestBody(required = false) BookingFilterRequest request,
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+
+        BookingFilterRequest safe = (request == null)
+                ? new BookingFilterRequest(null, null, null, null, null, null, null, null, null)
+                : request;
+        return download("bookings", format, gzip,
+                exportService.bookings(JwtUtil.getCurrentUserId(), Role.ADMIN, safe, format, gzip));
+    }
+
+    @Operation(summary = "Export payments-ADMIN")
+    @GetMapping("/payments")
+    public ResponseEntity<StreamingResponseBody> payments(
+            @RequestParam(required = false) PaymentStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate paidFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate paidTo,
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+
+        return download("payments", format, gzip,
+                exportService.payments(status, paidFrom, paidTo, format, gzip));
+    }
+
+    @Operation(summary = "Export support tickets-ADMIN")
+    @GetMapping("/tickets")
+    public ResponseEntity<StreamingResponseBody> tickets(
+            @RequestParam(required = false) TicketStatus status,
+            @RequestParam(required = false) TicketType type,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate createdTo,
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+
+        return download("tickets", format, gzip,
+                exportService.tickets(status, type, createdFrom, createdTo, format, gzip));
+    }
+
+    private ResponseEntity<StreamingResponseBody> download(String name, ExportFormat format, boolean gzip,
+                                                           StreamingResponseBody body) {
+        String filename = name + "-" + LocalDateTime.now().format(FILE_STAMP) + "." + format.extension()
+                + (gzip ? ".gz" : "");
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip") : MediaType.parseMediaType(format.contentType()))
+                .body(body);
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.ServiceBooking.admin.export;
+
+public enum ExportFormat {
+    // one row per line, RFC 4180 quoting
+    CSV("text/csv", "csv"),
+    // one JSON object per line, each a batch of rows stored column-major: {"rows":n,"columns":{"id":[..],..}}
+    COLUMNAR_JSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+}
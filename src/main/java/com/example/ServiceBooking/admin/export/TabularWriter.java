@@ -0,0 +1,17 @@
+package com.example.ServiceBooking.admin.export;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Row sink for an export. Implementations buffer at most one batch, so memory doesn't grow with row count.
+ */
+interface TabularWriter {
+
+    void header(List<String> columns) throws IOException;
+
+    void row(Object[] values) throws IOException;
+
+    // flushes buffered output; the caller owns the underlying stream
+    void finish() throws IOException;
+}
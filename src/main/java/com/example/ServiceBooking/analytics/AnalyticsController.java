@@ -4,6 +4,11 @@ import com.example.ServiceBooking.analytics.dto.MonthlyBookingReportResponse;
 import com.example.ServiceBooking.analytics.dto.RevenueSummaryResponse;
 import com.example.ServiceBooking.analytics.dto.ProviderActivityResponse;
 import com.example.ServiceBooking.analytics.dto.CustomerTrendResponse;
+import com.example.ServiceBooking.analytics.dto.RollupBucketResponse;
+import com.example.ServiceBooking.analytics.dto.ColumnarQueryRequest;
+import com.example.ServiceBooking.analytics.dto.ColumnarQueryResponse;
+import com.example.ServiceBooking.analytics.columnar.BookingColumnStore;
+import com.example.ServiceBooking.analytics.columnar.ColumnarQueryEngine;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -11,9 +16,15 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Tag(name = "Reporting & Analytics Service", description = "Analytics and reporting APIs")
 @RestController
 @RequestMapping("/analytics")
@@ -22,6 +33,9 @@ import org.springframework.web.bind.annotation.*;
 public class AnalyticsController {
 
     private final AnalyticsService service;
+    private final AnalyticsRollupJob rollupJob;
+    private final ColumnarQueryEngine columnarEngine;
+    private final BookingColumnStore columnStore;
 
     @Operation(summary = "Monthly booking report-ADMIN")
     @GetMapping("/bookings/monthly")
@@ -30,12 +44,8 @@ public class AnalyticsController {
             @RequestParam int year,
             @RequestParam int month) {
 
-        log.trace("Entering monthlyReport method");
-        log.debug("Processing monthly booking report request");
-        log.info("Monthly booking report requested");
         try {
             MonthlyBookingReportResponse response = service.monthlyBookingReport(year, month);
-            log.debug("Monthly booking report generated successfully");
             return response;
         } catch (Exception e) {
             log.error("Error generating monthly booking report");
@@ -47,12 +57,8 @@ public class AnalyticsController {
     @GetMapping("/revenue")
     @PreAuthorize("hasRole('ADMIN')")
     public RevenueSummaryResponse revenueSummary() {
-        log.trace("Entering revenueSummary method");
-        log.debug("Processing revenue summary request");
-        log.info("Revenue summary requested");
         try {
             RevenueSummaryResponse response = service.revenueSummary();
-            log.debug("Revenue summary generated successfully");
             return response;
         } catch (Exception e) {
             log.error("Error generating revenue summary");
@@ -66,12 +72,8 @@ public class AnalyticsController {
     public Page<ProviderActivityResponse> providerAnalytics(
             @PageableDefault(size = 20) Pageable pageable) {
 
-        log.trace("Entering providerAnalytics method");
-        log.debug("Processing provider analytics request");
-        log.info("Provider analytics requested");
         try {
             Page<ProviderActivityResponse> response = service.providerAnalytics(pageable);
-            log.debug("Provider analytics generated successfully");
             return response;
         } catch (Exception e) {
             log.error("Error generating provider analytics");
@@ -85,17 +87,60 @@ public class AnalyticsController {
     public Page<CustomerTrendResponse> customerTrends(
             @PageableDefault(size = 20) Pageable pageable) {
 
-        log.trace("Entering customerTrends method");
-        log.debug("Processing customer trends request");
-        log.info("Customer usage trends requested");
         try {
             Page<CustomerTrendResponse> response = service.customerUsage(pageable);
-            log.debug("Customer trends generated successfully");
             return response;
         } catch (Exception e) {
             log.error("Error generating customer trends");
             throw e;
         }
     }
-}
 
+    @Operation(summary = "Rollup time series (grain HOUR/DAY/MONTH/ALL_TIME, dimension ALL/CITY/SERVICE/PROVIDER/CUSTOMER)-ADMIN")
+    @GetMapping("/rollups")
+    @PreAuthorize("hasRole('ADMIN')")
+    public List<RollupBucketResponse> rollupSeries(
+            @RequestParam RollupGrain grain,
+            @RequestParam(defaultValue = "ALL") RollupDimension dimension,
+            @RequestParam(required = false) String key,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+
+        try {
+            return service.series(grain, dimension, key, from, to);
+        } catch (Exception e) {
+            log.error("Error reading analytics rollups");
+            throw e;
+        }
+    }
+
+    @Operation(summary = "Rebuild analytics rollups from bookings and payments-ADMIN")
+    @PostMapping("/rollups/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<String> rebuildRollups() {
+        if (!rollupJob.rebuildAll()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Rollup rebuild already running");
+        }
+        return ResponseEntity.ok("Rollups rebuilt");
+    }
+
+    @Operation(summary = "Ad-hoc booking report: filter + group by city/service/provider/status/day/month-ADMIN")
+    @PostMapping("/query")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ColumnarQueryResponse query(@RequestBody ColumnarQueryRequest request) {
+        try {
+            return columnarEngine.query(request);
+        } catch (Exception e) {
+            log.error("Error running analytics query");
+            throw e;
+        }
+    }
+
+    @Operation(summary = "Reload the in-memory booking snapshot used by /analytics/query-ADMIN")
+    @PostMapping("/query/reload")
+    @PreAuthorize("hasRole('ADMIN')")
+    public String reloadSnapshot() {
+        columnStore.reload();
+        return "Snapshot reloaded: " + columnStore.size() + " bookings";
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.ServiceBooking.analytics;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One time bucket of booking/payment counters for one dimension value
+ * (e.g. DAY 2026-10-19, CITY pune). Maintained incrementally by {@link AnalyticsRollupService}.
+ * <ul>
+ *   <li>booking counters are bucketed by booking creation time (same as the old month reports)</li>
+ *   <li>payment counters are bucketed by the time the payment was marked PAID</li>
+ * </ul>
+ */
+@Entity
+@Table(name = "analytics_rollups",
+        indexes = {
+                @Index(name = "idx_rollup_series", columnList = "grain,dimension,dimension_key,bucket_start"),
+                @Index(name = "idx_rollup_rank", columnList = "grain,dimension,completed")
+        })
+@Getter
+@Setter
+public class AnalyticsRollup {
+
+    // natural key "grain|bucketStart|dimension|key", so a batch can load its cells with one findAllById
+    @Id
+    @Column(length = 200)
+    private String id;
+
+    // null for rows not yet persisted, so save() inserts without a lookup
+    @Version
+    private Long version;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private RollupGrain grain;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private RollupDimension dimension;
+
+    @Column(name = "dimension_key", nullable = false, length = 100)
+    private String dimensionKey;
+
+    private long bookings;
+    private long completed;
+    private long cancelled;
+    private long paidCount;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal paidAmount = BigDecimal.ZERO;
+
+    public static String id(RollupGrain grain, LocalDateTime bucketStart, RollupDimension dimension, String key) {
+        return grain + "|" + bucketStart + "|" + dimension + "|" + key;
+    }
+
+    public void add(AnalyticsRollup delta) {
+        bookings += delta.bookings;
+        completed += delta.completed;
+        cancelled += delta.cancelled;
+        paidCount += delta.paidCount;
+        paidAmount = paidAmount.add(delta.paidAmount);
+    }
+}
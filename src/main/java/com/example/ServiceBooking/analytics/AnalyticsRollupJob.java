@@ -0,0 +1,92 @@
+package com.example.ServiceBooking.analytics;
+
+import com.example.ServiceBooking.bookings.Booking;
+import com.example.ServiceBooking.bookings.BookingRepository;
+import com.example.ServiceBooking.payment.PaymentRepository;
+import com.example.ServiceBooking.payment.PaymentRepository.PaidPaymentRow;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps the rollups current from the booking outbox and rebuilds them from the source tables on demand.
+ * Concurrent consumers are safe (cell versions make one of them roll back), just wasteful;
+ * set {@code analytics.rollup.enabled=false} on all but one instance.
+ */
+@Slf4j
+@Component
+public class AnalyticsRollupJob {
+
+    private final AnalyticsRollupService rollups;
+    private final BookingRepository bookingRepo;
+    private final PaymentRepository paymentRepo;
+    private final int batchSize;
+    private final boolean enabled;
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    public AnalyticsRollupJob(AnalyticsRollupService rollups,
+                              BookingRepository bookingRepo,
+                              PaymentRepository paymentRepo,
+                              @Value("${analytics.rollup.batch-size:500}") int batchSize,
+                              @Value("${analytics.rollup.enabled:true}") boolean enabled) {
+        this.rollups = rollups;
+        this.bookingRepo = bookingRepo;
+        this.paymentRepo = paymentRepo;
+        this.batchSize = batchSize;
+        this.enabled = enabled;
+    }
+
+    @Scheduled(fixedDelayString = "${analytics.rollup.poll-ms:5000}")
+    public void poll() {
+        if (!enabled || rebuilding.get()) return;
+
+        int consumed;
+        do {
+            consumed = rollups.applyNextEvents(batchSize);
+        } while (consumed == batchSize && !rebuilding.get());
+    }
+
+    /**
+     * Backfill: wipes the rollups and recounts every booking and paid payment.
+     * Writes that commit while the scan runs may be counted twice or not at all; run it when traffic is quiet.
+     *
+     * @return false if a rebuild is already running
+     */
+    public boolean rebuildAll() {
+        if (!rebuilding.compareAndSet(false, true)) return false;
+        try {
+            long started = System.currentTimeMillis();
+            rollups.reset();
+
+            long bookings = 0;
+            long lastId = 0;
+            List<Booking> page;
+            while (!(page = bookingRepo.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, batchSize))).isEmpty()) {
+                rollups.applyBookings(page);
+                lastId = page.get(page.size() - 1).getId();
+                bookings += page.size();
+            }
+
+            long payments = 0;
+            lastId = 0;
+            List<PaidPaymentRow> rows;
+            while (!(rows = paymentRepo.findPaidRowsAfter(lastId, PageRequest.of(0, batchSize))).isEmpty()) {
+                rollups.applyPayments(rows);
+                lastId = rows.get(rows.size() - 1).getPaymentId();
+                payments += rows.size();
+            }
+
+            log.info("Analytics rollups rebuilt from {} bookings and {} payments in {} ms",
+                    bookings, payments, System.currentTimeMillis() - started);
+            return true;
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.ServiceBooking.analytics;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface AnalyticsRollupRepository extends JpaRepository<AnalyticsRollup, String> {
+
+    List<AnalyticsRollup> findByGrainAndDimensionAndDimensionKeyAndBucketStartBetweenOrderByBucketStartAsc(
+            RollupGrain grain, RollupDimension dimension, String dimensionKey,
+            LocalDateTime from, LocalDateTime to);
+
+    @Query("""
+        select r from AnalyticsRollup r
+         where r.grain = :grain
+           and r.dimension = :dimension
+           and r.completed > 0
+         order by r.completed desc, r.dimensionKey asc
+    """)
+    Page<AnalyticsRollup> topByCompleted(@Param("grain") RollupGrain grain,
+                                         @Param("dimension") RollupDimension dimension,
+                                         Pageable pageable);
+
+    @Query("""
+        select r from AnalyticsRollup r
+         where r.grain = :grain
+           and r.dimension = :dimension
+           and r.bookings > 0
+         order by r.bookings desc, r.dimensionKey asc
+    """)
+    Page<AnalyticsRollup> topByBookings(@Param("grain") RollupGrain grain,
+                                        @Param("dimension") RollupDimension dimension,
+                                        Pageable pageable);
+}
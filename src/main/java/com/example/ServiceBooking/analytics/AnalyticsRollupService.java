@@ -0,0 +1,179 @@
+package com.example.ServiceBooking.analytics;
+
+import com.example.ServiceBooking.bookings.Booking;
+import com.example.ServiceBooking.bookings.dto.BookingStatus;
+import com.example.ServiceBooking.bookings.events.BookingEvent;
+import com.example.ServiceBooking.bookings.events.BookingEventRepository;
+import com.example.ServiceBooking.payment.PaymentRepository.PaidPaymentRow;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Folds booking/payment facts into {@link AnalyticsRollup} cells.
+ * <ul>
+ *   <li>incremental: outbox events not yet rolled up, applied and flagged in one transaction (exactly once)</li>
+ *   <li>backfill: the same counting rules applied to booking and payment rows directly</li>
+ * </ul>
+ * A batch first sums its deltas per cell, so a busy hour costs one row write per batch, not per event.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AnalyticsRollupService {
+
+    private final AnalyticsRollupRepository rollupRepo;
+    private final BookingEventRepository eventRepo;
+
+    /**
+     * @return number of events consumed (0 when caught up)
+     */
+    @Transactional
+    public int applyNextEvents(int batchSize) {
+        List<BookingEvent> events = eventRepo.findNotRolledUp(PageRequest.of(0, batchSize));
+        if (events.isEmpty()) return 0;
+
+        Map<String, AnalyticsRollup> deltas = new HashMap<>();
+        for (BookingEvent e : events) {
+            accumulate(deltas, e);
+        }
+        merge(deltas);
+        eventRepo.markRolledUp(events.stream().map(BookingEvent::getId).toList());
+
+        log.debug("Rolled up {} booking events into {} cells", events.size(), deltas.size());
+        return events.size();
+    }
+
+    @Transactional
+    public void applyBookings(List<Booking> bookings) {
+        Map<String, AnalyticsRollup> deltas = new HashMap<>();
+        for (Booking b : bookings) {
+            Facts f = new Facts(b.getCity(), b.getServiceId(), b.getProviderId(), b.getCustomerId());
+            AnalyticsRollup d = new AnalyticsRollup();
+            d.setBookings(1);
+            if (b.getStatus() == BookingStatus.COMPLETED) d.setCompleted(1);
+            if (b.getStatus() == BookingStatus.CANCELLED) d.setCancelled(1);
+            add(deltas, f, b.getCreatedAt(), d);
+        }
+        merge(deltas);
+    }
+
+    @Transactional
+    public void applyPayments(List<PaidPaymentRow> payments) {
+        Map<String, AnalyticsRollup> deltas = new HashMap<>();
+        for (PaidPaymentRow p : payments) {
+            Facts f = new Facts(p.getCity(), p.getServiceId(), p.getProviderId(), p.getCustomerId());
+            add(deltas, f, p.getPaidAt(), paid(p.getAmount()));
+        }
+        merge(deltas);
+    }
+
+    /**
+     * Drops all cells and flags every existing event as rolled up, since the backfill scan that follows counts them.
+     */
+    @Transactional
+    public void reset() {
+        rollupRepo.deleteAllInBatch();
+        eventRepo.markAllRolledUp();
+    }
+
+    // ==================================================
+    // COUNTING RULES
+    // ==================================================
+
+    private record Facts(String city, Long serviceId, Long providerId, Long customerId) {}
+
+    private void accumulate(Map<String, AnalyticsRollup> deltas, BookingEvent e) {
+        Facts f = new Facts(e.getCity(), e.getServiceId(), e.getProviderId(), e.getCustomerId());
+        // booking counters share the booking's creation bucket, like the monthly report always did
+        LocalDateTime created = e.getBookingCreatedAt() != null ? e.getBookingCreatedAt() : e.getCreatedAt();
+
+        AnalyticsRollup d = new AnalyticsRollup();
+        switch (e.getType()) {
+            case CREATED -> d.setBookings(1);
+            // slot bookings are inserted already ACCEPTED, without a CREATED event
+            case ACCEPTED -> {
+                if (e.getFromStatus() != null) return;
+                d.setBookings(1);
+            }
+            case COMPLETED -> d.setCompleted(1);
+            case CANCELLED -> d.setCancelled(1);
+            case PAYMENT_PAID -> {
+                add(deltas, f, e.getCreatedAt(), paid(e.getAmount()));
+                return;
+            }
+            default -> {
+                return;
+            }
+        }
+        add(deltas, f, created, d);
+    }
+
+    private static AnalyticsRollup paid(BigDecimal amount) {
+        AnalyticsRollup d = new AnalyticsRollup();
+        d.setPaidCount(1);
+        d.setPaidAmount(amount != null ? amount : BigDecimal.ZERO);
+        return d;
+    }
+
+    private void add(Map<String, AnalyticsRollup> deltas, Facts f, LocalDateTime at, AnalyticsRollup d) {
+        if (at == null) return;
+        for (RollupDimension dim : RollupDimension.values()) {
+            String key = key(dim, f);
+            if (key == null) continue;
+            for (RollupGrain grain : dim.grains()) {
+                LocalDateTime bucket = grain.bucketStart(at);
+                deltas.computeIfAbsent(AnalyticsRollup.id(grain, bucket, dim, key), id -> cell(id, grain, bucket, dim, key))
+                        .add(d);
+            }
+        }
+    }
+
+    private static String key(RollupDimension dim, Facts f) {
+        return switch (dim) {
+            case ALL -> RollupDimension.ALL_KEY;
+            case CITY -> f.city() == null ? null : f.city().trim().toLowerCase(Locale.ROOT);
+            case SERVICE -> f.serviceId() == null ? null : f.serviceId().toString();
+            case PROVIDER -> f.providerId() == null ? null : f.providerId().toString();
+            case CUSTOMER -> f.customerId() == null ? null : f.customerId().toString();
+        };
+    }
+
+    private static AnalyticsRollup cell(String id, RollupGrain grain, LocalDateTime bucket, RollupDimension dim, String key) {
+        AnalyticsRollup r = new AnalyticsRollup();
+        r.setId(id);
+        r.setGrain(grain);
+        r.setBucketStart(bucket);
+        r.setDimension(dim);
+        r.setDimensionKey(key);
+        return r;
+    }
+
+    private void merge(Map<String, AnalyticsRollup> deltas) {
+        if (deltas.isEmpty()) return;
+
+        Map<String, AnalyticsRollup> existing = new HashMap<>();
+        for (AnalyticsRollup r : rollupRepo.findAllById(deltas.keySet())) {
+            existing.put(r.getId(), r);
+        }
+
+        for (AnalyticsRollup delta : deltas.values()) {
+            AnalyticsRollup current = existing.get(delta.getId());
+            if (current != null) {
+                current.add(delta);
+            } else {
+                existing.put(delta.getId(), delta);
+            }
+        }
+        rollupRepo.saveAll(existing.values());
+    }
+}
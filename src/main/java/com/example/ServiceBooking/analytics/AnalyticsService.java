@@ -1,41 +1,47 @@
 package com.example.ServiceBooking.analytics;
 
 import com.example.ServiceBooking.analytics.dto.*;
-import com.example.ServiceBooking.bookings.BookingRepository;
-import com.example.ServiceBooking.bookings.dto.BookingStatus;
-import com.example.ServiceBooking.payment.PaymentRepository;
-import com.example.ServiceBooking.payment.PaymentStatus;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Locale;
 
+/**
+ * Reports read precomputed {@link AnalyticsRollup} cells (one row per bucket) instead of scanning bookings/payments.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Transactional(readOnly = true)
 public class AnalyticsService {
 
-    private final BookingRepository bookingRepo;
-    private final PaymentRepository paymentRepo;
+    // keeps an HOUR series over a wide range from returning an unbounded list
+    private static final int MAX_SERIES_BUCKETS = 2000;
+
+    private final AnalyticsRollupRepository rollupRepo;
 
     @Value("${platform.commission.rate:0.20}")
     private BigDecimal commissionRate;
 
     public MonthlyBookingReportResponse monthlyBookingReport(int year, int month) {
-        log.trace("Entering monthlyBookingReport method");
         log.info("Generating monthly booking report");
         log.debug("Calculating monthly booking report");
 
         YearMonth ym = YearMonth.of(year, month);
 
-        long total = bookingRepo.countByMonth(year, month);
-        long completed = bookingRepo.countByMonthAndStatus(year, month, BookingStatus.COMPLETED);
-        long cancelled = bookingRepo.countByMonthAndStatus(year, month, BookingStatus.CANCELLED);
+        AnalyticsRollup cell = cell(RollupGrain.MONTH, ym.atDay(1).atStartOfDay(), RollupDimension.ALL, RollupDimension.ALL_KEY);
+        long total = cell.getBookings();
+        long completed = cell.getCompleted();
+        long cancelled = cell.getCancelled();
 
         if (total == 0) {
             log.warn("No bookings found for the specified month");
@@ -51,12 +57,12 @@ public class AnalyticsService {
     }
 
     public RevenueSummaryResponse revenueSummary() {
-        log.trace("Entering revenueSummary method");
         log.info("Generating revenue summary");
         log.debug("Calculating revenue summary");
 
-        BigDecimal gross = paymentRepo.sumByStatus(PaymentStatus.PAID);
-        if (gross == null) {
+        BigDecimal gross = cell(RollupGrain.ALL_TIME, RollupGrain.EPOCH, RollupDimension.ALL, RollupDimension.ALL_KEY)
+                .getPaidAmount();
+        if (gross.signum() == 0) {
             log.warn("No paid payments found, setting gross to zero");
             gross = BigDecimal.ZERO;
         }
@@ -69,14 +75,14 @@ public class AnalyticsService {
     }
 
     public Page<ProviderActivityResponse> providerAnalytics(Pageable pageable) {
-        log.trace("Entering providerAnalytics method");
         log.info("Generating provider activity analytics");
         log.debug("Fetching provider activity analytics");
 
-        Page<ProviderActivityResponse> result = bookingRepo.providerActivity(pageable)
-                .map(p -> new ProviderActivityResponse(
-                        p.getProviderId(),
-                        p.getCompletedBookings()
+        Page<ProviderActivityResponse> result = rollupRepo
+                .topByCompleted(RollupGrain.ALL_TIME, RollupDimension.PROVIDER, unsorted(pageable))
+                .map(r -> new ProviderActivityResponse(
+                        Long.valueOf(r.getDimensionKey()),
+                        r.getCompleted()
                 ));
 
         log.debug("Provider activity analytics fetched successfully");
@@ -84,18 +90,64 @@ public class AnalyticsService {
     }
 
     public Page<CustomerTrendResponse> customerUsage(Pageable pageable) {
-        log.trace("Entering customerUsage method");
         log.info("Generating customer usage trends");
         log.debug("Fetching customer usage trends");
 
-        Page<CustomerTrendResponse> result = bookingRepo.customerUsage(pageable)
-                .map(c -> new CustomerTrendResponse(
-                        c.getCustomerId(),
-                        c.getTotalBookings()
+        Page<CustomerTrendResponse> result = rollupRepo
+                .topByBookings(RollupGrain.ALL_TIME, RollupDimension.CUSTOMER, unsorted(pageable))
+                .map(r -> new CustomerTrendResponse(
+                        Long.valueOf(r.getDimensionKey()),
+                        r.getBookings()
                 ));
 
         log.debug("Customer usage trends fetched successfully");
         return result;
     }
-}
 
+    /**
+     * Time series of one dimension value, e.g. DAY buckets for city "pune" over a month.
+     * Empty buckets are omitted.
+     */
+    public List<RollupBucketResponse> series(RollupGrain grain, RollupDimension dimension, String key,
+                                             LocalDateTime from, LocalDateTime to) {
+        if (!dimension.grains().contains(grain)) {
+            throw new RuntimeException(dimension + " rollups are kept only for " + dimension.grains());
+        }
+        if (dimension == RollupDimension.ALL) {
+            key = RollupDimension.ALL_KEY;
+        } else if (key == null || key.isBlank()) {
+            throw new RuntimeException("key is required for " + dimension);
+        } else if (dimension == RollupDimension.CITY) {
+            key = key.trim().toLowerCase(Locale.ROOT);
+        }
+        if (from.isAfter(to)) {
+            throw new RuntimeException("from must not be after to");
+        }
+        if (grain == RollupGrain.HOUR && ChronoUnit.HOURS.between(from, to) > MAX_SERIES_BUCKETS) {
+            throw new RuntimeException("Range too large for HOUR buckets, use DAY");
+        }
+
+        return rollupRepo.findByGrainAndDimensionAndDimensionKeyAndBucketStartBetweenOrderByBucketStartAsc(
+                        grain, dimension, key, grain.bucketStart(from), to)
+                .stream()
+                .map(r -> new RollupBucketResponse(
+                        r.getBucketStart(),
+                        r.getBookings(),
+                        r.getCompleted(),
+                        r.getCancelled(),
+                        r.getPaidCount(),
+                        r.getPaidAmount()
+                ))
+                .toList();
+    }
+
+    private AnalyticsRollup cell(RollupGrain grain, LocalDateTime bucket, RollupDimension dimension, String key) {
+        return rollupRepo.findById(AnalyticsRollup.id(grain, bucket, dimension, key))
+                .orElseGet(AnalyticsRollup::new);
+    }
+
+    // ranking queries carry their own ORDER BY
+    private static Pageable unsorted(Pageable pageable) {
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.ServiceBooking.analytics;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * What a rollup row is grouped by, and which grains are kept for it.
+ * Per-customer and per-provider rows skip HOUR to bound the row count.
+ */
+public enum RollupDimension {
+    ALL(EnumSet.allOf(RollupGrain.class)),
+    CITY(EnumSet.of(RollupGrain.HOUR, RollupGrain.DAY, RollupGrain.MONTH)),
+    SERVICE(EnumSet.of(RollupGrain.HOUR, RollupGrain.DAY, RollupGrain.MONTH)),
+    PROVIDER(EnumSet.of(RollupGrain.DAY, RollupGrain.MONTH, RollupGrain.ALL_TIME)),
+    CUSTOMER(EnumSet.of(RollupGrain.ALL_TIME));
+
+    public static final String ALL_KEY = "*";
+
+    private final Set<RollupGrain> grains;
+
+    RollupDimension(Set<RollupGrain> grains) {
+        this.grains = grains;
+    }
+
+    public Set<RollupGrain> grains() {
+        return grains;
+    }
+}
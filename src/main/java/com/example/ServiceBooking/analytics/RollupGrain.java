@@ -0,0 +1,23 @@
+package com.example.ServiceBooking.analytics;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+public enum RollupGrain {
+    HOUR,
+    DAY,
+    MONTH,
+    ALL_TIME;
+
+    // single bucket for ALL_TIME
+    public static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    public LocalDateTime bucketStart(LocalDateTime at) {
+        return switch (this) {
+            case HOUR -> at.truncatedTo(ChronoUnit.HOURS);
+            case DAY -> at.truncatedTo(ChronoUnit.DAYS);
+            case MONTH -> at.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+            case ALL_TIME -> EPOCH;
+        };
+    }
+}
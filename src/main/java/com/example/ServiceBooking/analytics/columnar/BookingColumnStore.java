@@ -0,0 +1,288 @@
+package com.example.ServiceBooking.analytics.columnar;
+
+import com.example.ServiceBooking.bookings.Booking;
+import com.example.ServiceBooking.bookings.BookingRepository;
+import com.example.ServiceBooking.bookings.dto.BookingStatus;
+import com.example.ServiceBooking.bookings.events.BookingEvent;
+import com.example.ServiceBooking.bookings.events.BookingEventRepository;
+import com.example.ServiceBooking.bookings.events.BookingEventType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * In-memory columnar copy of the bookings table for ad-hoc admin reports.
+ * <ul>
+ *   <li>one primitive array per column; city/service/provider dictionary-encoded, status as ordinal,
+ *       timestamps as epoch minutes, price in cents (about 40 bytes per booking)</li>
+ *   <li>first run loads all bookings by id keyset; later runs apply booking_events by primary key from the
+ *       highest id seen {@code event-overlap-seconds} ago, which appends new bookings and patches
+ *       status/provider/time. Re-applying an event is harmless, and the overlap catches events whose ids
+ *       committed out of order; created_at is only read once, at load</li>
+ * </ul>
+ * A single writer (the refresh) appends rows before publishing the new size, so scans never see half-written rows.
+ */
+@Slf4j
+@Component
+public class BookingColumnStore {
+
+    static final int NO_TIME = Integer.MIN_VALUE;
+
+    private static final BookingStatus[] STATUSES = BookingStatus.values();
+
+    private final BookingRepository bookingRepo;
+    private final BookingEventRepository eventRepo;
+    private final int batchSize;
+    private final int overlapSeconds;
+    private final boolean enabled;
+
+    final ColumnDictionary<String> cities = new ColumnDictionary<>();
+    final ColumnDictionary<Long> services = new ColumnDictionary<>();
+    final ColumnDictionary<Long> providers = new ColumnDictionary<>();
+
+    private LongIntIndex rowById = new LongIntIndex();
+    // highest event id applied by each refresh, oldest first; trimmed to the overlap window
+    private final ArrayDeque<Watermark> watermarks = new ArrayDeque<>();
+
+    private volatile Columns columns = new Columns(1 << 12);
+    private volatile int size;
+    private volatile LocalDateTime refreshedAt;
+
+    /**
+     * One generation of column arrays; replaced by a larger copy when full.
+     */
+    static final class Columns {
+        final long[] id;
+        final int[] city;
+        final int[] service;
+        final int[] provider;
+        final byte[] status;
+        final int[] createdMinute;
+        final int[] scheduledMinute;
+        final long[] priceCents;
+
+        Columns(int capacity) {
+            id = new long[capacity];
+            city = new int[capacity];
+            service = new int[capacity];
+            provider = new int[capacity];
+            status = new byte[capacity];
+            createdMinute = new int[capacity];
+            scheduledMinute = new int[capacity];
+            priceCents = new long[capacity];
+        }
+
+        private Columns(Columns from, int capacity) {
+            id = Arrays.copyOf(from.id, capacity);
+            city = Arrays.copyOf(from.city, capacity);
+            service = Arrays.copyOf(from.service, capacity);
+            provider = Arrays.copyOf(from.provider, capacity);
+            status = Arrays.copyOf(from.status, capacity);
+            createdMinute = Arrays.copyOf(from.createdMinute, capacity);
+            scheduledMinute = Arrays.copyOf(from.scheduledMinute, capacity);
+            priceCents = Arrays.copyOf(from.priceCents, capacity);
+        }
+
+        int capacity() {
+            return id.length;
+        }
+
+        int[] time(ColumnarTimeBasis basis) {
+            return basis == ColumnarTimeBasis.SCHEDULED ? scheduledMinute : createdMinute;
+        }
+    }
+
+    /**
+     * Rows [0, size) of {@code columns} are complete.
+     */
+    record Snapshot(Columns columns, int size, LocalDateTime refreshedAt) {}
+
+    private record Watermark(long atMillis, long lastId) {}
+
+    public BookingColumnStore(BookingRepository bookingRepo,
+                              BookingEventRepository eventRepo,
+                              @Value("${analytics.columnar.load-batch-size:2000}") int batchSize,
+                              @Value("${analytics.columnar.event-overlap-seconds:120}") int overlapSeconds,
+                              @Value("${analytics.columnar.enabled:true}") boolean enabled) {
+        this.bookingRepo = bookingRepo;
+        this.eventRepo = eventRepo;
+        this.batchSize = batchSize;
+        this.overlapSeconds = overlapSeconds;
+        this.enabled = enabled;
+    }
+
+    Snapshot snapshot() {
+        // size first: a concurrent grow publishes the new arrays before the new size
+        int n = size;
+        Columns c = columns;
+        LocalDateTime at = refreshedAt;
+        if (at == null) {
+            throw new RuntimeException("Analytics snapshot is still loading, try again shortly");
+        }
+        return new Snapshot(c, Math.min(n, c.capacity()), at);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @Scheduled(fixedDelayString = "${analytics.columnar.refresh-ms:10000}")
+    public void scheduledRefresh() {
+        if (!enabled) return;
+        refresh();
+    }
+
+    public synchronized void refresh() {
+        if (refreshedAt == null) {
+            loadAll();
+        } else {
+            applyRecentEvents();
+        }
+    }
+
+    /**
+     * Drops the snapshot and reloads it from the bookings table (queries fail until it is back).
+     */
+    public synchronized void reload() {
+        refreshedAt = null;
+        // fresh arrays, so a scan still holding the old snapshot isn't overwritten under it
+        columns = new Columns(Math.max(size, 1 << 12));
+        size = 0;
+        rowById = new LongIntIndex();
+        watermarks.clear();
+        loadAll();
+    }
+
+    // ==================================================
+    // LOADING
+    // ==================================================
+
+    private void loadAll() {
+        long started = System.currentTimeMillis();
+        // events committed while the scan ran are re-applied by the next refresh
+        Long first = eventRepo.findFirstIdCreatedSince(LocalDateTime.now().minusSeconds(overlapSeconds));
+        long floor = first != null ? first - 1 : eventRepo.findMaxId();
+
+        long lastId = 0;
+        List<Booking> page;
+        while (!(page = bookingRepo.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, batchSize))).isEmpty()) {
+            for (Booking b : page) {
+                upsert(b.getId(), b.getCity(), b.getServiceId(), b.getProviderId(), b.getStatus(),
+                        b.getCreatedAt(), b.getDateTime(), b.getPrice());
+            }
+            lastId = page.get(page.size() - 1).getId();
+        }
+
+        watermarks.addLast(new Watermark(started, floor));
+        refreshedAt = LocalDateTime.now();
+        log.info("Analytics snapshot loaded: {} bookings in {} ms", size, System.currentTimeMillis() - started);
+    }
+
+    private void applyRecentEvents() {
+        long started = System.currentTimeMillis();
+        long from = scanFrom(started);
+
+        int applied = 0;
+        long lastId = from;
+        List<BookingEvent> page;
+        while (!(page = eventRepo.findAfterId(lastId, PageRequest.of(0, batchSize))).isEmpty()) {
+            for (BookingEvent e : page) {
+                // payments don't change the booking row
+                if (e.getType() == BookingEventType.PAYMENT_PAID) continue;
+                upsert(e.getBookingId(), e.getCity(), e.getServiceId(), e.getProviderId(), e.getToStatus(),
+                        e.getBookingCreatedAt(), e.getBookingTime(), e.getAmount());
+                applied++;
+            }
+            lastId = page.get(page.size() - 1).getId();
+        }
+
+        watermarks.addLast(new Watermark(started, Math.max(lastId, watermarks.getLast().lastId())));
+        refreshedAt = LocalDateTime.now();
+        log.debug("Analytics snapshot refreshed: {} events applied from id {}, {} bookings", applied, from, size);
+    }
+
+    /**
+     * The id seen by the newest refresh at least {@code overlapSeconds} old (or the oldest one we have);
+     * older watermarks are dropped.
+     */
+    private long scanFrom(long now) {
+        long cutoff = now - overlapSeconds * 1000L;
+        while (watermarks.size() > 1) {
+            Watermark oldest = watermarks.removeFirst();
+            if (watermarks.getFirst().atMillis() > cutoff) {
+                watermarks.addFirst(oldest);
+                break;
+            }
+        }
+        return watermarks.getFirst().lastId();
+    }
+
+    private void upsert(Long bookingId, String city, Long serviceId, Long providerId, BookingStatus status,
+                        LocalDateTime createdAt, LocalDateTime scheduledAt, BigDecimal price) {
+        Columns c = columns;
+        int row = rowById.get(bookingId);
+
+        if (row >= 0) {
+            // the mutable part of a booking; the rest is fixed at creation
+            c.provider[row] = providers.encode(providerId);
+            c.status[row] = statusCode(status);
+            c.scheduledMinute[row] = minute(scheduledAt);
+            return;
+        }
+
+        row = size;
+        if (row == c.capacity()) {
+            c = new Columns(c, c.capacity() * 2);
+            columns = c;
+        }
+        c.id[row] = bookingId;
+        c.city[row] = cities.encode(normalizeCity(city));
+        c.service[row] = services.encode(serviceId);
+        c.provider[row] = providers.encode(providerId);
+        c.status[row] = statusCode(status);
+        c.createdMinute[row] = minute(createdAt);
+        c.scheduledMinute[row] = minute(scheduledAt);
+        c.priceCents[row] = cents(price);
+        rowById.put(bookingId, row);
+        size = row + 1;
+    }
+
+    // ==================================================
+    // ENCODING
+    // ==================================================
+
+    static String normalizeCity(String city) {
+        return city == null ? null : city.trim().toLowerCase(Locale.ROOT);
+    }
+
+    static int minute(LocalDateTime t) {
+        return t == null ? NO_TIME : (int) (t.toEpochSecond(ZoneOffset.UTC) / 60);
+    }
+
+    static LocalDateTime fromMinute(int minute) {
+        return LocalDateTime.ofEpochSecond(minute * 60L, 0, ZoneOffset.UTC);
+    }
+
+    static BookingStatus status(int code) {
+        return code < 0 ? null : STATUSES[code];
+    }
+
+    private static byte statusCode(BookingStatus status) {
+        return (byte) (status == null ? -1 : status.ordinal());
+    }
+
+    private static long cents(BigDecimal price) {
+        return price == null ? 0L : price.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue();
+    }
+}
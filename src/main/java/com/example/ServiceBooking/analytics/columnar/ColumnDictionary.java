@@ -0,0 +1,55 @@
+package com.example.ServiceBooking.analytics.columnar;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Value <-> int code mapping of a dictionary-encoded column. Code 0 is reserved for null.
+ * Codes are never reused, so a code read from a column stays decodable.
+ */
+final class ColumnDictionary<T> {
+
+    static final int NULL_CODE = 0;
+
+    private final Map<T, Integer> codes = new HashMap<>();
+    private final List<T> values = new ArrayList<>();
+
+    ColumnDictionary() {
+        values.add(null);
+    }
+
+    synchronized int encode(T value) {
+        if (value == null) return NULL_CODE;
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = values.size();
+            values.add(value);
+            codes.put(value, code);
+        }
+        return code;
+    }
+
+    synchronized int size() {
+        return values.size();
+    }
+
+    synchronized T decode(int code) {
+        return values.get(code);
+    }
+
+    /**
+     * Lookup table for an IN filter: {@code mask[code]} is true for allowed values.
+     * Codes added after the mask was built are outside it and treated as not allowed.
+     */
+    synchronized boolean[] mask(Collection<T> allowed) {
+        boolean[] mask = new boolean[values.size()];
+        for (T v : allowed) {
+            Integer code = codes.get(v);
+            if (code != null) mask[code] = true;
+        }
+        return mask;
+    }
+}
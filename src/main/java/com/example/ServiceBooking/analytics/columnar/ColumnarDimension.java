@@ -0,0 +1,13 @@
+package com.example.ServiceBooking.analytics.columnar;
+
+/**
+ * Group-by dimensions of the booking snapshot. DAY and MONTH follow the query's {@link ColumnarTimeBasis}.
+ */
+public enum ColumnarDimension {
+    CITY,
+    SERVICE,
+    PROVIDER,
+    STATUS,
+    DAY,
+    MONTH
+}
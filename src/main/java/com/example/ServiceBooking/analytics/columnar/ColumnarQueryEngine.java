@@ -0,0 +1,406 @@
+package com.example.ServiceBooking.analytics.columnar;
+
+import com.example.ServiceBooking.analytics.columnar.BookingColumnStore.Columns;
+import com.example.ServiceBooking.analytics.columnar.BookingColumnStore.Snapshot;
+import com.example.ServiceBooking.analytics.dto.ColumnarGroupResponse;
+import com.example.ServiceBooking.analytics.dto.ColumnarQueryRequest;
+import com.example.ServiceBooking.analytics.dto.ColumnarQueryResponse;
+import com.example.ServiceBooking.bookings.dto.BookingStatus;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Filter + group-by over the {@link BookingColumnStore} snapshot.
+ * <ul>
+ *   <li>filters compile to lookup tables over dictionary codes, applied column by column
+ *       to a selection vector of row numbers</li>
+ *   <li>group keys pack up to three 21-bit codes into one long</li>
+ *   <li>row ranges of {@code leaf-rows} are scanned in parallel on a dedicated fork-join pool and merged</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+public class ColumnarQueryEngine {
+
+    private static final int MAX_GROUP_BY = 3;
+    private static final int CODE_BITS = 21;
+    private static final int CODE_MASK = (1 << CODE_BITS) - 1;
+    private static final int DEFAULT_LIMIT = 100;
+    private static final int MAX_LIMIT = 1000;
+    private static final int MINUTES_PER_DAY = 1440;
+
+    // 1970..2169, so the common case is an array read instead of calendar arithmetic
+    private static final int[] MONTH_OF_DAY = new int[73_000];
+
+    static {
+        for (int day = 0; day < MONTH_OF_DAY.length; day++) {
+            MONTH_OF_DAY[day] = monthIndex(day);
+        }
+    }
+
+    private final BookingColumnStore store;
+    private final ForkJoinPool pool;
+    private final int leafRows;
+
+    public ColumnarQueryEngine(BookingColumnStore store,
+                               @Value("${analytics.columnar.parallelism:0}") int parallelism,
+                               @Value("${analytics.columnar.leaf-rows:65536}") int leafRows) {
+        this.store = store;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.leafRows = leafRows;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    public ColumnarQueryResponse query(ColumnarQueryRequest request) {
+        long started = System.nanoTime();
+
+        Snapshot snapshot = store.snapshot();
+        Plan plan = plan(request);
+        Partial total = pool.invoke(new ScanTask(plan, snapshot.columns(), 0, snapshot.size()));
+
+        List<ColumnarGroupResponse> groups = new ArrayList<>(total.groups);
+        for (int i = 0; i < total.keys.length; i++) {
+            if (total.keys[i] != Partial.EMPTY) {
+                groups.add(group(plan.groupBy, total.keys[i], total.counts[i], total.cents[i]));
+            }
+        }
+        groups.sort(Comparator.comparingLong(ColumnarGroupResponse::bookings).reversed());
+
+        long tookMicros = (System.nanoTime() - started) / 1_000;
+        log.debug("Columnar query grouped by {} matched {} of {} rows in {} us",
+                plan.groupBy, total.matched, snapshot.size(), tookMicros);
+
+        return new ColumnarQueryResponse(
+                groups.subList(0, Math.min(groups.size(), plan.limit)),
+                total.matched,
+                snapshot.size(),
+                tookMicros,
+                snapshot.refreshedAt()
+        );
+    }
+
+    // ==================================================
+    // PLANNING
+    // ==================================================
+
+    /**
+     * A compiled query; null masks mean "no filter on this column".
+     */
+    private record Plan(ColumnarDimension[] groupBy,
+                        ColumnarTimeBasis timeBasis,
+                        int fromMinute,
+                        int toMinute,
+                        boolean timeFiltered,
+                        boolean[] cityMask,
+                        boolean[] statusMask,
+                        boolean[] serviceMask,
+                        boolean[] providerMask,
+                        int limit) {}
+
+    private Plan plan(ColumnarQueryRequest r) {
+        List<ColumnarDimension> groupBy = r.groupBy() == null ? List.of() : r.groupBy();
+        if (groupBy.size() > MAX_GROUP_BY) {
+            throw new RuntimeException("At most " + MAX_GROUP_BY + " group-by dimensions are supported");
+        }
+        if (groupBy.stream().distinct().count() != groupBy.size()) {
+            throw new RuntimeException("Duplicate group-by dimension");
+        }
+        for (ColumnarDimension d : groupBy) {
+            ColumnDictionary<?> dict = switch (d) {
+                case CITY -> store.cities;
+                case SERVICE -> store.services;
+                case PROVIDER -> store.providers;
+                default -> null;
+            };
+            if (dict != null) {
+                checkGroupable(d, dict.size());
+            }
+        }
+        if (r.from() != null && r.to() != null && !r.from().isBefore(r.to())) {
+            throw new RuntimeException("from must be before to");
+        }
+
+        boolean[] statusMask = null;
+        if (r.statuses() != null && !r.statuses().isEmpty()) {
+            statusMask = new boolean[BookingStatus.values().length];
+            for (BookingStatus s : r.statuses()) statusMask[s.ordinal()] = true;
+        }
+
+        int limit = r.limit() == null ? DEFAULT_LIMIT : Math.max(1, Math.min(r.limit(), MAX_LIMIT));
+
+        return new Plan(
+                groupBy.toArray(ColumnarDimension[]::new),
+                r.timeBasis() == null ? ColumnarTimeBasis.CREATED : r.timeBasis(),
+                r.from() == null ? BookingColumnStore.NO_TIME + 1 : BookingColumnStore.minute(r.from()),
+                r.to() == null ? Integer.MAX_VALUE : BookingColumnStore.minute(r.to()),
+                r.from() != null || r.to() != null,
+                isEmpty(r.cities()) ? null
+                        : store.cities.mask(r.cities().stream().map(BookingColumnStore::normalizeCity).toList()),
+                statusMask,
+                isEmpty(r.serviceIds()) ? null : store.services.mask(r.serviceIds()),
+                isEmpty(r.providerIds()) ? null : store.providers.mask(r.providerIds()),
+                limit
+        );
+    }
+
+    /**
+     * Codes run 0..size-1 (0 is null) and must fit a 21-bit slot of the packed key, or groups would merge.
+     */
+    static void checkGroupable(ColumnarDimension d, int dictionarySize) {
+        if (dictionarySize - 1 > CODE_MASK) {
+            throw new RuntimeException("Too many distinct " + d + " values to group by");
+        }
+    }
+
+    private static boolean isEmpty(List<?> values) {
+        return values == null || values.isEmpty();
+    }
+
+    // ==================================================
+    // SCAN
+    // ==================================================
+
+    /**
+     * Open-addressing packed group key -> (count, price cents). Keys are never negative.
+     */
+    private static final class Partial {
+        private static final long EMPTY = -1L;
+
+        long matched;
+        int groups;
+        long[] keys = emptyKeys(16);
+        long[] counts = new long[16];
+        long[] cents = new long[16];
+
+        void add(long key, long count, long priceCents) {
+            int mask = keys.length - 1;
+            int i = (int) (key * 0x9E3779B97F4A7C15L >>> 40) & mask;
+            while (keys[i] != EMPTY && keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+            if (keys[i] == EMPTY) {
+                keys[i] = key;
+                groups++;
+            }
+            counts[i] += count;
+            cents[i] += priceCents;
+            if (groups * 2 > keys.length) grow();
+        }
+
+        Partial merge(Partial other) {
+            matched += other.matched;
+            for (int i = 0; i < other.keys.length; i++) {
+                if (other.keys[i] != EMPTY) add(other.keys[i], other.counts[i], other.cents[i]);
+            }
+            return this;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys, oldCounts = counts, oldCents = cents;
+            keys = emptyKeys(oldKeys.length * 2);
+            counts = new long[oldKeys.length * 2];
+            cents = new long[oldKeys.length * 2];
+            groups = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) add(oldKeys[i], oldCounts[i], oldCents[i]);
+            }
+        }
+
+        private static long[] emptyKeys(int size) {
+            long[] k = new long[size];
+            Arrays.fill(k, EMPTY);
+            return k;
+        }
+    }
+
+    private final class ScanTask extends RecursiveTask<Partial> {
+        private final Plan plan;
+        private final Columns c;
+        private final int lo;
+        private final int hi;
+
+        ScanTask(Plan plan, Columns c, int lo, int hi) {
+            this.plan = plan;
+            this.c = c;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (hi - lo <= leafRows) {
+                return scan(plan, c, lo, hi);
+            }
+            int mid = (lo + hi) >>> 1;
+            ScanTask right = new ScanTask(plan, c, mid, hi);
+            right.fork();
+            Partial left = new ScanTask(plan, c, lo, mid).compute();
+            return left.merge(right.join());
+        }
+    }
+
+    private static Partial scan(Plan plan, Columns c, int lo, int hi) {
+        int[] sel = new int[hi - lo];
+        int[] time = c.time(plan.timeBasis);
+
+        int n;
+        if (plan.timeFiltered) {
+            n = 0;
+            for (int row = lo; row < hi; row++) {
+                int t = time[row];
+                if (t >= plan.fromMinute && t < plan.toMinute) sel[n++] = row;
+            }
+        } else {
+            n = hi - lo;
+            for (int i = 0; i < n; i++) sel[i] = lo + i;
+        }
+        if (plan.cityMask != null) n = refine(sel, n, c.city, plan.cityMask);
+        if (plan.serviceMask != null) n = refine(sel, n, c.service, plan.serviceMask);
+        if (plan.providerMask != null) n = refine(sel, n, c.provider, plan.providerMask);
+        if (plan.statusMask != null) n = refine(sel, n, c.status, plan.statusMask);
+
+        Partial out = new Partial();
+        out.matched = n;
+        if (n == 0) return out;
+
+        if (plan.groupBy.length == 0) {
+            long cents = 0;
+            for (int i = 0; i < n; i++) cents += c.priceCents[sel[i]];
+            out.add(0L, n, cents);
+            return out;
+        }
+
+        // build keys one column at a time, then aggregate
+        long[] keys = new long[n];
+        for (ColumnarDimension d : plan.groupBy) {
+            appendCodes(d, c, time, sel, n, keys);
+        }
+        for (int i = 0; i < n; i++) {
+            out.add(keys[i], 1, c.priceCents[sel[i]]);
+        }
+        return out;
+    }
+
+    private static int refine(int[] sel, int n, int[] column, boolean[] mask) {
+        int m = 0;
+        for (int i = 0; i < n; i++) {
+            int row = sel[i];
+            int v = column[row];
+            if (v < mask.length && mask[v]) sel[m++] = row;
+        }
+        return m;
+    }
+
+    private static int refine(int[] sel, int n, byte[] column, boolean[] mask) {
+        int m = 0;
+        for (int i = 0; i < n; i++) {
+            int row = sel[i];
+            int v = column[row];
+            if (v >= 0 && mask[v]) sel[m++] = row;
+        }
+        return m;
+    }
+
+    // ==================================================
+    // GROUP CODES (0 = null / unknown)
+    // ==================================================
+
+    private static void appendCodes(ColumnarDimension d, Columns c, int[] time, int[] sel, int n, long[] keys) {
+        switch (d) {
+            case CITY -> appendCodes(c.city, sel, n, keys);
+            case SERVICE -> appendCodes(c.service, sel, n, keys);
+            case PROVIDER -> appendCodes(c.provider, sel, n, keys);
+            case STATUS -> {
+                for (int i = 0; i < n; i++) keys[i] = (keys[i] << CODE_BITS) | (c.status[sel[i]] + 1);
+            }
+            case DAY -> {
+                for (int i = 0; i < n; i++) keys[i] = (keys[i] << CODE_BITS) | dayCode(time[sel[i]]);
+            }
+            case MONTH -> {
+                for (int i = 0; i < n; i++) keys[i] = (keys[i] << CODE_BITS) | monthCode(time[sel[i]]);
+            }
+        }
+    }
+
+    private static void appendCodes(int[] column, int[] sel, int n, long[] keys) {
+        for (int i = 0; i < n; i++) keys[i] = (keys[i] << CODE_BITS) | (column[sel[i]] & CODE_MASK);
+    }
+
+    private static int dayCode(int minute) {
+        if (minute == BookingColumnStore.NO_TIME) return 0;
+        int day = Math.floorDiv(minute, MINUTES_PER_DAY);
+        return day < 0 ? 0 : Math.min(day + 1, CODE_MASK);
+    }
+
+    private static int monthCode(int minute) {
+        if (minute == BookingColumnStore.NO_TIME) return 0;
+        int day = Math.floorDiv(minute, MINUTES_PER_DAY);
+        if (day < 0) return 0;
+        return (day < MONTH_OF_DAY.length ? MONTH_OF_DAY[day] : monthIndex(day)) + 1;
+    }
+
+    // months since 1970-01, from the civil-from-days algorithm (no LocalDate per row)
+    static int monthIndex(int epochDay) {
+        int z = epochDay + 719_468;
+        int era = (z >= 0 ? z : z - 146_096) / 146_097;
+        int doe = z - era * 146_097;
+        int yoe = (doe - doe / 1_460 + doe / 36_524 - doe / 146_096) / 365;
+        int doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        int mp = (5 * doy + 2) / 153;
+        int month = mp < 10 ? mp + 3 : mp - 9;
+        int year = yoe + era * 400 + (month <= 2 ? 1 : 0);
+        return (year - 1970) * 12 + month - 1;
+    }
+
+    private String label(ColumnarDimension d, int code) {
+        if (code == 0) return null;
+        return switch (d) {
+            case CITY -> store.cities.decode(code);
+            case SERVICE -> String.valueOf(store.services.decode(code));
+            case PROVIDER -> String.valueOf(store.providers.decode(code));
+            case STATUS -> BookingColumnStore.status(code - 1).name();
+            case DAY -> LocalDate.ofEpochDay(code - 1).toString();
+            case MONTH -> YearMonth.of(1970 + (code - 1) / 12, (code - 1) % 12 + 1).toString();
+        };
+    }
+
+    private ColumnarGroupResponse group(ColumnarDimension[] groupBy, long key, long count, long cents) {
+        Map<String, String> labels = new LinkedHashMap<>();
+        for (int i = groupBy.length - 1; i >= 0; i--) {
+            int code = (int) (key & CODE_MASK);
+            key >>>= CODE_BITS;
+            labels.put(groupBy[i].name().toLowerCase(Locale.ROOT), label(groupBy[i], code));
+        }
+        // packing order is reversed; present dimensions in the order they were asked for
+        Map<String, String> ordered = new LinkedHashMap<>();
+        for (ColumnarDimension d : groupBy) {
+            String name = d.name().toLowerCase(Locale.ROOT);
+            ordered.put(name, labels.get(name));
+        }
+
+        BigDecimal revenue = BigDecimal.valueOf(cents, 2);
+        BigDecimal average = count == 0 ? BigDecimal.ZERO
+                : revenue.divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP);
+        return new ColumnarGroupResponse(ordered, count, revenue, average);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.ServiceBooking.analytics.columnar;
+
+/**
+ * Which timestamp column time filters and DAY/MONTH grouping use.
+ */
+public enum ColumnarTimeBasis {
+    // booking creation (same as the monthly report)
+    CREATED,
+    // scheduled service time (Booking.dateTime)
+    SCHEDULED
+}
@@ -0,0 +1,66 @@
+package com.example.ServiceBooking.analytics.columnar;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing booking id -> row map without boxing. Touched by the refresh thread only.
+ */
+final class LongIntIndex {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+
+    LongIntIndex() {
+        keys = new long[1 << 12];
+        values = new int[1 << 12];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    /**
+     * @return the row, or -1 if absent
+     */
+    int get(long key) {
+        int mask = keys.length - 1;
+        for (int i = slot(key, mask); ; i = (i + 1) & mask) {
+            long k = keys[i];
+            if (k == key) return values[i];
+            if (k == EMPTY) return -1;
+        }
+    }
+
+    void put(long key, int value) {
+        // keep load factor under 0.5 so probe chains stay short
+        if ((size + 1) * 2 > keys.length) grow();
+        insert(keys, values, key, value);
+        size++;
+    }
+
+    private void grow() {
+        long[] newKeys = new long[keys.length * 2];
+        int[] newValues = new int[values.length * 2];
+        Arrays.fill(newKeys, EMPTY);
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) insert(newKeys, newValues, keys[i], values[i]);
+        }
+        keys = newKeys;
+        values = newValues;
+    }
+
+    private static void insert(long[] keys, int[] values, long key, int value) {
+        int mask = keys.length - 1;
+        int i = slot(key, mask);
+        while (keys[i] != EMPTY && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+    }
+
+    private static int slot(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.ServiceBooking.analytics.dto;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+public record ColumnarGroupResponse(
+        Map<String, String> key,
+        long bookings,
+        BigDecimal revenue,
+        BigDecimal averagePrice
+) {}
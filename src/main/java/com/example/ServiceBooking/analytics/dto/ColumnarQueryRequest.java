@@ -0,0 +1,23 @@
+package com.example.ServiceBooking.analytics.dto;
+
+import com.example.ServiceBooking.analytics.columnar.ColumnarDimension;
+import com.example.ServiceBooking.analytics.columnar.ColumnarTimeBasis;
+import com.example.ServiceBooking.bookings.dto.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Ad-hoc booking report: empty filter lists mean "any", {@code to} is exclusive.
+ */
+public record ColumnarQueryRequest(
+        List<ColumnarDimension> groupBy,
+        ColumnarTimeBasis timeBasis,
+        LocalDateTime from,
+        LocalDateTime to,
+        List<String> cities,
+        List<BookingStatus> statuses,
+        List<Long> serviceIds,
+        List<Long> providerIds,
+        Integer limit
+) {}
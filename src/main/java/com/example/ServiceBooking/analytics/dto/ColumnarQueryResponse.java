@@ -0,0 +1,12 @@
+package com.example.ServiceBooking.analytics.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record ColumnarQueryResponse(
+        List<ColumnarGroupResponse> groups,
+        long matchedRows,
+        long scannedRows,
+        long tookMicros,
+        LocalDateTime snapshotAt
+) {}
@@ -0,0 +1,13 @@
+package com.example.ServiceBooking.analytics.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record RollupBucketResponse(
+        LocalDateTime bucketStart,
+        long bookings,
+        long completed,
+        long cancelled,
+        long paidCount,
+        BigDecimal paidAmount
+) {}
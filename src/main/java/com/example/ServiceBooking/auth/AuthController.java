@@ -51,12 +51,8 @@ public class AuthController {
     @Operation(summary = "Resend OTP to user's email")
     @PostMapping("/send-otp")
     public void resendOtp(@Valid @RequestBody OtpRequest request) {
-        log.trace("Entering resendOtp method");
-        log.debug("Processing OTP resend request");
-        log.info("OTP resend requested");
         try {
             authService.resendOtp(request.getEmail());
-            log.debug("OTP resent successfully");
         } catch (Exception e) {
             log.error("Error resending OTP");
             throw e;
@@ -66,12 +62,8 @@ public class AuthController {
     @Operation(summary = "Verify OTP and activate account")
     @PostMapping("/verify-otp")
     public void verifyOtp(@Valid @RequestBody VerifyOtpRequest request) {
-        log.trace("Entering verifyOtp method");
-        log.debug("Processing OTP verification request");
-        log.info("OTP verification requested");
         try {
             authService.verifyOtp(request);
-            log.debug("OTP verified successfully");
         } catch (Exception e) {
             log.error("Error verifying OTP");
             throw e;
@@ -81,12 +73,8 @@ public class AuthController {
     @Operation(summary = "Set password for the user")
     @PostMapping("/set-password")
     public void setPassword(@Valid @RequestBody SetPasswordRequest request) {
-        log.trace("Entering setPassword method");
-        log.debug("Processing set password request");
-        log.info("Set password requested");
         try {
             authService.setPassword(request);
-            log.debug("Password set successfully");
         } catch (Exception e) {
             log.error("Error setting password");
             throw e;
@@ -96,12 +84,8 @@ public class AuthController {
     @Operation(summary = "Login and receive JWT token")
     @PostMapping("/login")
     public AuthResponse login(@Valid @RequestBody LoginRequest request) {
-        log.trace("Entering login method");
-        log.debug("Processing login request");
-        log.info("User login requested");
         try {
             AuthResponse response = authService.login(request);
-            log.debug("Login successful");
             return response;
         } catch (Exception e) {
             log.error("Error during login");
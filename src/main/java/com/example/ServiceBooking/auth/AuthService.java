@@ -94,8 +94,6 @@ public class AuthService {
 //    }
 
     public void resendOtp(String email) {
-        log.trace("Entering resendOtp method");
-        log.debug("Processing OTP resend");
         log.info("OTP resend initiated");
 
         User user = userRepository.findByEmail(email)
@@ -114,8 +112,6 @@ public class AuthService {
     }
 
     public void verifyOtp(VerifyOtpRequest request) {
-        log.trace("Entering verifyOtp method");
-        log.debug("Processing OTP verification");
         log.info("OTP verification initiated");
 
         User user = userRepository.findByEmail(request.getEmail())
@@ -159,8 +155,6 @@ public class AuthService {
     }
 
     public void setPassword(SetPasswordRequest request) {
-        log.trace("Entering setPassword method");
-        log.debug("Processing set password request");
         log.info("Set password initiated");
 
         User user = userRepository.findByEmail(request.getEmail())
@@ -180,8 +174,6 @@ public class AuthService {
     }
 
     public AuthResponse login(LoginRequest request) {
-        log.trace("Entering login method");
-        log.debug("Processing login request");
         log.info("User login initiated");
 
         User user = userRepository.findByEmail(request.getEmail())
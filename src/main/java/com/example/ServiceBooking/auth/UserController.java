@@ -24,12 +24,8 @@ public class UserController {
     @PreAuthorize("hasAnyRole('CUSTOMER', 'PROVIDER', 'ADMIN')")
     @GetMapping("/me")
     public UserResponse me() {
-        log.trace("Entering me method");
-        log.debug("Processing get current user profile request");
-        log.info("Get current user profile requested");
         try {
             UserResponse response = userService.getMe();
-            log.debug("Current user profile retrieved successfully");
             return response;
         } catch (Exception e) {
             log.error("Error retrieving current user profile");
@@ -42,12 +38,8 @@ public class UserController {
     @PreAuthorize("hasAnyRole('CUSTOMER','PROVIDER','ADMIN')")
     @PutMapping("/me")
     public UserResponse update(@RequestBody UpdateProfileRequest request) {
-        log.trace("Entering update method");
-        log.debug("Processing update user profile request");
-        log.info("Update user profile requested");
         try {
             UserResponse response = userService.updateMe(request);
-            log.debug("User profile updated successfully");
             return response;
         } catch (Exception e) {
             log.error("Error updating user profile");
@@ -77,12 +69,8 @@ public class UserController {
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping("/{id}")
     public UserResponse getById(@PathVariable Long id) {
-        log.trace("Entering getById method");
-        log.debug("Processing get user by id request");
-        log.info("Get user by id requested");
         try {
             UserResponse response = userService.getById(id);
-            log.debug("User retrieved successfully");
             return response;
         } catch (Exception e) {
             log.error("Error retrieving user");
@@ -95,12 +83,8 @@ public class UserController {
     @PreAuthorize("hasAnyRole('CUSTOMER', 'PROVIDER', 'ADMIN')")
     @DeleteMapping("/me")
     public void delete() {
-        log.trace("Entering delete method");
-        log.debug("Processing delete user request");
-        log.info("Delete user requested");
         try {
             userService.deleteMe();
-            log.debug("User deleted successfully");
         } catch (Exception e) {
             log.error("Error deleting user");
             throw e;
@@ -30,6 +30,9 @@ public interface UserRepository extends JpaRepository<User, Long> {
     List<Long> findUserIdsByNameLike(@Param("name") String name);
 
     Optional<User> findFirstByRoleAndStatus(Role role, Status status);
+
+    @Query("select u.id from User u where u.role = :role")
+    List<Long> findIdsByRole(@Param("role") Role role);
 }
 
 
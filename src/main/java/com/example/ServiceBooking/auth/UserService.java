@@ -16,8 +16,6 @@ public class UserService {
 
     // Get logged-in user
     public UserResponse getMe() {
-        log.trace("Entering getMe method");
-        log.debug("Processing get current user");
         log.info("Get current user initiated");
 
         Long userId = JwtUtil.getCurrentUserId();
@@ -34,8 +32,6 @@ public class UserService {
 
     // Update profile
     public UserResponse updateMe(UpdateProfileRequest request) {
-        log.trace("Entering updateMe method");
-        log.debug("Processing update user profile");
         log.info("Update user profile initiated");
 
         Long userId = JwtUtil.getCurrentUserId();
@@ -79,8 +75,6 @@ public class UserService {
 
     //  Admin get user by id
     public UserResponse getById(Long id) {
-        log.trace("Entering getById method");
-        log.debug("Processing get user by id");
         log.info("Get user by id initiated");
 
         User user = userRepository.findById(id)
@@ -95,8 +89,6 @@ public class UserService {
 
     //  Soft delete
     public void deleteMe() {
-        log.trace("Entering deleteMe method");
-        log.debug("Processing delete user");
         log.info("Delete user initiated");
 
         Long userId = JwtUtil.getCurrentUserId();
@@ -30,11 +30,27 @@ public class Booking {
     private LocalDateTime dateTime;
     private String location;
 
+    // where the job is, when the customer gave coordinates (request or default address)
+    private Double latitude;
+    private Double longitude;
+
+    @Column(length = 6)
+    private String pincode;
+
     @Enumerated(EnumType.STRING)
     private BookingStatus status;
 
+    // status before the last transition (captured by the same UPDATE that changes status)
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private BookingStatus previousStatus;
+
     private LocalDateTime createdAt;
 
+    // who cancelled (customer, provider or admin id), set by the cancelling transition; provider ranking
+    // counts only cancellations by the booking's own provider against it
+    private Long cancelledBy;
+
     // Added from the SubService entity to store the price at the time of booking
 //    private BigDecimal basePrice;
     private BigDecimal price;
@@ -51,6 +67,13 @@ public class Booking {
      */
     private LocalDateTime startOtpVerifiedAt;
 
+    /**
+     * Optimistic lock. Status changes go through {@link BookingStateMachine}, which bumps it.
+     */
+    @Version
+    @Column(nullable = false)
+    private long version;
+
     @PrePersist
     public void prePersist() {
         if (createdAt == null) createdAt = LocalDateTime.now();
@@ -0,0 +1,15 @@
+package com.example.ServiceBooking.bookings;
+
+/**
+ * Status-changing commands on an existing booking. Creation (createBooking / bookSlot) is an insert,
+ * not a transition, and is not listed here.
+ */
+public enum BookingAction {
+    ACCEPT,           // provider takes an open PENDING job
+    ASSIGN,           // admin assigns a provider to a PENDING job
+    RESCHEDULE,       // customer moves an ACCEPTED booking (validated only; fields saved by the caller)
+    START,            // provider verified the start OTP
+    COMPLETE,         // provider finished the job
+    PROVIDER_CANCEL,  // provider drops an ACCEPTED job (PUT /jobs/{id}/status?status=CANCELLED)
+    CANCEL            // customer or assigned provider cancels
+}
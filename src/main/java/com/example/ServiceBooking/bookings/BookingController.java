@@ -32,10 +32,7 @@ public class BookingController {
     @PreAuthorize("hasRole('CUSTOMER')")
     @PostMapping
     public void create(@Valid @RequestBody BookingCreateRequest request) {
-        log.trace("Entering create method");
-        log.info("Creating new booking");
         service.createBooking(userId(), request);
-        log.debug("Booking created successfully");
     }
 
     @Operation(summary = "Reschedule a booking to a new date/time - CUSTOMER")
@@ -43,30 +40,21 @@ public class BookingController {
     @PutMapping("/{id}/reschedule")
     public BookingResponse reschedule(@PathVariable Long id,
                                       @Valid @RequestBody RescheduleRequest req) {
-        log.trace("Entering reschedule method");
-        log.info("Rescheduling booking {}", id);
         BookingResponse response = service.rescheduleBooking(id, userId(), req);
-        log.debug("Booking rescheduled successfully");
         return response;
     }
 
     @Operation(summary = "Cancel a booking - CUSTOMER/PROVIDER")
     @PostMapping("/{id}/cancel")
     public void cancel(@PathVariable Long id) {
-        log.trace("Entering cancel method");
-        log.info("Cancelling booking");
         service.cancelBooking(id, userId());
-        log.debug("Booking cancelled successfully");
     }
 
     @Operation(summary = "Get current bookings - CUSTOMER")
     @PreAuthorize("hasRole('CUSTOMER')")
     @GetMapping("/customer")
     public List<BookingResponse> customerBookings() {
-        log.trace("Entering customerBookings method");
-        log.info("Fetching customer bookings");
         List<BookingResponse> bookings = service.customerBookings(userId());
-        log.debug("Customer bookings retrieved successfully");
         return bookings;
     }
 
@@ -74,38 +62,30 @@ public class BookingController {
     @PreAuthorize("hasRole('PROVIDER')")
     @GetMapping("/provider")
     public List<BookingResponse> providerBookings() {
-        log.trace("Entering providerBookings method");
-        log.info("Fetching provider bookings");
         List<BookingResponse> bookings = service.providerBookings(userId());
-        log.debug("Provider bookings retrieved successfully");
         return bookings;
     }
 
     @Operation(summary = "Get booking history - CUSTOMER/PROVIDER")
     @GetMapping("/history")
     public List<BookingResponse> history() {
-        log.trace("Entering history method");
-        log.info("Fetching booking history");
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         boolean isCustomer = auth.getAuthorities().stream()
                 .anyMatch(a -> a.getAuthority().equals("ROLE_CUSTOMER"));
         List<BookingResponse> history = service.history(userId(), isCustomer);
-        log.debug("Booking history retrieved successfully");
         return history;
     }
 
     // =========================
     // SLOTS (EXISTING)
     // =========================
-    @Operation(summary = "Get available slots for a service and date")
+    @Operation(summary = "Get available slots for a service and date (optional pincode: providers serving it)")
     @GetMapping("/slots")
     public List<SlotResponse> slots(@RequestParam Long serviceId,
                                     @RequestParam LocalDate date,
-                                    @RequestParam String city) {
-        log.trace("Entering slots method");
-        log.info("Fetching available slots");
-        List<SlotResponse> slots = service.getSlotsForService(serviceId, date, city);
-        log.debug("Slots retrieved successfully");
+                                    @RequestParam String city,
+                                    @RequestParam(required = false) String pincode) {
+        List<SlotResponse> slots = service.getSlotsForService(serviceId, date, city, pincode);
         return slots;
     }
 
@@ -113,10 +93,7 @@ public class BookingController {
     @PostMapping("/slot")
     @PreAuthorize("hasRole('CUSTOMER')")
     public BookingResponse bookSlot(@RequestBody @Valid SlotBookingRequest req) {
-        log.trace("Entering bookSlot method");
-        log.info("Booking slot");
         BookingResponse response = service.bookSlot(userId(), req);
-        log.debug("Slot booked successfully");
         return response;
     }
 
@@ -129,36 +106,30 @@ public class BookingController {
     @PreAuthorize("hasRole('PROVIDER')")
     public void verifyStartOtp(@PathVariable Long id,
                                @RequestBody @Valid BookingStartOtpVerifyRequest req) {
-        log.trace("Entering verifyStartOtp method");
-        log.info("Verifying start OTP");
         service.verifyStartOtp(id, userId(), req.otp());
-        log.debug("Start OTP verified successfully");
     }
 
     @Operation(summary = "Resend Start OTP - CUSTOMER")
     @PostMapping("/{id}/start/resend-otp")
     @PreAuthorize("hasRole('CUSTOMER')")
     public void resendStartOtp(@PathVariable Long id) {
-        log.trace("Entering resendStartOtp method");
-        log.info("Resending start OTP");
         service.resendStartOtp(id, userId());
-        log.debug("Start OTP resent successfully");
     }
 
     // ======================================================
     // Nearby Providers
     // ======================================================
 
-    @Operation(summary = "Get nearby providers in customer's city (optional service filter)")
+    @Operation(summary = "Get nearby providers, nearest first when coordinates are known (query or default address), else in customer's city best ranked first (optional service filter, optional top-K limit)")
     @GetMapping("/providers/nearby")
     @PreAuthorize("hasRole('CUSTOMER')")
     public List<NearbyProviderResponse> nearbyProviders(
-            @RequestParam(required = false) Long serviceId
+            @RequestParam(required = false) Long serviceId,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Double latitude,
+            @RequestParam(required = false) Double longitude
     ) {
-        log.trace("Entering nearbyProviders method");
-        log.info("Fetching nearby providers");
-        List<NearbyProviderResponse> providers = service.getNearbyProviders(userId(), serviceId);
-        log.debug("Nearby providers retrieved successfully");
+        List<NearbyProviderResponse> providers = service.getNearbyProviders(userId(), serviceId, limit, latitude, longitude);
         return providers;
     }
 }
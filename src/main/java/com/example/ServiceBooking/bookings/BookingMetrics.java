@@ -0,0 +1,61 @@
+package com.example.ServiceBooking.bookings;
+
+import com.example.ServiceBooking.bookings.dto.BookingStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Booking lifecycle counters. Operation latency is timed with {@code @Timed("booking.operation")}
+ * on the service methods themselves.
+ * <ul>
+ *   <li>{@code booking.transitions{from,to}} - counted after commit, so rolled-back attempts don't show up</li>
+ *   <li>{@code booking.contention{reason}} - lost races for a slot, a PENDING booking, or a stale booking version</li>
+ * </ul>
+ */
+@Component
+public class BookingMetrics {
+
+    public static final String NEW = "NEW";
+
+    public static final String SLOT_TAKEN = "slot_taken";
+    public static final String NO_PROVIDER_FOR_SLOT = "no_provider_for_slot";
+    public static final String PROVIDER_DOUBLE_BOOKED = "provider_double_booked";
+    public static final String ALREADY_ACCEPTED = "already_accepted";
+    public static final String STALE_BOOKING = "stale_booking";
+
+    private final MeterRegistry registry;
+
+    public BookingMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void transition(BookingStatus from, BookingStatus to) {
+        Counter counter = Counter.builder("booking.transitions")
+                .description("Committed booking status transitions")
+                .tag("from", from == null ? NEW : from.name())
+                .tag("to", to.name())
+                .register(registry);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    counter.increment();
+                }
+            });
+        } else {
+            counter.increment();
+        }
+    }
+
+    public void contention(String reason) {
+        Counter.builder("booking.contention")
+                .description("Booking attempts that lost a race for a slot or booking")
+                .tag("reason", reason)
+                .register(registry)
+                .increment();
+    }
+}
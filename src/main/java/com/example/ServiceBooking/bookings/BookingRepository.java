@@ -46,24 +46,11 @@ public interface BookingRepository extends JpaRepository<Booking, Long>, JpaSpec
 //    int assignIfPending(Long bookingId, Long providerId);
 
 
-    @Modifying
-    @Query("""
-    UPDATE Booking b
-    SET b.providerId = :providerId,
-        b.status = :accepted
-    WHERE b.id = :bookingId
-      AND b.status = :pending
-""")
-    int assignIfPending(
-            @Param("bookingId") Long bookingId,
-            @Param("providerId") Long providerId,
-            @Param("pending") BookingStatus pending,
-            @Param("accepted") BookingStatus accepted
-    );
-
-
     Page<Booking> findAllByOrderByCreatedAtDesc(Pageable pageable);
 
+    // keyset paging for backfills
+    List<Booking> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
     long countByStatus(BookingStatus status);
     long countByCity(String city);
     long countByStatusAndCity(BookingStatus status, String city);
@@ -108,6 +95,29 @@ group by b.customerId
     );
 
 
+    // used by provider ranking: completed jobs and provider-cancelled bookings per provider and month of the job,
+    // so the ranking can decay them; customer and admin cancellations are not the provider's
+    @Query("""
+select b.providerId as providerId, b.status as status,
+       year(coalesce(b.dateTime, b.createdAt)) as year, month(coalesce(b.dateTime, b.createdAt)) as month,
+       count(b) as total
+from Booking b
+where b.providerId is not null
+  and coalesce(b.dateTime, b.createdAt) >= :since
+  and (b.status = com.example.ServiceBooking.bookings.dto.BookingStatus.COMPLETED
+       or (b.status = com.example.ServiceBooking.bookings.dto.BookingStatus.CANCELLED and b.cancelledBy = b.providerId))
+group by b.providerId, b.status, year(coalesce(b.dateTime, b.createdAt)), month(coalesce(b.dateTime, b.createdAt))
+""")
+    List<ProviderOutcomeProjection> countProviderOutcomesByMonthSince(@Param("since") LocalDateTime since);
+
+    public interface ProviderOutcomeProjection {
+        Long getProviderId();
+        BookingStatus getStatus();
+        int getYear();
+        int getMonth();
+        long getTotal();
+    }
+
     public interface ProviderActivityProjection {
         Long getProviderId();
         long getCompletedBookings();
@@ -122,7 +132,8 @@ group by b.customerId
     @Query("""
         update Booking b
            set b.startOtpHash = :hash,
-               b.startOtpGeneratedAt = :generatedAt
+               b.startOtpGeneratedAt = :generatedAt,
+               b.version = b.version + 1
          where b.id = :bookingId
            and b.startOtpVerifiedAt is null
     """)
@@ -130,6 +141,43 @@ group by b.customerId
                        @Param("hash") String hash,
                        @Param("generatedAt") LocalDateTime generatedAt);
 
+    /**
+     * The one status-changing statement, built by {@link BookingStateMachine} from its transition table.
+     * Null guard parameters are "don't check". {@code previousStatus} is assigned first so it gets the old
+     * value on MySQL too (which evaluates SET left to right). Clears the persistence context, so the
+     * post-image read afterwards is fresh.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+        update Booking b
+           set b.previousStatus = b.status,
+               b.status = :to,
+               b.providerId = coalesce(:assignProviderId, b.providerId),
+               b.startOtpVerifiedAt = coalesce(:startOtpVerifiedAt, b.startOtpVerifiedAt),
+               b.cancelledBy = coalesce(:cancelledBy, b.cancelledBy),
+               b.version = b.version + 1
+         where b.id = :bookingId
+           and b.status in :from
+           and (:customerId is null or b.customerId = :customerId)
+           and (:providerId is null or b.providerId = :providerId)
+           and (:participantId is null or b.customerId = :participantId or b.providerId = :participantId)
+           and (:requireProvider = false or b.providerId is not null)
+           and (:city is null or b.city is null or lower(b.city) = lower(:city))
+           and (:version is null or b.version = :version)
+    """)
+    int applyTransition(@Param("bookingId") Long bookingId,
+                        @Param("from") List<BookingStatus> from,
+                        @Param("to") BookingStatus to,
+                        @Param("assignProviderId") Long assignProviderId,
+                        @Param("startOtpVerifiedAt") LocalDateTime startOtpVerifiedAt,
+                        @Param("cancelledBy") Long cancelledBy,
+                        @Param("customerId") Long customerId,
+                        @Param("providerId") Long providerId,
+                        @Param("participantId") Long participantId,
+                        @Param("requireProvider") boolean requireProvider,
+                        @Param("city") String city,
+                        @Param("version") Long version);
+
     @Query("""
         select b.customerId from Booking b where b.id = :bookingId
     """)
@@ -1,15 +1,25 @@
 package com.example.ServiceBooking.bookings;
 
-import com.example.ServiceBooking.auth.User;
 import com.example.ServiceBooking.auth.UserRepository;
 import com.example.ServiceBooking.bookings.dto.*;
+import com.example.ServiceBooking.bookings.events.BookingEventService;
+import com.example.ServiceBooking.bookings.events.BookingEventType;
+import com.example.ServiceBooking.customer.Address;
+import com.example.ServiceBooking.customer.AddressRepository;
+import com.example.ServiceBooking.geo.GeoMatch;
+import com.example.ServiceBooking.geo.ProviderGeoIndex;
+import com.example.ServiceBooking.geo.ServiceAreaIndex;
 import com.example.ServiceBooking.notification.NotificationService;
 import com.example.ServiceBooking.providermanagement.*;
+import com.example.ServiceBooking.ranking.ProviderRankingService;
 import com.example.ServiceBooking.servicecatalog.SubService;
 import com.example.ServiceBooking.servicecatalog.SubServiceRepository;
 import jakarta.transaction.Transactional;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.resilience.annotation.Retryable;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -17,15 +27,21 @@ import java.security.SecureRandom;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Set;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class BookingService {
 
+    // auto-assignment candidates re-checked per query
+    private static final int CLAIM_BATCH = 50;
+
     private final BookingRepository repo;
     private final NotificationService notificationService;
     private final SubServiceRepository subServiceRepo;
@@ -33,6 +49,13 @@ public class BookingService {
     private final ProviderServiceRepository providerServiceRepo;
     private final ProviderProfileRepository providerProfileRepo;
     private final UserRepository userRepo;
+    private final ProviderRankingService rankingService;
+    private final BookingMetrics metrics;
+    private final BookingEventService events;
+    private final BookingStateMachine stateMachine;
+    private final AddressRepository addressRepo;
+    private final ProviderGeoIndex geoIndex;
+    private final ServiceAreaIndex serviceAreaIndex;
 
     private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
     private final SecureRandom random = new SecureRandom();
@@ -42,13 +65,20 @@ public class BookingService {
 
     //  ========================
     //  Get nearby providers based on customer's city and optional service filter3
+    //  Ordered by provider ranking score (best first); limit keeps only the top-K
+    //  With coordinates (given, or on the default address): nearest providers first, city as fallback
     //  ========================
-    public List<NearbyProviderResponse> getNearbyProviders(Long customerId, Long serviceId) {
-        log.trace("Entering getNearbyProviders method");
-        log.info("Fetching nearby providers");
-
+    public List<NearbyProviderResponse> getNearbyProviders(Long customerId, Long serviceId, Integer limit,
+                                                           Double latitude, Double longitude) {
         String city = resolveUserCity(customerId);
 
+        JobSite site = resolveJobSite(customerId, latitude, longitude, null);
+        if (site.located()) {
+            List<NearbyProviderResponse> nearest = nearestProviders(site, serviceId, limit);
+            if (!nearest.isEmpty()) return nearest;
+            log.debug("No located providers nearby, falling back to city match");
+        }
+
         List<Long> providerIds = (serviceId != null)
                 ? providerProfileRepo.findEligibleProviderIdsByCityAndService(city, serviceId)
                 : providerProfileRepo.findEligibleProviderIdsByCityOnly(city);
@@ -58,24 +88,59 @@ public class BookingService {
             return List.of();
         }
 
-        // Load provider names (from users table)
-        // If you want fewer queries, you can create a query joining user + profile;
-        // but this works fine for now.
-        log.debug("Nearby providers retrieved successfully");
-        return providerIds.stream()
-                .map(pid -> {
-                    String name = userRepo.findById(pid).map(User::getName).orElse("Provider");
-                    return new NearbyProviderResponse(pid, name, city);
-                })
-                .toList();
+        providerIds = (limit != null && limit > 0)
+                ? rankingService.topK(providerIds, limit)
+                : rankingService.rank(providerIds);
+
+        Map<Long, String> names = new HashMap<>();
+        userRepo.findAllById(providerIds).forEach(u -> names.put(u.getId(), u.getName()));
+        float[] scores = rankingService.scores(providerIds);
+
+        List<NearbyProviderResponse> result = new ArrayList<>(providerIds.size());
+        for (int i = 0; i < providerIds.size(); i++) {
+            Long pid = providerIds.get(i);
+            result.add(new NearbyProviderResponse(pid, names.getOrDefault(pid, "Provider"), city,
+                    (double) scores[i], null));
+        }
+        return result;
+    }
+
+    private List<NearbyProviderResponse> nearestProviders(JobSite site, Long serviceId, Integer limit) {
+        Set<Long> offering = (serviceId != null)
+                ? new HashSet<>(providerServiceRepo.findProviderIdsBySubServiceId(serviceId))
+                : null;
+
+        List<GeoMatch> matches = geoIndex.nearby(site.latitude(), site.longitude(), limit,
+                offering == null ? null : offering::contains);
+        if (matches.isEmpty()) return List.of();
+
+        // the index can lag a provider going offline by up to one refresh
+        Map<Long, ProviderProfileRepository.ProviderCardProjection> cards = new HashMap<>();
+        for (ProviderProfileRepository.ProviderCardProjection card : providerProfileRepo.findEligibleProviderCardsIn(
+                matches.stream().map(GeoMatch::providerId).toList())) {
+            cards.put(card.getProviderId(), card);
+        }
+
+        matches = matches.stream().filter(m -> cards.containsKey(m.providerId())).toList();
+        float[] scores = rankingService.scores(matches.stream().map(GeoMatch::providerId).toList());
+
+        List<NearbyProviderResponse> result = new ArrayList<>(matches.size());
+        for (int i = 0; i < matches.size(); i++) {
+            GeoMatch m = matches.get(i);
+            ProviderProfileRepository.ProviderCardProjection card = cards.get(m.providerId());
+            String name = card.getName() != null ? card.getName() : "Provider";
+            result.add(new NearbyProviderResponse(m.providerId(), name, card.getCity(),
+                    (double) scores[i], Math.round(m.distanceKm() * 100) / 100.0));
+        }
+        return result;
     }
 
 
     // =========================
     // CREATE BOOKING (PENDING)
     // =========================
+    @Transactional
     public void createBooking(Long customerId, BookingCreateRequest req) {
-        log.trace("Entering createBooking method");
         log.info("Creating new booking");
 
         SubService subService = subServiceRepo.findById(req.serviceId())
@@ -87,16 +152,13 @@ public class BookingService {
         booking.setDateTime(req.dateTime());
         booking.setLocation(req.location());
         booking.setCity(resolveUserCity(customerId));
+        setJobSite(booking, resolveJobSite(customerId, null, null, null));
         booking.setPrice(subService.getBasePrice());
         booking.setStatus(BookingStatus.PENDING);
 
         Booking savedBooking = repo.save(booking);
-
-        notificationService.upsertBookingNotification(
-                customerId,
-                savedBooking.getId(),
-                "Booking confirmed successfully."
-        );
+        metrics.transition(null, BookingStatus.PENDING);
+        events.record(savedBooking, null, BookingEventType.CREATED, customerId);
 
         log.debug("Booking created successfully");
     }
@@ -107,76 +169,12 @@ public class BookingService {
 
 
     @Transactional
+    @Timed(value = "booking.operation", extraTags = {"operation", "cancelBooking"}, histogram = true)
     public void cancelBooking(Long bookingId, Long userId) {
-        log.trace("Entering cancelBooking method");
         log.info("Cancelling booking");
 
-        Booking booking = getBooking(bookingId);
-
-        if (booking.getStatus() == BookingStatus.COMPLETED) {
-            log.error("Cannot cancel a completed booking");
-            throw new RuntimeException("Cannot cancel a completed booking");
-        }
-
-        if (!userId.equals(booking.getCustomerId())
-                && (booking.getProviderId() == null || !userId.equals(booking.getProviderId()))) {
-            log.error("Unauthorized cancellation");
-            throw new RuntimeException("Unauthorized cancellation");
-        }
-
-
-        BookingStatus oldStatus = booking.getStatus();
-
-        booking.setStatus(BookingStatus.CANCELLED);
-        repo.save(booking);
-
-
-        if (booking.getProviderId() != null
-                && booking.getDateTime() != null
-                && oldStatus == BookingStatus.ACCEPTED
-                && booking.getStartOtpVerifiedAt() == null){
-
-            LocalDate date = booking.getDateTime().toLocalDate();
-            LocalTime start = booking.getDateTime().toLocalTime();
-            LocalTime end = start.plusHours(1);
-
-            availabilityRepo.lockSlot(booking.getProviderId(), date, start, end)
-                    .ifPresent(slot -> {
-                        if (slot.getStatus() == AvailabilityStatus.BOOKED) {
-                            slot.setStatus(AvailabilityStatus.AVAILABLE);
-                            availabilityRepo.save(slot);
-                        }
-                    });
-        }
-
-
-        if (userId.equals(booking.getCustomerId())) {
-            notificationService.upsertBookingNotification(
-                    booking.getCustomerId(),
-                    booking.getId(),
-                    "Your booking was cancelled"
-            );
-
-            if (booking.getProviderId() != null) {
-                notificationService.upsertBookingNotification(
-                        booking.getProviderId(),
-                        booking.getId(),
-                        "Booking #" + booking.getId() + " was cancelled by customer"
-                );
-            }
-        } else {
-            notificationService.upsertBookingNotification(
-                    booking.getCustomerId(),
-                    booking.getId(),
-                    "Your booking was cancelled"
-            );
-
-            notificationService.upsertBookingNotification(
-                    booking.getProviderId(),
-                    booking.getId(),
-                    "You cancelled Booking #" + booking.getId()
-            );
-        }
+        // one conditional UPDATE; slot release + outbox event are hooks of the CANCEL rule
+        stateMachine.apply(BookingStateMachine.Request.of(BookingAction.CANCEL, bookingId, userId));
 
         log.debug("Booking cancelled successfully");
     }
@@ -237,23 +235,14 @@ public class BookingService {
     // LISTS
     // ==================
     public List<BookingResponse> customerBookings(Long customerId) {
-        log.trace("Entering customerBookings method");
-        log.info("Fetching customer bookings");
-        log.debug("Customer bookings retrieved successfully");
         return repo.findByCustomerId(customerId).stream().map(this::map).toList();
     }
 
     public List<BookingResponse> providerBookings(Long providerId) {
-        log.trace("Entering providerBookings method");
-        log.info("Fetching provider bookings");
-        log.debug("Provider bookings retrieved successfully");
         return repo.findByProviderId(providerId).stream().map(this::map).toList();
     }
 
     public List<BookingResponse> history(Long userId, boolean isCustomer) {
-        log.trace("Entering history method");
-        log.info("Fetching booking history");
-        log.debug("Booking history retrieved successfully");
         return isCustomer
                 ? repo.findByCustomerIdOrderByCreatedAtDesc(userId).stream().map(this::map).toList()
                 : repo.findByProviderIdOrderByCreatedAtDesc(userId).stream().map(this::map).toList();
@@ -285,38 +274,26 @@ public class BookingService {
      * <p>
      * Steps:
      * 1. Validate ownership and status (must be ACCEPTED, not yet STARTED)
-     * 2. Lock the new slot (PESSIMISTIC_WRITE) — must be AVAILABLE
+     * 2. Claim the new slot (conditional UPDATE AVAILABLE → BOOKED)
      * 3. Check no other booking overlaps the new time for the same provider
      * 4. Release the old slot → AVAILABLE
-     * 5. Mark new slot → BOOKED
+     * 5. (new slot already BOOKED by the claim)
      * 6. Update booking dateTime (and optional location)
      * 7. Regenerate OTP — old OTP is invalidated, new one sent to customer
      * 8. Notify provider about the reschedule
      */
     @Transactional
+    @Retryable(includes = OptimisticLockingFailureException.class,
+            maxRetriesString = "${booking.transition.max-retries:2}",
+            delayString = "${booking.transition.retry-delay-ms:20}")
+    @Timed(value = "booking.operation", extraTags = {"operation", "rescheduleBooking"}, histogram = true)
     public BookingResponse rescheduleBooking(Long bookingId, Long customerId, RescheduleRequest req) {
-        log.trace("Entering rescheduleBooking method");
         log.info("Rescheduling booking {}", bookingId);
 
         Booking booking = getBooking(bookingId);
 
-        // Authorization — only booking owner can reschedule
-        if (!customerId.equals(booking.getCustomerId())) {
-            log.error("Unauthorized reschedule attempt on booking {}", bookingId);
-            throw new RuntimeException("Unauthorized: only the customer can reschedule this booking");
-        }
-
-        // Status guard — can only reschedule ACCEPTED (provider assigned, OTP not yet verified)
-        if (booking.getStatus() != BookingStatus.ACCEPTED) {
-            log.error("Booking {} is in status {} and cannot be rescheduled", bookingId, booking.getStatus());
-            throw new RuntimeException(
-                    "Only ACCEPTED bookings can be rescheduled. Current status: " + booking.getStatus());
-        }
-
-        if (booking.getProviderId() == null) {
-            log.error("Booking {} has no provider assigned", bookingId);
-            throw new RuntimeException("Cannot reschedule: no provider assigned to this booking");
-        }
+        // owner + ACCEPTED + provider assigned; fields below are saved with the entity's version check
+        stateMachine.validate(BookingAction.RESCHEDULE, booking, customerId, null);
 
         LocalDate newDate  = req.newDateTime().toLocalDate();
         LocalTime newStart = req.newDateTime().toLocalTime();
@@ -326,14 +303,13 @@ public class BookingService {
         LocalTime oldStart = booking.getDateTime().toLocalTime();
         LocalTime oldEnd   = oldStart.plusHours(1);
 
-        // STEP 1: Lock the new slot with PESSIMISTIC_WRITE — must be AVAILABLE
-        ProviderAvailability newSlot = availabilityRepo
-                .lockAvailableSlot(booking.getProviderId(), newDate, newStart, newEnd)
-                .orElseThrow(() -> {
-                    log.error("New slot {}/{}-{} not available for provider {}",
-                            newDate, newStart, newEnd, booking.getProviderId());
-                    return new RuntimeException("Requested slot is not available for the provider");
-                });
+        // STEP 1: Claim the new slot (conditional UPDATE AVAILABLE -> BOOKED; rolled back if a later step fails)
+        if (availabilityRepo.claimSlot(booking.getProviderId(), newDate, newStart, newEnd) == 0) {
+            metrics.contention(BookingMetrics.SLOT_TAKEN);
+            log.error("New slot {}/{}-{} not available for provider {}",
+                    newDate, newStart, newEnd, booking.getProviderId());
+            throw new SlotUnavailableException("Requested slot is not available for the provider");
+        }
 
         // STEP 2: Overlap check — exclude the current booking (it still holds the OLD slot)
         boolean overlap = repo.existsByProviderIdAndDateTimeBetweenAndStatusInAndIdNot(
@@ -344,22 +320,15 @@ public class BookingService {
                 bookingId
         );
         if (overlap) {
+            metrics.contention(BookingMetrics.PROVIDER_DOUBLE_BOOKED);
             log.error("Provider {} already has a booking at the new requested time", booking.getProviderId());
             throw new RuntimeException("Provider already has another booking at the requested time");
         }
 
         // STEP 3: Release old slot → AVAILABLE
-        availabilityRepo.lockSlot(booking.getProviderId(), oldDate, oldStart, oldEnd)
-                .ifPresent(oldSlot -> {
-                    if (oldSlot.getStatus() == AvailabilityStatus.BOOKED) {
-                        oldSlot.setStatus(AvailabilityStatus.AVAILABLE);
-                        availabilityRepo.save(oldSlot);
-                    }
-                });
+        availabilityRepo.releaseSlot(booking.getProviderId(), oldDate, oldStart, oldEnd);
 
-        // STEP 4: Mark new slot as BOOKED
-        newSlot.setStatus(AvailabilityStatus.BOOKED);
-        availabilityRepo.save(newSlot);
+        // STEP 4: (new slot already BOOKED by the claim in step 1)
 
         // STEP 5: Update booking fields; clear OTP verification state (job hasn't started yet)
         booking.setDateTime(req.newDateTime());
@@ -371,13 +340,8 @@ public class BookingService {
         // STEP 6: Regenerate OTP — old OTP becomes invalid, new one saved + sent to customer
         generateAndNotifyStartOtp(booking); // also calls repo.save(booking) internally
 
-        // STEP 7: Notify provider
-        notificationService.upsertBookingNotification(
-                booking.getProviderId(),
-                booking.getId(),
-                "Booking #" + booking.getId() + " has been rescheduled to " + req.newDateTime()
-                        + ". Ask customer for the new OTP to start the job."
-        );
+        // STEP 7: Notify provider (via outbox)
+        events.record(booking, BookingStatus.ACCEPTED, BookingEventType.RESCHEDULED, customerId);
 
         log.debug("Booking {} rescheduled successfully to {}", bookingId, req.newDateTime());
         return map(booking);
@@ -386,9 +350,15 @@ public class BookingService {
     // =========================
     // SLOTS FEATURE
     // =========================
-    public List<SlotResponse> getSlotsForService(Long serviceId, LocalDate date, String city) {
-        log.trace("Entering getSlotsForService method");
-        log.info("Fetching available slots for service");
+    public List<SlotResponse> getSlotsForService(Long serviceId, LocalDate date, String city, String pincode) {
+        // providers who declared this pincode as service area: no city-wide candidate list needed
+        if (pincode != null && !pincode.isBlank()) {
+            List<Long> covering = serviceAreaIndex.providersCovering(pincode.trim(), serviceId);
+            if (!covering.isEmpty()) {
+                List<Long> eligible = providerProfileRepo.findEligibleProviderIdsIn(covering);
+                if (!eligible.isEmpty()) return groupSlots(availabilityRepo.findAvailableSlotsForProviders(eligible, date));
+            }
+        }
 
         List<Long> providerIds = providerServiceRepo.findProviderIdsBySubServiceId(serviceId);
         if (providerIds.isEmpty()) {
@@ -401,16 +371,17 @@ public class BookingService {
             throw new RuntimeException("City is required");
         }
 
-        List<Long> eligibleInCity = providerProfileRepo.findEligibleProviderIdsByCity(city.trim());
+        Set<Long> eligibleInCity = new HashSet<>(providerProfileRepo.findEligibleProviderIdsByCity(city.trim()));
         List<Long> eligibleProviders = providerIds.stream().filter(eligibleInCity::contains).toList();
         if (eligibleProviders.isEmpty()) {
             log.warn("No eligible providers found in city");
             return List.of();
         }
 
-        List<ProviderAvailability> allSlots =
-                availabilityRepo.findAvailableSlotsForProviders(eligibleProviders, date);
+        return groupSlots(availabilityRepo.findAvailableSlotsForProviders(eligibleProviders, date));
+    }
 
+    private List<SlotResponse> groupSlots(List<ProviderAvailability> allSlots) {
         Map<String, Long> grouped = allSlots.stream()
                 .collect(java.util.stream.Collectors.groupingBy(
                         s -> s.getStartTime() + "-" + s.getEndTime(),
@@ -431,48 +402,62 @@ public class BookingService {
     // BOOK SLOT (ACCEPTED)
     // =========================
     @Transactional
+    @Timed(value = "booking.operation", extraTags = {"operation", "bookSlot"}, histogram = true)
     public BookingResponse bookSlot(Long customerId, SlotBookingRequest req) {
-        log.trace("Entering bookSlot method");
         log.info("Booking slot for customer");
 
         LocalDate date = req.dateTime().toLocalDate();
         LocalTime start = req.dateTime().toLocalTime();
         LocalTime end = start.plusHours(1);
 
-        ProviderAvailability lockedSlot = null;
         Long providerId = req.providerId();
         String city = resolveUserCity(customerId);
+        JobSite site = resolveJobSite(customerId, req.latitude(), req.longitude(), req.pincode());
 
         if (providerId != null) {
             ensureProviderCityMatch(providerId, city);
-            lockedSlot = availabilityRepo.lockAvailableSlot(providerId, date, start, end)
-                    .orElseThrow(() -> {
-                        log.error("Slot not available");
-                        return new RuntimeException("Slot not available");
-                    });
+            if (availabilityRepo.claimSlot(providerId, date, start, end) == 0) {
+                metrics.contention(BookingMetrics.SLOT_TAKEN);
+                log.error("Slot not available");
+                throw new SlotUnavailableException("Slot not available");
+            }
         } else {
-            List<Long> providerIds = providerServiceRepo.findProviderIdsBySubServiceId(req.serviceId());
-            if (providerIds.isEmpty()) {
-                log.error("No provider available for this service");
-                throw new RuntimeException("No provider available for this service");
+            Set<Long> tried = new HashSet<>();
+
+            // providers who declared the job's pincode as service area, best-ranked first
+            if (site.pincode() != null) {
+                List<Long> covering = serviceAreaIndex.providersCovering(site.pincode(), req.serviceId());
+                providerId = claimFirstFree(rankingService.rank(covering), req.serviceId(), null, site.pincode(),
+                        date, start, end, tried);
             }
 
-            for (Long pid : providerIds) {
-                boolean eligible = providerProfileRepo.findById(pid)
-                        .map(p -> p.isApproved() && p.isOnline() && city.equalsIgnoreCase(p.getCity()))
-                        .orElse(false);
+            if (providerId == null) {
+                List<Long> providerIds = providerServiceRepo.findProviderIdsBySubServiceId(req.serviceId());
+                if (providerIds.isEmpty()) {
+                    log.error("No provider available for this service");
+                    throw new RuntimeException("No provider available for this service");
+                }
 
-                if (!eligible) continue;
+                // nearest providers within geo.assign.radius-km when the job has coordinates
+                if (site.located()) {
+                    Set<Long> offering = new HashSet<>(providerIds);
+                    List<Long> nearest = geoIndex.assignmentCandidates(site.latitude(), site.longitude(), offering::contains)
+                            .stream()
+                            .map(GeoMatch::providerId)
+                            .toList();
+                    // booking.city is the customer's city, so distance matches must be in it too
+                    providerId = claimFirstFree(nearest, req.serviceId(), city, null, date, start, end, tried);
+                }
 
-                Optional<ProviderAvailability> opt = availabilityRepo.lockAvailableSlot(pid, date, start, end);
-                if (opt.isPresent()) {
-                    lockedSlot = opt.get();
-                    providerId = pid;
-                    break;
+                // then best-ranked providers in the customer's city
+                if (providerId == null) {
+                    providerId = claimFirstFree(rankingService.rank(providerIds), req.serviceId(), city, null,
+                            date, start, end, tried);
                 }
             }
 
-            if (lockedSlot == null) {
+            if (providerId == null) {
+                metrics.contention(BookingMetrics.NO_PROVIDER_FOR_SLOT);
                 log.error("No provider available for this slot");
                 throw new RuntimeException("No provider available for this slot");
             }
@@ -486,6 +471,7 @@ public class BookingService {
                 List.of(BookingStatus.ACCEPTED, BookingStatus.STARTED)
         );
         if (overlap) {
+            metrics.contention(BookingMetrics.PROVIDER_DOUBLE_BOOKED);
             log.error("Provider already booked for this slot");
             throw new RuntimeException("Provider already booked for this slot");
         }
@@ -497,6 +483,7 @@ public class BookingService {
         booking.setDateTime(req.dateTime());
         booking.setLocation(req.location());
         booking.setCity(city);
+        setJobSite(booking, site);
         booking.setStatus(BookingStatus.ACCEPTED);
 
         SubService subService = subServiceRepo.findById(req.serviceId())
@@ -507,18 +494,12 @@ public class BookingService {
         booking.setPrice(subService.getBasePrice());
 
         Booking saved = repo.save(booking);
-
-        lockedSlot.setStatus(AvailabilityStatus.BOOKED);
-        availabilityRepo.save(lockedSlot);
+        metrics.transition(null, BookingStatus.ACCEPTED);
 
         // Generate & notify Start OTP (Urban Company flow)
         generateAndNotifyStartOtp(saved);
 
-        notificationService.upsertBookingNotification(
-                saved.getProviderId(),
-                saved.getId(),
-                "New Job: Booking #" + saved.getId() + ". Ask customer for OTP to start the job."
-        );
+        events.record(saved, null, BookingEventType.ACCEPTED, customerId);
 
         log.debug("Slot booked successfully");
         return map(saved);
@@ -533,7 +514,6 @@ public class BookingService {
      */
     @Transactional
     public void resendStartOtp(Long bookingId, Long customerId) {
-        log.trace("Entering resendStartOtp method");
         log.info("Resending start OTP");
 
         Booking booking = getBooking(bookingId);
@@ -563,21 +543,16 @@ public class BookingService {
      * If OTP matches → mark STARTED and store verification timestamp.
      */
     @Transactional
+    @Retryable(includes = OptimisticLockingFailureException.class,
+            maxRetriesString = "${booking.transition.max-retries:2}",
+            delayString = "${booking.transition.retry-delay-ms:20}")
+    @Timed(value = "booking.operation", extraTags = {"operation", "verifyStartOtp"}, histogram = true)
     public void verifyStartOtp(Long bookingId, Long providerId, String otp) {
-        log.trace("Entering verifyStartOtp method");
         log.info("Verifying start OTP");
 
         Booking booking = getBooking(bookingId);
 
-        if (booking.getProviderId() == null || !providerId.equals(booking.getProviderId())) {
-            log.error("Unauthorized: This booking is not assigned to you");
-            throw new RuntimeException("Unauthorized: This booking is not assigned to you");
-        }
-
-        if (booking.getStatus() != BookingStatus.ACCEPTED) {
-            log.error("OTP verification allowed only when booking is ACCEPTED");
-            throw new RuntimeException("OTP verification allowed only when booking is ACCEPTED");
-        }
+        stateMachine.validate(BookingAction.START, booking, providerId, null);
 
         if (booking.getStartOtpHash() == null) {
             log.error("Start OTP not generated yet");
@@ -595,22 +570,10 @@ public class BookingService {
             throw new RuntimeException("Invalid OTP");
         }
 
-        booking.setStartOtpVerifiedAt(LocalDateTime.now());
-        booking.setStatus(BookingStatus.STARTED);
-        repo.save(booking);
-
-        // notify both
-        notificationService.upsertBookingNotification(
-                booking.getCustomerId(),
-                booking.getId(),
-                "Your job has started for Booking #" + booking.getId()
-        );
-
-        notificationService.upsertBookingNotification(
-                booking.getProviderId(),
-                booking.getId(),
-                "OTP verified. You can start the job for Booking #" + booking.getId()
-        );
+        // compare-and-set on the version the OTP was checked against (a concurrent resend/reschedule changes it)
+        stateMachine.apply(BookingStateMachine.Request.of(BookingAction.START, bookingId, providerId)
+                .verifiedAt(LocalDateTime.now())
+                .atVersion(booking.getVersion()));
 
         log.debug("Start OTP verified successfully");
     }
@@ -621,8 +584,9 @@ public class BookingService {
         booking.setStartOtpGeneratedAt(LocalDateTime.now());
         repo.save(booking);
 
-        // customer sees OTP in app via notifications (matches UC experience)
-        notificationService.upsertBookingNotification(
+        // customer sees OTP in app via notifications (matches UC experience);
+        // written inline, never through the outbox, so the plaintext OTP is not persisted in events
+        notificationService.upsertBookingOtpNotification(
                 booking.getCustomerId(),
                 booking.getId(),
                 "Job Start OTP for Booking #" + booking.getId() + " is: " + otp + " (Share with provider to start the job)"
@@ -647,6 +611,61 @@ public class BookingService {
         return city;
     }
 
+    /**
+     * Claims the first candidate's slot that is free, in candidate order. Candidates come from in-memory
+     * indexes, so each batch of {@value #CLAIM_BATCH} is re-checked in one query: approved, online, still
+     * offering {@code serviceId} and, unless null, in {@code city} / still covering {@code pincode}.
+     * Candidates in {@code tried} are skipped.
+     */
+    private Long claimFirstFree(List<Long> candidates, Long serviceId, String city, String pincode, LocalDate date,
+                                LocalTime start, LocalTime end, Set<Long> tried) {
+        List<Long> batch = new ArrayList<>(CLAIM_BATCH);
+        for (int i = 0; i < candidates.size(); i += CLAIM_BATCH) {
+            batch.clear();
+            for (Long pid : candidates.subList(i, Math.min(candidates.size(), i + CLAIM_BATCH))) {
+                if (tried.add(pid)) batch.add(pid);
+            }
+            if (batch.isEmpty()) continue;
+
+            Set<Long> eligible = new HashSet<>(providerProfileRepo.findAssignableProviderIdsIn(batch, serviceId, city, pincode));
+            for (Long pid : batch) {
+                if (!eligible.contains(pid)) continue;
+
+                // conditional UPDATE: 0 rows = no such free slot or another booking just took it
+                if (availabilityRepo.claimSlot(pid, date, start, end) == 1) {
+                    return pid;
+                }
+            }
+        }
+        return null;
+    }
+
+    // where the job is: request values win, the rest comes from the customer's default address
+    private record JobSite(Double latitude, Double longitude, String pincode) {
+        boolean located() {
+            return latitude != null && longitude != null;
+        }
+    }
+
+    private JobSite resolveJobSite(Long customerId, Double latitude, Double longitude, String pincode) {
+        boolean located = latitude != null && longitude != null;
+        if (located && pincode != null) return new JobSite(latitude, longitude, pincode);
+
+        Address home = addressRepo.findFirstByCustomer_CustomerIdAndDefaultAddressTrue(customerId).orElse(null);
+        if (home == null) return new JobSite(located ? latitude : null, located ? longitude : null, pincode);
+        return new JobSite(
+                located ? latitude : home.getLatitude(),
+                located ? longitude : home.getLongitude(),
+                pincode != null ? pincode : home.getPincode());
+    }
+
+    private static void setJobSite(Booking booking, JobSite site) {
+        booking.setPincode(site.pincode());
+        if (!site.located()) return;
+        booking.setLatitude(site.latitude());
+        booking.setLongitude(site.longitude());
+    }
+
     private void ensureProviderCityMatch(Long providerId, String city) {
         boolean matches = providerProfileRepo.findById(providerId)
                 .map(p -> p.getCity() != null && p.getCity().equalsIgnoreCase(city))
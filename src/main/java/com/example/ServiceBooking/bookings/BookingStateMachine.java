@@ -0,0 +1,274 @@
+package com.example.ServiceBooking.bookings;
+
+import com.example.ServiceBooking.bookings.dto.BookingStatus;
+import com.example.ServiceBooking.bookings.events.BookingEventService;
+import com.example.ServiceBooking.bookings.events.BookingEventType;
+import com.example.ServiceBooking.providermanagement.ProviderAvailabilityRepository;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * All booking status changes, as one table: action -> allowed source states, target state, guards, hooks.
+ * <ul>
+ *   <li>{@link #apply} compiles the rule into a single conditional UPDATE (source states, ownership and city
+ *       in the WHERE clause), so the common path is one statement with no SELECT before it</li>
+ *   <li>0 rows: the booking is read once to report exactly which check failed (same messages as before)</li>
+ *   <li>1 row: hooks (metrics, outbox event, slot release) run on the post-image, read by primary key</li>
+ * </ul>
+ * Callers that must read the booking first anyway (start OTP check) pass its version so the UPDATE
+ * is also a compare-and-set; a version miss is thrown as an optimistic-lock failure for {@code @Retryable}.
+ */
+@Component
+public class BookingStateMachine {
+
+    public enum Guard {
+        OWNING_CUSTOMER,
+        OWNING_PROVIDER,
+        PARTICIPANT,      // customer or assigned provider
+        HAS_PROVIDER,
+        SAME_CITY
+    }
+
+    @FunctionalInterface
+    public interface Hook {
+        void afterTransition(Booking booking, Request request);
+    }
+
+    public record Rule(EnumSet<BookingStatus> from,
+                       BookingStatus to,
+                       List<Guard> guards,
+                       Function<Booking, String> invalidStateMessage,
+                       String contentionReason,
+                       List<Hook> hooks) {
+    }
+
+    /**
+     * @param actorId           user performing the action (checked by the ownership guards)
+     * @param assignProviderId  provider to set (ACCEPT / ASSIGN), null keeps the current one
+     * @param city              city the booking must be in (SAME_CITY guard)
+     * @param startOtpVerifiedAt set on START
+     * @param expectedVersion   null = don't compare versions
+     */
+    public record Request(BookingAction action, Long bookingId, Long actorId, Long assignProviderId,
+                          String city, LocalDateTime startOtpVerifiedAt, Long expectedVersion) {
+
+        public static Request of(BookingAction action, Long bookingId, Long actorId) {
+            return new Request(action, bookingId, actorId, null, null, null, null);
+        }
+
+        public Request assigning(Long providerId) {
+            return new Request(action, bookingId, actorId, providerId, city, startOtpVerifiedAt, expectedVersion);
+        }
+
+        public Request inCity(String city) {
+            return new Request(action, bookingId, actorId, assignProviderId, city, startOtpVerifiedAt, expectedVersion);
+        }
+
+        public Request verifiedAt(LocalDateTime at) {
+            return new Request(action, bookingId, actorId, assignProviderId, city, at, expectedVersion);
+        }
+
+        public Request atVersion(long version) {
+            return new Request(action, bookingId, actorId, assignProviderId, city, startOtpVerifiedAt, version);
+        }
+    }
+
+    private final BookingRepository repo;
+    private final BookingMetrics metrics;
+    private final BookingEventService events;
+    private final ProviderAvailabilityRepository availabilityRepo;
+
+    private final Map<BookingAction, Rule> rules = new EnumMap<>(BookingAction.class);
+    // pre-built IN-list parameters, so apply() doesn't rebuild them per call
+    private final Map<BookingAction, List<BookingStatus>> fromLists = new EnumMap<>(BookingAction.class);
+
+    public BookingStateMachine(BookingRepository repo,
+                               BookingMetrics metrics,
+                               BookingEventService events,
+                               ProviderAvailabilityRepository availabilityRepo) {
+        this.repo = repo;
+        this.metrics = metrics;
+        this.events = events;
+        this.availabilityRepo = availabilityRepo;
+
+        // =========================
+        // TRANSITION TABLE
+        // =========================
+        rule(BookingAction.ACCEPT, EnumSet.of(BookingStatus.PENDING), BookingStatus.ACCEPTED,
+                List.of(Guard.SAME_CITY),
+                b -> "Booking already accepted by another provider", BookingMetrics.ALREADY_ACCEPTED,
+                event(BookingEventType.ACCEPTED));
+
+        rule(BookingAction.ASSIGN, EnumSet.of(BookingStatus.PENDING), BookingStatus.ACCEPTED,
+                List.of(Guard.SAME_CITY),
+                b -> "Only PENDING bookings can be assigned manually", null,
+                event(BookingEventType.ASSIGNED));
+
+        rule(BookingAction.RESCHEDULE, EnumSet.of(BookingStatus.ACCEPTED), BookingStatus.ACCEPTED,
+                List.of(Guard.OWNING_CUSTOMER, Guard.HAS_PROVIDER),
+                b -> "Only ACCEPTED bookings can be rescheduled. Current status: " + b.getStatus(), null);
+
+        rule(BookingAction.START, EnumSet.of(BookingStatus.ACCEPTED), BookingStatus.STARTED,
+                List.of(Guard.OWNING_PROVIDER),
+                b -> "OTP verification allowed only when booking is ACCEPTED", null,
+                event(BookingEventType.STARTED));
+
+        rule(BookingAction.COMPLETE, EnumSet.of(BookingStatus.ACCEPTED, BookingStatus.STARTED), BookingStatus.COMPLETED,
+                List.of(Guard.OWNING_PROVIDER),
+                b -> "Invalid booking state", null,
+                event(BookingEventType.COMPLETED));
+
+        rule(BookingAction.PROVIDER_CANCEL, EnumSet.of(BookingStatus.ACCEPTED), BookingStatus.CANCELLED,
+                List.of(Guard.OWNING_PROVIDER),
+                b -> "Invalid booking state", null,
+                event(BookingEventType.CANCELLED));
+
+        rule(BookingAction.CANCEL, EnumSet.of(BookingStatus.PENDING, BookingStatus.ACCEPTED, BookingStatus.STARTED),
+                BookingStatus.CANCELLED,
+                List.of(Guard.PARTICIPANT),
+                b -> "Cannot cancel a " + b.getStatus().name().toLowerCase() + " booking", null,
+                this::releaseUnstartedSlot, event(BookingEventType.CANCELLED));
+    }
+
+    private void rule(BookingAction action, EnumSet<BookingStatus> from, BookingStatus to, List<Guard> guards,
+                      Function<Booking, String> invalidStateMessage, String contentionReason, Hook... hooks) {
+        Rule rule = new Rule(from, to, guards, invalidStateMessage, contentionReason, List.of(hooks));
+        rules.put(action, rule);
+        fromLists.put(action, List.copyOf(from));
+    }
+
+    public Rule rule(BookingAction action) {
+        return rules.get(action);
+    }
+
+    /**
+     * Applies the transition and its hooks; must run inside the caller's transaction.
+     *
+     * @return the booking after the change
+     */
+    public Booking apply(Request req) {
+        Rule rule = rules.get(req.action());
+        List<Guard> guards = rule.guards();
+
+        int updated = repo.applyTransition(
+                req.bookingId(),
+                fromLists.get(req.action()),
+                rule.to(),
+                req.assignProviderId(),
+                req.startOtpVerifiedAt(),
+                rule.to() == BookingStatus.CANCELLED ? req.actorId() : null,
+                guards.contains(Guard.OWNING_CUSTOMER) ? req.actorId() : null,
+                guards.contains(Guard.OWNING_PROVIDER) ? req.actorId() : null,
+                guards.contains(Guard.PARTICIPANT) ? req.actorId() : null,
+                guards.contains(Guard.HAS_PROVIDER),
+                guards.contains(Guard.SAME_CITY) ? req.city() : null,
+                req.expectedVersion()
+        );
+
+        if (updated == 0) {
+            throw rejection(rule, req);
+        }
+
+        // post-image (the update cleared the persistence context, so this is a fresh read)
+        Booking booking = repo.findById(req.bookingId())
+                .orElseThrow(() -> new RuntimeException("Booking not found"));
+
+        metrics.transition(booking.getPreviousStatus(), rule.to());
+        for (Hook hook : rule.hooks()) {
+            hook.afterTransition(booking, req);
+        }
+        return booking;
+    }
+
+    /**
+     * In-memory check of a rule against a booking the caller already loaded (no write).
+     */
+    public void validate(BookingAction action, Booking booking, Long actorId, String city) {
+        Rule rule = rules.get(action);
+        String failure = firstFailure(rule, booking, actorId, city);
+        if (failure != null) {
+            throw new RuntimeException(failure);
+        }
+    }
+
+    // ======================
+    // REJECTION (slow path)
+    // ======================
+
+    private RuntimeException rejection(Rule rule, Request req) {
+        Booking current = repo.findById(req.bookingId()).orElse(null);
+        if (current == null) {
+            return new RuntimeException("Booking not found");
+        }
+
+        String failure = firstFailure(rule, current, req.actorId(), req.city());
+        if (failure != null) {
+            if (rule.contentionReason() != null && !rule.from().contains(current.getStatus())) {
+                metrics.contention(rule.contentionReason());
+            }
+            return new RuntimeException(failure);
+        }
+
+        // every check passes on the current row: only the expected version (or a concurrent change) failed
+        metrics.contention(BookingMetrics.STALE_BOOKING);
+        return new ObjectOptimisticLockingFailureException(Booking.class, req.bookingId());
+    }
+
+    private String firstFailure(Rule rule, Booking b, Long actorId, String city) {
+        for (Guard guard : rule.guards()) {
+            switch (guard) {
+                case OWNING_CUSTOMER -> {
+                    if (!b.getCustomerId().equals(actorId)) return "Unauthorized: only the customer can change this booking";
+                }
+                case OWNING_PROVIDER -> {
+                    if (b.getProviderId() == null || !b.getProviderId().equals(actorId)) return "Not your booking";
+                }
+                case PARTICIPANT -> {
+                    if (!b.getCustomerId().equals(actorId) && (b.getProviderId() == null || !b.getProviderId().equals(actorId))) {
+                        return "Unauthorized cancellation";
+                    }
+                }
+                case HAS_PROVIDER -> {
+                    if (b.getProviderId() == null) return "No provider assigned to this booking";
+                }
+                case SAME_CITY -> {
+                    if (city != null && b.getCity() != null && !b.getCity().equalsIgnoreCase(city)) {
+                        return "Booking is in a different city";
+                    }
+                }
+            }
+        }
+        if (!rule.from().contains(b.getStatus())) {
+            return rule.invalidStateMessage().apply(b);
+        }
+        return null;
+    }
+
+    // =========================
+    // HOOKS
+    // =========================
+
+    private Hook event(BookingEventType type) {
+        return (booking, req) -> events.record(booking, booking.getPreviousStatus(), type, req.actorId());
+    }
+
+    // a cancelled ACCEPTED booking frees its slot unless the job already started
+    private void releaseUnstartedSlot(Booking booking, Request req) {
+        if (booking.getPreviousStatus() != BookingStatus.ACCEPTED
+                || booking.getProviderId() == null
+                || booking.getDateTime() == null
+                || booking.getStartOtpVerifiedAt() != null) {
+            return;
+        }
+        LocalTime start = booking.getDateTime().toLocalTime();
+        availabilityRepo.releaseSlot(booking.getProviderId(), booking.getDateTime().toLocalDate(), start, start.plusHours(1));
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.ServiceBooking.bookings;
+
+/**
+ * Lost a slot claim: the provider's slot is no longer AVAILABLE (another booking took it first). Answered with 409.
+ */
+public class SlotUnavailableException extends RuntimeException {
+
+    public SlotUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -4,5 +4,7 @@ package com.example.ServiceBooking.bookings.dto;
 public record NearbyProviderResponse(
         Long providerId,
         String providerName,
-        String city
+        String city,
+        Double score,
+        Double distanceKm // null when matched by city only
 ) {}
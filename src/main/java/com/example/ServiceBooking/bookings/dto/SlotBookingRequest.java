@@ -1,11 +1,19 @@
 package com.example.ServiceBooking.bookings.dto;
 
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
 import java.time.LocalDateTime;
 
 public record SlotBookingRequest(
         @NotNull Long serviceId,
         Long providerId, // optional: if null -> system assigns
         @NotNull LocalDateTime dateTime,
-        @NotNull String location
+        @NotNull String location,
+        // optional: job coordinates; default address coordinates are used when omitted
+        @DecimalMin("-90.0") @DecimalMax("90.0") Double latitude,
+        @DecimalMin("-180.0") @DecimalMax("180.0") Double longitude,
+        // optional: job pincode for service-area routing; default address pincode when omitted
+        @Pattern(regexp = "^[0-9]{6}$") String pincode
 ) {}
@@ -0,0 +1,108 @@
+package com.example.ServiceBooking.bookings.events;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Polls the outbox and hands pending events to every {@link BookingEventSubscriber}.
+ * <ul>
+ *   <li>batches of {@code booking-events.batch-size}, oldest first, marked processed with one UPDATE</li>
+ *   <li>a failing event holds back only the later events of its own booking (they must not overtake it);
+ *       the rest of the batch goes through. It is retried on the next run, up to
+ *       {@code booking-events.max-attempts}, then parked ({@code parked_at}) and its booking moves on</li>
+ *   <li>processed events are purged after {@code booking-events.retention-days} once analytics has rolled
+ *       them up, and after {@code booking-events.unrolled-max-age-days} regardless, so the table stays bounded
+ *       when rollups are disabled</li>
+ * </ul>
+ * Runs on a single instance; with several app instances only one should enable the relay. Subscribers are
+ * in-process, so their side effects (SSE pushes in particular) happen only on the node running the relay.
+ */
+@Slf4j
+@Component
+public class BookingEventRelay {
+
+    private final BookingEventRepository repo;
+    private final List<BookingEventSubscriber> subscribers;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final int retentionDays;
+    private final int unrolledMaxAgeDays;
+    private final boolean enabled;
+
+    public BookingEventRelay(BookingEventRepository repo,
+                             List<BookingEventSubscriber> subscribers,
+                             @Value("${booking-events.batch-size:200}") int batchSize,
+                             @Value("${booking-events.max-attempts:5}") int maxAttempts,
+                             @Value("${booking-events.retention-days:7}") int retentionDays,
+                             @Value("${booking-events.unrolled-max-age-days:30}") int unrolledMaxAgeDays,
+                             @Value("${booking-events.relay-enabled:true}") boolean enabled) {
+        this.repo = repo;
+        this.subscribers = subscribers;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retentionDays = retentionDays;
+        this.unrolledMaxAgeDays = Math.max(retentionDays, unrolledMaxAgeDays);
+        this.enabled = enabled;
+    }
+
+    @Scheduled(fixedDelayString = "${booking-events.relay-ms:1000}")
+    public void relay() {
+        if (!enabled) return;
+
+        // keep draining while full batches go through cleanly
+        while (relayBatch()) {
+        }
+    }
+
+    /**
+     * @return true if a full batch was delivered without failures (more may be pending)
+     */
+    public synchronized boolean relayBatch() {
+        List<BookingEvent> pending = repo.findPending(PageRequest.of(0, batchSize));
+        if (pending.isEmpty()) return false;
+
+        List<Long> done = new ArrayList<>(pending.size());
+        Set<Long> heldBack = new HashSet<>();
+        for (BookingEvent e : pending) {
+            if (heldBack.contains(e.getBookingId())) continue;
+            try {
+                for (BookingEventSubscriber s : subscribers) {
+                    s.onEvent(e);
+                }
+                done.add(e.getId());
+            } catch (RuntimeException ex) {
+                if (e.getAttempts() + 1 >= maxAttempts) {
+                    log.error("Booking event {} ({}) parked after {} attempts", e.getId(), e.getType(), maxAttempts, ex);
+                    repo.park(e.getId(), LocalDateTime.now());
+                    continue;
+                }
+                log.warn("Booking event {} ({}) failed, will retry", e.getId(), e.getType(), ex);
+                repo.incrementAttempts(e.getId());
+                heldBack.add(e.getBookingId());
+            }
+        }
+
+        if (!done.isEmpty()) {
+            repo.markProcessed(done, LocalDateTime.now());
+        }
+        return pending.size() == batchSize && done.size() == pending.size();
+    }
+
+    @Scheduled(cron = "${booking-events.cleanup-cron:0 30 3 * * *}")
+    public void purgeProcessed() {
+        LocalDateTime now = LocalDateTime.now();
+        int deleted = repo.deleteProcessedBefore(now.minusDays(retentionDays), now.minusDays(unrolledMaxAgeDays));
+        if (deleted > 0) {
+            log.info("Purged {} processed booking events", deleted);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.ServiceBooking.bookings.events;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingEventRepository extends JpaRepository<BookingEvent, Long> {
+
+    @Query("select e from BookingEvent e where e.processedAt is null and e.parkedAt is null order by e.id asc")
+    List<BookingEvent> findPending(Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("update BookingEvent e set e.processedAt = :at where e.id in :ids")
+    int markProcessed(@Param("ids") List<Long> ids, @Param("at") LocalDateTime at);
+
+    @Transactional
+    @Modifying
+    @Query("update BookingEvent e set e.attempts = e.attempts + 1 where e.id = :id")
+    int incrementAttempts(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("update BookingEvent e set e.attempts = e.attempts + 1, e.parkedAt = :at where e.id = :id")
+    int park(@Param("id") Long id, @Param("at") LocalDateTime at);
+
+    @Transactional
+    @Modifying
+    // events the rollup consumer never took (rollups disabled everywhere) go once processed before unrolledBefore
+    @Query("""
+        delete from BookingEvent e
+         where e.processedAt < :before
+           and (e.rolledUp = true or e.processedAt < :unrolledBefore)
+    """)
+    int deleteProcessedBefore(@Param("before") LocalDateTime before,
+                              @Param("unrolledBefore") LocalDateTime unrolledBefore);
+
+    long countByProcessedAtIsNull();
+
+    // analytics rollups consume independently of the relay, with their own pending flag
+    @Query("select e from BookingEvent e where e.rolledUp = false order by e.id asc")
+    List<BookingEvent> findNotRolledUp(Pageable pageable);
+
+    @Modifying
+    @Query("update BookingEvent e set e.rolledUp = true where e.id in :ids")
+    int markRolledUp(@Param("ids") List<Long> ids);
+
+    // backfill: everything already in the tables is counted by the rebuild scan
+    @Modifying
+    @Query("update BookingEvent e set e.rolledUp = true where e.rolledUp = false")
+    int markAllRolledUp();
+
+    // columnar snapshot refresh: keyset-paged by primary key from a watermark id, never by created_at
+    @Query("select e from BookingEvent e where e.id > :afterId order by e.id asc")
+    List<BookingEvent> findAfterId(@Param("afterId") Long afterId, Pageable pageable);
+
+    // one-off at snapshot load, on idx_be_created
+    @Query("select min(e.id) from BookingEvent e where e.createdAt >= :since")
+    Long findFirstIdCreatedSince(@Param("since") LocalDateTime since);
+
+    @Query("select coalesce(max(e.id), 0) from BookingEvent e")
+    long findMaxId();
+}
@@ -0,0 +1,55 @@
+package com.example.ServiceBooking.bookings.events;
+
+import com.example.ServiceBooking.bookings.Booking;
+import com.example.ServiceBooking.bookings.dto.BookingStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Service
+@RequiredArgsConstructor
+public class BookingEventService {
+
+    private final BookingEventRepository repo;
+
+    /**
+     * Appends an outbox row. Must run inside the transaction that changes the booking,
+     * so the event exists if and only if the change committed.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public BookingEvent record(Booking booking, BookingStatus from, BookingEventType type, Long actorId) {
+        return repo.save(newEvent(booking, from, type, actorId));
+    }
+
+    /**
+     * PAYMENT_PAID for a booking; carries the payment amount instead of the booking price.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public BookingEvent recordPayment(Booking booking, BigDecimal amount, Long actorId) {
+        BookingEvent e = newEvent(booking, booking.getStatus(), BookingEventType.PAYMENT_PAID, actorId);
+        e.setAmount(amount);
+        return repo.save(e);
+    }
+
+    private BookingEvent newEvent(Booking booking, BookingStatus from, BookingEventType type, Long actorId) {
+        BookingEvent e = new BookingEvent();
+        e.setBookingId(booking.getId());
+        e.setType(type);
+        e.setFromStatus(from);
+        e.setToStatus(booking.getStatus());
+        e.setActorId(actorId);
+        e.setCustomerId(booking.getCustomerId());
+        e.setProviderId(booking.getProviderId());
+        e.setServiceId(booking.getServiceId());
+        e.setCity(booking.getCity());
+        e.setAmount(booking.getPrice());
+        e.setBookingTime(booking.getDateTime());
+        e.setBookingCreatedAt(booking.getCreatedAt());
+        e.setCreatedAt(LocalDateTime.now());
+        return e;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.ServiceBooking.bookings.events;
+
+/**
+ * In-process consumer of booking events, called by {@link BookingEventRelay} in event-id order per booking,
+ * on the relay's node only. Delivery is at-least-once (a failed event is redelivered to every subscriber),
+ * so implementations must be idempotent.
+ */
+public interface BookingEventSubscriber {
+
+    void onEvent(BookingEvent event);
+}
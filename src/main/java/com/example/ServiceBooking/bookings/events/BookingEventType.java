@@ -0,0 +1,12 @@
+package com.example.ServiceBooking.bookings.events;
+
+public enum BookingEventType {
+    CREATED,        // -> PENDING (open job)
+    ACCEPTED,       // -> ACCEPTED by slot booking (actor = customer) or job acceptance (actor = provider)
+    ASSIGNED,       // -> ACCEPTED by admin manual assignment
+    RESCHEDULED,    // ACCEPTED, new bookingTime
+    STARTED,        // start OTP verified
+    COMPLETED,
+    CANCELLED,
+    PAYMENT_PAID    // payment for the (COMPLETED) booking marked PAID; amount = payment amount
+}
@@ -54,8 +54,6 @@ public class BookingFilterController {
             @Valid @RequestBody(required = false) BookingFilterRequest request,
             @PageableDefault(size = 20) Pageable pageable
     ) {
-        log.info("Unified booking filter API called");
-        log.debug("Incoming filter payload received (IDs not logged)");
 
         // If body missing -> treat as all missing -> return all visible bookings for role
         BookingFilterRequest safe = (request == null)
@@ -72,7 +70,6 @@ public class BookingFilterController {
     public Page<BookingResponse> defaultFilter(
             @PageableDefault(size = 20) Pageable pageable
     ) {
-        log.info("Default booking filter GET called");
         BookingFilterRequest empty = new BookingFilterRequest(null, null, null, null, null, null, null, null, null);
         return filterService.filterBookings(userId(), currentRole(), empty, pageable);
     }
@@ -17,10 +17,12 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
@@ -32,6 +34,7 @@ public class BookingFilterService {
     private final ServiceCategoryRepository categoryRepo;
     private final SubServiceRepository subServiceRepo;
 
+    @Transactional(readOnly = true)
     public Page<BookingResponse> filterBookings(
             Long callerUserId,
             Role callerRole,
@@ -39,6 +42,25 @@ public class BookingFilterService {
             Pageable pageable
     ) {
         log.info("Booking filter request received");
+
+        Pageable finalPageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort(req));
+
+        Optional<Specification<Booking>> spec = specification(callerUserId, callerRole, req);
+        if (spec.isEmpty()) {
+            return Page.empty(finalPageable);
+        }
+
+        Page<Booking> page = bookingRepo.findAll(spec.get(), finalPageable);
+        log.info("Booking filter executed successfully");
+
+        return page.map(this::map);
+    }
+
+    /**
+     * Request filters + role visibility as one specification (shared with the streaming export).
+     * Empty when a name/category filter matches nothing, so there is nothing to query.
+     */
+    public Optional<Specification<Booking>> specification(Long callerUserId, Role callerRole, BookingFilterRequest req) {
         log.debug("Building dynamic booking filter specification (IDs not logged)");
 
         // 1) Resolve optional lists from names/category
@@ -48,7 +70,7 @@ public class BookingFilterService {
             log.debug("Customer name filter resolved to userId list");
             if (customerIds.isEmpty()) {
                 log.info("No customers matched customerName filter");
-                return Page.empty(applySorting(req, pageable));
+                return Optional.empty();
             }
         } else {
             customerIds = null;
@@ -60,7 +82,7 @@ public class BookingFilterService {
             log.debug("Provider name filter resolved to userId list");
             if (providerIds.isEmpty()) {
                 log.info("No providers matched providerName filter");
-                return Page.empty(applySorting(req, pageable));
+                return Optional.empty();
             }
         } else {
             providerIds = null;
@@ -78,7 +100,7 @@ public class BookingFilterService {
             log.debug("Service category filter resolved to subServiceId list");
             if (serviceIds.isEmpty()) {
                 log.info("No sub-services found for given service category");
-                return Page.empty(applySorting(req, pageable));
+                return Optional.empty();
             }
         } else {
             serviceIds = null;
@@ -121,15 +143,7 @@ public class BookingFilterService {
         }
 
         // 3) Apply role-based visibility constraint
-        spec = spec.and(roleConstraint(callerUserId, callerRole));
-
-        // 4) Apply sort mapping + pagination
-        Pageable finalPageable = applySorting(req, pageable);
-
-        Page<Booking> page = bookingRepo.findAll(spec, finalPageable);
-        log.info("Booking filter executed successfully");
-
-        return page.map(this::map);
+        return Optional.of(spec.and(roleConstraint(callerUserId, callerRole)));
     }
 
     private Specification<Booking> roleConstraint(Long callerUserId, Role role) {
@@ -162,7 +176,7 @@ public class BookingFilterService {
         return city;
     }
 
-    private Pageable applySorting(BookingFilterRequest req, Pageable pageable) {
+    public Sort sort(BookingFilterRequest req) {
         String sortBy = req.sortBy();
         String sortOrder = req.sortOrder();
 
@@ -187,7 +201,7 @@ public class BookingFilterService {
             }
         }
 
-        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+        return sort;
     }
 
     private BookingResponse map(Booking b) {
@@ -0,0 +1,62 @@
+package com.example.ServiceBooking.common.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Marks the current thread as allowed to read from the replica.
+ * Only read-only transactions started inside such a scope are routed there; everything else
+ * (writes, background jobs, requests of users who just wrote) stays on the primary.
+ * Without a replica configured this is a no-op.
+ */
+public final class ReadRouting {
+
+    private static final ThreadLocal<Boolean> REPLICA_ALLOWED = new ThreadLocal<>();
+
+    private ReadRouting() {
+    }
+
+    public static boolean replicaAllowed() {
+        return Boolean.TRUE.equals(REPLICA_ALLOWED.get());
+    }
+
+    /**
+     * Runs {@code work} with replica reads allowed (e.g. an export body running off the request thread).
+     */
+    public static <T> T withReplica(Supplier<T> work) {
+        Boolean previous = REPLICA_ALLOWED.get();
+        REPLICA_ALLOWED.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * Keeps reads on the primary until closed, even inside a replica scope. Used where a response is
+     * stored under the current resource version, which a lagging replica could predate.
+     */
+    public static Scope primaryOnly() {
+        Boolean previous = enter(false);
+        return () -> restore(previous);
+    }
+
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    static Boolean enter(boolean allowed) {
+        Boolean previous = REPLICA_ALLOWED.get();
+        REPLICA_ALLOWED.set(allowed);
+        return previous;
+    }
+
+    static void restore(Boolean previous) {
+        if (previous == null) {
+            REPLICA_ALLOWED.remove();
+        } else {
+            REPLICA_ALLOWED.set(previous);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.ServiceBooking.common.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Opens a replica-read scope for GET/HEAD requests, unless the caller wrote recently.
+ * Any other method counts as a write: its own reads stay on the primary and the caller becomes sticky.
+ * Runs after the security chain, so the JWT principal (the user id) is available.
+ * <p>
+ * The tracker only knows writes seen by this node, so a write also sets the {@value #STICKY_COOKIE} cookie
+ * (end of the sticky window, epoch millis); behind a load balancer the next GET may land on another node and
+ * still reads the primary. Clients that drop cookies only get read-your-writes from the node they wrote to.
+ * The cookie can at most send its own user's reads to the primary, so it is not signed.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String STICKY_COOKIE = "rw-sticky-until";
+
+    private final ReadYourWritesTracker tracker;
+
+    public ReadYourWritesFilter(ReadYourWritesTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Long userId = currentUserId();
+        boolean safe = "GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod());
+
+        if (!safe && userId != null) {
+            // before the body is written; the window counts from the start of the request here
+            response.addHeader(HttpHeaders.SET_COOKIE, stickyCookie(System.currentTimeMillis() + tracker.stickyMillis()));
+        }
+
+        boolean sticky = userId != null && (tracker.isSticky(userId) || stickyByCookie(request));
+        Boolean previous = ReadRouting.enter(safe && !sticky);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadRouting.restore(previous);
+            // after the response, so the window starts once the write has committed
+            if (!safe && userId != null) {
+                tracker.recordWrite(userId);
+            }
+        }
+    }
+
+    private boolean stickyByCookie(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) return false;
+        long now = System.currentTimeMillis();
+        for (Cookie c : cookies) {
+            if (!STICKY_COOKIE.equals(c.getName())) continue;
+            try {
+                long until = Long.parseLong(c.getValue());
+                // a value further out than one window was not set by us
+                return until > now && until - now <= tracker.stickyMillis();
+            } catch (NumberFormatException ex) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private String stickyCookie(long until) {
+        return ResponseCookie.from(STICKY_COOKIE, Long.toString(until))
+                .path("/")
+                .httpOnly(true)
+                .sameSite("Lax")
+                .maxAge(Duration.ofMillis(tracker.stickyMillis()).plusSeconds(1))
+                .build()
+                .toString();
+    }
+
+    private static Long currentUserId() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated()) return null;
+        try {
+            return Long.valueOf(auth.getPrincipal().toString());
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.ServiceBooking.common.datasource;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Users who wrote in the last {@code datasource.replica.sticky-ms}; their reads stay on the primary
+ * until the replica has had time to catch up with their own changes.
+ * Per node only; {@link ReadYourWritesFilter} carries the window to other nodes in a cookie.
+ */
+public class ReadYourWritesTracker {
+
+    private final ConcurrentMap<Long, Long> lastWriteMillis = new ConcurrentHashMap<>();
+    private final long stickyMillis;
+
+    public ReadYourWritesTracker(long stickyMillis) {
+        this.stickyMillis = stickyMillis;
+    }
+
+    public long stickyMillis() {
+        return stickyMillis;
+    }
+
+    public void recordWrite(Long userId) {
+        lastWriteMillis.put(userId, System.currentTimeMillis());
+    }
+
+    public boolean isSticky(Long userId) {
+        Long at = lastWriteMillis.get(userId);
+        return at != null && System.currentTimeMillis() - at < stickyMillis;
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.sticky-ms:5000}")
+    public void evictExpired() {
+        long cutoff = System.currentTimeMillis() - stickyMillis;
+        lastWriteMillis.values().removeIf(at -> at < cutoff);
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.ServiceBooking.common.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Primary/replica switch, decided when a connection is actually needed.
+ * Must sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * so the transaction's read-only flag is already set at that point.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    enum Target { PRIMARY, REPLICA }
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final Counter primaryRoutes;
+    private final Counter replicaRoutes;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, MeterRegistry registry) {
+        this.primary = primary;
+        this.replica = replica;
+        this.primaryRoutes = routes(registry, Target.PRIMARY);
+        this.replicaRoutes = routes(registry, Target.REPLICA);
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    private static Counter routes(MeterRegistry registry, Target target) {
+        return Counter.builder("datasource.routing")
+                .description("Connections handed out, by target pool")
+                .tag("target", target.name().toLowerCase())
+                .register(registry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && ReadRouting.replicaAllowed()) {
+            replicaRoutes.increment();
+            return Target.REPLICA;
+        }
+        primaryRoutes.increment();
+        return Target.PRIMARY;
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource ds : new DataSource[]{replica, primary}) {
+            if (ds instanceof AutoCloseable c) {
+                c.close();
+            }
+        }
+    }
+}
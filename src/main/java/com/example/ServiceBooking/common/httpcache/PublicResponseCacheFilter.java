@@ -0,0 +1,166 @@
+package com.example.ServiceBooking.common.httpcache;
+
+import com.example.ServiceBooking.common.datasource.ReadRouting;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * HTTP caching for the anonymous read endpoints (catalog + public ratings).
+ * <ul>
+ *   <li>weak ETag = last write time + resource version + URL hash, so any write invalidates it; versions are
+ *       shared through the database, so every instance gives the same ETag (see {@link ResourceVersions})</li>
+ *   <li>If-None-Match hit -> 304 without running the controller</li>
+ *   <li>otherwise serve the serialized JSON body from a bounded LRU, or run the controller and store it</li>
+ * </ul>
+ * Role-protected paths under the same prefixes (e.g. /ratings/provider/{id}/summary) are never cached.
+ * Bodies are always read from the primary: one read from a lagging replica would be cached under the
+ * new version and served until the next write.
+ */
+@Component
+public class PublicResponseCacheFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(PublicResponseCacheFilter.class);
+
+    private final ResourceVersions versions;
+    private final int maxBodyBytes;
+    private final String cacheControl;
+    private final Map<String, CachedBody> cache;
+
+    private record CachedBody(String etag, String contentType, byte[] body) {}
+
+    public PublicResponseCacheFilter(ResourceVersions versions,
+                                     @Value("${http-cache.max-entries:2000}") int maxEntries,
+                                     @Value("${http-cache.max-body-bytes:262144}") int maxBodyBytes,
+                                     @Value("${http-cache.max-age-seconds:30}") int maxAgeSeconds) {
+        this.versions = versions;
+        this.maxBodyBytes = maxBodyBytes;
+        this.cacheControl = "public, max-age=" + maxAgeSeconds;
+        this.cache = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedBody> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"GET".equals(request.getMethod()) || resourceKey(request.getRequestURI()) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        String url = request.getQueryString() == null
+                ? request.getRequestURI()
+                : request.getRequestURI() + "?" + request.getQueryString();
+
+        ResourceVersions.Version version = versions.current(resourceKey(request.getRequestURI()));
+        String etag = etag(version, url);
+
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && (ifNoneMatch.contains(etag) || ifNoneMatch.trim().equals("*"))) {
+            writeValidators(response, etag, version);
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        CachedBody cached;
+        synchronized (cache) {
+            cached = cache.get(url);
+        }
+        if (cached != null && cached.etag().equals(etag)) {
+            writeValidators(response, etag, version);
+            response.setContentType(cached.contentType());
+            response.setContentLength(cached.body().length);
+            response.getOutputStream().write(cached.body());
+            return;
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        // runs inside ReadYourWritesFilter (order 0), so this overrides its replica scope
+        try (ReadRouting.Scope primary = ReadRouting.primaryOnly()) {
+            filterChain.doFilter(request, wrapper);
+        }
+
+        if (wrapper.getStatus() == HttpServletResponse.SC_OK) {
+            writeValidators(wrapper, etag, version);
+
+            byte[] body = wrapper.getContentAsByteArray();
+            String contentType = wrapper.getContentType();
+            if (body.length <= maxBodyBytes && contentType != null && contentType.contains("json")) {
+                synchronized (cache) {
+                    cache.put(url, new CachedBody(etag, contentType, body));
+                }
+            } else {
+                log.debug("Response not cached (size or content type)");
+            }
+        }
+
+        wrapper.copyBodyToResponse();
+    }
+
+    private void writeValidators(HttpServletResponse response, String etag, ResourceVersions.Version version) {
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        if (version.lastModifiedMillis() > 0) {
+            response.setDateHeader(HttpHeaders.LAST_MODIFIED, version.lastModifiedMillis());
+        }
+    }
+
+    static String etag(ResourceVersions.Version version, String url) {
+        CRC32 crc = new CRC32();
+        crc.update(url.getBytes(StandardCharsets.UTF_8));
+        return "W/\"" + Long.toHexString(version.lastModifiedMillis())
+                + "-" + version.counter()
+                + "-" + Long.toHexString(crc.getValue()) + "\"";
+    }
+
+    /**
+     * Maps a public path to its version key, or null when the path must not be cached.
+     */
+    static String resourceKey(String path) {
+        if (path.startsWith("/catalog/")) {
+            return ResourceVersions.CATALOG;
+        }
+
+        String[] parts = path.split("/");
+        // ["", "ratings", "provider"|"service", "{id}", ("feed")?]
+        if (parts.length < 4 || parts.length > 5 || !"ratings".equals(parts[1])) {
+            return null;
+        }
+        if (parts.length == 5 && !"feed".equals(parts[4])) {
+            return null;
+        }
+
+        Long id;
+        try {
+            id = Long.valueOf(parts[3]);
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+
+        return switch (parts[2]) {
+            case "provider" -> ResourceVersions.providerRatings(id);
+            case "service" -> ResourceVersions.serviceRatings(id);
+            default -> null;
+        };
+    }
+}
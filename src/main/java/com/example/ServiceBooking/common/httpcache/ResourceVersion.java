@@ -0,0 +1,28 @@
+package com.example.ServiceBooking.common.httpcache;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Shared version of a cacheable public resource, so every app instance derives the same ETag.
+ * A key's row is created by its first write; no row means version 0.
+ */
+@Entity
+@Table(name = "resource_versions")
+@Getter
+@Setter
+public class ResourceVersion {
+
+    @Id
+    @Column(name = "resource_key", length = 100)
+    private String resourceKey;
+
+    @Column(nullable = false)
+    private long counter;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,22 @@
+package com.example.ServiceBooking.common.httpcache;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface ResourceVersionRepository extends JpaRepository<ResourceVersion, String> {
+
+    // joins the writer's transaction, so the new version commits (or rolls back) with the data
+    @Transactional
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            insert into resource_versions (resource_key, counter, updated_at)
+            values (:key, 1, :at)
+            on duplicate key update counter = counter + 1, updated_at = :at
+            """)
+    int increment(@Param("key") String key, @Param("at") LocalDateTime at);
+}
@@ -0,0 +1,96 @@
+package com.example.ServiceBooking.common.httpcache;
+
+import com.example.ServiceBooking.common.datasource.ReadRouting;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Per-resource version counters for public GET responses, stored in {@code resource_versions} so all
+ * app instances agree on them (and on the ETags derived from them).
+ * <ul>
+ *   <li>writers call {@link #bump(String)} inside their transaction; the new version commits with the data</li>
+ *   <li>readers see a local copy refreshed from the primary every {@code http-cache.version-ttl-ms}:
+ *       a write on another instance can be answered with a stale 304 for at most that long</li>
+ * </ul>
+ */
+@Component
+public class ResourceVersions {
+
+    public static final String CATALOG = "catalog";
+
+    private static final Version NONE = new Version(0L, 0L);
+
+    private final ResourceVersionRepository repo;
+    private final long ttlMillis;
+
+    private final ConcurrentMap<String, Loaded> local = new ConcurrentHashMap<>();
+
+    /**
+     * @param lastModifiedMillis time of the last write, 0 if the resource was never written
+     */
+    public record Version(long counter, long lastModifiedMillis) {}
+
+    private record Loaded(Version version, long loadedAtMillis) {}
+
+    public ResourceVersions(ResourceVersionRepository repo,
+                            @Value("${http-cache.version-ttl-ms:1000}") long ttlMillis) {
+        this.repo = repo;
+        this.ttlMillis = ttlMillis;
+    }
+
+    public static String providerRatings(Long providerId) {
+        return "ratings:provider:" + providerId;
+    }
+
+    public static String serviceRatings(Long serviceId) {
+        return "ratings:service:" + serviceId;
+    }
+
+    public Version current(String key) {
+        long now = System.currentTimeMillis();
+        Loaded loaded = local.get(key);
+        if (loaded != null && now - loaded.loadedAtMillis() < ttlMillis) {
+            return loaded.version();
+        }
+
+        Version version = load(key);
+        local.put(key, new Loaded(version, now));
+        return version;
+    }
+
+    /**
+     * Increments in the surrounding transaction (its own if there is none). This instance's copy is
+     * dropped after commit, so its next read sees the new version at once.
+     */
+    public void bump(String key) {
+        repo.increment(key, LocalDateTime.now());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    local.remove(key);
+                }
+            });
+        } else {
+            local.remove(key);
+        }
+    }
+
+    // from the primary: a lagging replica could return a version older than data already served
+    private Version load(String key) {
+        try (ReadRouting.Scope primary = ReadRouting.primaryOnly()) {
+            return repo.findById(key)
+                    .map(v -> new Version(v.getCounter(),
+                            v.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()))
+                    .orElse(NONE);
+        }
+    }
+}
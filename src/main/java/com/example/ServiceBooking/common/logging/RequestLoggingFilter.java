@@ -0,0 +1,65 @@
+package com.example.ServiceBooking.common.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * One structured access-log line per request, sampled:
+ * <ul>
+ *   <li>errors (status >= 500) and slow requests are always logged</li>
+ *   <li>everything else is logged with probability {@code logging.request.sample-rate}</li>
+ * </ul>
+ * Requests {@link SqlDebugFilter} enabled SQL logging for are always logged as well.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class RequestLoggingFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger("http.request");
+
+    private final double sampleRate;
+    private final long slowMillis;
+
+    public RequestLoggingFilter(@Value("${logging.request.sample-rate:0.01}") double sampleRate,
+                                @Value("${logging.request.slow-ms:1000}") long slowMillis) {
+        this.sampleRate = sampleRate;
+        this.slowMillis = slowMillis;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long tookMs = (System.nanoTime() - start) / 1_000_000;
+            int status = response.getStatus();
+            boolean sqlDebug = request.getAttribute(SqlDebugFilter.REQUEST_ATTRIBUTE) != null;
+
+            if (status >= 500 || tookMs >= slowMillis || sqlDebug
+                    || ThreadLocalRandom.current().nextDouble() < sampleRate) {
+                log.atInfo()
+                        .addKeyValue("method", request.getMethod())
+                        .addKeyValue("path", request.getRequestURI())
+                        .addKeyValue("status", status)
+                        .addKeyValue("durationMs", tookMs)
+                        .log("request completed");
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.ServiceBooking.common.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Turns on Hibernate SQL logging (statements and bind values) for one request when
+ * {@code logging.sql-debug.enabled=true}, the request carries the SQL debug header (default
+ * {@code X-Debug-Sql: true}) and the caller is an authenticated admin.
+ * <p>
+ * Added to the security chain after the JWT filter (see SecurityConfig), so the authentication is known;
+ * deliberately not a bean, or Boot would also register it as a servlet filter ahead of security.
+ */
+public class SqlDebugFilter extends OncePerRequestFilter {
+
+    // set on flagged requests so the access log always writes their line
+    public static final String REQUEST_ATTRIBUTE = SqlDebugFilter.class.getName() + ".enabled";
+
+    private final boolean enabled;
+    private final String header;
+
+    public SqlDebugFilter(boolean enabled, String header) {
+        this.enabled = enabled;
+        this.header = header;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !"true".equalsIgnoreCase(request.getHeader(header));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        if (!isAdmin(SecurityContextHolder.getContext().getAuthentication())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        request.setAttribute(REQUEST_ATTRIBUTE, Boolean.TRUE);
+        MDC.put(SqlDebugTurboFilter.MDC_KEY, "true");
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MDC.remove(SqlDebugTurboFilter.MDC_KEY);
+        }
+    }
+
+    private static boolean isAdmin(Authentication auth) {
+        return auth != null && auth.isAuthenticated()
+                && auth.getAuthorities().stream().anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()));
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.ServiceBooking.common.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+/**
+ * Lets Hibernate SQL logging through for a single request when {@link SqlDebugFilter}
+ * has flagged it in the MDC, while the SQL loggers stay off for everything else.
+ * Registered in logback-spring.xml; it runs before level checks, so Hibernate's
+ * {@code isDebugEnabled()} guard sees "enabled" only on flagged requests.
+ */
+public class SqlDebugTurboFilter extends TurboFilter {
+
+    public static final String MDC_KEY = "sqlDebug";
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        String name = logger.getName();
+        if (!name.startsWith("org.hibernate.SQL") && !name.startsWith("org.hibernate.orm.jdbc.bind")) {
+            return FilterReply.NEUTRAL;
+        }
+        return MDC.get(MDC_KEY) != null ? FilterReply.ACCEPT : FilterReply.NEUTRAL;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.ServiceBooking.common.mail;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+/**
+ * Swaps the auto-configured {@link JavaMailSenderImpl} (all {@code spring.mail.*} settings applied)
+ * for a {@link PooledJavaMailSender} with the same session and credentials.
+ * {@code mail.pool.enabled=false} keeps one connection per send.
+ */
+@Component
+public class MailTransportPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<MeterRegistry> registry;
+    private final boolean enabled;
+    private final int size;
+    private final int maxMessagesPerConnection;
+    private final long idleTimeoutMillis;
+    private final long borrowTimeoutMillis;
+
+    public MailTransportPostProcessor(ObjectProvider<MeterRegistry> registry,
+                                      @Value("${mail.pool.enabled:true}") boolean enabled,
+                                      @Value("${mail.pool.size:4}") int size,
+                                      @Value("${mail.pool.max-messages-per-connection:100}") int maxMessagesPerConnection,
+                                      @Value("${mail.pool.idle-timeout-ms:60000}") long idleTimeoutMillis,
+                                      @Value("${mail.pool.borrow-timeout-ms:10000}") long borrowTimeoutMillis) {
+        this.registry = registry;
+        this.enabled = enabled;
+        this.size = size;
+        this.maxMessagesPerConnection = maxMessagesPerConnection;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (enabled && bean instanceof JavaMailSenderImpl sender && !(bean instanceof PooledJavaMailSender)) {
+            return new PooledJavaMailSender(registry.getObject(), size, maxMessagesPerConnection,
+                    idleTimeoutMillis, borrowTimeoutMillis).configuredFrom(sender);
+        }
+        return bean;
+    }
+}
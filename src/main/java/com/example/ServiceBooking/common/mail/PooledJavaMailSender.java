@@ -0,0 +1,231 @@
+package com.example.ServiceBooking.common.mail;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.Address;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.angus.mail.smtp.SMTPSendFailedException;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link JavaMailSenderImpl} that keeps up to {@code size} connected (and, with STARTTLS, authenticated)
+ * SMTP transports and sends many messages over each, instead of a connect + handshake + QUIT per send.
+ * <ul>
+ *   <li>a connection is retired after {@code maxMessagesPerConnection} messages or {@code idleTimeoutMillis}
+ *       unused (servers drop idle sessions; reconnecting beats a NOOP round trip per send)</li>
+ *   <li>a send that fails on the connection (reset, EOF, 421, timeout, transport no longer connected)
+ *       reconnects and is retried once; a message the server rejects on a live session
+ *       ({@link SendFailedException}, e.g. 550 recipient) is not retried</li>
+ *   <li>callers wait up to {@code borrowTimeoutMillis} for a free connection</li>
+ * </ul>
+ * Failures surface as {@link MailSendException}, same as the plain sender.
+ */
+@Slf4j
+public class PooledJavaMailSender extends JavaMailSenderImpl implements AutoCloseable {
+
+    private final int maxMessagesPerConnection;
+    private final long idleTimeoutMillis;
+    private final long borrowTimeoutMillis;
+
+    // most recently used first, so spare connections go idle and get retired
+    private final LinkedBlockingDeque<PooledTransport> idle = new LinkedBlockingDeque<>();
+    private final Semaphore permits;
+    private final AtomicInteger open = new AtomicInteger();
+    private volatile boolean closed;
+
+    private final Counter connects;
+    private final Counter messages;
+    private final Counter retries;
+
+    private final class PooledTransport {
+        Transport transport;
+        long lastUsed;
+        int sent;
+
+        Transport open() throws MessagingException {
+            long now = System.currentTimeMillis();
+            if (transport != null && (sent >= maxMessagesPerConnection || now - lastUsed > idleTimeoutMillis)) {
+                discard();
+            }
+            if (transport == null) {
+                transport = connectTransport();
+                open.incrementAndGet();
+                connects.increment();
+                sent = 0;
+            }
+            lastUsed = now;
+            return transport;
+        }
+
+        void discard() {
+            if (transport == null) return;
+            try {
+                transport.close();
+            } catch (MessagingException ex) {
+                // already broken
+            }
+            transport = null;
+            open.decrementAndGet();
+        }
+    }
+
+    public PooledJavaMailSender(MeterRegistry registry, int size, int maxMessagesPerConnection,
+                                long idleTimeoutMillis, long borrowTimeoutMillis) {
+        this.maxMessagesPerConnection = maxMessagesPerConnection;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.permits = new Semaphore(size, true);
+
+        Gauge.builder("mail.smtp.connections", open, AtomicInteger::get)
+                .description("Open pooled SMTP connections")
+                .register(registry);
+        this.connects = Counter.builder("mail.smtp.connects")
+                .description("SMTP connections opened")
+                .register(registry);
+        this.messages = Counter.builder("mail.smtp.messages")
+                .description("Messages sent over pooled SMTP connections")
+                .register(registry);
+        this.retries = Counter.builder("mail.smtp.retries")
+                .description("Sends retried on a new connection after the old one failed")
+                .register(registry);
+    }
+
+    /**
+     * Pooled copy of a configured sender (session, server and credentials).
+     */
+    public PooledJavaMailSender configuredFrom(JavaMailSenderImpl source) {
+        setSession(source.getSession());
+        setProtocol(source.getProtocol());
+        setHost(source.getHost());
+        setPort(source.getPort());
+        setUsername(source.getUsername());
+        setPassword(source.getPassword());
+        setDefaultEncoding(source.getDefaultEncoding());
+        setDefaultFileTypeMap(source.getDefaultFileTypeMap());
+        return this;
+    }
+
+    @Override
+    protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) throws MailException {
+        Map<Object, Exception> failed = new LinkedHashMap<>();
+        PooledTransport connection = borrow();
+        try {
+            for (int i = 0; i < mimeMessages.length; i++) {
+                MimeMessage message = mimeMessages[i];
+                try {
+                    send(connection, message);
+                } catch (MessagingException ex) {
+                    failed.put(originalMessages != null ? originalMessages[i] : message, ex);
+                }
+            }
+        } finally {
+            release(connection);
+        }
+        if (!failed.isEmpty()) {
+            throw new MailSendException(failed);
+        }
+    }
+
+    private void send(PooledTransport connection, MimeMessage message) throws MessagingException {
+        // as JavaMailSenderImpl: keep a preset Message-ID across saveChanges()
+        if (message.getSentDate() == null) {
+            message.setSentDate(new Date());
+        }
+        String messageId = message.getMessageID();
+        message.saveChanges();
+        if (messageId != null) {
+            message.setHeader("Message-ID", messageId);
+        }
+        Address[] recipients = message.getAllRecipients();
+        Address[] to = recipients != null ? recipients : new Address[0];
+
+        for (int attempt = 0; ; attempt++) {
+            Transport transport = connection.open();
+            try {
+                transport.sendMessage(message, to);
+                connection.sent++;
+                messages.increment();
+                return;
+            } catch (MessagingException | IllegalStateException ex) {
+                // the server refused this message; the session itself is fine
+                if (ex instanceof SendFailedException rejected && !connectionLost(rejected, transport)) {
+                    throw rejected;
+                }
+                connection.discard();
+                if (attempt > 0) {
+                    throw ex instanceof MessagingException me ? me : new MessagingException("SMTP connection lost", ex);
+                }
+                retries.increment();
+                log.debug("SMTP connection failed, reconnecting", ex);
+            }
+        }
+    }
+
+    /**
+     * Angus reports any non-250 MAIL FROM reply as {@link SMTPSendFailedException}, including a 421 shutdown
+     * and -1 for a socket the server already closed (EOF); those, and a transport that no longer answers,
+     * are connection failures rather than a rejected message.
+     */
+    private static boolean connectionLost(SendFailedException ex, Transport transport) {
+        if (ex instanceof SMTPSendFailedException smtp && (smtp.getReturnCode() == -1 || smtp.getReturnCode() == 421)) {
+            return true;
+        }
+        return !transport.isConnected();
+    }
+
+    // ==================================================
+    // POOL
+    // ==================================================
+
+    private PooledTransport borrow() {
+        if (closed) {
+            throw new MailSendException("Mail sender is closed");
+        }
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new MailSendException("No SMTP connection available within " + borrowTimeoutMillis + " ms");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new MailSendException("Interrupted waiting for an SMTP connection");
+        }
+        PooledTransport connection = idle.pollFirst();
+        return connection != null ? connection : new PooledTransport();
+    }
+
+    private void release(PooledTransport connection) {
+        if (closed) {
+            connection.discard();
+        } else {
+            idle.offerFirst(connection);
+        }
+        permits.release();
+    }
+
+    /**
+     * Sends QUIT on idle connections; ones in use close when they are returned.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        PooledTransport connection;
+        while ((connection = idle.pollFirst()) != null) {
+            connection.discard();
+        }
+    }
+}
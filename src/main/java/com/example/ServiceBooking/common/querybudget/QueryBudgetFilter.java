@@ -0,0 +1,158 @@
+package com.example.ServiceBooking.common.querybudget;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request SQL budget:
+ * <ul>
+ *   <li>statements, rows and SQL time per endpoint ({@code sql.request.*}, tagged with the route pattern)</li>
+ *   <li>a shape repeated {@code sql-budget.n-plus-one-threshold}+ times in one request counts as N+1
+ *       ({@code sql.n_plus_one}, tagged with the repository method that issued it)</li>
+ *   <li>more than {@code sql-budget.max-statements} statements counts as over budget ({@code sql.budget.exceeded})</li>
+ * </ul>
+ * N+1 and over-budget warnings are logged once per endpoint (and shape). With {@code sql-budget.headers-enabled=true}
+ * (dev only) responses carry X-Sql-Statements / X-Sql-Rows / X-Sql-Time-Ms / X-Sql-N-Plus-One, counting the
+ * statements run before the response was committed.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryBudgetFilter.class);
+
+    private static final int MAX_REPORTED = 1000;
+
+    private final MeterRegistry registry;
+    private final boolean enabled;
+    private final int maxStatements;
+    private final int nPlusOneThreshold;
+    private final boolean headersEnabled;
+
+    // endpoint (+ shape) keys already warned about
+    private final Set<String> reported = ConcurrentHashMap.newKeySet();
+
+    public QueryBudgetFilter(MeterRegistry registry,
+                             @Value("${sql-budget.enabled:true}") boolean enabled,
+                             @Value("${sql-budget.max-statements:50}") int maxStatements,
+                             @Value("${sql-budget.n-plus-one-threshold:5}") int nPlusOneThreshold,
+                             @Value("${sql-budget.headers-enabled:false}") boolean headersEnabled) {
+        this.registry = registry;
+        this.enabled = enabled;
+        this.maxStatements = maxStatements;
+        this.nPlusOneThreshold = nPlusOneThreshold;
+        this.headersEnabled = headersEnabled;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        QueryStats stats = QueryTracking.open(null, true);
+        try {
+            filterChain.doFilter(request, headersEnabled ? new HeaderWriter(response, stats, nPlusOneThreshold) : response);
+        } finally {
+            QueryTracking.close(stats);
+            record(request, stats);
+        }
+    }
+
+    private void record(HttpServletRequest request, QueryStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNMAPPED" : pattern.toString();
+        String method = request.getMethod();
+        String endpoint = method + " " + uri;
+
+        DistributionSummary.builder("sql.request.statements")
+                .description("SQL statements per request")
+                .tags("method", method, "uri", uri)
+                .register(registry)
+                .record(stats.statements());
+        DistributionSummary.builder("sql.request.rows")
+                .description("Rows read or updated per request")
+                .tags("method", method, "uri", uri)
+                .register(registry)
+                .record(stats.rows());
+        Timer.builder("sql.request.time")
+                .description("Time spent executing SQL per request")
+                .tags("method", method, "uri", uri)
+                .register(registry)
+                .record(stats.nanos(), TimeUnit.NANOSECONDS);
+
+        for (QueryStats.Shape shape : stats.repeatedShapes(nPlusOneThreshold)) {
+            String origin = shape.origin() == null ? "none" : shape.origin();
+            Counter.builder("sql.n_plus_one")
+                    .description("Requests that repeated one statement shape past the threshold")
+                    .tags("method", method, "uri", uri, "origin", origin)
+                    .register(registry)
+                    .increment();
+            if (firstReport(endpoint + "|" + shape.sql())) {
+                log.warn("Possible N+1 on {}: {} x [{}] from {}", endpoint, shape.count(), shape.sql(), origin);
+            }
+        }
+
+        if (stats.statements() > maxStatements) {
+            Counter.builder("sql.budget.exceeded")
+                    .description("Requests that ran more SQL statements than sql-budget.max-statements")
+                    .tags("method", method, "uri", uri)
+                    .register(registry)
+                    .increment();
+            if (firstReport(endpoint)) {
+                log.warn("{} ran {} SQL statements (budget {})", endpoint, stats.statements(), maxStatements);
+            }
+        }
+    }
+
+    private boolean firstReport(String key) {
+        return reported.size() < MAX_REPORTED && reported.add(key);
+    }
+
+    /**
+     * Adds the X-Sql-* headers just before the response commits.
+     */
+    private static final class HeaderWriter extends OnCommittedResponseWrapper {
+
+        private final QueryStats stats;
+        private final int nPlusOneThreshold;
+
+        HeaderWriter(HttpServletResponse response, QueryStats stats, int nPlusOneThreshold) {
+            super(response);
+            this.stats = stats;
+            this.nPlusOneThreshold = nPlusOneThreshold;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            setHeader("X-Sql-Statements", String.valueOf(stats.statements()));
+            setHeader("X-Sql-Rows", String.valueOf(stats.rows()));
+            setHeader("X-Sql-Time-Ms", String.valueOf(stats.nanos() / 1_000_000));
+            setHeader("X-Sql-N-Plus-One", String.valueOf(stats.repeatedShapes(nPlusOneThreshold).size()));
+        }
+    }
+}
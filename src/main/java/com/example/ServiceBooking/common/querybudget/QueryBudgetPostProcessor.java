@@ -0,0 +1,51 @@
+package com.example.ServiceBooking.common.querybudget;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Installs the query instrumentation:
+ * <ul>
+ *   <li>the application DataSource (bean {@code dataSource}, the replica router's proxy when one is configured)
+ *       is wrapped in a {@link StatementCountingDataSource}; the pools behind it are left alone</li>
+ *   <li>every Spring Data repository gets a {@link RepositoryQueryInterceptor}</li>
+ * </ul>
+ * {@code sql-budget.enabled=false} turns both off.
+ */
+@Component
+public class QueryBudgetPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<MeterRegistry> registry;
+    private final boolean enabled;
+
+    public QueryBudgetPostProcessor(ObjectProvider<MeterRegistry> registry,
+                                    @Value("${sql-budget.enabled:true}") boolean enabled) {
+        this.registry = registry;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (enabled && bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                    (proxyFactory, info) -> proxyFactory.addAdvice(
+                            new RepositoryQueryInterceptor(info.getRepositoryInterface(), registry))));
+        }
+        return bean;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (enabled && "dataSource".equals(beanName) && bean instanceof DataSource ds
+                && !(bean instanceof StatementCountingDataSource)) {
+            return new StatementCountingDataSource(ds);
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.ServiceBooking.common.querybudget;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * JDBC work seen by one scope (an HTTP request, a repository call or a {@link QueryTracking#capture} block).
+ * Statements are grouped by shape: the SQL with literals and IN-lists collapsed to {@code ?},
+ * so the same query with different parameters counts as one shape.
+ */
+public final class QueryStats {
+
+    /**
+     * How often one shape ran, and the innermost repository method that first issued it.
+     */
+    public record Shape(String sql, int count, String origin) {}
+
+    private static final class ShapeCount {
+        int count;
+        final String origin;
+
+        ShapeCount(String origin) {
+            this.origin = origin;
+        }
+    }
+
+    private final Map<String, ShapeCount> shapes;
+    private int statements;
+    private long rows;
+    private long nanos;
+
+    QueryStats(boolean trackShapes) {
+        this.shapes = trackShapes ? new HashMap<>() : null;
+    }
+
+    void statement(String shape, String origin, long tookNanos) {
+        statements++;
+        nanos += tookNanos;
+        if (shapes != null && shape != null) {
+            shapes.computeIfAbsent(shape, s -> new ShapeCount(origin)).count++;
+        }
+    }
+
+    void rows(long n) {
+        rows += n;
+    }
+
+    public int statements() {
+        return statements;
+    }
+
+    /**
+     * Rows read from result sets plus rows reported by updates.
+     */
+    public long rows() {
+        return rows;
+    }
+
+    public long nanos() {
+        return nanos;
+    }
+
+    /**
+     * Shapes that ran at least {@code threshold} times, most frequent first.
+     */
+    public List<Shape> repeatedShapes(int threshold) {
+        if (shapes == null) return List.of();
+        return shapes.entrySet().stream()
+                .filter(e -> e.getValue().count >= threshold)
+                .map(e -> new Shape(e.getKey(), e.getValue().count, e.getValue().origin))
+                .sorted(Comparator.comparingInt(Shape::count).reversed())
+                .toList();
+    }
+
+    // ==================================================
+    // TEST ASSERTIONS
+    // ==================================================
+
+    /**
+     * @throws AssertionError listing the repeated shapes when more than {@code maxStatements} ran
+     */
+    public QueryStats assertAtMost(int maxStatements) {
+        if (statements > maxStatements) {
+            throw new AssertionError("Expected at most " + maxStatements + " SQL statements but "
+                    + statements + " ran" + describe(repeatedShapes(2)));
+        }
+        return this;
+    }
+
+    /**
+     * @throws AssertionError when any shape ran {@code threshold} or more times
+     */
+    public QueryStats assertNoRepeatedShapes(int threshold) {
+        List<Shape> repeated = repeatedShapes(threshold);
+        if (!repeated.isEmpty()) {
+            throw new AssertionError("Possible N+1: " + repeated.size() + " statement shape(s) ran "
+                    + threshold + "+ times" + describe(repeated));
+        }
+        return this;
+    }
+
+    private static String describe(List<Shape> repeated) {
+        if (repeated.isEmpty()) return "";
+        return repeated.stream()
+                .map(s -> "\n  " + s.count() + " x " + s.sql() + (s.origin() == null ? "" : "  (from " + s.origin() + ")"))
+                .collect(Collectors.joining("", ":", ""));
+    }
+
+    @Override
+    public String toString() {
+        return statements + " statements, " + rows + " rows, " + nanos / 1_000_000 + " ms";
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.ServiceBooking.common.querybudget;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Per-thread stack of open {@link QueryStats} scopes. Every statement executed through the
+ * counting DataSource is added to all open scopes on the calling thread; with no scope open
+ * statements run unmeasured.
+ *
+ * <pre>
+ * QueryStats stats = QueryTracking.capture(() -> mockMvc.perform(get("/providers/nearby")));
+ * stats.assertAtMost(5).assertNoRepeatedShapes(3);
+ * </pre>
+ */
+public final class QueryTracking {
+
+    private static final int MAX_DEPTH = 16;
+    private static final int MAX_CACHED_SHAPES = 4096;
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final Map<String, String> SHAPES = new ConcurrentHashMap<>();
+
+    private static final ThreadLocal<Scopes> SCOPES = ThreadLocal.withInitial(Scopes::new);
+
+    private static final class Scopes {
+        final QueryStats[] stats = new QueryStats[MAX_DEPTH];
+        final String[] labels = new String[MAX_DEPTH];
+        int depth;
+        // scopes opened beyond MAX_DEPTH are ignored, but still need balancing on close
+        int overflow;
+    }
+
+    @FunctionalInterface
+    public interface Work {
+        void run() throws Exception;
+    }
+
+    private QueryTracking() {
+    }
+
+    /**
+     * Runs {@code work} on the current thread and returns the statements it executed.
+     * Exceptions from {@code work} propagate unchanged (checked ones wrapped in a RuntimeException).
+     */
+    public static QueryStats capture(Work work) {
+        QueryStats stats = open(null, true);
+        try {
+            work.run();
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new RuntimeException(ex);
+        } finally {
+            close(stats);
+        }
+        return stats;
+    }
+
+    // ==================================================
+    // SCOPES
+    // ==================================================
+
+    /**
+     * @param label repository method name, used as the origin of shapes first seen inside it
+     */
+    static QueryStats open(String label, boolean trackShapes) {
+        QueryStats stats = new QueryStats(trackShapes);
+        Scopes s = SCOPES.get();
+        if (s.depth == MAX_DEPTH) {
+            s.overflow++;
+            return stats;
+        }
+        s.stats[s.depth] = stats;
+        s.labels[s.depth] = label;
+        s.depth++;
+        return stats;
+    }
+
+    static void close(QueryStats stats) {
+        Scopes s = SCOPES.get();
+        if (s.overflow > 0) {
+            s.overflow--;
+            return;
+        }
+        if (s.depth > 0 && s.stats[s.depth - 1] == stats) {
+            s.depth--;
+            s.stats[s.depth] = null;
+            s.labels[s.depth] = null;
+        }
+    }
+
+    static boolean active() {
+        return SCOPES.get().depth > 0;
+    }
+
+    static void statement(String shape, long tookNanos) {
+        Scopes s = SCOPES.get();
+        String origin = null;
+        for (int i = s.depth - 1; i >= 0 && origin == null; i--) {
+            origin = s.labels[i];
+        }
+        for (int i = 0; i < s.depth; i++) {
+            s.stats[i].statement(shape, origin, tookNanos);
+        }
+    }
+
+    static void rows(long n) {
+        Scopes s = SCOPES.get();
+        for (int i = 0; i < s.depth; i++) {
+            s.stats[i].rows(n);
+        }
+    }
+
+    // ==================================================
+    // SHAPES
+    // ==================================================
+
+    /**
+     * SQL with whitespace normalized and literals / IN-lists replaced by {@code ?}.
+     * Prepared statements from Hibernate repeat, so results are cached (up to a fixed number of shapes).
+     */
+    static String shape(String sql) {
+        if (sql == null) return null;
+        String cached = SHAPES.get(sql);
+        if (cached != null) return cached;
+
+        String shape = WHITESPACE.matcher(sql.strip()).replaceAll(" ");
+        shape = STRING_LITERAL.matcher(shape).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("(?)");
+        if (SHAPES.size() < MAX_CACHED_SHAPES) {
+            SHAPES.put(sql, shape);
+        }
+        return shape;
+    }
+}
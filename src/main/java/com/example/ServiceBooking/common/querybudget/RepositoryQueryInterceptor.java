@@ -0,0 +1,61 @@
+package com.example.ServiceBooking.common.querybudget;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Opens a scope around each repository call and records its statements and rows per repository method
+ * ({@code sql.repository.statements} / {@code sql.repository.rows}). The method name also becomes the
+ * origin of shapes it issues, so N+1 reports point at e.g. {@code UserRepository.findById}.
+ */
+class RepositoryQueryInterceptor implements MethodInterceptor {
+
+    private record Meters(String label, DistributionSummary statements, DistributionSummary rows) {}
+
+    private final String repository;
+    private final ObjectProvider<MeterRegistry> registry;
+    private final Map<Method, Meters> meters = new ConcurrentHashMap<>();
+
+    RepositoryQueryInterceptor(Class<?> repositoryInterface, ObjectProvider<MeterRegistry> registry) {
+        this.repository = repositoryInterface.getSimpleName();
+        this.registry = registry;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Meters m = meters.computeIfAbsent(invocation.getMethod(), this::meters);
+        QueryStats stats = QueryTracking.open(m.label(), false);
+        try {
+            return invocation.proceed();
+        } finally {
+            QueryTracking.close(stats);
+            // derived queries flush and run inside the call; nothing to record for cache hits
+            if (stats.statements() > 0) {
+                m.statements().record(stats.statements());
+                m.rows().record(stats.rows());
+            }
+        }
+    }
+
+    private Meters meters(Method method) {
+        MeterRegistry r = registry.getObject();
+        return new Meters(repository + "." + method.getName(),
+                DistributionSummary.builder("sql.repository.statements")
+                        .description("SQL statements per repository call")
+                        .tag("repository", repository)
+                        .tag("method", method.getName())
+                        .register(r),
+                DistributionSummary.builder("sql.repository.rows")
+                        .description("Rows read or updated per repository call")
+                        .tag("repository", repository)
+                        .tag("method", method.getName())
+                        .register(r));
+    }
+}
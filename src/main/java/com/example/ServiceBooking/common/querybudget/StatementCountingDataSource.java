@@ -0,0 +1,171 @@
+package com.example.ServiceBooking.common.querybudget;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Wraps connections so statement executions, their time and the rows they return are reported
+ * to {@link QueryTracking}. When the calling thread has no scope open, calls go straight through.
+ * Extends {@link DelegatingDataSource}, so pool metrics and health checks still unwrap to Hikari.
+ */
+public class StatementCountingDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private static final ClassLoader LOADER = StatementCountingDataSource.class.getClassLoader();
+
+    public StatementCountingDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(obtainTargetDataSource().getConnection()));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(obtainTargetDataSource().getConnection(username, password)));
+    }
+
+    /**
+     * Closes the pool behind it; the wrapper replaces the pool bean, so it inherits its shutdown.
+     */
+    @Override
+    public void close() throws Exception {
+        if (obtainTargetDataSource() instanceof AutoCloseable c) {
+            c.close();
+        }
+    }
+
+    // ==================================================
+    // JDBC PROXIES
+    // ==================================================
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(LOADER, new Class<?>[]{type}, handler));
+    }
+
+    private abstract static class Handler implements InvocationHandler {
+
+        final Object target;
+
+        Handler(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            // identity semantics: Hibernate keeps statements and result sets in hash maps
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "counting:" + target;
+                default:
+                    return handle(method, args);
+            }
+        }
+
+        abstract Object handle(Method method, Object[] args) throws Throwable;
+
+        Object delegate(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+        }
+    }
+
+    private static final class ConnectionHandler extends Handler {
+
+        ConnectionHandler(Connection target) {
+            super(target);
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            Object result = delegate(method, args);
+            return switch (method.getName()) {
+                case "prepareStatement", "prepareCall" ->
+                        proxy(method.getReturnType(), (Statement) result, QueryTracking.shape((String) args[0]));
+                case "createStatement" -> proxy(Statement.class, (Statement) result, null);
+                default -> result;
+            };
+        }
+
+        private static Object proxy(Class<?> type, Statement statement, String shape) {
+            return StatementCountingDataSource.proxy(type, new StatementHandler(statement, shape));
+        }
+    }
+
+    private static final class StatementHandler extends Handler {
+
+        // null for plain statements: the SQL comes with each execute call
+        private final String shape;
+
+        StatementHandler(Statement target, String shape) {
+            super(target);
+            this.shape = shape;
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (!QueryTracking.active()) {
+                return delegate(method, args);
+            }
+            if (name.equals("getResultSet")) {
+                return rows(delegate(method, args));
+            }
+            if (!name.startsWith("execute")) {
+                return delegate(method, args);
+            }
+
+            String sql = shape != null ? shape
+                    : args != null && args.length > 0 && args[0] instanceof String s ? QueryTracking.shape(s)
+                    : "batch";
+            long started = System.nanoTime();
+            Object result = delegate(method, args);
+            QueryTracking.statement(sql, System.nanoTime() - started);
+
+            if (result instanceof ResultSet) {
+                return rows(result);
+            }
+            if (result instanceof Number updated && name.contains("Update")) {
+                QueryTracking.rows(Math.max(0, updated.longValue()));
+            }
+            return result;
+        }
+
+        private static Object rows(Object resultSet) {
+            return resultSet == null ? null : proxy(ResultSet.class, new ResultSetHandler((ResultSet) resultSet));
+        }
+    }
+
+    private static final class ResultSetHandler extends Handler {
+
+        ResultSetHandler(ResultSet target) {
+            super(target);
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            Object result = delegate(method, args);
+            if (Boolean.TRUE.equals(result) && method.getName().equals("next")) {
+                QueryTracking.rows(1);
+            }
+            return result;
+        }
+    }
+}
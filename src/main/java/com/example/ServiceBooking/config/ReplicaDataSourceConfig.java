@@ -0,0 +1,100 @@
+package com.example.ServiceBooking.config;
+
+import com.example.ServiceBooking.common.datasource.ReadYourWritesFilter;
+import com.example.ServiceBooking.common.datasource.ReadYourWritesTracker;
+import com.example.ServiceBooking.common.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Primary + read replica, active only when {@code datasource.replica.url} is set
+ * (otherwise Spring Boot's single DataSource is used unchanged).
+ * <ul>
+ *   <li>primary pool: {@code spring.datasource.*} / {@code spring.datasource.hikari.*} as before</li>
+ *   <li>replica pool: {@code datasource.replica.*} / {@code datasource.replica.hikari.*}</li>
+ *   <li>read-only transactions inside a {@code ReadRouting} scope go to the replica (GET requests of
+ *       users who haven't written in the last {@code datasource.replica.sticky-ms})</li>
+ *   <li>Hibernate gives the connection back after every transaction: with open-in-view the session lives for the
+ *       whole request, and holding its first (possibly replica) connection would run later read-write
+ *       transactions of the same GET on the replica</li>
+ * </ul>
+ * For local testing point both URLs at embedded databases, e.g. two H2 in-memory URLs.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.replica.url")
+public class ReplicaDataSourceConfig {
+
+    // not a DataSource candidate itself, so auto-configuration only sees the lazy proxy below
+    @Bean(defaultCandidate = false)
+    public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties properties,
+                                                             Environment environment,
+                                                             MeterRegistry meterRegistry,
+                                                             @Value("${datasource.replica.url}") String replicaUrl,
+                                                             @Value("${datasource.replica.username:${spring.datasource.username:}}") String username,
+                                                             @Value("${datasource.replica.password:${spring.datasource.password:}}") String password) {
+        Binder binder = Binder.get(environment);
+
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+        primary.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+
+        HikariDataSource replica = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(replicaUrl)
+                .username(username)
+                .password(password)
+                .build();
+        binder.bind("datasource.replica.hikari", Bindable.ofInstance(replica));
+        replica.setPoolName("replica");
+        replica.setReadOnly(true);
+        replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+
+        return new ReplicaRoutingDataSource(primary, replica, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("replicaRoutingDataSource") ReplicaRoutingDataSource routing) {
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionsAfterTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(@Value("${datasource.replica.sticky-ms:5000}") long stickyMillis) {
+        return new ReadYourWritesTracker(stickyMillis);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(ReadYourWritesTracker tracker) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration = new FilterRegistrationBean<>(new ReadYourWritesFilter(tracker));
+        // after the security filter chain (-100), which sets the JWT principal
+        registration.setOrder(0);
+        return registration;
+    }
+}
@@ -1,6 +1,9 @@
 package com.example.ServiceBooking.config;
 
 import com.example.ServiceBooking.auth.JwtFilter;
+import com.example.ServiceBooking.common.logging.SqlDebugFilter;
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -16,15 +19,21 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
 
     private final JwtFilter jwtFilter;
+    private final SqlDebugFilter sqlDebugFilter;
 
-    public SecurityConfig(JwtFilter jwtFilter) {
+    public SecurityConfig(JwtFilter jwtFilter,
+                          @Value("${logging.sql-debug.enabled:false}") boolean sqlDebugEnabled,
+                          @Value("${logging.sql-debug.header:X-Debug-Sql}") String sqlDebugHeader) {
         this.jwtFilter = jwtFilter;
+        this.sqlDebugFilter = new SqlDebugFilter(sqlDebugEnabled, sqlDebugHeader);
     }
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http.csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
+                        // completion of streamed/async responses; the original request was already authorized
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/auth/**").permitAll()
                         .requestMatchers("/catalog/**").permitAll()
                         .requestMatchers("/users/**").authenticated()
@@ -33,6 +42,8 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.GET, "/ratings/service/**").permitAll()
                         .requestMatchers("/support/**").authenticated()
                         .requestMatchers("/bookings/**").authenticated()
+                        .requestMatchers("/actuator/health/**").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .requestMatchers(
                                 "/v3/api-docs/**",
                                 "/swagger-ui/**",
@@ -40,7 +51,9 @@ public class SecurityConfig {
                         ).permitAll()
                         .anyRequest().authenticated()
                 )
-                .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class)
+                // after authentication: SQL debug is for admins only
+                .addFilterAfter(sqlDebugFilter, UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
     }
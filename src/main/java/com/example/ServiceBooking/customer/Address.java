@@ -17,6 +17,10 @@ public class Address {
     private String state;
     private String pincode;
 
+    // optional; lets bookings from this address be matched to the nearest providers
+    private Double latitude;
+    private Double longitude;
+
     @Column(name = "is_default")
     private boolean defaultAddress;
 
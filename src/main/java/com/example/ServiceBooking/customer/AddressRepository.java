@@ -3,10 +3,13 @@ package com.example.ServiceBooking.customer;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface AddressRepository
         extends JpaRepository<Address, Long> {
 
     List<Address> findByCustomer_CustomerId(Long customerId);
+
+    Optional<Address> findFirstByCustomer_CustomerIdAndDefaultAddressTrue(Long customerId);
 }
 
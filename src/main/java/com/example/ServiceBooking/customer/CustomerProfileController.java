@@ -34,12 +34,8 @@ public class CustomerProfileController {
     // Get current customer profile
     @GetMapping("/profile")
     public CustomerProfileResponse getProfile() {
-        log.trace("Entering getProfile method");
-        log.debug("Processing get customer profile request");
-        log.info("Get customer profile requested");
         try {
             CustomerProfileResponse response = service.getProfile(userId());
-            log.debug("Customer profile retrieved successfully");
             return response;
         } catch (Exception e) {
             log.error("Error retrieving customer profile");
@@ -51,12 +47,8 @@ public class CustomerProfileController {
     // Update customer profile (only name for now)
     @PutMapping("/profile")
     public void updateProfile(@Valid @RequestBody UpdateCustomerProfileRequest request) {
-        log.trace("Entering updateProfile method");
-        log.debug("Processing update customer profile request");
-        log.info("Update customer profile requested");
         try {
             service.updateProfile(userId(), request.name());
-            log.debug("Customer profile updated successfully");
         } catch (Exception e) {
             log.error("Error updating customer profile");
             throw e;
@@ -67,12 +59,8 @@ public class CustomerProfileController {
     // Add new address
     @PostMapping("/address")
     public void addAddress(@Valid @RequestBody AddressRequest request) {
-        log.trace("Entering addAddress method");
-        log.debug("Processing add address request");
-        log.info("Add address requested");
         try {
             service.addAddress(userId(), request);
-            log.debug("Address added successfully");
         } catch (Exception e) {
             log.error("Error adding address");
             throw e;
@@ -86,12 +74,8 @@ public class CustomerProfileController {
             @PathVariable Long id,
             @Valid @RequestBody AddressRequest request
     ) {
-        log.trace("Entering updateAddress method");
-        log.debug("Processing update address request");
-        log.info("Update address requested");
         try {
             service.updateAddress(id, request, userId());
-            log.debug("Address updated successfully");
         } catch (Exception e) {
             log.error("Error updating address");
             throw e;
@@ -102,12 +86,8 @@ public class CustomerProfileController {
     // Delete address
     @DeleteMapping("/address/{id}")
     public void deleteAddress(@PathVariable Long id) {
-        log.trace("Entering deleteAddress method");
-        log.debug("Processing delete address request");
-        log.info("Delete address requested");
         try {
             service.deleteAddress(id, userId());
-            log.debug("Address deleted successfully");
         } catch (Exception e) {
             log.error("Error deleting address");
             throw e;
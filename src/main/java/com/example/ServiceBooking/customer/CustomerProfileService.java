@@ -20,7 +20,6 @@ public class CustomerProfileService {
 
     // Get profile
     public CustomerProfileResponse getProfile(Long userId) {
-        log.trace("Entering getProfile method");
         log.debug("Fetching customer profile");
         log.info("Retrieving customer profile");
 
@@ -33,8 +32,6 @@ public class CustomerProfileService {
 
     // Update profile
     public void updateProfile(Long userId, String name) {
-        log.trace("Entering updateProfile method");
-        log.debug("Processing profile update");
         log.info("Updating customer profile");
 
         CustomerProfile profile = profileRepo.findById(userId)
@@ -50,8 +47,6 @@ public class CustomerProfileService {
 
     // Add address
     public void addAddress(Long userId, AddressRequest request) {
-        log.trace("Entering addAddress method");
-        log.debug("Processing add address");
         log.info("Adding customer address");
 
         CustomerProfile profile = profileRepo.findById(userId)
@@ -71,6 +66,8 @@ public class CustomerProfileService {
         address.setState(request.state());
         address.setPincode(request.pincode());
         address.setDefaultAddress(request.isDefault());
+        address.setLatitude(request.latitude());
+        address.setLongitude(request.longitude());
         address.setCustomer(profile);
 
         addressRepo.save(address);
@@ -79,8 +76,6 @@ public class CustomerProfileService {
 
     //  Update address
     public void updateAddress(Long addressId, AddressRequest request, Long userId) {
-        log.trace("Entering updateAddress method");
-        log.debug("Processing update address");
         log.info("Updating customer address");
 
         Address address = addressRepo.findById(addressId)
@@ -104,6 +99,8 @@ public class CustomerProfileService {
         address.setState(request.state());
         address.setPincode(request.pincode());
         address.setDefaultAddress(request.isDefault());
+        address.setLatitude(request.latitude());
+        address.setLongitude(request.longitude());
 
         addressRepo.save(address);
         log.debug("Address updated successfully");
@@ -111,8 +108,6 @@ public class CustomerProfileService {
 
     // Delete address
     public void deleteAddress(Long addressId, Long userId) {
-        log.trace("Entering deleteAddress method");
-        log.debug("Processing delete address");
         log.info("Deleting customer address");
 
         Address address = addressRepo.findById(addressId)
@@ -163,7 +158,9 @@ public class CustomerProfileService {
                                 a.getCity(),
                                 a.getState(),
                                 a.getPincode(),
-                                a.isDefaultAddress()
+                                a.isDefaultAddress(),
+                                a.getLatitude(),
+                                a.getLongitude()
                         ))
                         .toList()
         );
@@ -1,5 +1,7 @@
 package com.example.ServiceBooking.customer.dto;
 
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
@@ -21,6 +23,15 @@ public record AddressRequest(
         @Pattern(regexp = "^[0-9]{6}$", message = "Pincode must be exactly 6 digits")
         String pincode,
 
-        boolean isDefault
+        boolean isDefault,
+
+        // optional coordinates, used for nearest-provider matching
+        @DecimalMin(value = "-90.0", message = "Latitude must be between -90 and 90")
+        @DecimalMax(value = "90.0", message = "Latitude must be between -90 and 90")
+        Double latitude,
+
+        @DecimalMin(value = "-180.0", message = "Longitude must be between -180 and 180")
+        @DecimalMax(value = "180.0", message = "Longitude must be between -180 and 180")
+        Double longitude
 ) {}
 
@@ -6,6 +6,8 @@ public record AddressResponse(
         String city,
         String state,
         String pincode,
-        boolean DefaultAddress
+        boolean DefaultAddress,
+        Double latitude,
+        Double longitude
 ) {}
 
@@ -0,0 +1,6 @@
+package com.example.ServiceBooking.geo;
+
+public record GeoMatch(
+        long providerId,
+        double distanceKm
+) {}
@@ -0,0 +1,240 @@
+package com.example.ServiceBooking.geo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.LongPredicate;
+
+/**
+ * Immutable uniform grid over lat/lon: points are bucketed into {@code cellDegrees}-sized cells and
+ * stored cell by cell in primitive arrays (CSR layout). Cell keys are {@code row * COLUMNS + col}, so
+ * the cells of one grid row are contiguous and a row span is a single binary search plus a scan.
+ * <p>
+ * Distances are great-circle (haversine) km. Longitude does not wrap at the antimeridian.
+ */
+public final class ProviderGeoGrid {
+
+    static final double EARTH_RADIUS_KM = 6371.0088;
+    static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180.0;
+
+    private final double cellDegrees;
+    private final int rows;
+    private final int columns;
+
+    private final long[] cellKeys;   // sorted, one per non-empty cell
+    private final int[] cellStart;   // points of cellKeys[i] are [cellStart[i], cellStart[i + 1])
+    private final long[] providerIds;
+    private final double[] latRad;
+    private final double[] lonRad;
+    private final double[] cosLat;
+
+    private ProviderGeoGrid(double cellDegrees, long[] cellKeys, int[] cellStart,
+                            long[] providerIds, double[] latRad, double[] lonRad) {
+        this.cellDegrees = cellDegrees;
+        this.rows = (int) Math.ceil(180.0 / cellDegrees) + 1;
+        this.columns = (int) Math.ceil(360.0 / cellDegrees) + 1;
+        this.cellKeys = cellKeys;
+        this.cellStart = cellStart;
+        this.providerIds = providerIds;
+        this.latRad = latRad;
+        this.lonRad = lonRad;
+        this.cosLat = new double[latRad.length];
+        for (int i = 0; i < latRad.length; i++) {
+            cosLat[i] = Math.cos(latRad[i]);
+        }
+    }
+
+    public static ProviderGeoGrid empty(double cellDegrees) {
+        return new ProviderGeoGrid(cellDegrees, new long[0], new int[]{0}, new long[0], new double[0], new double[0]);
+    }
+
+    /**
+     * @param lats degrees, parallel to {@code ids}
+     * @param lons degrees, parallel to {@code ids}
+     */
+    public static ProviderGeoGrid build(long[] ids, double[] lats, double[] lons, double cellDegrees) {
+        int n = ids.length;
+        ProviderGeoGrid shape = empty(cellDegrees);
+
+        // (cellKey << 32 | index) sorts points by cell; cell keys stay below 2^31 for cells >= 0.01 degrees
+        long[] order = new long[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = (shape.key(shape.row(lats[i]), shape.col(lons[i])) << 32) | i;
+        }
+        Arrays.sort(order);
+
+        long[] sortedIds = new long[n];
+        double[] sortedLat = new double[n];
+        double[] sortedLon = new double[n];
+        long[] keys = new long[n];
+        int[] starts = new int[n + 1];
+        int cells = 0;
+        for (int j = 0; j < n; j++) {
+            int i = (int) order[j];
+            long key = order[j] >>> 32;
+            if (cells == 0 || keys[cells - 1] != key) {
+                keys[cells] = key;
+                starts[cells] = j;
+                cells++;
+            }
+            sortedIds[j] = ids[i];
+            sortedLat[j] = Math.toRadians(lats[i]);
+            sortedLon[j] = Math.toRadians(lons[i]);
+        }
+        starts[cells] = n;
+
+        return new ProviderGeoGrid(cellDegrees, Arrays.copyOf(keys, cells), Arrays.copyOf(starts, cells + 1),
+                sortedIds, sortedLat, sortedLon);
+    }
+
+    public int size() {
+        return providerIds.length;
+    }
+
+    // =========================
+    // QUERIES
+    // =========================
+
+    /**
+     * The {@code k} closest accepted points within {@code maxKm}, nearest first.
+     * Searches rings of cells outwards from the origin cell and stops once no unvisited cell can
+     * hold anything closer than the current k-th match.
+     */
+    public List<GeoMatch> nearest(double lat, double lon, int k, double maxKm, LongPredicate accept) {
+        if (k <= 0 || providerIds.length == 0) return List.of();
+
+        Query q = new Query(lat, lon, maxKm, accept, k);
+        int row0 = row(lat);
+        int col0 = col(lon);
+        int maxRing = Math.max(rows, columns);
+
+        for (int r = 0; r <= maxRing; r++) {
+            int top = row0 + r, bottom = row0 - r;
+            int left = Math.max(0, col0 - r), right = Math.min(columns - 1, col0 + r);
+
+            if (bottom >= 0) scanRow(bottom, left, right, q);
+            if (r > 0 && top < rows) scanRow(top, left, right, q);
+            for (int row = Math.max(0, bottom + 1); row <= Math.min(rows - 1, top - 1); row++) {
+                if (col0 - r >= 0) scanRow(row, col0 - r, col0 - r, q);
+                if (r > 0 && col0 + r < columns) scanRow(row, col0 + r, col0 + r, q);
+            }
+
+            double outside = distanceOutsideRing(lat, lon, row0, col0, r);
+            if (outside > maxKm || (q.heap.size() == k && outside > q.heap.peek().distanceKm())) break;
+        }
+        return q.sorted();
+    }
+
+    /**
+     * All accepted points within {@code radiusKm}, nearest first.
+     */
+    public List<GeoMatch> within(double lat, double lon, double radiusKm, LongPredicate accept) {
+        if (providerIds.length == 0) return List.of();
+
+        Query q = new Query(lat, lon, radiusKm, accept, Integer.MAX_VALUE);
+        double dLat = radiusKm / KM_PER_DEGREE;
+        double poleward = Math.min(89.9, Math.abs(lat) + dLat);
+        double dLon = Math.min(180.0, radiusKm / (KM_PER_DEGREE * Math.cos(Math.toRadians(poleward))));
+
+        int left = col(lon - dLon), right = col(lon + dLon);
+        for (int row = row(lat - dLat); row <= row(lat + dLat); row++) {
+            scanRow(row, left, right, q);
+        }
+        return q.sorted();
+    }
+
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double p1 = Math.toRadians(lat1), p2 = Math.toRadians(lat2);
+        return haversine(p1, Math.toRadians(lon1), Math.cos(p1), p2, Math.toRadians(lon2), Math.cos(p2));
+    }
+
+    // =========================
+    // INTERNALS
+    // =========================
+
+    private void scanRow(int row, int fromCol, int toCol, Query q) {
+        if (row < 0 || row >= rows || fromCol > toCol) return;
+        long from = key(row, fromCol), to = key(row, toCol);
+
+        int c = Arrays.binarySearch(cellKeys, from);
+        if (c < 0) c = -c - 1;
+        for (; c < cellKeys.length && cellKeys[c] <= to; c++) {
+            for (int i = cellStart[c]; i < cellStart[c + 1]; i++) {
+                q.offer(i);
+            }
+        }
+    }
+
+    // lower bound on the distance from (lat, lon) to any cell outside rings 0..r around (row0, col0)
+    private double distanceOutsideRing(double lat, double lon, int row0, int col0, int r) {
+        double south = (row0 - r) * cellDegrees - 90.0;
+        double north = (row0 + r + 1) * cellDegrees - 90.0;
+        double west = (col0 - r) * cellDegrees - 180.0;
+        double east = (col0 + r + 1) * cellDegrees - 180.0;
+
+        double poleward = Math.min(90.0, Math.max(Math.abs(south), Math.abs(north)));
+        double kmPerLonDegree = KM_PER_DEGREE * Math.cos(Math.toRadians(poleward));
+
+        double km = Double.MAX_VALUE;
+        if (south > -90.0) km = Math.min(km, (lat - south) * KM_PER_DEGREE);
+        if (north < 90.0) km = Math.min(km, (north - lat) * KM_PER_DEGREE);
+        if (west > -180.0) km = Math.min(km, (lon - west) * kmPerLonDegree);
+        if (east < 180.0) km = Math.min(km, (east - lon) * kmPerLonDegree);
+        return km;
+    }
+
+    private int row(double lat) {
+        return Math.max(0, Math.min(rows - 1, (int) Math.floor((lat + 90.0) / cellDegrees)));
+    }
+
+    private int col(double lon) {
+        return Math.max(0, Math.min(columns - 1, (int) Math.floor((lon + 180.0) / cellDegrees)));
+    }
+
+    private long key(int row, int col) {
+        return (long) row * columns + col;
+    }
+
+    private static double haversine(double lat1, double lon1, double cos1, double lat2, double lon2, double cos2) {
+        double sLat = Math.sin((lat2 - lat1) / 2);
+        double sLon = Math.sin((lon2 - lon1) / 2);
+        double a = sLat * sLat + cos1 * cos2 * sLon * sLon;
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    // bounded max-heap of the best matches seen so far
+    private final class Query {
+        final double lat, lon, cos, maxKm;
+        final LongPredicate accept;
+        final int k;
+        final PriorityQueue<GeoMatch> heap =
+                new PriorityQueue<>(Comparator.comparingDouble(GeoMatch::distanceKm).reversed());
+
+        Query(double latDeg, double lonDeg, double maxKm, LongPredicate accept, int k) {
+            this.lat = Math.toRadians(latDeg);
+            this.lon = Math.toRadians(lonDeg);
+            this.cos = Math.cos(lat);
+            this.maxKm = maxKm;
+            this.accept = accept;
+            this.k = k;
+        }
+
+        void offer(int i) {
+            double d = haversine(lat, lon, cos, latRad[i], lonRad[i], cosLat[i]);
+            if (d > maxKm) return;
+            if (heap.size() == k && d >= heap.peek().distanceKm()) return;
+            if (accept != null && !accept.test(providerIds[i])) return;
+
+            if (heap.size() == k) heap.poll();
+            heap.offer(new GeoMatch(providerIds[i], d));
+        }
+
+        List<GeoMatch> sorted() {
+            List<GeoMatch> result = new ArrayList<>(heap);
+            result.sort(Comparator.comparingDouble(GeoMatch::distanceKm));
+            return result;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.ServiceBooking.geo;
+
+import com.example.ServiceBooking.providermanagement.ProviderProfile;
+import com.example.ServiceBooking.providermanagement.ProviderProfileRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongPredicate;
+
+/**
+ * In-memory location index of online, approved providers that have a base location.
+ * <p>
+ * Reads go to an immutable {@link ProviderGeoGrid} rebuilt every {@code geo.refresh-ms}. Providers going
+ * on/offline or moving in between are applied on commit to a small overlay that queries merge with the
+ * grid; a rebuild drops overlay entries it already covers. Callers still re-check eligibility in the
+ * database before assigning work, so a stale entry costs a wasted candidate, never a wrong booking.
+ */
+@Service
+@Slf4j
+public class ProviderGeoIndex {
+
+    private final ProviderProfileRepository profileRepo;
+    private final double cellDegrees;
+    private final double nearbyRadiusKm;
+    private final int nearbyMaxResults;
+    private final double assignRadiusKm;
+    private final int assignCandidates;
+
+    private volatile ProviderGeoGrid grid;
+
+    // providerId -> latest change since the last rebuild
+    private final Map<Long, Change> changes = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private record Change(long seq, double lat, double lon, boolean indexed) {}
+
+    public ProviderGeoIndex(ProviderProfileRepository profileRepo,
+                            @Value("${geo.cell-degrees:0.05}") double cellDegrees,
+                            @Value("${geo.nearby.radius-km:25}") double nearbyRadiusKm,
+                            @Value("${geo.nearby.max-results:50}") int nearbyMaxResults,
+                            @Value("${geo.assign.radius-km:20}") double assignRadiusKm,
+                            @Value("${geo.assign.candidates:20}") int assignCandidates) {
+        this.profileRepo = profileRepo;
+        this.cellDegrees = Math.max(0.01, cellDegrees);
+        this.nearbyRadiusKm = nearbyRadiusKm;
+        this.nearbyMaxResults = nearbyMaxResults;
+        this.assignRadiusKm = assignRadiusKm;
+        this.assignCandidates = assignCandidates;
+        this.grid = ProviderGeoGrid.empty(this.cellDegrees);
+    }
+
+    // =========================
+    // READS (in-memory only)
+    // =========================
+
+    /**
+     * Nearest accepted providers for discovery, within {@code geo.nearby.radius-km}.
+     * {@code limit} (capped at {@code geo.nearby.max-results}) defaults to the cap.
+     */
+    public List<GeoMatch> nearby(double lat, double lon, Integer limit, LongPredicate accept) {
+        int k = (limit != null && limit > 0) ? Math.min(limit, nearbyMaxResults) : nearbyMaxResults;
+        return nearest(lat, lon, k, nearbyRadiusKm, accept);
+    }
+
+    /**
+     * Auto-assignment candidates, nearest first, within {@code geo.assign.radius-km}.
+     */
+    public List<GeoMatch> assignmentCandidates(double lat, double lon, LongPredicate accept) {
+        return nearest(lat, lon, assignCandidates, assignRadiusKm, accept);
+    }
+
+    public List<GeoMatch> nearest(double lat, double lon, int k, double maxKm, LongPredicate accept) {
+        if (changes.isEmpty()) return grid.nearest(lat, lon, k, maxKm, accept);
+
+        List<GeoMatch> matches = new ArrayList<>(grid.nearest(lat, lon, k, maxKm, notChanged(accept)));
+        addChanged(matches, lat, lon, maxKm, accept);
+        matches.sort(Comparator.comparingDouble(GeoMatch::distanceKm));
+        return matches.size() > k ? List.copyOf(matches.subList(0, k)) : matches;
+    }
+
+    public List<GeoMatch> within(double lat, double lon, double radiusKm, LongPredicate accept) {
+        if (changes.isEmpty()) return grid.within(lat, lon, radiusKm, accept);
+
+        List<GeoMatch> matches = new ArrayList<>(grid.within(lat, lon, radiusKm, notChanged(accept)));
+        addChanged(matches, lat, lon, radiusKm, accept);
+        matches.sort(Comparator.comparingDouble(GeoMatch::distanceKm));
+        return matches;
+    }
+
+    public int size() {
+        return grid.size();
+    }
+
+    // =========================
+    // UPDATES
+    // =========================
+
+    /**
+     * Records a provider's current online state / location; applied once the surrounding transaction commits.
+     */
+    public void providerChanged(ProviderProfile profile) {
+        Long providerId = profile.getUserId();
+        boolean indexed = profile.isApproved() && profile.isOnline()
+                && profile.getLatitude() != null && profile.getLongitude() != null;
+        double lat = indexed ? profile.getLatitude() : 0;
+        double lon = indexed ? profile.getLongitude() : 0;
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    record(providerId, lat, lon, indexed);
+                }
+            });
+        } else {
+            record(providerId, lat, lon, indexed);
+        }
+    }
+
+    public synchronized void refresh() {
+        // changes committed before this point are visible to the query below
+        long covered = sequence.get();
+
+        List<ProviderProfileRepository.ProviderLocationProjection> rows = profileRepo.findOnlineProviderLocations();
+        long[] ids = new long[rows.size()];
+        double[] lats = new double[rows.size()];
+        double[] lons = new double[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            ProviderProfileRepository.ProviderLocationProjection row = rows.get(i);
+            ids[i] = row.getProviderId();
+            lats[i] = row.getLatitude();
+            lons[i] = row.getLongitude();
+        }
+
+        grid = ProviderGeoGrid.build(ids, lats, lons, cellDegrees);
+        changes.values().removeIf(c -> c.seq() <= covered);
+        log.debug("Provider geo index rebuilt (providers={}, pendingChanges={})", ids.length, changes.size());
+    }
+
+    private void record(Long providerId, double lat, double lon, boolean indexed) {
+        changes.put(providerId, new Change(sequence.incrementAndGet(), lat, lon, indexed));
+    }
+
+    private LongPredicate notChanged(LongPredicate accept) {
+        return id -> !changes.containsKey(id) && (accept == null || accept.test(id));
+    }
+
+    private void addChanged(List<GeoMatch> matches, double lat, double lon, double maxKm, LongPredicate accept) {
+        for (Map.Entry<Long, Change> e : changes.entrySet()) {
+            Change c = e.getValue();
+            if (!c.indexed() || (accept != null && !accept.test(e.getKey()))) continue;
+            double d = ProviderGeoGrid.distanceKm(lat, lon, c.lat(), c.lon());
+            if (d <= maxKm) matches.add(new GeoMatch(e.getKey(), d));
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.ServiceBooking.geo;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProviderGeoIndexScheduler {
+
+    private final ProviderGeoIndex geoIndex;
+
+    // default: every 5 minutes, first run shortly after startup
+    @Scheduled(initialDelay = 3_000, fixedDelayString = "${geo.refresh-ms:300000}")
+    public void refresh() {
+        try {
+            geoIndex.refresh();
+        } catch (Exception ex) {
+            log.error("Provider geo index refresh failed", ex);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.ServiceBooking.geo;
+
+import com.example.ServiceBooking.providermanagement.ProviderServiceAreaRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory pincode coverage of online, approved providers that declared service areas
+ * ({@link ServiceAreaTrie}). Rebuilt when a provider's areas or online state change on this node
+ * (checked every {@code service-area.refresh-ms}) and at least every {@code service-area.max-age-ms}
+ * for changes made elsewhere. Callers re-check eligibility in the database before assigning work.
+ */
+@Service
+@Slf4j
+public class ServiceAreaIndex {
+
+    private final ProviderServiceAreaRepository areaRepo;
+    private final long maxAgeMillis;
+
+    private volatile ServiceAreaTrie trie = ServiceAreaTrie.empty();
+
+    private final AtomicLong changes = new AtomicLong();
+    private long builtAtChange = -1;
+    private long builtAtMillis;
+
+    public ServiceAreaIndex(ProviderServiceAreaRepository areaRepo,
+                            @Value("${service-area.max-age-ms:600000}") long maxAgeMillis) {
+        this.areaRepo = areaRepo;
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    // =========================
+    // READS (in-memory only)
+    // =========================
+
+    /**
+     * Providers whose service area includes {@code pincode} and who offer {@code subServiceId} (null = any).
+     */
+    public List<Long> providersCovering(String pincode, Long subServiceId) {
+        return trie.providersCovering(pincode, subServiceId);
+    }
+
+    public int size() {
+        return trie.providers();
+    }
+
+    // =========================
+    // UPDATES
+    // =========================
+
+    /**
+     * Schedules a rebuild once the surrounding transaction commits.
+     */
+    public void providerChanged() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    changes.incrementAndGet();
+                }
+            });
+        } else {
+            changes.incrementAndGet();
+        }
+    }
+
+    public synchronized void refreshIfStale() {
+        if (changes.get() != builtAtChange || System.currentTimeMillis() - builtAtMillis >= maxAgeMillis) {
+            refresh();
+        }
+    }
+
+    public synchronized void refresh() {
+        // changes counted before this point are visible to the queries below
+        long covered = changes.get();
+
+        List<ProviderServiceAreaRepository.AreaProjection> areas = areaRepo.findOnlineProviderAreas();
+        long[] areaProviders = new long[areas.size()];
+        String[] prefixes = new String[areas.size()];
+        for (int i = 0; i < areas.size(); i++) {
+            areaProviders[i] = areas.get(i).getProviderId();
+            prefixes[i] = areas.get(i).getPincodePrefix();
+        }
+
+        List<ProviderServiceAreaRepository.OfferingProjection> offerings = areaRepo.findOnlineAreaProviderOfferings();
+        long[] offerProviders = new long[offerings.size()];
+        long[] subServices = new long[offerings.size()];
+        for (int i = 0; i < offerings.size(); i++) {
+            offerProviders[i] = offerings.get(i).getProviderId();
+            subServices[i] = offerings.get(i).getSubServiceId();
+        }
+
+        trie = ServiceAreaTrie.build(areaProviders, prefixes, offerProviders, subServices);
+        builtAtChange = covered;
+        builtAtMillis = System.currentTimeMillis();
+        log.debug("Service area index rebuilt (providers={}, areas={})", trie.providers(), prefixes.length);
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.ServiceBooking.geo;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ServiceAreaIndexScheduler {
+
+    private final ServiceAreaIndex areaIndex;
+
+    // default: check every 30 seconds, rebuild only after changes or once the index is max-age old
+    @Scheduled(initialDelay = 3_000, fixedDelayString = "${service-area.refresh-ms:30000}")
+    public void refresh() {
+        try {
+            areaIndex.refreshIfStale();
+        } catch (Exception ex) {
+            log.error("Service area index refresh failed", ex);
+        }
+    }
+}
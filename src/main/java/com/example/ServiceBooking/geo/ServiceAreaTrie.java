@@ -0,0 +1,117 @@
+package com.example.ServiceBooking.geo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable pincode coverage index. Providers are numbered 0..n-1 (ids sorted ascending); a digit trie
+ * over declared pincodes/prefixes holds, per node, the bitset of providers that declared exactly that
+ * prefix, and each sub-service has the bitset of providers offering it.
+ * <p>
+ * "Who covers 411014 for service 7" ORs the bitsets on the path root -> 4 -> 41 -> ... -> 411014
+ * (at most 7 nodes) and ANDs the result with service 7's bitset.
+ */
+public final class ServiceAreaTrie {
+
+    private static final int DIGITS = 10;
+
+    private final long[] providerIds;          // ordinal -> provider id
+    private final int[] children;              // node * 10 + digit -> child node, 0 = none (root is node 0)
+    private final BitSet[] declared;           // node -> providers declaring this exact prefix, or null
+    private final Map<Long, BitSet> offering;  // subServiceId -> providers offering it
+
+    private ServiceAreaTrie(long[] providerIds, int[] children, BitSet[] declared, Map<Long, BitSet> offering) {
+        this.providerIds = providerIds;
+        this.children = children;
+        this.declared = declared;
+        this.offering = offering;
+    }
+
+    public static ServiceAreaTrie empty() {
+        return new ServiceAreaTrie(new long[0], new int[DIGITS], new BitSet[1], Map.of());
+    }
+
+    /**
+     * @param areaProviders  provider id per declared prefix, parallel to {@code prefixes}
+     * @param offerProviders provider id per offering, parallel to {@code subServices}; providers without an area are ignored
+     */
+    public static ServiceAreaTrie build(long[] areaProviders, String[] prefixes, long[] offerProviders, long[] subServices) {
+        long[] ids = Arrays.stream(areaProviders).distinct().sorted().toArray();
+
+        int[] children = new int[DIGITS * 64];
+        List<BitSet> declared = new ArrayList<>();
+        declared.add(null);
+
+        for (int i = 0; i < prefixes.length; i++) {
+            String prefix = prefixes[i];
+            int node = 0;
+            for (int d = 0; d < prefix.length(); d++) {
+                int slot = node * DIGITS + (prefix.charAt(d) - '0');
+                if (children[slot] == 0) {
+                    children[slot] = declared.size();
+                    declared.add(null);
+                    if (declared.size() * DIGITS > children.length) {
+                        children = Arrays.copyOf(children, children.length * 2);
+                    }
+                }
+                node = children[slot];
+            }
+            BitSet bits = declared.get(node);
+            if (bits == null) declared.set(node, bits = new BitSet(ids.length));
+            bits.set(Arrays.binarySearch(ids, areaProviders[i]));
+        }
+
+        Map<Long, BitSet> offering = new HashMap<>();
+        for (int i = 0; i < offerProviders.length; i++) {
+            int ordinal = Arrays.binarySearch(ids, offerProviders[i]);
+            if (ordinal < 0) continue;
+            offering.computeIfAbsent(subServices[i], s -> new BitSet(ids.length)).set(ordinal);
+        }
+
+        return new ServiceAreaTrie(ids, Arrays.copyOf(children, declared.size() * DIGITS),
+                declared.toArray(new BitSet[0]), offering);
+    }
+
+    /**
+     * Providers whose service area includes {@code pincode} (any declared prefix of it).
+     */
+    public BitSet covering(String pincode) {
+        BitSet result = new BitSet(providerIds.length);
+        int node = 0;
+        for (int d = 0; ; d++) {
+            if (declared[node] != null) result.or(declared[node]);
+            if (d == pincode.length()) break;
+            int digit = pincode.charAt(d) - '0';
+            if (digit < 0 || digit >= DIGITS) break;
+            node = children[node * DIGITS + digit];
+            if (node == 0) break;
+        }
+        return result;
+    }
+
+    /**
+     * Ids of providers covering {@code pincode} that offer {@code subServiceId} (null = any service), ascending.
+     */
+    public List<Long> providersCovering(String pincode, Long subServiceId) {
+        BitSet matches = covering(pincode);
+        if (subServiceId != null) {
+            BitSet offered = offering.get(subServiceId);
+            if (offered == null) return List.of();
+            matches.and(offered);
+        }
+
+        List<Long> result = new ArrayList<>(matches.cardinality());
+        for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+            result.add(providerIds[i]);
+        }
+        return result;
+    }
+
+    public int providers() {
+        return providerIds.length;
+    }
+}
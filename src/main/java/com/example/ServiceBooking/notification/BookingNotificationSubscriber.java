@@ -0,0 +1,75 @@
+package com.example.ServiceBooking.notification;
+
+import com.example.ServiceBooking.bookings.events.BookingEvent;
+import com.example.ServiceBooking.bookings.events.BookingEventSubscriber;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Turns booking outbox events into the in-app booking notifications (one row per user + booking).
+ * Start-OTP messages are not handled here; they are written inline by the booking services.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingNotificationSubscriber implements BookingEventSubscriber {
+
+    private final NotificationService notificationService;
+
+    @Override
+    public void onEvent(BookingEvent e) {
+        Long id = e.getBookingId();
+
+        switch (e.getType()) {
+            case CREATED -> customer(e, "Booking confirmed successfully.");
+
+            case ACCEPTED -> {
+                if (e.getProviderId() != null && e.getProviderId().equals(e.getActorId())) {
+                    // provider accepted an open job; customer already has the OTP
+                    provider(e, "Ask customer for OTP to start Booking #" + id);
+                } else {
+                    provider(e, "New Job: Booking #" + id + ". Ask customer for OTP to start the job.");
+                }
+            }
+
+            case ASSIGNED -> {
+                customer(e, "A provider has been assigned to your booking");
+                provider(e, "You have been assigned Booking #" + id);
+            }
+
+            case RESCHEDULED -> provider(e, "Booking #" + id + " has been rescheduled to " + e.getBookingTime()
+                    + ". Ask customer for the new OTP to start the job.");
+
+            case STARTED -> {
+                customer(e, "Your job has started for Booking #" + id);
+                provider(e, "OTP verified. You can start the job for Booking #" + id);
+            }
+
+            case COMPLETED -> {
+                customer(e, "Your service is completed. Please rate your provider.");
+                provider(e, "You marked Booking #" + id + " as completed.");
+            }
+
+            case CANCELLED -> {
+                customer(e, "Your booking was cancelled");
+                if (e.getCustomerId().equals(e.getActorId())) {
+                    provider(e, "Booking #" + id + " was cancelled by customer");
+                } else {
+                    provider(e, "You cancelled Booking #" + id);
+                }
+            }
+
+            case PAYMENT_PAID -> {
+                // no booking notification for payments
+            }
+        }
+    }
+
+    private void customer(BookingEvent e, String message) {
+        notificationService.upsertBookingNotificationIfNewer(e.getCustomerId(), e.getBookingId(), message, e.getCreatedAt());
+    }
+
+    private void provider(BookingEvent e, String message) {
+        if (e.getProviderId() == null) return;
+        notificationService.upsertBookingNotificationIfNewer(e.getProviderId(), e.getBookingId(), message, e.getCreatedAt());
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.ServiceBooking.notification;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A broadcast email that failed for one recipient. The broadcast itself is marked sent once every
+ * recipient was tried; these rows are retried on later dispatcher runs, with backoff, until they go out.
+ */
+@Entity
+@Table(name = "broadcast_email_retries",
+        indexes = {
+                @Index(name = "idx_broadcast_retry_due", columnList = "next_attempt_at")
+        })
+@Getter
+@Setter
+public class BroadcastEmailRetry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long retryId;
+
+    @Column(name = "broadcast_id", nullable = false)
+    private Long broadcastId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    // failed sends so far, the first one included
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+}
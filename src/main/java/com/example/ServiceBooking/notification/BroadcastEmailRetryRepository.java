@@ -0,0 +1,11 @@
+package com.example.ServiceBooking.notification;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BroadcastEmailRetryRepository extends JpaRepository<BroadcastEmailRetry, Long> {
+
+    List<BroadcastEmailRetry> findTop200ByNextAttemptAtLessThanEqualOrderByRetryIdAsc(LocalDateTime now);
+}
@@ -0,0 +1,53 @@
+package com.example.ServiceBooking.notification;
+
+import com.example.ServiceBooking.auth.Role;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * One notification for every user of a role, stored once and merged into their feeds when read.
+ * Per-user read state lives in {@link BroadcastReadMarker}.
+ */
+@Entity
+@Table(name = "broadcast_notifications",
+        indexes = {
+                // feed merge and unread counts: a role's broadcasts, newest first
+                @Index(name = "idx_broadcast_role_created", columnList = "target_role, created_at"),
+                // dispatcher: broadcasts whose email is due
+                @Index(name = "idx_broadcast_pending", columnList = "is_sent, deliver_after")
+        })
+@Getter
+@Setter
+public class BroadcastNotification {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long broadcastId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "target_role", nullable = false, length = 20)
+    private Role targetRole;
+
+    @Column(nullable = false, length = 400)
+    private String message;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private NotificationCategory category;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "deliver_after", nullable = false)
+    private LocalDateTime deliverAfter;
+
+    // emailed to the role's users
+    @Column(name = "is_sent", nullable = false)
+    private boolean sent;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+}
@@ -0,0 +1,44 @@
+package com.example.ServiceBooking.notification;
+
+import com.example.ServiceBooking.auth.Role;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BroadcastNotificationRepository extends JpaRepository<BroadcastNotification, Long> {
+
+    // a user sees the broadcasts for their role made since they joined
+    Page<BroadcastNotification> findByTargetRoleAndCreatedAtGreaterThanEqualOrderByCreatedAtDesc(
+            Role targetRole, LocalDateTime since, Pageable pageable);
+
+    long countByTargetRoleAndCreatedAtGreaterThanEqualAndBroadcastIdGreaterThan(
+            Role targetRole, LocalDateTime since, Long broadcastId);
+
+    // oldest visible broadcasts above a read marker, to move the marker over the ones already read
+    @Query("""
+            select b.broadcastId from BroadcastNotification b
+            where b.targetRole = :role and b.createdAt >= :since and b.broadcastId > :after
+            order by b.broadcastId
+            """)
+    List<Long> findVisibleIdsAfter(@Param("role") Role role,
+                                   @Param("since") LocalDateTime since,
+                                   @Param("after") Long after,
+                                   Pageable pageable);
+
+    @Query("select coalesce(max(b.broadcastId), 0) from BroadcastNotification b where b.targetRole = :role")
+    long findLatestId(@Param("role") Role role);
+
+    List<BroadcastNotification> findTop50BySentFalseAndDeliverAfterLessThanEqualOrderByBroadcastIdAsc(LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("update BroadcastNotification b set b.sent = true, b.sentAt = :sentAt where b.broadcastId in :ids")
+    int markSent(@Param("ids") List<Long> ids, @Param("sentAt") LocalDateTime sentAt);
+}
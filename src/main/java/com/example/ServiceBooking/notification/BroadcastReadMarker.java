@@ -0,0 +1,72 @@
+package com.example.ServiceBooking.notification;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.BitSet;
+
+/**
+ * A user's read state for broadcasts, one row however many there are: every broadcast up to
+ * {@code readThrough} is read, and bit {@code i} of {@code readBits} marks broadcast
+ * {@code readThrough + 1 + i} read. Read-all just moves {@code readThrough}.
+ */
+@Entity
+@Table(name = "broadcast_read_markers")
+@Getter
+@Setter
+public class BroadcastReadMarker {
+
+    // broadcast ids one row can track above readThrough (1 KB of bits)
+    static final int MAX_BITS = 8192;
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "read_through", nullable = false)
+    private long readThrough;
+
+    @Column(name = "read_bits", length = MAX_BITS / 8)
+    private byte[] readBits;
+
+    public boolean hasRead(long broadcastId) {
+        if (broadcastId <= readThrough) return true;
+        long bit = broadcastId - readThrough - 1;
+        return bit < MAX_BITS && bits().get((int) bit);
+    }
+
+    /**
+     * Broadcasts read above {@code readThrough}.
+     */
+    public int readAbove() {
+        return bits().cardinality();
+    }
+
+    void markRead(long broadcastId) {
+        if (hasRead(broadcastId)) return;
+        // a user this far behind: the oldest ones are taken as read rather than growing the row
+        if (broadcastId - readThrough > MAX_BITS) {
+            advanceTo(broadcastId - MAX_BITS);
+        }
+        BitSet bits = bits();
+        bits.set((int) (broadcastId - readThrough - 1));
+        store(bits);
+    }
+
+    void advanceTo(long broadcastId) {
+        if (broadcastId <= readThrough) return;
+        long shift = broadcastId - readThrough;
+        BitSet bits = bits();
+        store(shift >= bits.length() ? new BitSet() : bits.get((int) shift, bits.length()));
+        readThrough = broadcastId;
+    }
+
+    private BitSet bits() {
+        return readBits == null ? new BitSet() : BitSet.valueOf(readBits);
+    }
+
+    private void store(BitSet bits) {
+        readBits = bits.isEmpty() ? null : bits.toByteArray();
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.ServiceBooking.notification;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface BroadcastReadMarkerRepository extends JpaRepository<BroadcastReadMarker, Long> {
+
+    // no-op when the user already has a marker, so concurrent first reads don't collide
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            insert into broadcast_read_markers (user_id, read_through)
+            values (:userId, 0)
+            on duplicate key update user_id = user_id
+            """)
+    int ensureExists(@Param("userId") Long userId);
+
+    // serializes concurrent read marks of the same user (two tabs, mark-one vs read-all)
+    @Query("select m from BroadcastReadMarker m where m.userId = :userId")
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<BroadcastReadMarker> lockByUserId(@Param("userId") Long userId);
+}
@@ -5,15 +5,19 @@ package com.example.ServiceBooking.notification;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "notifications",
         indexes = {
-                @Index(name = "idx_notif_user", columnList = "user_id"),
-                @Index(name = "idx_notif_read", columnList = "is_read"),
-                @Index(name = "idx_notif_sent", columnList = "is_sent")
+                // unread lookups are always per user; is_read alone is too unselective to index
+                @Index(name = "idx_notif_user_read", columnList = "user_id, is_read"),
+                // feed: a user's rows newest first
+                @Index(name = "idx_notif_user_created", columnList = "user_id, created_at"),
+                // dispatcher lanes: pending rows of one priority whose coalescing window has ended
+                @Index(name = "idx_notif_lane", columnList = "is_sent, priority, deliver_after")
         })
 @Getter
 @Setter
@@ -26,7 +30,8 @@ public class Notification {
     @Column(name = "user_id", nullable = false)
     private Long userId;
 
-    @Column(name = "booking_id", nullable = false)
+    // null for system notifications
+    @Column(name = "booking_id")
     private Long bookingId;
 
     @Column(nullable = false, length = 400)
@@ -45,6 +50,20 @@ public class Notification {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private NotificationCategory category;
+
+    // delivery lane; the default also covers rows written before lanes existed
+    @Enumerated(EnumType.STRING)
+    @ColumnDefault("'TRANSACTIONAL'")
+    @Column(nullable = false, length = 20)
+    private NotificationPriority priority = NotificationPriority.TRANSACTIONAL;
+
+    // email not before this (end of the coalescing window); null = due now
+    @Column(name = "deliver_after")
+    private LocalDateTime deliverAfter;
+
     @Column(name = "sent_at")
     private LocalDateTime sentAt;
 
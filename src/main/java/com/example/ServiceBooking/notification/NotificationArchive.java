@@ -0,0 +1,57 @@
+package com.example.ServiceBooking.notification;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read and sent notifications moved out of {@code notifications} by {@link NotificationArchiver},
+ * keeping their id. Only the feed reads them, after the user's hot rows.
+ */
+@Entity
+@Table(name = "notifications_archive",
+        indexes = {
+                @Index(name = "idx_notif_archive_user_created", columnList = "user_id, created_at"),
+                @Index(name = "idx_notif_archive_archived", columnList = "archived_at")
+        })
+@Getter
+@Setter
+public class NotificationArchive {
+
+    @Id
+    private Long notificationId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "booking_id")
+    private Long bookingId;
+
+    @Column(nullable = false, length = 400)
+    private String message;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private NotificationCategory category;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private NotificationPriority priority;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    @Column(name = "read_at")
+    private LocalDateTime readAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,41 @@
+package com.example.ServiceBooking.notification;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface NotificationArchiveRepository extends JpaRepository<NotificationArchive, Long> {
+
+    long countByUserId(Long userId);
+
+    // the feed continues into the archive at any row, not at a page boundary, hence offset/limit
+    @Query(nativeQuery = true, value = """
+            select * from notifications_archive
+            where user_id = :userId
+            order by created_at desc, notification_id desc
+            limit :limit offset :offset
+            """)
+    List<NotificationArchive> findFeedSlice(@Param("userId") Long userId,
+                                            @Param("offset") long offset,
+                                            @Param("limit") int limit);
+
+    // set-based copy of hot rows; the caller holds their row locks and deletes them in the same transaction
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            insert into notifications_archive
+                (notification_id, user_id, booking_id, message, category, priority,
+                 created_at, updated_at, sent_at, read_at, archived_at)
+            select notification_id, user_id, booking_id, message, category, priority,
+                   created_at, updated_at, sent_at, read_at, :archivedAt
+            from notifications where notification_id in :ids
+            """)
+    int copyFromHot(@Param("ids") List<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+
+    @Modifying
+    @Query(nativeQuery = true, value = "delete from notifications_archive where archived_at < :before limit :limit")
+    int purgeArchivedBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
@@ -0,0 +1,124 @@
+package com.example.ServiceBooking.notification;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Keeps {@code notifications} small so the dispatcher and feed queries don't slow down as history grows:
+ * <ul>
+ *   <li>rows read, sent and untouched for {@code notifications.archive.after-days} move to
+ *       {@code notifications_archive}, {@code batch-size} rows per transaction (copy + delete),
+ *       at most {@code max-batches} per run with {@code pause-ms} between them</li>
+ *   <li>archived rows older than {@code retention-days} are deleted the same way (0 keeps them)</li>
+ * </ul>
+ * Unread or unsent rows are never archived, whatever their age.
+ */
+@Slf4j
+@Component
+public class NotificationArchiver {
+
+    private final NotificationRepository repo;
+    private final NotificationArchiveRepository archiveRepo;
+    private final NotificationMetrics metrics;
+    private final TransactionTemplate tx;
+    private final boolean enabled;
+    private final int afterDays;
+    private final int retentionDays;
+    private final int batchSize;
+    private final int maxBatches;
+    private final long pauseMillis;
+
+    public NotificationArchiver(NotificationRepository repo,
+                                NotificationArchiveRepository archiveRepo,
+                                NotificationMetrics metrics,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${notifications.archive.enabled:true}") boolean enabled,
+                                @Value("${notifications.archive.after-days:30}") int afterDays,
+                                @Value("${notifications.archive.retention-days:365}") int retentionDays,
+                                @Value("${notifications.archive.batch-size:500}") int batchSize,
+                                @Value("${notifications.archive.max-batches:200}") int maxBatches,
+                                @Value("${notifications.archive.pause-ms:50}") long pauseMillis) {
+        this.repo = repo;
+        this.archiveRepo = archiveRepo;
+        this.metrics = metrics;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.afterDays = afterDays;
+        this.retentionDays = retentionDays;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.pauseMillis = pauseMillis;
+    }
+
+    @Scheduled(cron = "${notifications.archive.cron:0 0 4 * * *}")
+    public void run() {
+        if (!enabled) return;
+        int archived = archive(LocalDateTime.now().minusDays(afterDays));
+        int purged = retentionDays > 0 ? purge(LocalDateTime.now().minusDays(retentionDays)) : 0;
+        if (archived > 0 || purged > 0) {
+            log.info("Archived {} notifications, purged {} archived ones", archived, purged);
+        }
+    }
+
+    /**
+     * @return rows moved to the archive
+     */
+    public int archive(LocalDateTime before) {
+        int total = 0;
+        long cursor = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            long after = cursor;
+            List<Long> ids = tx.execute(status -> {
+                List<Long> locked = repo.lockArchivable(after, before, PageRequest.of(0, batchSize)).stream()
+                        .map(Notification::getNotificationId)
+                        .toList();
+                if (!locked.isEmpty()) {
+                    archiveRepo.copyFromHot(locked, LocalDateTime.now());
+                    repo.deleteByIds(locked);
+                }
+                return locked;
+            });
+            if (ids == null || ids.isEmpty()) break;
+
+            total += ids.size();
+            metrics.archived(ids.size());
+            cursor = ids.get(ids.size() - 1);
+            if (ids.size() < batchSize || !pause()) break;
+        }
+        return total;
+    }
+
+    /**
+     * @return archived rows deleted
+     */
+    public int purge(LocalDateTime before) {
+        int total = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            Integer deleted = tx.execute(status -> archiveRepo.purgeArchivedBefore(before, batchSize));
+            if (deleted == null || deleted == 0) break;
+            total += deleted;
+            if (deleted < batchSize || !pause()) break;
+        }
+        return total;
+    }
+
+    // gives replicas and foreground queries room between batches; false if interrupted (shutdown)
+    private boolean pause() {
+        if (pauseMillis <= 0) return true;
+        try {
+            Thread.sleep(pauseMillis);
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.ServiceBooking.notification;
+
+/**
+ * Decides how long a notification may wait to be merged with others into one email,
+ * and which delivery lane it goes through.
+ */
+public enum NotificationCategory {
+    // carries a code the user needs now: never held back
+    OTP(NotificationPriority.CRITICAL),
+    BOOKING(NotificationPriority.TRANSACTIONAL),
+    SYSTEM(NotificationPriority.TRANSACTIONAL),
+    // support ticket updates
+    SUPPORT(NotificationPriority.BULK),
+    ADMIN(NotificationPriority.BULK);
+
+    private final NotificationPriority priority;
+
+    NotificationCategory(NotificationPriority priority) {
+        this.priority = priority;
+    }
+
+    public NotificationPriority priority() {
+        return priority;
+    }
+}
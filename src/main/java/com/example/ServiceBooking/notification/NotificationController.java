@@ -2,6 +2,9 @@ package com.example.ServiceBooking.notification;
 
 import com.example.ServiceBooking.auth.JwtUtil;
 import com.example.ServiceBooking.notification.dto.NotificationResponse;
+import com.example.ServiceBooking.notification.dto.ReadAllResponse;
+import com.example.ServiceBooking.notification.dto.UnreadCountResponse;
+import com.example.ServiceBooking.notification.stream.NotificationStreamHub;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -9,8 +12,10 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @Tag(name = "Notification Service", description = "Endpoints for user notifications")
 @RestController
@@ -20,6 +25,7 @@ import org.springframework.web.bind.annotation.*;
 public class NotificationController {
 
     private final NotificationService service;
+    private final NotificationStreamHub streamHub;
     private final JwtUtil jwtUtil;
 
     private Long userId() {
@@ -32,12 +38,8 @@ public class NotificationController {
     public Page<NotificationResponse> myNotifications(
             @PageableDefault(size = 20, sort = "createdAt") Pageable pageable
     ) {
-        log.trace("Entering myNotifications method");
-        log.debug("Processing fetch notifications request");
-        log.info("Fetch notifications request received");
         try {
-            Page<NotificationResponse> notifications = service.userNotifications(userId(), pageable);
-            log.debug("Notifications fetched successfully");
+            Page<NotificationResponse> notifications = service.userNotifications(userId(), jwtUtil.getCurrentUserRole(), pageable);
             return notifications;
         } catch (Exception e) {
             log.error("Error fetching notifications");
@@ -50,12 +52,8 @@ public class NotificationController {
 //    @PreAuthorize("isAuthenticated()")
     @PreAuthorize("hasRole('CUSTOMER') or hasRole('PROVIDER')")
     public NotificationResponse markRead(@PathVariable Long notificationId) {
-        log.trace("Entering markRead method");
-        log.debug("Processing mark notification as read request");
-        log.info("Mark notification read request received");
         try {
             NotificationResponse response = service.markAsRead(userId(), notificationId);
-            log.debug("Notification marked as read successfully");
             return response;
         } catch (Exception e) {
             log.error("Error marking notification as read");
@@ -63,4 +61,46 @@ public class NotificationController {
         }
     }
 
+    @Operation(summary = "Unread notification count (badge)")
+    @GetMapping("/unread-count")
+    @PreAuthorize("isAuthenticated()")
+    public UnreadCountResponse unreadCount() {
+        return service.unreadCount(userId(), jwtUtil.getCurrentUserRole());
+    }
+
+    @Operation(summary = "Mark a broadcast notification as read")
+    @PutMapping("/broadcasts/{broadcastId}/read")
+    @PreAuthorize("isAuthenticated()")
+    public NotificationResponse markBroadcastRead(@PathVariable Long broadcastId) {
+        try {
+            return service.markBroadcastAsRead(userId(), jwtUtil.getCurrentUserRole(), broadcastId);
+        } catch (Exception e) {
+            log.error("Error marking broadcast notification as read");
+            throw e;
+        }
+    }
+
+    @Operation(summary = "Mark all notifications as read")
+    @PutMapping("/read-all")
+    @PreAuthorize("isAuthenticated()")
+    public ReadAllResponse markAllRead() {
+        try {
+            return service.markAllAsRead(userId(), jwtUtil.getCurrentUserRole());
+        } catch (Exception e) {
+            log.error("Error marking all notifications as read");
+            throw e;
+        }
+    }
+
+    /**
+     * Events: {@code notification} (NotificationResponse, new/updated/read), {@code read-all},
+     * {@code booking} (BookingStatusPush) and {@code resync} (refetch, the missed events are gone).
+     */
+    @Operation(summary = "Live notification and booking status stream (Server-Sent Events)")
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("isAuthenticated()")
+    public SseEmitter stream(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return streamHub.connect(userId(), lastEventId);
+    }
+
 }
@@ -14,8 +14,8 @@ public class NotificationDispatcher {
 
     private final NotificationService notificationService;
 
-    // every 30 seconds
-    @Scheduled(fixedDelay = 30000)
+    // transactional + bulk lanes; they wait for their coalescing window anyway
+    @Scheduled(fixedDelayString = "${notifications.dispatch-ms:10000}")
     public void dispatch() {
         int dispatched = notificationService.dispatchPendingNotifications();
         if (dispatched > 0) {
@@ -25,5 +25,14 @@ public class NotificationDispatcher {
             log.debug("No pending notifications to dispatch");
         }
     }
+
+    // OTP lane: its own task, so a long digest run never delays it
+    @Scheduled(fixedDelayString = "${notifications.lanes.critical-dispatch-ms:2000}")
+    public void dispatchCritical() {
+        int dispatched = notificationService.dispatchCriticalNotifications();
+        if (dispatched > 0) {
+            log.info("Notification dispatcher sent critical notifications");
+        }
+    }
 }
 
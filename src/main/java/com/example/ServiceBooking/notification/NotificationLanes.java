@@ -0,0 +1,40 @@
+package com.example.ServiceBooking.notification;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Dispatcher capacity per lane ({@code notifications.lanes.*}), in emails per run.
+ * CRITICAL has a run of its own; TRANSACTIONAL and BULK share a run of {@code batch} emails with
+ * {@code bulk-reserved} of them kept for BULK. Capacity one of them leaves unused goes to the other.
+ */
+@Component
+public class NotificationLanes {
+
+    private final int criticalBatch;
+    private final int batch;
+    private final int bulkReserved;
+
+    public NotificationLanes(@Value("${notifications.lanes.critical-batch:50}") int criticalBatch,
+                             @Value("${notifications.lanes.batch:50}") int batch,
+                             @Value("${notifications.lanes.bulk-reserved:10}") int bulkReserved) {
+        this.criticalBatch = criticalBatch;
+        this.batch = batch;
+        this.bulkReserved = Math.min(bulkReserved, batch);
+    }
+
+    public int criticalBatch() {
+        return criticalBatch;
+    }
+
+    public int batch() {
+        return batch;
+    }
+
+    /**
+     * How many of the waiting TRANSACTIONAL users this run serves; BULK gets the rest of the batch.
+     */
+    public int transactionalShare(int transactionalWaiting, int bulkWaiting) {
+        return Math.min(transactionalWaiting, batch - Math.min(bulkReserved, bulkWaiting));
+    }
+}
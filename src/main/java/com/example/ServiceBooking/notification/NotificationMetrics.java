@@ -0,0 +1,78 @@
+package com.example.ServiceBooking.notification;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Dispatcher metrics: {@code notification.dispatch{lane, outcome=sent|failed}} (emails),
+ * {@code notification.lane.wait{lane}} (from due to sent), {@code notification.coalesced}
+ * (notifications that rode along in another one's email), {@code notification.archived} and the
+ * {@code notification.pending} backlog gauge. The gauge holds the value counted by the
+ * dispatcher on its last run rather than querying the database on every scrape.
+ */
+@Component
+public class NotificationMetrics {
+
+    private final Map<NotificationPriority, Counter> sent = new EnumMap<>(NotificationPriority.class);
+    private final Map<NotificationPriority, Counter> failed = new EnumMap<>(NotificationPriority.class);
+    private final Map<NotificationPriority, Timer> waited = new EnumMap<>(NotificationPriority.class);
+    private final Counter coalesced;
+    private final Counter archived;
+    private final AtomicLong pending = new AtomicLong();
+
+    public NotificationMetrics(MeterRegistry registry) {
+        for (NotificationPriority lane : NotificationPriority.values()) {
+            String tag = lane.name().toLowerCase();
+            sent.put(lane, Counter.builder("notification.dispatch")
+                    .description("Notification emails by dispatch outcome")
+                    .tags("lane", tag, "outcome", "sent")
+                    .register(registry));
+            failed.put(lane, Counter.builder("notification.dispatch")
+                    .description("Notification emails by dispatch outcome")
+                    .tags("lane", tag, "outcome", "failed")
+                    .register(registry));
+            waited.put(lane, Timer.builder("notification.lane.wait")
+                    .description("Time from a notification email becoming due to it being sent")
+                    .tag("lane", tag)
+                    .register(registry));
+        }
+        this.coalesced = Counter.builder("notification.coalesced")
+                .description("Notifications delivered inside another notification's email")
+                .register(registry);
+        this.archived = Counter.builder("notification.archived")
+                .description("Notifications moved to the archive table")
+                .register(registry);
+        Gauge.builder("notification.pending", pending, AtomicLong::get)
+                .description("Unsent notifications at the end of the last dispatcher run")
+                .register(registry);
+    }
+
+    public void dispatched(NotificationPriority lane, int sentCount, int failedCount) {
+        sent.get(lane).increment(sentCount);
+        failed.get(lane).increment(failedCount);
+    }
+
+    public void waited(NotificationPriority lane, Duration wait) {
+        waited.get(lane).record(wait);
+    }
+
+    public void coalesced(int count) {
+        coalesced.increment(count);
+    }
+
+    public void archived(int count) {
+        archived.increment(count);
+    }
+
+    public void pending(long backlog) {
+        pending.set(backlog);
+    }
+}
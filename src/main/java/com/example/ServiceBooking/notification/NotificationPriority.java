@@ -0,0 +1,14 @@
+package com.example.ServiceBooking.notification;
+
+/**
+ * Delivery lane of a notification email. Each lane has reserved dispatcher capacity,
+ * so a backlog in a lower lane never delays a higher one.
+ */
+public enum NotificationPriority {
+    // codes the user is waiting for: own dispatcher run, every few seconds
+    CRITICAL,
+    // about the user's own bookings, tickets and account
+    TRANSACTIONAL,
+    // operator and admin fan-out
+    BULK
+}
@@ -2,10 +2,17 @@ package com.example.ServiceBooking.notification;
 
 
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,8 +23,64 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     List<Notification> findTop50BySentFalseOrderByCreatedAtAsc();
     List<Notification> findTop50BySentFalseOrderByUpdatedAtAsc();
 
+    // users with at least one pending notification in this lane whose window has ended, longest waiting first
+    @Query("""
+            select n.userId from Notification n
+            where n.sent = false and n.priority = :priority
+              and (n.deliverAfter is null or n.deliverAfter <= :now)
+            group by n.userId
+            order by min(n.updatedAt)
+            """)
+    List<Long> findUsersWithDueNotifications(@Param("priority") NotificationPriority priority,
+                                             @Param("now") LocalDateTime now,
+                                             Pageable pageable);
+
+    List<Notification> findByUserIdInAndSentFalseAndPriorityInOrderByUpdatedAtAsc(List<Long> userIds,
+                                                                                  List<NotificationPriority> priorities);
+
+    // rows changed after the dispatcher read them stay pending and go out with the next email
+    @Transactional
+    @Modifying
+    @Query("""
+            update Notification n set n.sent = true, n.sentAt = :sentAt
+            where n.notificationId in :ids and n.sent = false and n.updatedAt <= :readAt
+            """)
+    int markSent(@Param("ids") List<Long> ids, @Param("sentAt") LocalDateTime sentAt, @Param("readAt") LocalDateTime readAt);
+
+    long countBySentFalse();
+
+    // archival: read and sent rows untouched since :before, in id order after a cursor, locked until the
+    // batch commits so a concurrent upsert can't change a row between its copy and its delete
+    @Query("""
+            select n from Notification n
+            where n.notificationId > :afterId and n.read = true and n.sent = true and n.updatedAt < :before
+            order by n.notificationId
+            """)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Notification> lockArchivable(@Param("afterId") Long afterId,
+                                      @Param("before") LocalDateTime before,
+                                      Pageable pageable);
+
+    @Modifying(clearAutomatically = true)
+    @Query("delete from Notification n where n.notificationId in :ids")
+    int deleteByIds(@Param("ids") List<Long> ids);
+
 
     Optional<Notification> findByUserIdAndBookingId(Long userId, Long bookingId);
 
+    long countByUserIdAndReadFalse(Long userId);
+
+    // 1 row = this call flipped it to read, so only one caller decrements the unread counter
+    @Modifying(clearAutomatically = true)
+    @Query("""
+            update Notification n set n.read = true, n.readAt = :now
+            where n.notificationId = :notificationId and n.read = false
+            """)
+    int markRead(@Param("notificationId") Long notificationId, @Param("now") LocalDateTime now);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Notification n set n.read = true, n.readAt = :now where n.userId = :userId and n.read = false")
+    int markAllRead(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
 }
 
@@ -4,31 +4,89 @@ import com.example.ServiceBooking.auth.User;
 import com.example.ServiceBooking.auth.UserRepository;
 import com.example.ServiceBooking.auth.Role;
 import com.example.ServiceBooking.notification.dto.NotificationResponse;
+import com.example.ServiceBooking.notification.dto.ReadAllResponse;
+import com.example.ServiceBooking.notification.dto.UnreadCountResponse;
+import com.example.ServiceBooking.notification.stream.NotificationStreamHub;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class NotificationService {
 
+    // SSE event names on /notifications/stream
+    public static final String EVENT_NOTIFICATION = "notification";
+    public static final String EVENT_READ_ALL = "read-all";
+
+    // roles whose notifications are broadcasts (one row per event, merged into feeds on read)
+    private static final Set<Role> BROADCAST_ROLES = EnumSet.of(Role.ADMIN);
+    // feed cut-off for users without a creation time
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+    // broadcasts scanned when moving a read marker forward
+    private static final int MARKER_SCAN = 256;
+    // a broadcast email that keeps failing for a recipient is retried after 2, 4, 8, 16 minutes, then dropped
+    private static final int MAX_BROADCAST_EMAIL_ATTEMPTS = 5;
+
     private final NotificationRepository repo;
+    private final NotificationUnreadCounterRepository counterRepo;
+    private final BroadcastNotificationRepository broadcastRepo;
+    private final BroadcastReadMarkerRepository markerRepo;
+    private final BroadcastEmailRetryRepository retryRepo;
+    private final NotificationArchiveRepository archiveRepo;
     private final UserRepository userRepo;
     private final NotificationEmailSender emailSender;
+    private final NotificationMetrics metrics;
+    private final NotificationStreamHub streamHub;
+    private final NotificationWindows windows;
+    private final NotificationLanes lanes;
 
     // Used by triggers (Booking/Provider/Payment etc.)
 
+    @Transactional
     public void upsertBookingNotification(Long userId, Long bookingId, String message) {
-        log.trace("Entering upsertBookingNotification method");
-        log.debug("Processing booking notification upsert");
-        log.info("Upserting booking notification");
+        upsert(userId, bookingId, message, null, NotificationCategory.BOOKING);
+    }
+
+    /**
+     * Same row as the booking's other notifications, but emailed on the next dispatcher run
+     * instead of waiting for the coalescing window.
+     */
+    @Transactional
+    public void upsertBookingOtpNotification(Long userId, Long bookingId, String message) {
+        upsert(userId, bookingId, message, null, NotificationCategory.OTP);
+    }
+
+    /**
+     * Outbox variant: skips the write when the row was already updated after {@code occurredAt},
+     * so a late or redelivered event can't overwrite a newer message (e.g. an inline start OTP).
+     */
+    @Transactional
+    public void upsertBookingNotificationIfNewer(Long userId, Long bookingId, String message, LocalDateTime occurredAt) {
+        upsert(userId, bookingId, message, occurredAt, NotificationCategory.BOOKING);
+    }
 
+    private void upsert(Long userId, Long bookingId, String message, LocalDateTime notBefore,
+                        NotificationCategory category) {
         if (userId == null) {
             log.error("User not found for notification");
             throw new RuntimeException("User not found for notification");
@@ -57,26 +115,55 @@ public class NotificationService {
                     return x;
                 });
 
+        if (notBefore != null && n.getNotificationId() != null && n.getUpdatedAt() != null && n.getUpdatedAt().isAfter(notBefore)) {
+            log.debug("Skipping stale booking notification");
+            return;
+        }
+
+        boolean becomesUnread = n.getNotificationId() == null || n.isRead();
+        boolean emailPending = n.getNotificationId() != null && !n.isSent();
+
         // update same row
         n.setMessage(message.trim());
         n.setUpdatedAt(now);
-
-        // reset delivery/read flags so each new update sends a new email
+        n.setCategory(category);
+        n.setPriority(category.priority());
+
+        // An already-sent row needs a new email, due when its window ends. A row still waiting keeps its
+        // window (only a shorter one, e.g. OTP, brings it forward), so rapid transitions send one email
+        // with the latest message instead of one per transition.
+        LocalDateTime due = windows.deliverAfter(category, now);
+        if (!emailPending || n.getDeliverAfter() == null || due.isBefore(n.getDeliverAfter())) {
+            n.setDeliverAfter(due);
+        }
         n.setSent(false);
         n.setSentAt(null);
         n.setRead(false);
         n.setReadAt(null);
 
         repo.save(n);
+        if (becomesUnread) {
+            adjustUnread(userId, 1);
+        }
+        streamHub.publish(userId, EVENT_NOTIFICATION, toResponse(n));
         log.debug("Booking notification upserted successfully");
     }
 
 
+    @Transactional
     public void createSystemNotification(Long userId, String message) {
-        log.trace("Entering createSystemNotification method");
-        log.debug("Processing system notification creation");
-        log.info("Creating system notification");
+        createSystemNotification(userId, message, NotificationCategory.SYSTEM);
+    }
 
+    /**
+     * Support ticket updates: bulk lane, so a ticket backlog never holds up booking emails.
+     */
+    @Transactional
+    public void createSupportNotification(Long userId, String message) {
+        createSystemNotification(userId, message, NotificationCategory.SUPPORT);
+    }
+
+    private void createSystemNotification(Long userId, String message, NotificationCategory category) {
         if (userId == null) {
             log.error("User not found for notification");
             throw new RuntimeException("User not found for notification");
@@ -94,10 +181,15 @@ public class NotificationService {
         n.setMessage(message.trim());
         n.setRead(false);
         n.setSent(false);
+        n.setCategory(category);
+        n.setPriority(category.priority());
+        n.setDeliverAfter(windows.deliverAfter(category, now));
         n.setCreatedAt(now);
         n.setUpdatedAt(now);
 
         repo.save(n);
+        adjustUnread(userId, 1);
+        streamHub.publish(userId, EVENT_NOTIFICATION, toResponse(n));
         log.debug("System notification created successfully");
     }
 
@@ -118,26 +210,78 @@ public class NotificationService {
 //        log.debug("Notification stored ");
 //    }
 
+    /**
+     * Hot rows first (everything unread, unsent or recent), then the archived ones. A page that ends
+     * inside the hot rows reads the archive only for its count.
+     */
+    @Transactional(readOnly = true)
     public Page<NotificationResponse> userNotifications(Long userId, Pageable pageable) {
-        log.trace("Entering userNotifications method");
-        log.debug("Fetching user notifications");
-        log.info("Fetching user notifications ");
-        Page<NotificationResponse> notifications = repo.findByUserIdOrderByCreatedAtDesc(userId, pageable)
-                .map(this::toResponse);
+        Page<Notification> hot = repo.findByUserIdOrderByCreatedAtDesc(userId, pageable);
+        List<NotificationResponse> content = new ArrayList<>(hot.map(this::toResponse).getContent());
+
+        int missing = pageable.getPageSize() - content.size();
+        long archiveFrom = Math.max(0, pageable.getOffset() - hot.getTotalElements());
+        long archivedTotal = archiveRepo.countByUserId(userId);
+        if (missing > 0 && archiveFrom < archivedTotal) {
+            archiveRepo.findFeedSlice(userId, archiveFrom, missing).stream()
+                    .map(this::toResponse)
+                    .forEach(content::add);
+        }
         log.debug("User notifications retrieved successfully");
-        return notifications;
+        return new PageImpl<>(content, pageable, hot.getTotalElements() + archivedTotal);
+    }
+
+    /**
+     * The user's own notifications, plus the broadcasts for their role merged in by time.
+     * Both sides are read up to the end of the requested page, so deep pages cost more.
+     */
+    @Transactional(readOnly = true)
+    public Page<NotificationResponse> userNotifications(Long userId, Role role, Pageable pageable) {
+        if (!BROADCAST_ROLES.contains(role)) {
+            return userNotifications(userId, pageable);
+        }
+        log.debug("Fetching user notifications with broadcasts");
+
+        int window = (int) Math.min(Integer.MAX_VALUE, pageable.getOffset() + pageable.getPageSize());
+        Page<NotificationResponse> own = userNotifications(userId, PageRequest.of(0, window));
+        Page<BroadcastNotification> shared = broadcastRepo.findByTargetRoleAndCreatedAtGreaterThanEqualOrderByCreatedAtDesc(
+                role, memberSince(userId), PageRequest.of(0, window));
+        BroadcastReadMarker marker = markerRepo.findById(userId).orElseGet(BroadcastReadMarker::new);
+
+        List<NotificationResponse> merged = new ArrayList<>(window);
+        List<NotificationResponse> a = own.getContent();
+        List<BroadcastNotification> b = shared.getContent();
+        int i = 0, j = 0;
+        while (merged.size() < window && (i < a.size() || j < b.size())) {
+            boolean takeOwn = j >= b.size()
+                    || (i < a.size() && !a.get(i).createdAt().isBefore(b.get(j).getCreatedAt()));
+            if (takeOwn) {
+                merged.add(a.get(i++));
+            } else {
+                BroadcastNotification n = b.get(j++);
+                merged.add(toResponse(n, marker.hasRead(n.getBroadcastId())));
+            }
+        }
+
+        List<NotificationResponse> page = merged.subList((int) Math.min(pageable.getOffset(), merged.size()), merged.size());
+        return new PageImpl<>(page, pageable, own.getTotalElements() + shared.getTotalElements());
     }
 
+    @Transactional
     public NotificationResponse markAsRead(Long userId, Long notificationId) {
-        log.trace("Entering markAsRead method");
-        log.debug("Processing mark notification as read");
         log.info("Marking notification as read");
 
-        Notification n = repo.findById(notificationId)
-                .orElseThrow(() -> {
-                    log.error("Notification not found");
-                    return new RuntimeException("Notification not found");
-                });
+        Notification n = repo.findById(notificationId).orElse(null);
+        if (n == null) {
+            // archived rows are read already
+            NotificationArchive archived = archiveRepo.findById(notificationId)
+                    .filter(a -> a.getUserId().equals(userId))
+                    .orElseThrow(() -> {
+                        log.error("Notification not found");
+                        return new RuntimeException("Notification not found");
+                    });
+            return toResponse(archived);
+        }
 
         if (!n.getUserId().equals(userId)) {
             log.error("User not allowed to mark this notification as read");
@@ -145,9 +289,15 @@ public class NotificationService {
         }
 
         if (!n.isRead()) {
+            LocalDateTime now = LocalDateTime.now();
+            // conditional update: a concurrent markAsRead / markAllAsRead can't decrement twice
+            if (repo.markRead(notificationId, now) == 1) {
+                adjustUnread(userId, -1);
+            }
             n.setRead(true);
-            n.setReadAt(LocalDateTime.now());
-            repo.save(n);
+            n.setReadAt(now);
+            // other tabs/devices of the same user clear it too
+            streamHub.publish(userId, EVENT_NOTIFICATION, toResponse(n));
             log.debug("Notification marked as read successfully");
         } else {
             log.debug("Notification already marked as read");
@@ -157,65 +307,398 @@ public class NotificationService {
         return toResponse(n);
     }
 
+    @Transactional
+    public NotificationResponse markBroadcastAsRead(Long userId, Role role, Long broadcastId) {
+        log.info("Marking broadcast notification as read");
+
+        BroadcastNotification n = broadcastRepo.findById(broadcastId)
+                .orElseThrow(() -> {
+                    log.error("Notification not found");
+                    return new RuntimeException("Notification not found");
+                });
+
+        LocalDateTime since = memberSince(userId);
+        if (n.getTargetRole() != role || n.getCreatedAt().isBefore(since)) {
+            log.error("User not allowed to mark this notification as read");
+            throw new RuntimeException("Not allowed");
+        }
+
+        BroadcastReadMarker marker = lockMarker(userId);
+        if (!marker.hasRead(broadcastId)) {
+            marker.markRead(broadcastId);
+            // move readThrough over the leading run of read broadcasts, keeping the bitmap short
+            for (Long id : broadcastRepo.findVisibleIdsAfter(role, since, marker.getReadThrough(), PageRequest.of(0, MARKER_SCAN))) {
+                if (!marker.hasRead(id)) break;
+                marker.advanceTo(id);
+            }
+            markerRepo.save(marker);
+            streamHub.publish(userId, EVENT_NOTIFICATION, toResponse(n, true));
+            log.debug("Broadcast notification marked as read successfully");
+        }
+        return toResponse(n, true);
+    }
+
     /**
-     * Scheduler uses this.
-     * Sends pending notifications via Email using SMTP configuration.
-     * If sending fails, keep sent=false so it will retry next time.
+     * One UPDATE for all of the user's unread notifications; broadcasts included for roles that get them.
+     */
+    @Transactional
+    public ReadAllResponse markAllAsRead(Long userId, Role role) {
+        if (!BROADCAST_ROLES.contains(role)) {
+            return markAllAsRead(userId);
+        }
+        log.info("Marking all notifications and broadcasts as read");
+
+        int marked = repo.markAllRead(userId, LocalDateTime.now());
+        adjustUnread(userId, -marked);
+
+        BroadcastReadMarker marker = lockMarker(userId);
+        marked += (int) unreadBroadcasts(userId, role, marker);
+        marker.advanceTo(broadcastRepo.findLatestId(role));
+        markerRepo.save(marker);
+
+        if (marked > 0) {
+            streamHub.publish(userId, EVENT_READ_ALL, new ReadAllResponse(marked));
+        }
+        return new ReadAllResponse(marked);
+    }
+
+    /**
+     * One UPDATE for all of the user's unread notifications.
+     */
+    @Transactional
+    public ReadAllResponse markAllAsRead(Long userId) {
+        log.info("Marking all notifications as read");
+
+        int marked = repo.markAllRead(userId, LocalDateTime.now());
+        adjustUnread(userId, -marked);
+        if (marked > 0) {
+            streamHub.publish(userId, EVENT_READ_ALL, new ReadAllResponse(marked));
+        }
+
+        log.debug("All notifications marked as read");
+        return new ReadAllResponse(marked);
+    }
+
+    /**
+     * Badge count: a primary-key lookup once the user has a counter row, a count over their unread rows before that.
+     */
+    @Transactional(readOnly = true)
+    public UnreadCountResponse unreadCount(Long userId) {
+        long unread = counterRepo.findById(userId)
+                .map(NotificationUnreadCounter::getUnreadCount)
+                .orElseGet(() -> repo.countByUserIdAndReadFalse(userId));
+        return new UnreadCountResponse(Math.max(0, unread));
+    }
+
+    /**
+     * As above, plus unread broadcasts: a range count above the user's read marker.
+     */
+    @Transactional(readOnly = true)
+    public UnreadCountResponse unreadCount(Long userId, Role role) {
+        UnreadCountResponse own = unreadCount(userId);
+        if (!BROADCAST_ROLES.contains(role)) {
+            return own;
+        }
+        BroadcastReadMarker marker = markerRepo.findById(userId).orElseGet(BroadcastReadMarker::new);
+        return new UnreadCountResponse(own.unread() + unreadBroadcasts(userId, role, marker));
+    }
+
+    private long unreadBroadcasts(Long userId, Role role, BroadcastReadMarker marker) {
+        long above = broadcastRepo.countByTargetRoleAndCreatedAtGreaterThanEqualAndBroadcastIdGreaterThan(
+                role, memberSince(userId), marker.getReadThrough());
+        return Math.max(0, above - marker.readAbove());
+    }
+
+    private BroadcastReadMarker lockMarker(Long userId) {
+        markerRepo.ensureExists(userId);
+        return markerRepo.lockByUserId(userId)
+                .orElseThrow(() -> new RuntimeException("Read marker not found"));
+    }
+
+    private LocalDateTime memberSince(Long userId) {
+        return userRepo.findById(userId)
+                .map(User::getCreatedAt)
+                .orElse(EPOCH);
+    }
+
+    private void adjustUnread(Long userId, long delta) {
+        if (delta == 0) return;
+        if (counterRepo.add(userId, delta) == 0) {
+            counterRepo.seed(userId, delta);
+        }
+    }
+
+    /**
+     * Scheduler uses this (TRANSACTIONAL and BULK lanes; CRITICAL has {@link #dispatchCriticalNotifications}).
+     * One email per user with a due notification, covering all of that user's pending non-critical ones:
+     * a single message reads as before, several become a digest. BULK users are served from the capacity
+     * {@link NotificationLanes} reserves for them, whatever the TRANSACTIONAL backlog.
+     * If sending fails, the rows stay pending so they are retried next time.
      */
 
     public int dispatchPendingNotifications() {
-        log.trace("Entering dispatchPendingNotifications method");
-        log.debug("Processing pending notifications dispatch");
         log.info("Dispatching pending notifications");
 
-        //  order by updatedAt so the latest status update gets sent in correct sequence
-        List<Notification> pending = repo.findTop50BySentFalseOrderByUpdatedAtAsc();
+        LocalDateTime readAt = LocalDateTime.now();
+        Pageable batch = PageRequest.of(0, lanes.batch());
+        List<Long> transactional = repo.findUsersWithDueNotifications(NotificationPriority.TRANSACTIONAL, readAt, batch);
+        List<Long> bulk = repo.findUsersWithDueNotifications(NotificationPriority.BULK, readAt, batch);
 
-        if (pending.isEmpty()) {
+        int broadcastEmails = dispatchBroadcasts(readAt);
+
+        if (transactional.isEmpty() && bulk.isEmpty()) {
             log.debug("No pending notifications to dispatch");
-            return 0;
+            metrics.pending(repo.countBySentFalse());
+            return broadcastEmails;
         }
 
         log.info("Found pending notifications to dispatch");
-        int sentCount = 0;
 
-        for (Notification n : pending) {
-            try {
-                String email = resolveUserEmail(n.getUserId());
+        Map<NotificationPriority, List<Long>> usersByLane = new EnumMap<>(NotificationPriority.class);
+        List<Long> transactionalUsers = transactional.subList(0, lanes.transactionalShare(transactional.size(), bulk.size()));
+        usersByLane.put(NotificationPriority.TRANSACTIONAL, transactionalUsers);
+        // a user waiting in both lanes gets one email with everything, sent in the higher one
+        Set<Long> served = new HashSet<>(transactionalUsers);
+        usersByLane.put(NotificationPriority.BULK, bulk.stream()
+                .filter(id -> !served.contains(id))
+                .limit(lanes.batch() - transactionalUsers.size())
+                .toList());
+
+        int sentCount = deliver(usersByLane, List.of(NotificationPriority.TRANSACTIONAL, NotificationPriority.BULK), readAt);
+        metrics.pending(repo.countBySentFalse());
+        log.info("Notification dispatch cycle completed");
+        log.debug("Total notifications sent successfully");
+        return sentCount + broadcastEmails;
+    }
 
-                String subject = "Service Booking Notification";
+    /**
+     * Due broadcasts, one (digest) email per user of the role, bulk lane. A broadcast is marked sent
+     * once all its emails were attempted; failed recipients are recorded and retried on their own
+     * by {@link #retryBroadcastEmails}, so the ones that got it are not emailed twice.
+     */
+    private int dispatchBroadcasts(LocalDateTime now) {
+        int retried = retryBroadcastEmails(now);
 
-                String body = """
-                          Hello,
+        List<BroadcastNotification> due = broadcastRepo.findTop50BySentFalseAndDeliverAfterLessThanEqualOrderByBroadcastIdAsc(now);
+        if (due.isEmpty()) {
+            return retried;
+        }
 
-                          You have a new notification from Service Booking:
+        Map<Role, List<BroadcastNotification>> dueByRole = new EnumMap<>(Role.class);
+        for (BroadcastNotification b : due) {
+            dueByRole.computeIfAbsent(b.getTargetRole(), r -> new ArrayList<>()).add(b);
+        }
 
-                          %s
+        int sentCount = 0;
+        int failedCount = 0;
+        List<BroadcastEmailRetry> failed = new ArrayList<>();
+        for (Map.Entry<Role, List<BroadcastNotification>> e : dueByRole.entrySet()) {
+            List<String> messages = e.getValue().stream().map(BroadcastNotification::getMessage).toList();
+            for (User u : userRepo.findByRole(e.getKey())) {
+                try {
+                    emailSender.send(u.getEmail(), subject(messages), body(messages));
+                    sentCount++;
+                } catch (Exception ex) {
+                    failedCount++;
+                    log.warn("Broadcast email to user {} failed, will retry", u.getId(), ex);
+                    for (BroadcastNotification b : e.getValue()) {
+                        BroadcastEmailRetry r = new BroadcastEmailRetry();
+                        r.setBroadcastId(b.getBroadcastId());
+                        r.setUserId(u.getId());
+                        failed.add(r);
+                    }
+                }
+            }
+        }
 
-                          Regards,
-                          Service Booking Team
-                          """.formatted(n.getMessage());
+        failed.forEach(r -> scheduleRetry(r, now));
+        retryRepo.saveAll(failed);
+        broadcastRepo.markSent(due.stream().map(BroadcastNotification::getBroadcastId).toList(), LocalDateTime.now());
+        metrics.dispatched(NotificationPriority.BULK, sentCount, failedCount);
+        return retried + sentCount;
+    }
 
-                emailSender.send(email, subject, body);
+    /**
+     * Recipients a broadcast email failed for: one (digest) email per user with everything they are owed.
+     * Sent rows are deleted; failed ones back off, and are dropped after {@link #MAX_BROADCAST_EMAIL_ATTEMPTS}.
+     */
+    private int retryBroadcastEmails(LocalDateTime now) {
+        List<BroadcastEmailRetry> due = retryRepo.findTop200ByNextAttemptAtLessThanEqualOrderByRetryIdAsc(now);
+        if (due.isEmpty()) {
+            return 0;
+        }
 
-                // mark sent only after successful email send
-                n.setSent(true);
-                n.setSentAt(LocalDateTime.now());
-                sentCount++;
-                log.debug("Notification email sent successfully");
+        Map<Long, List<BroadcastEmailRetry>> dueByUser = new LinkedHashMap<>();
+        for (BroadcastEmailRetry r : due) {
+            dueByUser.computeIfAbsent(r.getUserId(), id -> new ArrayList<>()).add(r);
+        }
+        Map<Long, String> messages = new HashMap<>();
+        for (BroadcastNotification b : broadcastRepo.findAllById(due.stream().map(BroadcastEmailRetry::getBroadcastId).distinct().toList())) {
+            messages.put(b.getBroadcastId(), b.getMessage());
+        }
+        Map<Long, String> emails = new HashMap<>();
+        for (User u : userRepo.findAllById(dueByUser.keySet())) {
+            emails.put(u.getId(), u.getEmail());
+        }
 
+        int sentCount = 0;
+        int failedCount = 0;
+        List<BroadcastEmailRetry> done = new ArrayList<>();
+        List<BroadcastEmailRetry> again = new ArrayList<>();
+        for (Map.Entry<Long, List<BroadcastEmailRetry>> e : dueByUser.entrySet()) {
+            List<BroadcastEmailRetry> retries = e.getValue();
+            List<String> owed = retries.stream().map(r -> messages.get(r.getBroadcastId())).filter(Objects::nonNull).toList();
+            String email = emails.get(e.getKey());
+            if (owed.isEmpty() || email == null) {
+                // broadcast or user deleted since
+                done.addAll(retries);
+                continue;
+            }
+            try {
+                emailSender.send(email, subject(owed), body(owed));
+                done.addAll(retries);
+                sentCount++;
             } catch (Exception ex) {
-                // keep it pending for retry on next scheduler run
-                log.error("Failed to send notification email", ex);
+                failedCount++;
+                if (retries.get(0).getAttempts() + 1 >= MAX_BROADCAST_EMAIL_ATTEMPTS) {
+                    log.error("Broadcast email to user {} dropped after {} attempts", e.getKey(), MAX_BROADCAST_EMAIL_ATTEMPTS, ex);
+                    done.addAll(retries);
+                } else {
+                    log.warn("Broadcast email retry to user {} failed", e.getKey(), ex);
+                    retries.forEach(r -> scheduleRetry(r, now));
+                    again.addAll(retries);
+                }
             }
         }
 
-        repo.saveAll(pending);
-        log.info("Notification dispatch cycle completed");
-        log.debug("Total notifications sent successfully");
+        retryRepo.deleteAllInBatch(done);
+        retryRepo.saveAll(again);
+        metrics.dispatched(NotificationPriority.BULK, sentCount, failedCount);
         return sentCount;
     }
 
+    private static void scheduleRetry(BroadcastEmailRetry r, LocalDateTime now) {
+        r.setAttempts(r.getAttempts() + 1);
+        r.setNextAttemptAt(now.plusMinutes(1L << r.getAttempts()));
+    }
+
+    /**
+     * Scheduler uses this, on a short delay of its own: OTP emails, never queued behind other lanes.
+     */
+    public int dispatchCriticalNotifications() {
+        LocalDateTime readAt = LocalDateTime.now();
+        List<Long> userIds = repo.findUsersWithDueNotifications(NotificationPriority.CRITICAL, readAt,
+                PageRequest.of(0, lanes.criticalBatch()));
+        if (userIds.isEmpty()) {
+            return 0;
+        }
+        log.info("Dispatching critical notifications");
+        return deliver(Map.of(NotificationPriority.CRITICAL, userIds), List.of(NotificationPriority.CRITICAL), readAt);
+    }
+
+    private int deliver(Map<NotificationPriority, List<Long>> usersByLane, List<NotificationPriority> priorities,
+                        LocalDateTime readAt) {
+        List<Long> userIds = usersByLane.values().stream().flatMap(List::stream).toList();
+
+        // one query for the pending rows of all these users, one for their addresses
+        Map<Long, List<Notification>> pendingByUser = new LinkedHashMap<>();
+        for (Notification n : repo.findByUserIdInAndSentFalseAndPriorityInOrderByUpdatedAtAsc(userIds, priorities)) {
+            pendingByUser.computeIfAbsent(n.getUserId(), id -> new ArrayList<>()).add(n);
+        }
+        Map<Long, String> emails = new HashMap<>();
+        for (User u : userRepo.findAllById(userIds)) {
+            emails.put(u.getId(), u.getEmail());
+        }
+
+        int totalSent = 0;
+        List<Long> delivered = new ArrayList<>();
+
+        for (Map.Entry<NotificationPriority, List<Long>> lane : usersByLane.entrySet()) {
+            int sentCount = 0;
+            int failedCount = 0;
+
+            for (Long userId : lane.getValue()) {
+                List<Notification> pending = pendingByUser.get(userId);
+                if (pending == null) continue; // sent by another run in the meantime
+                try {
+                    String email = emails.get(userId);
+                    if (email == null) {
+                        log.error("User not found");
+                        throw new RuntimeException("User not found");
+                    }
+
+                    List<String> messages = pending.stream().map(Notification::getMessage).toList();
+                    emailSender.send(email, subject(messages), body(messages));
+
+                    // mark sent only after successful email send
+                    pending.forEach(n -> delivered.add(n.getNotificationId()));
+                    LocalDateTime now = LocalDateTime.now();
+                    metrics.waited(lane.getKey(), Duration.between(dueAt(pending, now), now));
+                    sentCount++;
+                    log.debug("Notification email sent successfully");
+
+                } catch (Exception ex) {
+                    // keep them pending for retry on next scheduler run
+                    failedCount++;
+                    log.error("Failed to send notification email", ex);
+                }
+            }
+            metrics.dispatched(lane.getKey(), sentCount, failedCount);
+            totalSent += sentCount;
+        }
+
+        if (!delivered.isEmpty()) {
+            repo.markSent(delivered, LocalDateTime.now(), readAt);
+        }
+        metrics.coalesced(delivered.size() - totalSent);
+        return totalSent;
+    }
+
+    // when the earliest of these became due (rows riding along before their window ended don't count)
+    private static LocalDateTime dueAt(List<Notification> pending, LocalDateTime now) {
+        LocalDateTime due = now;
+        for (Notification n : pending) {
+            LocalDateTime d = n.getDeliverAfter() != null ? n.getDeliverAfter() : n.getUpdatedAt();
+            if (d.isBefore(due)) due = d;
+        }
+        return due;
+    }
+
+    private static String subject(List<String> messages) {
+        return messages.size() == 1
+                ? "Service Booking Notification"
+                : "Service Booking: " + messages.size() + " new notifications";
+    }
+
+    private static String body(List<String> messages) {
+        if (messages.size() == 1) {
+            return """
+                    Hello,
+
+                    You have a new notification from Service Booking:
+
+                    %s
+
+                    Regards,
+                    Service Booking Team
+                    """.formatted(messages.get(0));
+        }
+
+        StringBuilder items = new StringBuilder();
+        for (String m : messages) {
+            items.append("- ").append(m).append('\n');
+        }
+        return """
+                Hello,
+
+                You have %d new notifications from Service Booking:
+
+                %s
+                Regards,
+                Service Booking Team
+                """.formatted(messages.size(), items);
+    }
+
 
 //    public int dispatchPendingNotifications() {
 //        List<Notification> pending = repo.findTop50BySentFalseOrderByCreatedAtAsc();
@@ -262,15 +745,6 @@ public class NotificationService {
 //        return sentCount;
 //    }
 
-    private String resolveUserEmail(Long userId) {
-        User user = userRepo.findById(userId)
-                .orElseThrow(() -> {
-                    log.error("User not found");
-                    return new RuntimeException("User not found");
-                });
-        return user.getEmail();
-    }
-
     private NotificationResponse toResponse(Notification n) {
         return new NotificationResponse(
                 n.getNotificationId(),
@@ -279,28 +753,71 @@ public class NotificationService {
                 n.isSent(),
                 n.getCreatedAt(),
                 n.getSentAt(),
-                n.getReadAt()
+                n.getReadAt(),
+                false
+        );
+    }
+
+    private NotificationResponse toResponse(NotificationArchive n) {
+        return new NotificationResponse(
+                n.getNotificationId(),
+                n.getMessage(),
+                true,
+                true,
+                n.getCreatedAt(),
+                n.getSentAt(),
+                n.getReadAt(),
+                false
+        );
+    }
+
+    // broadcasts don't keep a read time per user
+    private NotificationResponse toResponse(BroadcastNotification n, boolean read) {
+        return new NotificationResponse(
+                n.getBroadcastId(),
+                n.getMessage(),
+                read,
+                n.isSent(),
+                n.getCreatedAt(),
+                n.getSentAt(),
+                null,
+                true
         );
     }
 
 
     //Admin related notification
+    @Transactional
     public void notifyAllAdmins(String message) {
-        log.trace("Entering notifyAllAdmins method");
-        log.debug("Processing notify all admins");
         log.info("Notifying all admins");
+        // one row however many admins; emailed as one digest per admin after the ADMIN window
+        broadcast(Role.ADMIN, message, NotificationCategory.ADMIN);
+        log.debug("All admins notified successfully");
+    }
 
-        List<User> admins = userRepo.findByRole(Role.ADMIN);
-
-        if (admins.isEmpty()) {
-            log.warn("No admin users found");
+    private void broadcast(Role role, String message, NotificationCategory category) {
+        if (message == null || message.trim().isEmpty()) {
+            log.error("Notification message is required");
+            throw new RuntimeException("Notification message is required");
         }
 
-        for (User admin : admins) {
-            createSystemNotification(admin.getId(), message);
-        }
+        LocalDateTime now = LocalDateTime.now();
 
-        log.debug("All admins notified successfully");
+        BroadcastNotification b = new BroadcastNotification();
+        b.setTargetRole(role);
+        b.setMessage(message.trim());
+        b.setCategory(category);
+        b.setCreatedAt(now);
+        b.setDeliverAfter(windows.deliverAfter(category, now));
+        b.setSent(false);
+
+        broadcastRepo.save(b);
+
+        // live feeds of the role's users; an id-only read, nothing written per user
+        NotificationResponse event = toResponse(b, false);
+        for (Long userId : userRepo.findIdsByRole(role)) {
+            streamHub.publish(userId, EVENT_NOTIFICATION, event);
+        }
     }
 
 }
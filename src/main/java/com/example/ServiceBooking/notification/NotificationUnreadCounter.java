@@ -0,0 +1,24 @@
+package com.example.ServiceBooking.notification;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Unread notifications per user, kept in step with {@link Notification#isRead()}
+ * so the badge endpoint is a primary-key lookup instead of a count over notifications.
+ * A user's row is created (seeded from the notifications table) on their first unread change.
+ */
+@Entity
+@Table(name = "notification_unread_counters")
+@Getter
+@Setter
+public class NotificationUnreadCounter {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "unread_count", nullable = false)
+    private long unreadCount;
+}
@@ -0,0 +1,24 @@
+package com.example.ServiceBooking.notification;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface NotificationUnreadCounterRepository extends JpaRepository<NotificationUnreadCounter, Long> {
+
+    // 0 rows = no counter yet for this user, see seed()
+    @Modifying
+    @Query("update NotificationUnreadCounter c set c.unreadCount = c.unreadCount + :delta where c.userId = :userId")
+    int add(@Param("userId") Long userId, @Param("delta") long delta);
+
+    // First change for a user: count their unread rows (this transaction's change included, hence the flush).
+    // If a concurrent first change inserted the row meanwhile, the duplicate key turns this into a plain add.
+    @Modifying(flushAutomatically = true)
+    @Query(nativeQuery = true, value = """
+            insert into notification_unread_counters (user_id, unread_count)
+            select :userId, count(*) from notifications where user_id = :userId and is_read = false
+            on duplicate key update unread_count = unread_count + :delta
+            """)
+    int seed(@Param("userId") Long userId, @Param("delta") long delta);
+}
@@ -0,0 +1,35 @@
+package com.example.ServiceBooking.notification;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Coalescing windows per category ({@code notifications.coalesce.*-seconds}).
+ * A notification becomes due for email when its window ends. When any of a user's pending
+ * notifications is due, all of that user's pending ones go out in one email.
+ */
+@Component
+public class NotificationWindows {
+
+    private final Map<NotificationCategory, Long> seconds = new EnumMap<>(NotificationCategory.class);
+
+    public NotificationWindows(@Value("${notifications.coalesce.otp-seconds:0}") long otpSeconds,
+                               @Value("${notifications.coalesce.booking-seconds:120}") long bookingSeconds,
+                               @Value("${notifications.coalesce.system-seconds:300}") long systemSeconds,
+                               @Value("${notifications.coalesce.support-seconds:300}") long supportSeconds,
+                               @Value("${notifications.coalesce.admin-seconds:900}") long adminSeconds) {
+        seconds.put(NotificationCategory.OTP, otpSeconds);
+        seconds.put(NotificationCategory.BOOKING, bookingSeconds);
+        seconds.put(NotificationCategory.SYSTEM, systemSeconds);
+        seconds.put(NotificationCategory.SUPPORT, supportSeconds);
+        seconds.put(NotificationCategory.ADMIN, adminSeconds);
+    }
+
+    public LocalDateTime deliverAfter(NotificationCategory category, LocalDateTime now) {
+        return now.plusSeconds(seconds.get(category));
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.ServiceBooking.notification.dto;
+
+import com.example.ServiceBooking.bookings.dto.BookingStatus;
+import com.example.ServiceBooking.bookings.events.BookingEventType;
+
+import java.time.LocalDateTime;
+
+public record BookingStatusPush(
+        Long bookingId,
+        BookingEventType type,
+        BookingStatus status,
+        Long providerId,
+        LocalDateTime bookingTime,
+        LocalDateTime occurredAt
+) {}
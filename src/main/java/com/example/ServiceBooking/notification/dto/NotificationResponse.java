@@ -11,6 +11,8 @@ public record NotificationResponse(
         boolean sent,
         LocalDateTime createdAt,
         LocalDateTime sentAt,
-        LocalDateTime readAt
+        LocalDateTime readAt,
+        // role-wide notification: mark it read with PUT /notifications/broadcasts/{id}/read
+        boolean broadcast
 ) {}
 
@@ -0,0 +1,3 @@
+package com.example.ServiceBooking.notification.dto;
+
+public record ReadAllResponse(int marked) {}
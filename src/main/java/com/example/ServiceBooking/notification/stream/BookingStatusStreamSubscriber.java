@@ -0,0 +1,31 @@
+package com.example.ServiceBooking.notification.stream;
+
+import com.example.ServiceBooking.bookings.events.BookingEvent;
+import com.example.ServiceBooking.bookings.events.BookingEventSubscriber;
+import com.example.ServiceBooking.bookings.events.BookingEventType;
+import com.example.ServiceBooking.notification.dto.BookingStatusPush;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Pushes booking status changes to the customer's and provider's streams, so booking screens
+ * can update without polling the booking endpoints. A redelivered event re-sends the same state.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingStatusStreamSubscriber implements BookingEventSubscriber {
+
+    public static final String EVENT = "booking";
+
+    private final NotificationStreamHub hub;
+
+    @Override
+    public void onEvent(BookingEvent e) {
+        if (e.getType() == BookingEventType.PAYMENT_PAID) return;
+
+        BookingStatusPush push = new BookingStatusPush(e.getBookingId(), e.getType(), e.getToStatus(),
+                e.getProviderId(), e.getBookingTime(), e.getCreatedAt());
+        hub.publish(e.getCustomerId(), EVENT, push);
+        hub.publish(e.getProviderId(), EVENT, push);
+    }
+}
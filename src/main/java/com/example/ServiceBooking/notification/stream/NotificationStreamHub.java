@@ -0,0 +1,291 @@
+package com.example.ServiceBooking.notification.stream;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process pub/sub behind {@code GET /notifications/stream}.
+ * <ul>
+ *   <li>{@link #publish} runs after the surrounding transaction commits (immediately without one)</li>
+ *   <li>each user keeps the last {@code replay-size} events, so a reconnect with Last-Event-ID gets what it missed;
+ *       if that is no longer available (evicted, or the node restarted) the client gets a {@code resync} event
+ *       and should refetch /notifications</li>
+ *   <li>connections are async responses with a bounded buffer each; a client that falls {@code buffer-size} events
+ *       behind is disconnected and catches up through the replay on reconnect</li>
+ *   <li>a write blocked for longer than {@code send-timeout-ms} (a client that stopped reading) closes that
+ *       connection and its sender is replaced, so stalled clients cannot freeze the other streams</li>
+ *   <li>a heartbeat comment every {@code heartbeat-seconds} keeps proxies from closing idle streams</li>
+ * </ul>
+ * Events only reach users connected to the node that produced them; more than one node needs a shared broker.
+ */
+@Slf4j
+@Component
+public class NotificationStreamHub {
+
+    public static final String RESYNC = "resync";
+
+    private final int bufferSize;
+    private final int replaySize;
+    private final int maxConnectionsPerUser;
+    private final long timeoutMillis;
+    private final long replayTtlMillis;
+    private final long sendTimeoutMillis;
+
+    private final Map<Long, List<StreamConnection>> connections = new ConcurrentHashMap<>();
+    private final Map<Long, ReplayBuffer> replay = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong(System.currentTimeMillis() * 1000);
+    private final AtomicInteger open = new AtomicInteger();
+
+    private final SenderPool senders;
+    private final ScheduledExecutorService heartbeat;
+
+    private final Counter published;
+    private final Counter overflows;
+    private final Counter stalls;
+
+    /**
+     * Recent events of one user; also the lock that keeps that user's events ordered.
+     */
+    private static final class ReplayBuffer {
+        final ArrayDeque<StreamEvent> events = new ArrayDeque<>();
+        // events up to this id may have existed but are no longer here
+        long evictedUpTo;
+        long touchedAt = System.currentTimeMillis();
+
+        ReplayBuffer(long evictedUpTo) {
+            this.evictedUpTo = evictedUpTo;
+        }
+    }
+
+    public NotificationStreamHub(MeterRegistry registry,
+                                 @Value("${notifications.stream.buffer-size:64}") int bufferSize,
+                                 @Value("${notifications.stream.replay-size:50}") int replaySize,
+                                 @Value("${notifications.stream.max-connections-per-user:5}") int maxConnectionsPerUser,
+                                 @Value("${notifications.stream.timeout-ms:1800000}") long timeoutMillis,
+                                 @Value("${notifications.stream.heartbeat-seconds:25}") long heartbeatSeconds,
+                                 @Value("${notifications.stream.replay-ttl-minutes:10}") long replayTtlMinutes,
+                                 @Value("${notifications.stream.sender-threads:8}") int senderThreads,
+                                 @Value("${notifications.stream.send-timeout-ms:10000}") long sendTimeoutMillis) {
+        this.bufferSize = bufferSize;
+        this.replaySize = replaySize;
+        this.maxConnectionsPerUser = maxConnectionsPerUser;
+        this.timeoutMillis = timeoutMillis;
+        this.replayTtlMillis = TimeUnit.MINUTES.toMillis(replayTtlMinutes);
+        this.sendTimeoutMillis = sendTimeoutMillis;
+
+        this.senders = new SenderPool(senderThreads, daemon("sse-sender-"));
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(daemon("sse-heartbeat-"));
+        this.heartbeat.scheduleWithFixedDelay(this::heartbeat, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+        long watchdogMillis = Math.max(10, sendTimeoutMillis / 4);
+        this.heartbeat.scheduleWithFixedDelay(this::closeStalled, watchdogMillis, watchdogMillis, TimeUnit.MILLISECONDS);
+
+        Gauge.builder("notification.stream.connections", open, AtomicInteger::get)
+                .description("Open notification streams")
+                .register(registry);
+        this.published = Counter.builder("notification.stream.events")
+                .description("Events published to notification streams")
+                .register(registry);
+        this.overflows = Counter.builder("notification.stream.overflows")
+                .description("Streams closed because the client fell too far behind")
+                .register(registry);
+        this.stalls = Counter.builder("notification.stream.stalls")
+                .description("Streams closed because a write to the client blocked for longer than the send timeout")
+                .register(registry);
+        Gauge.builder("notification.stream.stalled-senders", senders, SenderPool::writtenOff)
+                .description("Sender threads still stuck in a write to a closed stream")
+                .register(registry);
+    }
+
+    // ==================================================
+    // PUBLISH
+    // ==================================================
+
+    public void publish(Long userId, String name, Object data) {
+        if (userId == null) return;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deliver(userId, name, data);
+                }
+            });
+        } else {
+            deliver(userId, name, data);
+        }
+    }
+
+    private void deliver(Long userId, String name, Object data) {
+        ReplayBuffer buffer = buffer(userId);
+        synchronized (buffer) {
+            StreamEvent event = new StreamEvent(sequence.incrementAndGet(), name, data);
+            buffer.events.addLast(event);
+            if (buffer.events.size() > replaySize) {
+                buffer.evictedUpTo = buffer.events.removeFirst().id();
+            }
+            buffer.touchedAt = System.currentTimeMillis();
+
+            for (StreamConnection c : connections.getOrDefault(userId, List.of())) {
+                if (!c.offer(event)) {
+                    overflows.increment();
+                    log.debug("Notification stream overflow, closing it");
+                    close(c);
+                }
+            }
+        }
+        published.increment();
+    }
+
+    // ==================================================
+    // CONNECT
+    // ==================================================
+
+    /**
+     * @param lastEventId the client's Last-Event-ID header, null on a first connect
+     */
+    public SseEmitter connect(Long userId, String lastEventId) {
+        return connect(userId, lastEventId, new SseEmitter(timeoutMillis));
+    }
+
+    SseEmitter connect(Long userId, String lastEventId, SseEmitter emitter) {
+        StreamConnection connection = new StreamConnection(userId, emitter, bufferSize, senders);
+        emitter.onCompletion(() -> unregister(connection));
+        emitter.onTimeout(() -> close(connection));
+        emitter.onError(ex -> unregister(connection));
+
+        Long resumeAfter = parse(lastEventId);
+        ReplayBuffer buffer = buffer(userId);
+        synchronized (buffer) {
+            List<StreamConnection> mine = connections.compute(userId, (id, list) -> {
+                List<StreamConnection> l = list == null ? new CopyOnWriteArrayList<>() : list;
+                l.add(connection);
+                return l;
+            });
+            open.incrementAndGet();
+            // the oldest tab/device makes room
+            while (mine.size() > maxConnectionsPerUser) {
+                close(mine.get(0));
+            }
+
+            if (resumeAfter != null) {
+                if (resumeAfter < buffer.evictedUpTo) {
+                    connection.offer(new StreamEvent(sequence.get(), RESYNC, null));
+                } else {
+                    // replay is at most replay-size events; keep the rest of the buffer for live ones
+                    buffer.events.stream()
+                            .filter(e -> e.id() > resumeAfter)
+                            .forEach(connection::offer);
+                }
+            }
+        }
+        return emitter;
+    }
+
+    private void close(StreamConnection c) {
+        unregister(c);
+        c.complete();
+    }
+
+    private void unregister(StreamConnection c) {
+        c.close();
+        boolean[] removed = {false};
+        // atomic per user, so a concurrent connect never adds to a list that is being dropped
+        connections.computeIfPresent(c.userId, (id, list) -> {
+            removed[0] = list.remove(c);
+            return list.isEmpty() ? null : list;
+        });
+        if (removed[0]) {
+            open.decrementAndGet();
+        }
+    }
+
+    private ReplayBuffer buffer(Long userId) {
+        // a new buffer knows nothing before now: older Last-Event-IDs resync
+        return replay.computeIfAbsent(userId, id -> new ReplayBuffer(sequence.get()));
+    }
+
+    private static Long parse(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) return null;
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    // ==================================================
+    // HOUSEKEEPING
+    // ==================================================
+
+    private void heartbeat() {
+        try {
+            for (List<StreamConnection> mine : connections.values()) {
+                for (StreamConnection c : mine) {
+                    // a full buffer means data is already on its way; skip the heartbeat
+                    c.offer(StreamEvent.HEARTBEAT);
+                }
+            }
+
+            long cutoff = System.currentTimeMillis() - replayTtlMillis;
+            replay.entrySet().removeIf(e -> e.getValue().touchedAt < cutoff && !connections.containsKey(e.getKey()));
+        } catch (RuntimeException ex) {
+            log.warn("Notification stream heartbeat failed", ex);
+        }
+    }
+
+    private void closeStalled() {
+        try {
+            long now = System.currentTimeMillis();
+            for (List<StreamConnection> mine : connections.values()) {
+                for (StreamConnection c : mine) {
+                    if (c.stalled(now, sendTimeoutMillis)) {
+                        stalls.increment();
+                        log.debug("Notification stream write stalled, closing it");
+                        unregister(c);
+                        c.abort();
+                    }
+                }
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Notification stream watchdog failed", ex);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        for (List<StreamConnection> mine : connections.values()) {
+            mine.forEach(StreamConnection::complete);
+        }
+        connections.clear();
+        senders.shutdown();
+    }
+
+    private static ThreadFactory daemon(String prefix) {
+        AtomicInteger n = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
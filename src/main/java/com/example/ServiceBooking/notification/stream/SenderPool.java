@@ -0,0 +1,59 @@
+package com.example.ServiceBooking.notification.stream;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fixed pool of stream writers that grows by one for every thread written off in a stalled write
+ * and shrinks back when that write finally returns, so stuck clients never take all the senders.
+ */
+final class SenderPool implements Executor {
+
+    private final int threads;
+    private final ThreadPoolExecutor pool;
+    // guarded by this
+    private int writtenOff;
+
+    SenderPool(int threads, ThreadFactory factory) {
+        this.threads = threads;
+        this.pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), factory);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        pool.execute(task);
+    }
+
+    synchronized void writeOff() {
+        writtenOff++;
+        resize();
+    }
+
+    synchronized void release() {
+        writtenOff--;
+        resize();
+    }
+
+    synchronized int writtenOff() {
+        return writtenOff;
+    }
+
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private void resize() {
+        int size = threads + writtenOff;
+        // core may never exceed max
+        if (size > pool.getMaximumPoolSize()) {
+            pool.setMaximumPoolSize(size);
+            pool.setCorePoolSize(size);
+        } else {
+            pool.setCorePoolSize(size);
+            pool.setMaximumPoolSize(size);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.ServiceBooking.notification.stream;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One open SSE response. Publishers only enqueue; a shared sender pool does the (blocking) writes,
+ * at most one drain per connection at a time, so a slow client never holds up a request thread.
+ * <p>
+ * The emitter serialises send and complete on one lock, so a connection whose send is stuck is only
+ * marked closed here; the draining thread completes the response once its write returns.
+ */
+final class StreamConnection {
+
+    final Long userId;
+    final SseEmitter emitter;
+
+    private final ArrayBlockingQueue<StreamEvent> queue;
+    private final SenderPool senders;
+    // held by the running drain, or for good by whoever completes the emitter
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean completed = new AtomicBoolean();
+    private volatile boolean closed;
+    // start of the write in flight, 0 between writes
+    private volatile long sendingSince;
+    private volatile Thread sender;
+    // the sender pool replaced the thread stuck in the current write; guarded by this
+    private boolean abandoned;
+
+    StreamConnection(Long userId, SseEmitter emitter, int bufferSize, SenderPool senders) {
+        this.userId = userId;
+        this.emitter = emitter;
+        this.queue = new ArrayBlockingQueue<>(bufferSize);
+        this.senders = senders;
+    }
+
+    /**
+     * @return false if the buffer is full (the client isn't keeping up)
+     */
+    boolean offer(StreamEvent event) {
+        if (closed) return true;
+        if (!queue.offer(event)) return false;
+        schedule();
+        return true;
+    }
+
+    void close() {
+        closed = true;
+        queue.clear();
+    }
+
+    /**
+     * Closes and ends the response without waiting on a write in flight; the container may already have dropped it.
+     */
+    void complete() {
+        close();
+        if (draining.compareAndSet(false, true)) {
+            completeEmitter();
+        }
+        // else the running drain sees closed and completes
+    }
+
+    /**
+     * @return true if the current write has been blocked for longer than {@code limitMillis}
+     */
+    boolean stalled(long now, long limitMillis) {
+        long since = sendingSince;
+        return since != 0 && now - since > limitMillis;
+    }
+
+    /**
+     * Gives up on a stalled write: closes the connection, interrupts the sender stuck in it and has the pool
+     * start a replacement until that write returns (the container's write timeout bounds how long that is).
+     */
+    void abort() {
+        close();
+        synchronized (this) {
+            if (sendingSince == 0 || abandoned) return;
+            abandoned = true;
+            senders.writeOff();
+            Thread t = sender;
+            if (t != null) {
+                t.interrupt();
+            }
+        }
+    }
+
+    private void schedule() {
+        if (draining.compareAndSet(false, true)) {
+            senders.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        sender = Thread.currentThread();
+        try {
+            StreamEvent e;
+            while (!closed && (e = queue.poll()) != null) {
+                sendingSince = System.currentTimeMillis();
+                try {
+                    send(e);
+                } finally {
+                    sent();
+                }
+            }
+        } catch (IOException | IllegalStateException ex) {
+            // client went away (or the emitter already completed); the emitter callbacks unregister us
+            close();
+        } finally {
+            sender = null;
+        }
+        if (closed) {
+            // keep the drain flag: nothing is sent on this connection again
+            completeEmitter();
+            return;
+        }
+        draining.set(false);
+        // an offer or complete that raced with the end of the loop
+        if (closed || !queue.isEmpty()) {
+            schedule();
+        }
+    }
+
+    private synchronized void sent() {
+        sendingSince = 0;
+        // an abort that lost the race with the write must not leave the interrupt behind
+        Thread.interrupted();
+        if (abandoned) {
+            abandoned = false;
+            senders.release();
+        }
+    }
+
+    private void completeEmitter() {
+        if (!completed.compareAndSet(false, true)) return;
+        try {
+            emitter.complete();
+        } catch (IllegalStateException ex) {
+            // response already completed or recycled
+        }
+    }
+
+    private void send(StreamEvent e) throws IOException {
+        if (e == StreamEvent.HEARTBEAT) {
+            emitter.send(SseEmitter.event().comment("hb"));
+            return;
+        }
+        SseEmitter.SseEventBuilder builder = SseEmitter.event().id(Long.toString(e.id())).name(e.name());
+        emitter.send(e.data() == null ? builder.data("") : builder.data(e.data(), MediaType.APPLICATION_JSON));
+    }
+}
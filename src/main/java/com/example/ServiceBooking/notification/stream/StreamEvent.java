@@ -0,0 +1,10 @@
+package com.example.ServiceBooking.notification.stream;
+
+/**
+ * One pushed event. Ids increase across the node (seeded from the clock, so they keep increasing
+ * across restarts) and are sent as the SSE id, which clients echo back in Last-Event-ID.
+ */
+record StreamEvent(long id, String name, Object data) {
+
+    static final StreamEvent HEARTBEAT = new StreamEvent(-1, null, null);
+}
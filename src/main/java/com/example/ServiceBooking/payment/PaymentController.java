@@ -32,7 +32,6 @@ public class PaymentController {
     @PostMapping("/cash")
     @PreAuthorize("hasRole('PROVIDER')")
     public PaymentResponse recordCash(@Valid @RequestBody RecordCashPaymentRequest req) {
-        log.info("Record cash payment request received");
         return paymentService.recordCashPayment(userId(), req);
     }
 
@@ -40,7 +39,6 @@ public class PaymentController {
     @PutMapping("/{paymentId}/paid")
     @PreAuthorize("hasRole('PROVIDER')")
     public PaymentResponse markPaid(@PathVariable Long paymentId) {
-        log.info("Mark payment paid request received");
         return paymentService.markPaymentPaid(userId(), paymentId);
     }
 
@@ -50,7 +48,6 @@ public class PaymentController {
     public Page<PaymentResponse> history(
             @PageableDefault(size = 20, sort = "paymentId") Pageable pageable
     ) {
-        log.info("Payment history request received");
         return paymentService.paymentHistory(pageable);
     }
 }
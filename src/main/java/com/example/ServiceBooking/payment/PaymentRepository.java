@@ -3,11 +3,14 @@ package com.example.ServiceBooking.payment;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import com.example.ServiceBooking.payment.PaymentStatus;
 import org.springframework.data.repository.query.Param;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
@@ -40,4 +43,38 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     @Query("select sum(p.amount) from Payment p where p.status=:status")
     BigDecimal sumByStatus(PaymentStatus status);
 
+    // RECORDED -> PAID exactly once, so the PAYMENT_PAID event can't be emitted twice
+    @Modifying(clearAutomatically = true)
+    @Query("""
+        update Payment p
+           set p.status = com.example.ServiceBooking.payment.PaymentStatus.PAID,
+               p.paidAt = :paidAt
+         where p.paymentId = :paymentId
+           and p.status <> com.example.ServiceBooking.payment.PaymentStatus.PAID
+    """)
+    int markPaid(@Param("paymentId") Long paymentId, @Param("paidAt") LocalDateTime paidAt);
+
+    // analytics backfill: paid payments with their booking's dimensions, keyset-paged by payment id
+    @Query("""
+        select p.paymentId as paymentId, p.amount as amount,
+               coalesce(p.paidAt, b.dateTime, b.createdAt) as paidAt,
+               b.city as city, b.serviceId as serviceId, b.providerId as providerId, b.customerId as customerId
+          from Payment p, Booking b
+         where b.id = p.bookingId
+           and p.status = com.example.ServiceBooking.payment.PaymentStatus.PAID
+           and p.paymentId > :afterId
+         order by p.paymentId asc
+    """)
+    List<PaidPaymentRow> findPaidRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    interface PaidPaymentRow {
+        Long getPaymentId();
+        BigDecimal getAmount();
+        LocalDateTime getPaidAt();
+        String getCity();
+        Long getServiceId();
+        Long getProviderId();
+        Long getCustomerId();
+    }
+
 }
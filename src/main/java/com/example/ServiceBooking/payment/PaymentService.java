@@ -3,6 +3,7 @@ package com.example.ServiceBooking.payment;
 import com.example.ServiceBooking.bookings.Booking;
 import com.example.ServiceBooking.bookings.BookingRepository;
 import com.example.ServiceBooking.bookings.dto.BookingStatus;
+import com.example.ServiceBooking.bookings.events.BookingEventService;
 import com.example.ServiceBooking.payment.dto.PaymentResponse;
 import com.example.ServiceBooking.payment.dto.RecordCashPaymentRequest;
 import jakarta.transaction.Transactional;
@@ -15,6 +16,7 @@ import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDateTime;
 
 @Service
 @RequiredArgsConstructor
@@ -23,6 +25,7 @@ public class PaymentService {
 
     private final PaymentRepository paymentRepo;
     private final BookingRepository bookingRepo;
+    private final BookingEventService bookingEvents;
 
     @Value("${platform.commission.rate:0.20}")
     private BigDecimal commissionRate;
@@ -110,11 +113,19 @@ public class PaymentService {
             return toResponse(p);
         }
 
+        // conditional UPDATE: a concurrent mark-paid can't record the payment (and its event) twice
+        LocalDateTime paidAt = LocalDateTime.now();
+        if (paymentRepo.markPaid(paymentId, paidAt) == 0) {
+            p.setStatus(PaymentStatus.PAID);
+            return toResponse(p);
+        }
         p.setStatus(PaymentStatus.PAID);
-        Payment saved = paymentRepo.save(p);
+        p.setPaidAt(paidAt);
+
+        bookingEvents.recordPayment(booking, p.getAmount(), callerId);
 
         log.info("Payment marked as PAID");
-        return toResponse(saved);
+        return toResponse(p);
     }
 
     /**
@@ -122,7 +133,6 @@ public class PaymentService {
      * Minimal requirement: history.
      */
     public Page<PaymentResponse> paymentHistory(Pageable pageable) {
-        log.info("Fetching payment history (paginated)");
         return paymentRepo.findAllByOrderByPaymentIdDesc(pageable).map(this::toResponse);
     }
 
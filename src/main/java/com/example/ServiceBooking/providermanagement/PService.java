@@ -13,13 +13,19 @@ import com.example.ServiceBooking.auth.UserRepository;
 //import com.example.ServiceBooking.provider.repository.*;
 import com.example.ServiceBooking.bookings.Booking;
 import com.example.ServiceBooking.bookings.BookingRepository;
+import com.example.ServiceBooking.bookings.BookingAction;
+import com.example.ServiceBooking.bookings.BookingStateMachine;
 import com.example.ServiceBooking.bookings.dto.BookingStatus;
+import com.example.ServiceBooking.geo.ProviderGeoIndex;
+import com.example.ServiceBooking.geo.ServiceAreaIndex;
 import com.example.ServiceBooking.notification.NotificationService;
 import com.example.ServiceBooking.providermanagement.dto.DocumentRequest;
 import com.example.ServiceBooking.providermanagement.dto.EarningsResponse;
 import com.example.ServiceBooking.providermanagement.dto.ProviderSetupRequest;
+import com.example.ServiceBooking.providermanagement.dto.ServiceAreaRequest;
 import com.example.ServiceBooking.servicecatalog.SubService;
 import com.example.ServiceBooking.servicecatalog.SubServiceRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -47,11 +53,13 @@ public class PService {
     private final UserRepository userRepo;
     private final NotificationService notificationService;
     private final ProviderAvailabilityRepository availabilityRepo;
+    private final BookingStateMachine bookingStateMachine;
+    private final ProviderGeoIndex geoIndex;
+    private final ProviderServiceAreaRepository serviceAreaRepo;
+    private final ServiceAreaIndex serviceAreaIndex;
 
     // Setup provider after registration
     public void setupProvider(Long userId, ProviderSetupRequest request) {
-        log.trace("Entering setupProvider method");
-        log.debug("Processing provider setup");
         log.info("Setting up provider profile");
 
         User user = userRepo.findById(userId)
@@ -85,9 +93,13 @@ public class PService {
         profile.setApproved(false); // stays false until admin approves
         profile.setOnline(false);
         profile.setCity(request.getCity().trim());
+        profile.setLatitude(request.getLatitude());
+        profile.setLongitude(request.getLongitude());
         profile.setCreatedAt(profile.getCreatedAt() != null ? profile.getCreatedAt() : LocalDateTime.now());
 
         profileRepo.save(profile);
+        geoIndex.providerChanged(profile);
+        serviceAreaIndex.providerChanged();
 
         // Optional: prevent duplicate mappings (recommended)
         // providerServiceRepo.deleteByProviderId(profile.getId()); // only if you have it
@@ -115,8 +127,6 @@ public class PService {
 
 
     public void uploadDocument(Long userId, DocumentRequest request) {
-        log.trace("Entering uploadDocument method");
-        log.debug("Processing document upload");
         log.info("Uploading provider document");
 
         User user = userRepo.findById(userId)
@@ -164,8 +174,6 @@ public class PService {
 
 
     public void toggleAvailability(Long userId, boolean online) {
-        log.trace("Entering toggleAvailability method");
-        log.debug("Processing availability toggle");
         log.info("Toggling provider availability");
 
 //        ProviderProfile profile = profileRepo.findById(userId)
@@ -184,10 +192,47 @@ public class PService {
 
         profile.setOnline(online);
         profileRepo.save(profile);
+        geoIndex.providerChanged(profile);
+        serviceAreaIndex.providerChanged();
 
         log.debug("Provider availability toggled successfully");
     }
 
+    // Replace the pincodes / pincode prefixes the provider serves
+    @Transactional
+    public List<String> updateServiceAreas(Long userId, ServiceAreaRequest request) {
+        log.info("Updating provider service areas");
+
+        profileRepo.findByUserId(userId)
+                .orElseThrow(() -> new RuntimeException("Provider profile not found"));
+
+        // "41" already covers "4110" and "411014": keep only the shortest prefixes
+        List<String> prefixes = new ArrayList<>();
+        for (String p : request.pincodes().stream().map(String::trim).distinct().sorted().toList()) {
+            if (prefixes.isEmpty() || !p.startsWith(prefixes.get(prefixes.size() - 1))) {
+                prefixes.add(p);
+            }
+        }
+
+        serviceAreaRepo.deleteByProviderId(userId);
+        serviceAreaRepo.saveAll(prefixes.stream().map(p -> {
+            ProviderServiceArea area = new ProviderServiceArea();
+            area.setProviderId(userId);
+            area.setPincodePrefix(p);
+            return area;
+        }).toList());
+        serviceAreaIndex.providerChanged();
+
+        log.debug("Provider service areas updated successfully");
+        return prefixes;
+    }
+
+    public List<String> getServiceAreas(Long userId) {
+        return serviceAreaRepo.findByProviderIdOrderByPincodePrefixAsc(userId).stream()
+                .map(ProviderServiceArea::getPincodePrefix)
+                .toList();
+    }
+
 //    public EarningsResponse getEarnings(Long userId) {
 //
 //        List<Booking> completed =
@@ -202,8 +247,6 @@ public class PService {
 //    }
 
     public EarningsResponse getEarnings(Long userId) {
-        log.trace("Entering getEarnings method");
-        log.debug("Processing earnings calculation");
         log.info("Calculating provider earnings");
 
         List<Booking> completed =
@@ -222,10 +265,6 @@ public class PService {
 
     // Providers can view available jobs (pending bookings) not the geographical logic
     public List<Booking> viewAvailableJobs(Long providerId) {
-        log.trace("Entering viewAvailableJobs method");
-        log.debug("Processing view available jobs request");
-        log.info("Fetching available jobs for provider");
-
         ProviderProfile profile = profileRepo.findById(providerId)
                 .orElseThrow(() -> {
                     log.error("Provider not found");
@@ -326,9 +365,8 @@ public class PService {
 
 
     @Transactional
+    @Timed(value = "booking.operation", extraTags = {"operation", "acceptJob"}, histogram = true)
     public void acceptJob(Long providerId, Long bookingId) {
-        log.trace("Entering acceptJob method");
-        log.debug("Processing job acceptance");
         log.info("Provider accepting job");
 
         ProviderProfile profile = profileRepo.findById(providerId)
@@ -346,31 +384,12 @@ public class PService {
             throw new RuntimeException("Provider city not set");
         }
 
-        Booking booking = bookingRepo.findById(bookingId)
-                .orElseThrow(() -> {
-                    log.error("Booking not found");
-                    return new RuntimeException("Booking not found");
-                });
-
-        if (booking.getCity() != null && !booking.getCity().equalsIgnoreCase(profile.getCity())) {
-            throw new RuntimeException("Booking is in a different city");
-        }
-
-        int updatedRows = bookingRepo.assignIfPending(
-                bookingId,
-                providerId,
-                BookingStatus.PENDING,
-                BookingStatus.ACCEPTED
-        );
-
-        if (updatedRows == 0) {
-            log.warn("Booking already accepted by another provider");
-            throw new RuntimeException("Booking already accepted by another provider");
-        }
-
-        //  IMPORTANT: booking object in memory is stale because assignIfPending is an UPDATE query.
-        // So do NOT trust booking.getProviderId()/status after this.
-        // We already have booking.getCustomerId() from the earlier fetch (safe).
+        // PENDING -> ACCEPTED in one conditional UPDATE (loses cleanly to a concurrent accept);
+        // the provider reminder is the ACCEPT rule's outbox hook
+        Booking booking = bookingStateMachine.apply(
+                BookingStateMachine.Request.of(BookingAction.ACCEPT, bookingId, providerId)
+                        .assigning(providerId)
+                        .inCity(profile.getCity()));
 
         // ============================
         //  JOB START OTP
@@ -381,44 +400,14 @@ public class PService {
 
         bookingRepo.updateStartOtp(bookingId, otpHash, LocalDateTime.now());
 
-        // Notification service Integration
-
-        User providerUser = userRepo.findById(providerId)
-                .orElseThrow(() -> {
-                    log.error("User not found");
-                    return new RuntimeException("User not found");
-                });
-
-        String providerName = providerUser.getName();
-
-        // Customer notification: provider assigned
-        notificationService.upsertBookingNotification(
-                booking.getCustomerId(),
-                booking.getId(),
-                providerName + " will service your booking"
-        );
-
-        //  Customer notification: share OTP with provider (Urban Company flow)
-        notificationService.upsertBookingNotification(
+        //  Customer notification: share OTP with provider (Urban Company flow).
+        //  Kept inline rather than in the outbox so the plaintext OTP is never stored in an event.
+        notificationService.upsertBookingOtpNotification(
                 booking.getCustomerId(),
                 booking.getId(),
                 "Job Start OTP for Booking #" + booking.getId() + " is: " + otp + " (Share with provider to start the job)"
         );
 
-        // Provider notification: accepted
-        notificationService.upsertBookingNotification(
-                providerId,
-                booking.getId(),
-                "You accepted Booking #" + booking.getId()
-        );
-
-        //  Provider reminder: ask customer OTP
-        notificationService.upsertBookingNotification(
-                providerId,
-                booking.getId(),
-                "Ask customer for OTP to start Booking #" + booking.getId()
-        );
-
         log.debug("Job accepted successfully (OTP generated)");
     }
 
@@ -436,8 +425,6 @@ public class PService {
 
     // Reject the booking
     public void rejectJob(Long providerId, Long bookingId) {
-        log.trace("Entering rejectJob method");
-        log.debug("Processing job rejection");
         log.info("Provider rejecting job");
 
         Booking booking = bookingRepo.findByIdAndStatus(
@@ -451,82 +438,22 @@ public class PService {
     }
 
     // Update job status to COMPLETED or CANCELLED
+    @Transactional
     public void updateJobStatus(Long providerId,
                                 Long bookingId,
                                 BookingStatus status) {
-        log.trace("Entering updateJobStatus method");
-        log.debug("Processing job status update");
         log.info("Updating job status");
 
-        Booking booking = bookingRepo.findById(bookingId)
-                .orElseThrow(() -> {
-                    log.error("Booking not found");
-                    return new RuntimeException("Booking not found");
-                });
-
-        if (!booking.getProviderId().equals(providerId)) {
-            log.error("Not authorized to update this booking");
-            throw new RuntimeException("Not your booking");
-        }
-
-        if (booking.getStatus() != BookingStatus.ACCEPTED) {
-            log.error("Invalid booking state for status update");
-            throw new RuntimeException("Invalid booking state");
-        }
-
         if (status != BookingStatus.COMPLETED &&
                 status != BookingStatus.CANCELLED) {
             log.error("Invalid status update requested");
             throw new RuntimeException("Invalid status update");
         }
 
-        booking.setStatus(status);
-        bookingRepo.save(booking);
-
-
-
-        // Notification service Integration
-        if (status == BookingStatus.COMPLETED) {
-
-            //  CUSTOMER: Job Completed (ask to rate)
-            notificationService.upsertBookingNotification(
-                    booking.getCustomerId(),
-                    booking.getId(),
-                    "Your service is completed. Please rate your provider."
-            );
-
-            // PROVIDER: Completed confirmation (optional but useful)
-            notificationService.upsertBookingNotification(
-                    booking.getProviderId(),
-                    booking.getId(),
-                    "You marked Booking #" + booking.getId() + " as completed."
-            );
-
-        } else if (status == BookingStatus.CANCELLED) {
-
-            // If provider cancels from this method, notify customer
-            notificationService.upsertBookingNotification(
-                    booking.getCustomerId(),
-                    booking.getId(),
-                    "Your booking was cancelled"
-            );
-
-            // provider also gets a self-confirmation
-            notificationService.upsertBookingNotification(
-                    booking.getProviderId(),
-                    booking.getId(),
-                    "You cancelled Booking #" + booking.getId()
-            );
-
-        } else {
-
-            //  generic status update (only if you ever allow other statuses later)
-            notificationService.upsertBookingNotification(
-                    booking.getCustomerId(),
-                    booking.getId(),
-                    "Booking status updated."
-            );
-        }
+        // ownership + allowed source states (a STARTED job can still be completed) live in the rule table;
+        // customer/provider notifications go out via the rule's outbox hook
+        BookingAction action = status == BookingStatus.COMPLETED ? BookingAction.COMPLETE : BookingAction.PROVIDER_CANCEL;
+        bookingStateMachine.apply(BookingStateMachine.Request.of(action, bookingId, providerId));
 
         log.debug("Job status updated successfully");
     }
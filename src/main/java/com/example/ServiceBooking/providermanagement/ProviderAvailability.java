@@ -39,5 +39,10 @@ public class ProviderAvailability {
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private AvailabilityStatus status;
+
+    // bumped by the conditional claim/release updates in ProviderAvailabilityRepository too
+    @Version
+    @Column(nullable = false)
+    private long version;
 }
 
@@ -3,14 +3,12 @@ package com.example.ServiceBooking.providermanagement;
 
 
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
-import jakarta.persistence.LockModeType;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
-import java.util.Optional;
 
 public interface ProviderAvailabilityRepository extends JpaRepository<ProviderAvailability, Long> {
 
@@ -18,19 +16,6 @@ public interface ProviderAvailabilityRepository extends JpaRepository<ProviderAv
             Long providerId, LocalDate date, AvailabilityStatus status
     );
 
-    @Query("""
-        select a from ProviderAvailability a
-        where a.providerId = :providerId
-          and a.date = :date
-          and a.startTime = :start
-          and a.endTime = :end
-          and a.status = com.example.ServiceBooking.providermanagement.AvailabilityStatus.AVAILABLE
-    """)
-    @Lock(LockModeType.PESSIMISTIC_WRITE)
-    Optional<ProviderAvailability> lockAvailableSlot(
-            Long providerId, LocalDate date, LocalTime start, LocalTime end
-    );
-
     @Query("""
         select a from ProviderAvailability a
         where a.providerId in :providerIds
@@ -44,18 +29,36 @@ public interface ProviderAvailabilityRepository extends JpaRepository<ProviderAv
     void deleteByProviderIdAndDate(Long providerId, LocalDate date);
     void deleteByProviderIdAndDateAndStatus(Long providerId, LocalDate date, AvailabilityStatus status);
 
+    // Slot claim/release are single conditional UPDATEs instead of SELECT ... FOR UPDATE + save:
+    // 1 row = we won the slot, 0 rows = someone else did (or it doesn't exist). The InnoDB row lock taken by
+    // the UPDATE is held until the surrounding transaction commits, so a concurrent claim of the same slot waits
+    // for it and then matches 0 rows; keep the work after a claim short.
+
+    @Modifying
     @Query("""
-    select a from ProviderAvailability a
-    where a.providerId = :providerId
-      and a.date = :date
-      and a.startTime = :start
-      and a.endTime = :end
-""")
-    @Lock(LockModeType.PESSIMISTIC_WRITE)
-    Optional<ProviderAvailability> lockSlot(
-            Long providerId, LocalDate date, LocalTime start, LocalTime end
-    );
+        update ProviderAvailability a
+           set a.status = com.example.ServiceBooking.providermanagement.AvailabilityStatus.BOOKED,
+               a.version = a.version + 1
+         where a.providerId = :providerId
+           and a.date = :date
+           and a.startTime = :start
+           and a.endTime = :end
+           and a.status = com.example.ServiceBooking.providermanagement.AvailabilityStatus.AVAILABLE
+    """)
+    int claimSlot(Long providerId, LocalDate date, LocalTime start, LocalTime end);
 
+    @Modifying
+    @Query("""
+        update ProviderAvailability a
+           set a.status = com.example.ServiceBooking.providermanagement.AvailabilityStatus.AVAILABLE,
+               a.version = a.version + 1
+         where a.providerId = :providerId
+           and a.date = :date
+           and a.startTime = :start
+           and a.endTime = :end
+           and a.status = com.example.ServiceBooking.providermanagement.AvailabilityStatus.BOOKED
+    """)
+    int releaseSlot(Long providerId, LocalDate date, LocalTime start, LocalTime end);
 
-}
 
+}
@@ -39,12 +39,8 @@ public class ProviderController {
     // Initial setup of provider profile
     @PostMapping("/setup")
     public void setup(@RequestBody ProviderSetupRequest request) {
-        log.trace("Entering setup method");
-        log.debug("Processing provider setup request");
-        log.info("Provider setup requested");
         try {
             service.setupProvider(userId(), request);
-            log.debug("Provider setup completed successfully");
         } catch (Exception e) {
             log.error("Error during provider setup");
             throw e;
@@ -56,12 +52,8 @@ public class ProviderController {
     // Upload required documents
     @PostMapping("/documents")
     public void uploadDoc(@RequestBody DocumentRequest request) {
-        log.trace("Entering uploadDoc method");
-        log.debug("Processing document upload request");
-        log.info("Document upload requested");
         try {
             service.uploadDocument(userId(), request);
-            log.debug("Document uploaded successfully");
         } catch (Exception e) {
             log.error("Error uploading document");
             throw e;
@@ -73,29 +65,41 @@ public class ProviderController {
     // Toggle availability status (online/offline)
     @PutMapping("/availability")
     public void toggle(@RequestBody AvailabilityRequest request) {
-        log.trace("Entering toggle method");
-        log.debug("Processing availability toggle request");
-        log.info("Toggle availability requested");
         try {
             service.toggleAvailability(userId(), request.isOnline());
-            log.debug("Availability toggled successfully");
         } catch (Exception e) {
             log.error("Error toggling availability");
             throw e;
         }
     }
 
+    @Operation(summary = "Replace service-area pincodes or pincode prefixes- PROVIDER")
+    @PreAuthorize("hasRole('PROVIDER')")
+    // Pincodes ("411014") or prefixes ("4110") the provider serves; bookings there are routed to them first
+    @PutMapping("/service-areas")
+    public List<String> updateServiceAreas(@RequestBody @jakarta.validation.Valid ServiceAreaRequest request) {
+        try {
+            return service.updateServiceAreas(userId(), request);
+        } catch (Exception e) {
+            log.error("Error updating service areas");
+            throw e;
+        }
+    }
+
+    @Operation(summary = "Get service-area pincodes or pincode prefixes- PROVIDER")
+    @PreAuthorize("hasRole('PROVIDER')")
+    @GetMapping("/service-areas")
+    public List<String> serviceAreas() {
+        return service.getServiceAreas(userId());
+    }
+
     @Operation(summary = "Get current month earnings for provider- PROVIDER")
     @PreAuthorize("hasRole('PROVIDER')")
     // Get current month's earnings
     @GetMapping("/earnings")
     public EarningsResponse earnings() {
-        log.trace("Entering earnings method");
-        log.debug("Processing earnings request");
-        log.info("Earnings request received");
         try {
             EarningsResponse response = service.getEarnings(userId());
-            log.debug("Earnings retrieved successfully");
             return response;
         } catch (Exception e) {
             log.error("Error retrieving earnings");
@@ -108,12 +112,8 @@ public class ProviderController {
     // View available jobs for provider
     @GetMapping("/jobs")
     public List<Booking> viewJobs() {
-        log.trace("Entering viewJobs method");
-        log.debug("Processing view jobs request");
-        log.info("View jobs request received");
         try {
             List<Booking> jobs = service.viewAvailableJobs(userId());
-            log.debug("Jobs retrieved successfully");
             return jobs;
         } catch (Exception e) {
             log.error("Error retrieving jobs");
@@ -126,12 +126,8 @@ public class ProviderController {
     // Accept a job
     @PutMapping("/jobs/{id}/accept")
     public void accept(@PathVariable Long id) {
-        log.trace("Entering accept method");
-        log.debug("Processing job acceptance request");
-        log.info("Job acceptance requested");
         try {
             service.acceptJob(userId(), id);
-            log.debug("Job accepted successfully");
         } catch (Exception e) {
             log.error("Error accepting job");
             throw e;
@@ -143,12 +139,8 @@ public class ProviderController {
     // Reject a job
     @PutMapping("/jobs/{id}/reject")
     public void reject(@PathVariable Long id) {
-        log.trace("Entering reject method");
-        log.debug("Processing job rejection request");
-        log.info("Job rejection requested");
         try {
             service.rejectJob(userId(), id);
-            log.debug("Job rejection processed successfully");
         } catch (Exception e) {
             log.error("Error rejecting job");
             throw e;
@@ -161,12 +153,8 @@ public class ProviderController {
     @PutMapping("/jobs/{id}/status")
     public void updateStatus(@PathVariable Long id,
                              @RequestParam BookingStatus status) {
-        log.trace("Entering updateStatus method");
-        log.debug("Processing job status update request");
-        log.info("Job status update requested");
         try {
             service.updateJobStatus(userId(), id, status);
-            log.debug("Job status updated successfully");
         } catch (Exception e) {
             log.error("Error updating job status");
             throw e;
@@ -179,9 +167,6 @@ public class ProviderController {
     // Approve provider profile after review
     @PutMapping("/{id}/approve")
     public void approve(@PathVariable Long id) {
-        log.trace("Entering approve method");
-        log.debug("Processing provider approval request");
-        log.info("Provider approval requested");
         try {
             ProviderProfile profile = repo.findById(id)
                     .orElseThrow(() -> {
@@ -190,7 +175,6 @@ public class ProviderController {
                     });
             profile.setApproved(true);
             repo.save(profile);
-            log.debug("Provider approved successfully");
         } catch (Exception e) {
             log.error("Error approving provider");
             throw e;
@@ -202,9 +186,6 @@ public class ProviderController {
     // Reject provider profile with reason
     @PutMapping("/{id}/reject")
     public void rejectProvider(@PathVariable Long id, @RequestBody String reason) {
-        log.trace("Entering rejectProvider method");
-        log.debug("Processing provider rejection request");
-        log.info("Provider rejection requested");
         try {
             ProviderProfile profile = repo.findById(id)
                     .orElseThrow(() -> {
@@ -214,7 +195,6 @@ public class ProviderController {
             profile.setApproved(false);
             profile.setRejectionReason(reason);
             repo.save(profile);
-            log.debug("Provider rejected successfully");
         } catch (Exception e) {
             log.error("Error rejecting provider");
             throw e;
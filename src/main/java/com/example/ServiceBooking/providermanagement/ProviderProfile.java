@@ -32,6 +32,10 @@ public class ProviderProfile {
 
     private String city;
 
+    // optional base location; providers without one are matched by city only
+    private Double latitude;
+    private Double longitude;
+
     private String rejectionReason;
 
     private LocalDateTime createdAt;
@@ -9,6 +9,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -54,5 +55,59 @@ public interface ProviderProfileRepository extends JpaRepository<ProviderProfile
           and p.online = true
     """)
     List<Long> findEligibleProviderIdsByCityOnly(@Param("city") String city);
+
+    // ---- geo index (online providers with a base location) ----
+
+    @Query("""
+        select p.userId as providerId, p.latitude as latitude, p.longitude as longitude
+        from ProviderProfile p
+        where p.approved = true
+          and p.online = true
+          and p.latitude is not null
+          and p.longitude is not null
+    """)
+    List<ProviderLocationProjection> findOnlineProviderLocations();
+
+    @Query("select p.userId from ProviderProfile p where p.userId in :ids and p.approved = true and p.online = true")
+    List<Long> findEligibleProviderIdsIn(@Param("ids") Collection<Long> ids);
+
+    // auto-assignment re-check of a batch of index candidates: still approved, online, offering the service,
+    // (city non-null) in that city and (pincode non-null) still declaring an area that covers it
+    @Query("""
+        select p.userId
+        from ProviderProfile p
+        where p.userId in :ids
+          and p.approved = true
+          and p.online = true
+          and (:city is null or lower(p.city) = lower(:city))
+          and exists (select 1 from ProviderService ps where ps.provider = p and ps.subService.id = :serviceId)
+          and (:pincode is null or exists (
+                select 1 from ProviderServiceArea a
+                where a.providerId = p.userId and :pincode like concat(a.pincodePrefix, '%')))
+    """)
+    List<Long> findAssignableProviderIdsIn(@Param("ids") Collection<Long> ids,
+                                           @Param("serviceId") Long serviceId,
+                                           @Param("city") String city,
+                                           @Param("pincode") String pincode);
+
+    // nearby listing: eligibility re-check, name and the provider's own city in one query
+    @Query("""
+        select p.userId as providerId, u.name as name, p.city as city
+        from ProviderProfile p join p.user u
+        where p.userId in :ids and p.approved = true and p.online = true
+    """)
+    List<ProviderCardProjection> findEligibleProviderCardsIn(@Param("ids") Collection<Long> ids);
+
+    public interface ProviderLocationProjection {
+        Long getProviderId();
+        Double getLatitude();
+        Double getLongitude();
+    }
+
+    public interface ProviderCardProjection {
+        Long getProviderId();
+        String getName();
+        String getCity();
+    }
 }
 
@@ -0,0 +1,30 @@
+package com.example.ServiceBooking.providermanagement;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * One pincode (6 digits) or pincode prefix (1-5 digits, e.g. "4110" = every 4110xx) a provider serves.
+ */
+@Entity
+@Table(
+        name = "provider_service_areas",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_psa_provider_prefix", columnNames = {"provider_id", "pincode_prefix"})
+        }
+)
+@Getter
+@Setter
+public class ProviderServiceArea {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "provider_id", nullable = false)
+    private Long providerId;
+
+    @Column(name = "pincode_prefix", nullable = false, length = 6)
+    private String pincodePrefix;
+}
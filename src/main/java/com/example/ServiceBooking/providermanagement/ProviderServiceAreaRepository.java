@@ -0,0 +1,47 @@
+package com.example.ServiceBooking.providermanagement;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface ProviderServiceAreaRepository extends JpaRepository<ProviderServiceArea, Long> {
+
+    List<ProviderServiceArea> findByProviderIdOrderByPincodePrefixAsc(Long providerId);
+
+    @Modifying
+    @Query("delete from ProviderServiceArea a where a.providerId = :providerId")
+    int deleteByProviderId(@Param("providerId") Long providerId);
+
+    // ---- service-area index (online providers only) ----
+
+    @Query("""
+        select a.providerId as providerId, a.pincodePrefix as pincodePrefix
+        from ProviderServiceArea a, ProviderProfile p
+        where p.userId = a.providerId
+          and p.approved = true
+          and p.online = true
+    """)
+    List<AreaProjection> findOnlineProviderAreas();
+
+    @Query("""
+        select ps.provider.userId as providerId, ps.subService.id as subServiceId
+        from ProviderService ps
+        where ps.provider.approved = true
+          and ps.provider.online = true
+          and exists (select 1 from ProviderServiceArea a where a.providerId = ps.provider.userId)
+    """)
+    List<OfferingProjection> findOnlineAreaProviderOfferings();
+
+    public interface AreaProjection {
+        Long getProviderId();
+        String getPincodePrefix();
+    }
+
+    public interface OfferingProjection {
+        Long getProviderId();
+        Long getSubServiceId();
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.ServiceBooking.providermanagement.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+// full pincodes ("411014") or prefixes ("4110" covers 4110xx); replaces the provider's current list
+public record ServiceAreaRequest(
+        @NotNull
+        @Size(max = 200, message = "At most 200 pincodes or prefixes")
+        List<@Pattern(regexp = "^[0-9]{1,6}$", message = "Pincode prefix must be 1 to 6 digits") String> pincodes
+) {}
@@ -0,0 +1,24 @@
+package com.example.ServiceBooking.ranking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProviderRankingScheduler {
+
+    private final ProviderRankingService rankingService;
+
+    // default: every 10 minutes, first run shortly after startup
+    @Scheduled(initialDelay = 5_000, fixedDelayString = "${ranking.refresh-ms:600000}")
+    public void refresh() {
+        try {
+            rankingService.refresh();
+        } catch (Exception ex) {
+            log.error("Provider ranking refresh failed", ex);
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.example.ServiceBooking.ranking;
+
+import com.example.ServiceBooking.bookings.BookingRepository;
+import com.example.ServiceBooking.bookings.dto.BookingStatus;
+import com.example.ServiceBooking.ratings.RatingReviewRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Provider quality ranking used by discovery and auto-assignment.
+ * <p>
+ * score = bayesianAverage(time-decayed stars) * (1 - smoothedCancellationRate)
+ * <ul>
+ *   <li>stars decay from when they were given; per-provider accumulators are decayed in place each refresh,
+ *       and only providers with rows rated since the last (ratedAt, ratingId) seen are recomputed from
+ *       their ratings, so a re-rated row replaces its old stars without any per-rating state</li>
+ *   <li>the cancellation rate counts only cancellations made by the booking's own provider, against
+ *       completed jobs, both decayed by the month of the job with the same half-life</li>
+ * </ul>
+ * A full rebuild runs every {@code ranking.full-rebuild-every} refreshes to clear floating-point drift and
+ * pick up deleted ratings. Reads never touch the database.
+ */
+@Service
+@Slf4j
+public class ProviderRankingService {
+
+    // Beta prior for cancellation rate: ~10% expected until a provider has history
+    private static final double CANCEL_PRIOR_CANCELLED = 1.0;
+    private static final double CANCEL_PRIOR_TOTAL = 10.0;
+
+    private static final int RATING_BATCH_SIZE = 5_000;
+    private static final int PROVIDER_BATCH_SIZE = 500;
+
+    // outcomes older than this many half-lives weigh under 2% and are not read
+    private static final int OUTCOME_HORIZON_HALF_LIVES = 6;
+
+    // ratedAt is stamped before commit: re-read this far back so late commits are not skipped
+    private static final Duration RATED_AT_OVERLAP = Duration.ofMinutes(2);
+
+    private final RatingReviewRepository ratingRepo;
+    private final BookingRepository bookingRepo;
+
+    private final double halfLifeDays;
+    private final double priorWeight;
+    private final int fullRebuildEvery;
+
+    private volatile ProviderRankingSnapshot snapshot = ProviderRankingSnapshot.empty();
+
+    // refresh-thread state only (single scheduler thread)
+    private final Map<Long, double[]> ratingAccumulators = new HashMap<>(); // providerId -> {decayedSum, decayedWeight}
+    private LocalDateTime ratedWatermark;
+    private long ratedWatermarkId = 0L;
+    private LocalDateTime lastDecayAt;
+    private int refreshesSinceFullRebuild = 0;
+
+    public ProviderRankingService(RatingReviewRepository ratingRepo,
+                                  BookingRepository bookingRepo,
+                                  @Value("${ranking.half-life-days:90}") double halfLifeDays,
+                                  @Value("${ranking.prior-weight:5}") double priorWeight,
+                                  @Value("${ranking.full-rebuild-every:144}") int fullRebuildEvery) {
+        this.ratingRepo = ratingRepo;
+        this.bookingRepo = bookingRepo;
+        this.halfLifeDays = halfLifeDays;
+        this.priorWeight = priorWeight;
+        this.fullRebuildEvery = fullRebuildEvery;
+    }
+
+    // =========================
+    // READS (in-memory only)
+    // =========================
+
+    public float score(Long providerId) {
+        return snapshot.scoreOf(providerId);
+    }
+
+    /**
+     * Scores in the order given, all from the same snapshot.
+     */
+    public float[] scores(List<Long> providerIds) {
+        ProviderRankingSnapshot s = snapshot;
+        float[] result = new float[providerIds.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = s.scoreOf(providerIds.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Top-k candidates by score using a bounded min-heap: O(n log k), no DB sort.
+     */
+    public List<Long> topK(List<Long> candidateIds, int k) {
+        if (candidateIds.isEmpty() || k <= 0) return List.of();
+
+        ProviderRankingSnapshot s = snapshot;
+        Comparator<Long> byScore = Comparator.comparingDouble(s::scoreOf);
+
+        PriorityQueue<Long> heap = new PriorityQueue<>(Math.min(k, candidateIds.size()) + 1, byScore);
+        for (Long id : candidateIds) {
+            if (heap.size() < k) {
+                heap.offer(id);
+            } else if (s.scoreOf(id) > s.scoreOf(heap.peek())) {
+                heap.poll();
+                heap.offer(id);
+            }
+        }
+
+        List<Long> result = new ArrayList<>(heap);
+        result.sort(byScore.reversed());
+        return result;
+    }
+
+    public List<Long> rank(List<Long> candidateIds) {
+        return topK(candidateIds, candidateIds.size());
+    }
+
+    // =========================
+    // REFRESH (scheduler thread)
+    // =========================
+
+    public synchronized void refresh() {
+        LocalDateTime now = LocalDateTime.now();
+        boolean full = lastDecayAt == null || ++refreshesSinceFullRebuild >= fullRebuildEvery;
+
+        int changedProviders;
+        if (full) {
+            ratingAccumulators.clear();
+            refreshesSinceFullRebuild = 0;
+            ratedWatermark = now;
+            ratedWatermarkId = 0L;
+            changedProviders = absorbAllRatings(now);
+        } else {
+            double factor = decay(Duration.between(lastDecayAt, now));
+            for (double[] acc : ratingAccumulators.values()) {
+                acc[0] *= factor;
+                acc[1] *= factor;
+            }
+            Set<Long> changed = providersRatedSinceWatermark();
+            recomputeRatings(changed, now);
+            changedProviders = changed.size();
+        }
+        lastDecayAt = now;
+
+        snapshot = buildSnapshot(decayedOutcomes(now));
+        log.debug("Provider ranking refreshed (full={}, changedProviders={}, providers={})",
+                full, changedProviders, snapshot.size());
+    }
+
+    private int absorbAllRatings(LocalDateTime now) {
+        long afterId = 0L;
+        while (true) {
+            List<RatingReviewRepository.RatingPointProjection> batch =
+                    ratingRepo.findRatingPointsAfter(afterId, PageRequest.of(0, RATING_BATCH_SIZE));
+            if (batch.isEmpty()) break;
+
+            for (RatingReviewRepository.RatingPointProjection r : batch) {
+                absorb(r, now);
+            }
+
+            afterId = batch.get(batch.size() - 1).getRatingId();
+            if (batch.size() < RATING_BATCH_SIZE) break;
+        }
+        return ratingAccumulators.size();
+    }
+
+    /**
+     * Providers with a rating set or changed since the watermark (re-reading the overlap), advancing it.
+     */
+    private Set<Long> providersRatedSinceWatermark() {
+        Set<Long> changed = new HashSet<>();
+        LocalDateTime afterRatedAt = ratedWatermark.minus(RATED_AT_OVERLAP);
+        long afterId = 0L;
+        while (true) {
+            List<RatingReviewRepository.RatingPointProjection> batch = ratingRepo.findRatingPointsRatedAfter(
+                    afterRatedAt, afterId, PageRequest.of(0, RATING_BATCH_SIZE));
+            if (batch.isEmpty()) break;
+
+            for (RatingReviewRepository.RatingPointProjection r : batch) {
+                changed.add(r.getProviderId());
+            }
+
+            RatingReviewRepository.RatingPointProjection last = batch.get(batch.size() - 1);
+            afterRatedAt = last.getRatedAt();
+            afterId = last.getRatingId();
+            if (afterRatedAt.isAfter(ratedWatermark)
+                    || (afterRatedAt.isEqual(ratedWatermark) && afterId > ratedWatermarkId)) {
+                ratedWatermark = afterRatedAt;
+                ratedWatermarkId = afterId;
+            }
+            if (batch.size() < RATING_BATCH_SIZE) break;
+        }
+        return changed;
+    }
+
+    // rebuilt from all of each provider's ratings, so re-reads inside the overlap are harmless
+    private void recomputeRatings(Set<Long> providerIds, LocalDateTime now) {
+        List<Long> ids = new ArrayList<>(providerIds);
+        for (int from = 0; from < ids.size(); from += PROVIDER_BATCH_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + PROVIDER_BATCH_SIZE, ids.size()));
+            chunk.forEach(ratingAccumulators::remove);
+            for (RatingReviewRepository.RatingPointProjection r : ratingRepo.findRatingPointsForProviders(chunk)) {
+                absorb(r, now);
+            }
+        }
+    }
+
+    private void absorb(RatingReviewRepository.RatingPointProjection r, LocalDateTime now) {
+        LocalDateTime ratedAt = r.getRatedAt() != null ? r.getRatedAt() : r.getCreatedAt();
+        double w = ratedAt != null ? decay(Duration.between(ratedAt, now)) : 1.0;
+        double[] acc = ratingAccumulators.computeIfAbsent(r.getProviderId(), id -> new double[2]);
+        acc[0] += r.getStars() * w;
+        acc[1] += w;
+    }
+
+    /**
+     * providerId -> {decayed completed, decayed provider cancellations}. A month's jobs are aged from its middle.
+     */
+    private Map<Long, double[]> decayedOutcomes(LocalDateTime now) {
+        LocalDateTime since = now.minusDays((long) Math.ceil(halfLifeDays * OUTCOME_HORIZON_HALF_LIVES));
+        Map<Long, double[]> outcomes = new HashMap<>();
+        for (BookingRepository.ProviderOutcomeProjection row : bookingRepo.countProviderOutcomesByMonthSince(since)) {
+            LocalDateTime midMonth = LocalDate.of(row.getYear(), row.getMonth(), 15).atStartOfDay();
+            double[] o = outcomes.computeIfAbsent(row.getProviderId(), id -> new double[2]);
+            o[row.getStatus() == BookingStatus.COMPLETED ? 0 : 1] += row.getTotal() * decay(Duration.between(midMonth, now));
+        }
+        return outcomes;
+    }
+
+    private ProviderRankingSnapshot buildSnapshot(Map<Long, double[]> outcomes) {
+        double totalSum = 0, totalWeight = 0;
+        for (double[] acc : ratingAccumulators.values()) {
+            totalSum += acc[0];
+            totalWeight += acc[1];
+        }
+        // platform-wide mean is the prior; fall back to a neutral 3.0 before any ratings exist
+        double priorMean = totalWeight > 0 ? totalSum / totalWeight : 3.0;
+
+        Set<Long> ids = new HashSet<>(ratingAccumulators.keySet());
+        ids.addAll(outcomes.keySet());
+
+        long[] providerIds = ids.stream().mapToLong(Long::longValue).sorted().toArray();
+        float[] scores = new float[providerIds.length];
+
+        for (int i = 0; i < providerIds.length; i++) {
+            double[] acc = ratingAccumulators.getOrDefault(providerIds[i], new double[2]);
+            double[] o = outcomes.getOrDefault(providerIds[i], new double[2]);
+            scores[i] = (float) score(acc[0], acc[1], o[0], o[1], priorMean);
+        }
+
+        float defaultScore = (float) score(0, 0, 0, 0, priorMean);
+        return new ProviderRankingSnapshot(providerIds, scores, defaultScore);
+    }
+
+    private double score(double decayedSum, double decayedWeight, double completed, double cancelled, double priorMean) {
+        double bayesianAvg = (priorWeight * priorMean + decayedSum) / (priorWeight + decayedWeight);
+        double cancelRate = (cancelled + CANCEL_PRIOR_CANCELLED) / (completed + cancelled + CANCEL_PRIOR_TOTAL);
+        return bayesianAvg * (1.0 - cancelRate);
+    }
+
+    private double decay(Duration age) {
+        double days = Math.max(0, age.toMinutes()) / 1440.0;
+        return Math.pow(0.5, days / halfLifeDays);
+    }
+}
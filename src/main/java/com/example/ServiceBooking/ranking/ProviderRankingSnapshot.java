@@ -0,0 +1,28 @@
+package com.example.ServiceBooking.ranking;
+
+import java.util.Arrays;
+
+/**
+ * Immutable score table: providerIds sorted ascending with scores in a parallel array.
+ * Lookups are a binary search, and the whole table is a couple of primitive arrays.
+ */
+public record ProviderRankingSnapshot(
+        long[] providerIds,
+        float[] scores,
+        float defaultScore
+) {
+
+    public static ProviderRankingSnapshot empty() {
+        return new ProviderRankingSnapshot(new long[0], new float[0], 0f);
+    }
+
+    public float scoreOf(Long providerId) {
+        if (providerId == null) return defaultScore;
+        int idx = Arrays.binarySearch(providerIds, providerId);
+        return idx >= 0 ? scores[idx] : defaultScore;
+    }
+
+    public int size() {
+        return providerIds.length;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.ServiceBooking.ratings;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Running rating totals per provider, kept in step with {@link RatingReview#getStars()}
+ * so the summary endpoint never has to scan ratings_reviews.
+ */
+@Entity
+@Table(name = "provider_rating_aggregates")
+@Getter
+@Setter
+public class ProviderRatingAggregate {
+
+    @Id
+    @Column(name = "provider_id")
+    private Long providerId;
+
+    @Column(name = "star_sum", nullable = false)
+    private long starSum;
+
+    @Column(name = "rating_count", nullable = false)
+    private long ratingCount;
+
+    // star histogram (1..5)
+    @Column(name = "stars_1", nullable = false)
+    private long stars1;
+
+    @Column(name = "stars_2", nullable = false)
+    private long stars2;
+
+    @Column(name = "stars_3", nullable = false)
+    private long stars3;
+
+    @Column(name = "stars_4", nullable = false)
+    private long stars4;
+
+    @Column(name = "stars_5", nullable = false)
+    private long stars5;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public static ProviderRatingAggregate empty(Long providerId) {
+        ProviderRatingAggregate a = new ProviderRatingAggregate();
+        a.setProviderId(providerId);
+        a.setUpdatedAt(LocalDateTime.now());
+        return a;
+    }
+
+    // zero the totals before a rebuild recounts them
+    public void reset() {
+        starSum = 0;
+        ratingCount = 0;
+        stars1 = stars2 = stars3 = stars4 = stars5 = 0;
+        updatedAt = LocalDateTime.now();
+    }
+
+    /**
+     * Apply a rating change: oldStars is null for a first rating, newStars is null when a rating is removed.
+     */
+    public void apply(Integer oldStars, Integer newStars) {
+        if (oldStars != null) {
+            starSum -= oldStars;
+            ratingCount--;
+            addToBucket(oldStars, -1);
+        }
+        if (newStars != null) {
+            starSum += newStars;
+            ratingCount++;
+            addToBucket(newStars, 1);
+        }
+        updatedAt = LocalDateTime.now();
+    }
+
+    public void addToBucket(int stars, long delta) {
+        switch (stars) {
+            case 1 -> stars1 += delta;
+            case 2 -> stars2 += delta;
+            case 3 -> stars3 += delta;
+            case 4 -> stars4 += delta;
+            case 5 -> stars5 += delta;
+            default -> throw new RuntimeException("Stars must be between 1 and 5");
+        }
+    }
+
+    public double average() {
+        return ratingCount == 0 ? 0.0 : (double) starSum / ratingCount;
+    }
+
+    public Map<Integer, Long> histogram() {
+        Map<Integer, Long> h = new LinkedHashMap<>();
+        h.put(1, stars1);
+        h.put(2, stars2);
+        h.put(3, stars3);
+        h.put(4, stars4);
+        h.put(5, stars5);
+        return h;
+    }
+}
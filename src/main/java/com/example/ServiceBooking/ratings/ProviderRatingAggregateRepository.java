@@ -0,0 +1,35 @@
+package com.example.ServiceBooking.ratings;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface ProviderRatingAggregateRepository extends JpaRepository<ProviderRatingAggregate, Long> {
+
+    // serializes concurrent rating submissions for the same provider
+    @Query("select a from ProviderRatingAggregate a where a.providerId = :providerId")
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<ProviderRatingAggregate> lockByProviderId(@Param("providerId") Long providerId);
+
+    // locked in id order so the rebuild and concurrent submissions can't deadlock on each other
+    @Query("select a from ProviderRatingAggregate a where a.providerId in :providerIds order by a.providerId")
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<ProviderRatingAggregate> lockByProviderIds(@Param("providerIds") List<Long> providerIds);
+
+    // first rating of a provider: two submissions may both get here, the second insert is a no-op
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            insert into provider_rating_aggregates
+                (provider_id, star_sum, rating_count, stars_1, stars_2, stars_3, stars_4, stars_5, updated_at)
+            values (:providerId, 0, 0, 0, 0, 0, 0, 0, :now)
+            on duplicate key update provider_id = provider_id
+            """)
+    int ensureExists(@Param("providerId") Long providerId, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,52 @@
+package com.example.ServiceBooking.ratings;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Backfill for provider_rating_aggregates: walks providers in id order and rebuilds
+ * their aggregates in fixed-size batches, so it can run against a large ratings table.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RatingAggregateRebuildJob {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final RatingReviewRepository ratingRepo;
+    private final RatingAggregateService aggregateService;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    public int rebuildAll() {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Rating aggregate rebuild already running");
+            throw new RuntimeException("Rating aggregate rebuild already running");
+        }
+
+        try {
+            log.info("Rating aggregate rebuild started");
+            int total = 0;
+            long after = 0L;
+
+            while (true) {
+                List<Long> batch = ratingRepo.findProviderIdsAfter(after, PageRequest.of(0, BATCH_SIZE));
+                if (batch.isEmpty()) break;
+
+                total += aggregateService.rebuildProviders(batch);
+                after = batch.get(batch.size() - 1);
+            }
+
+            log.info("Rating aggregate rebuild completed for {} providers", total);
+            return total;
+        } finally {
+            running.set(false);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.ServiceBooking.ratings;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RatingAggregateService {
+
+    private final ProviderRatingAggregateRepository aggregateRepo;
+    private final RatingReviewRepository ratingRepo;
+
+    /**
+     * Locks (or creates) the provider's aggregate row. Must run inside the caller's transaction
+     * and before the rating row is read, so re-ratings see a stable "old stars" value.
+     */
+    public ProviderRatingAggregate lockForUpdate(Long providerId) {
+        aggregateRepo.ensureExists(providerId, LocalDateTime.now());
+        return aggregateRepo.lockByProviderId(providerId)
+                .orElseThrow(() -> new RuntimeException("Rating aggregate not found"));
+    }
+
+    public void applyChange(ProviderRatingAggregate aggregate, Integer oldStars, Integer newStars) {
+        if (oldStars != null && oldStars.equals(newStars)) {
+            return;
+        }
+        aggregate.apply(oldStars, newStars);
+        aggregateRepo.save(aggregate);
+    }
+
+    public Optional<ProviderRatingAggregate> find(Long providerId) {
+        return aggregateRepo.findById(providerId);
+    }
+
+    /**
+     * Recomputes aggregates for one batch of providers from ratings_reviews.
+     * Called by {@link RatingAggregateRebuildJob}; each batch commits on its own.
+     * Holds the same row locks as {@link #lockForUpdate}, taken before the ratings are counted,
+     * so a concurrent submission is either fully counted or waits for the rebuild.
+     */
+    @Transactional
+    public int rebuildProviders(List<Long> providerIds) {
+        if (providerIds.isEmpty()) return 0;
+
+        LocalDateTime now = LocalDateTime.now();
+        for (Long providerId : providerIds) {
+            aggregateRepo.ensureExists(providerId, now);
+        }
+
+        Map<Long, ProviderRatingAggregate> rebuilt = new HashMap<>();
+        for (ProviderRatingAggregate a : aggregateRepo.lockByProviderIds(providerIds)) {
+            a.reset();
+            rebuilt.put(a.getProviderId(), a);
+        }
+
+        for (RatingReviewRepository.StarCountProjection row : ratingRepo.countStarsForProviders(providerIds)) {
+            ProviderRatingAggregate a = rebuilt.get(row.getProviderId());
+            a.setStarSum(a.getStarSum() + (long) row.getStars() * row.getTotal());
+            a.setRatingCount(a.getRatingCount() + row.getTotal());
+            a.addToBucket(row.getStars(), row.getTotal());
+        }
+
+        aggregateRepo.saveAll(rebuilt.values());
+
+        log.debug("Rebuilt rating aggregates for a provider batch");
+        return rebuilt.size();
+    }
+}
@@ -16,8 +16,11 @@ import java.time.LocalDateTime;
                 @UniqueConstraint(name = "uk_rating_booking", columnNames = {"booking_id"})
         },
         indexes = {
-                @Index(name = "idx_rr_provider", columnList = "provider_id"),
-                @Index(name = "idx_rr_service", columnList = "service_id")
+                // composite (x, created_at) indexes back the cursor feeds; InnoDB appends rating_id (PK)
+                @Index(name = "idx_rr_provider_created", columnList = "provider_id,created_at"),
+                @Index(name = "idx_rr_service_created", columnList = "service_id,created_at"),
+                // (rated_at, rating_id) keyset for the provider ranking refresh
+                @Index(name = "idx_rr_rated", columnList = "rated_at")
         }
 )
 @Getter
@@ -47,5 +50,9 @@ public class RatingReview {
 
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
+
+    // set whenever stars change (null on review-only rows and on rows rated before the column existed)
+    @Column(name = "rated_at")
+    private LocalDateTime ratedAt;
 }
 
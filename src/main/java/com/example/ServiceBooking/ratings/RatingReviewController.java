@@ -3,6 +3,7 @@ package com.example.ServiceBooking.ratings;
 import com.example.ServiceBooking.auth.JwtUtil;
 import com.example.ServiceBooking.ratings.dto.ProviderRatingSummaryResponse;
 import com.example.ServiceBooking.ratings.dto.RatingReviewResponse;
+import com.example.ServiceBooking.ratings.dto.ReviewFeedResponse;
 import com.example.ServiceBooking.ratings.dto.SubmitRatingRequest;
 import com.example.ServiceBooking.ratings.dto.SubmitReviewRequest;
 import io.swagger.v3.oas.annotations.Operation;
@@ -24,6 +25,7 @@ import org.springframework.web.bind.annotation.*;
 public class RatingReviewController {
 
     private final RatingReviewService service;
+    private final RatingAggregateRebuildJob aggregateRebuildJob;
     private final JwtUtil jwtUtil;
 
     private Long userId() {
@@ -34,12 +36,9 @@ public class RatingReviewController {
     @PostMapping("/submit-rating")
     @PreAuthorize("hasRole('CUSTOMER')")
     public RatingReviewResponse submitRating(@Valid @RequestBody SubmitRatingRequest request) {
-        log.info("Submit rating request received");
-        log.debug("Submit rating payload received");
 
         RatingReviewResponse response = service.submitRating(userId(), request);
 
-        log.info("Submit rating processed successfully");
         return response;
     }
 
@@ -47,12 +46,9 @@ public class RatingReviewController {
     @PostMapping("/submit-review")
     @PreAuthorize("hasRole('CUSTOMER')")
     public RatingReviewResponse submitReview(@Valid @RequestBody SubmitReviewRequest request) {
-        log.info("Submit review request received");
-        log.debug("Submit review payload received");
 
         RatingReviewResponse response = service.submitReview(userId(), request);
 
-        log.info("Submit review processed successfully");
         return response;
     }
 
@@ -63,25 +59,30 @@ public class RatingReviewController {
             @PathVariable Long providerId,
             @PageableDefault(size = 20, sort = "createdAt") Pageable pageable
     ) {
-        log.info("Fetch provider ratings request received");
-        log.debug("Pagination params received (page/size/sort)");
 
         Page<RatingReviewResponse> page = service.providerRatings(providerId, pageable);
 
-        log.info("Fetch provider ratings processed successfully");
         return page;
     }
 
+    @Operation(summary = "Provider review feed (cursor-paginated, newest first; summaryOnly omits comments)")
+    @GetMapping("/provider/{providerId}/feed")
+    public ReviewFeedResponse<?> providerFeed(
+            @PathVariable Long providerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean summaryOnly
+    ) {
+        return service.providerFeed(providerId, cursor, size, summaryOnly);
+    }
+
     @Operation(summary = "Fetch provider rating summary (avg + count)- ADMIN/PROVIDER")
     @PreAuthorize("hasRole('ADMIN') or hasRole('PROVIDER')")
     @GetMapping("/provider/{providerId}/summary")
     public ProviderRatingSummaryResponse providerSummary(@PathVariable Long providerId) {
-        log.info("Fetch provider rating summary request received");
-        log.debug("Fetching rating summary ");
 
         ProviderRatingSummaryResponse response = service.providerRatingSummary(providerId);
 
-        log.info("Fetch provider rating summary processed successfully");
         return response;
     }
 
@@ -92,12 +93,30 @@ public class RatingReviewController {
             @PathVariable Long serviceId,
             @PageableDefault(size = 20, sort = "createdAt") Pageable pageable
     ) {
-        log.info("Fetch service reviews request received");
-        log.debug("Pagination params received (page/size/sort).");
 
         Page<RatingReviewResponse> page = service.serviceReviews(serviceId, pageable);
 
-        log.info("Fetch service reviews processed successfully");
         return page;
     }
+
+    @Operation(summary = "Service review feed (cursor-paginated, newest first; summaryOnly omits comments)")
+    @GetMapping("/service/{serviceId}/feed")
+    public ReviewFeedResponse<?> serviceFeed(
+            @PathVariable Long serviceId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean summaryOnly
+    ) {
+        return service.serviceFeed(serviceId, cursor, size, summaryOnly);
+    }
+
+    @Operation(summary = "Rebuild provider rating aggregates (backfill) - ADMIN")
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/aggregates/rebuild")
+    public int rebuildAggregates() {
+
+        int providers = aggregateRebuildJob.rebuildAll();
+
+        return providers;
+    }
 }
@@ -1,10 +1,15 @@
 package com.example.ServiceBooking.ratings;
 
+import com.example.ServiceBooking.ratings.dto.RatingReviewSummaryResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface RatingReviewRepository extends JpaRepository<RatingReview, Long> {
@@ -22,5 +27,120 @@ public interface RatingReviewRepository extends JpaRepository<RatingReview, Long
 
     @Query("select count(r) from RatingReview r where r.providerId = :providerId")
     Long countForProvider(Long providerId);
+
+    // ---- cursor feeds: keyset on (createdAt, ratingId) newest first ----
+
+    @Query("""
+select r from RatingReview r
+where r.providerId = :providerId
+  and (r.createdAt < :createdAt or (r.createdAt = :createdAt and r.ratingId < :ratingId))
+order by r.createdAt desc, r.ratingId desc
+""")
+    List<RatingReview> findProviderFeed(@Param("providerId") Long providerId,
+                                        @Param("createdAt") LocalDateTime createdAt,
+                                        @Param("ratingId") Long ratingId,
+                                        Pageable limit);
+
+    @Query("""
+select r from RatingReview r
+where r.serviceId = :serviceId
+  and (r.createdAt < :createdAt or (r.createdAt = :createdAt and r.ratingId < :ratingId))
+order by r.createdAt desc, r.ratingId desc
+""")
+    List<RatingReview> findServiceFeed(@Param("serviceId") Long serviceId,
+                                       @Param("createdAt") LocalDateTime createdAt,
+                                       @Param("ratingId") Long ratingId,
+                                       Pageable limit);
+
+    // summary-only variants: never load the 1000-char comment column
+    @Query("""
+select new com.example.ServiceBooking.ratings.dto.RatingReviewSummaryResponse(
+    r.ratingId, r.bookingId, r.providerId, r.serviceId, r.stars, r.createdAt)
+from RatingReview r
+where r.providerId = :providerId
+  and (r.createdAt < :createdAt or (r.createdAt = :createdAt and r.ratingId < :ratingId))
+order by r.createdAt desc, r.ratingId desc
+""")
+    List<RatingReviewSummaryResponse> findProviderFeedSummary(@Param("providerId") Long providerId,
+                                                             @Param("createdAt") LocalDateTime createdAt,
+                                                             @Param("ratingId") Long ratingId,
+                                                             Pageable limit);
+
+    @Query("""
+select new com.example.ServiceBooking.ratings.dto.RatingReviewSummaryResponse(
+    r.ratingId, r.bookingId, r.providerId, r.serviceId, r.stars, r.createdAt)
+from RatingReview r
+where r.serviceId = :serviceId
+  and (r.createdAt < :createdAt or (r.createdAt = :createdAt and r.ratingId < :ratingId))
+order by r.createdAt desc, r.ratingId desc
+""")
+    List<RatingReviewSummaryResponse> findServiceFeedSummary(@Param("serviceId") Long serviceId,
+                                                            @Param("createdAt") LocalDateTime createdAt,
+                                                            @Param("ratingId") Long ratingId,
+                                                            Pageable limit);
+
+    // ---- aggregate rebuild (backfill) ----
+
+    @Query("select distinct r.providerId from RatingReview r where r.providerId > :afterProviderId order by r.providerId asc")
+    List<Long> findProviderIdsAfter(@Param("afterProviderId") Long afterProviderId, Pageable pageable);
+
+    @Query("""
+select r.providerId as providerId, r.stars as stars, count(r) as total
+from RatingReview r
+where r.providerId in :providerIds
+  and r.stars is not null
+group by r.providerId, r.stars
+""")
+    List<StarCountProjection> countStarsForProviders(@Param("providerIds") List<Long> providerIds);
+
+    // ---- provider ranking ----
+
+    // full rebuild: every rated row, by id
+    @Query("""
+select r.ratingId as ratingId, r.providerId as providerId, r.stars as stars,
+       r.createdAt as createdAt, r.ratedAt as ratedAt
+from RatingReview r
+where r.ratingId > :afterRatingId
+  and r.stars is not null
+order by r.ratingId asc
+""")
+    List<RatingPointProjection> findRatingPointsAfter(@Param("afterRatingId") Long afterRatingId, Pageable pageable);
+
+    // incremental refresh: every rated row of the providers whose ratings changed, on idx_rr_provider_created
+    @Query("""
+select r.ratingId as ratingId, r.providerId as providerId, r.stars as stars,
+       r.createdAt as createdAt, r.ratedAt as ratedAt
+from RatingReview r
+where r.providerId in :providerIds
+  and r.stars is not null
+""")
+    List<RatingPointProjection> findRatingPointsForProviders(@Param("providerIds") Collection<Long> providerIds);
+
+    // incremental refresh: rows whose stars were set or changed since (ratedAt, ratingId)
+    @Query("""
+select r.ratingId as ratingId, r.providerId as providerId, r.stars as stars,
+       r.createdAt as createdAt, r.ratedAt as ratedAt
+from RatingReview r
+where (r.ratedAt > :ratedAt or (r.ratedAt = :ratedAt and r.ratingId > :afterRatingId))
+  and r.stars is not null
+order by r.ratedAt asc, r.ratingId asc
+""")
+    List<RatingPointProjection> findRatingPointsRatedAfter(@Param("ratedAt") LocalDateTime ratedAt,
+                                                           @Param("afterRatingId") Long afterRatingId,
+                                                           Pageable pageable);
+
+    public interface RatingPointProjection {
+        Long getRatingId();
+        Long getProviderId();
+        Integer getStars();
+        LocalDateTime getCreatedAt();
+        LocalDateTime getRatedAt();
+    }
+
+    public interface StarCountProjection {
+        Long getProviderId();
+        Integer getStars();
+        long getTotal();
+    }
 }
 
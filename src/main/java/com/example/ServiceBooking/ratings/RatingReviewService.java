@@ -1,34 +1,41 @@
 package com.example.ServiceBooking.ratings;
 
+import com.example.ServiceBooking.common.httpcache.ResourceVersions;
 import com.example.ServiceBooking.bookings.Booking;
 import com.example.ServiceBooking.bookings.BookingRepository;
 import com.example.ServiceBooking.bookings.dto.BookingStatus;
 import com.example.ServiceBooking.ratings.dto.ProviderRatingSummaryResponse;
 import com.example.ServiceBooking.ratings.dto.RatingReviewResponse;
+import com.example.ServiceBooking.ratings.dto.RatingReviewSummaryResponse;
+import com.example.ServiceBooking.ratings.dto.ReviewFeedResponse;
 import com.example.ServiceBooking.ratings.dto.SubmitRatingRequest;
 import com.example.ServiceBooking.ratings.dto.SubmitReviewRequest;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class RatingReviewService {
 
+    private static final int MAX_FEED_SIZE = 100;
+
     private final RatingReviewRepository repo;
     private final BookingRepository bookingRepo;
+    private final RatingAggregateService aggregateService;
+    private final ResourceVersions resourceVersions;
 
     @Transactional
     public RatingReviewResponse submitRating(Long customerId, SubmitRatingRequest request) {
-        log.info("Processing submit rating request");
-        log.debug("Validating rating request");
-
         try {
             validateStars(request.stars());
 
@@ -42,6 +49,9 @@ public class RatingReviewService {
             ensureBookingCompleted(booking);
             ensureProviderAssigned(booking);
 
+            // lock the provider aggregate first so the old stars we read below can't change underneath us
+            ProviderRatingAggregate aggregate = aggregateService.lockForUpdate(booking.getProviderId());
+
             RatingReview rr = repo.findByBookingId(request.bookingId()).orElse(null);
 
             if (rr == null) {
@@ -55,9 +65,13 @@ public class RatingReviewService {
                 log.debug("Existing rating/review record found; updating stars only");
             }
 
+            Integer oldStars = rr.getStars();
             rr.setStars(request.stars());
+            rr.setRatedAt(LocalDateTime.now());
 
             RatingReview saved = repo.save(rr);
+            aggregateService.applyChange(aggregate, oldStars, request.stars());
+            bumpPublicVersions(saved);
             log.info("Submit rating processed successfully");
             return toResponse(saved);
 
@@ -72,9 +86,6 @@ public class RatingReviewService {
 
     @Transactional
     public RatingReviewResponse submitReview(Long customerId, SubmitReviewRequest request) {
-        log.info("Processing submit review request");
-        log.debug("Validating review request");
-
         try {
             if (request.comment() == null || request.comment().trim().isEmpty()) {
                 log.warn("Submit review failed: comment missing/blank");
@@ -107,6 +118,7 @@ public class RatingReviewService {
             rr.setComment(request.comment().trim());
 
             RatingReview saved = repo.save(rr);
+            bumpPublicVersions(saved);
             log.info("Submit review processed successfully");
             return toResponse(saved);
 
@@ -119,10 +131,9 @@ public class RatingReviewService {
         }
     }
 
+    // listing reads may be served by the read replica (Spring's annotation: jakarta's has no readOnly)
+    @org.springframework.transaction.annotation.Transactional(readOnly = true)
     public Page<RatingReviewResponse> providerRatings(Long providerId, Pageable pageable) {
-        log.info("Fetching provider ratings ");
-        log.debug("Pagination params received ");
-
         try {
             Page<RatingReviewResponse> page = repo.findByProviderId(providerId, pageable).map(this::toResponse);
             log.info("Provider ratings fetched successfully");
@@ -136,10 +147,8 @@ public class RatingReviewService {
         }
     }
 
+    @org.springframework.transaction.annotation.Transactional(readOnly = true)
     public Page<RatingReviewResponse> serviceReviews(Long serviceId, Pageable pageable) {
-        log.info("Fetching service reviews ");
-        log.debug("Pagination params received ");
-
         try {
             Page<RatingReviewResponse> page = repo.findByServiceId(serviceId, pageable).map(this::toResponse);
             log.info("Service reviews fetched successfully");
@@ -153,19 +162,71 @@ public class RatingReviewService {
         }
     }
 
-    public ProviderRatingSummaryResponse providerRatingSummary(Long providerId) {
-        log.info("Fetching provider rating summary");
-        log.debug("Computing provider rating summary ");
+    // ---- cursor feeds (constant cost at any depth) ----
 
-        try {
-            Double avg = repo.avgStarsForProvider(providerId);
-            Long count = repo.countForProvider(providerId);
+    @org.springframework.transaction.annotation.Transactional(readOnly = true)
+    public ReviewFeedResponse<?> providerFeed(Long providerId, String cursor, int size, boolean summaryOnly) {
+        log.debug("Fetching provider review feed");
+
+        ReviewCursor after = ReviewCursor.decode(cursor);
+        Pageable limit = feedLimit(size);
+
+        return summaryOnly
+                ? toFeed(repo.findProviderFeedSummary(providerId, after.createdAt(), after.ratingId(), limit),
+                        limit, r -> new ReviewCursor(r.createdAt(), r.ratingId()))
+                : toFeed(repo.findProviderFeed(providerId, after.createdAt(), after.ratingId(), limit).stream()
+                                .map(this::toResponse).toList(),
+                        limit, r -> new ReviewCursor(r.createdAt(), r.ratingId()));
+    }
+
+    @org.springframework.transaction.annotation.Transactional(readOnly = true)
+    public ReviewFeedResponse<?> serviceFeed(Long serviceId, String cursor, int size, boolean summaryOnly) {
+        log.debug("Fetching service review feed");
 
-            ProviderRatingSummaryResponse response = new ProviderRatingSummaryResponse(
-                    providerId,
-                    avg == null ? 0.0 : avg,
-                    count == null ? 0L : count
-            );
+        ReviewCursor after = ReviewCursor.decode(cursor);
+        Pageable limit = feedLimit(size);
+
+        return summaryOnly
+                ? toFeed(repo.findServiceFeedSummary(serviceId, after.createdAt(), after.ratingId(), limit),
+                        limit, r -> new ReviewCursor(r.createdAt(), r.ratingId()))
+                : toFeed(repo.findServiceFeed(serviceId, after.createdAt(), after.ratingId(), limit).stream()
+                                .map(this::toResponse).toList(),
+                        limit, r -> new ReviewCursor(r.createdAt(), r.ratingId()));
+    }
+
+    // fetch one extra row to know whether another page exists
+    private Pageable feedLimit(int size) {
+        if (size < 1 || size > MAX_FEED_SIZE) {
+            throw new RuntimeException("size must be between 1 and " + MAX_FEED_SIZE);
+        }
+        return PageRequest.of(0, size + 1);
+    }
+
+    private <T> ReviewFeedResponse<T> toFeed(List<T> rows, Pageable limit, Function<T, ReviewCursor> cursorOf) {
+        int size = limit.getPageSize() - 1;
+        if (rows.size() <= size) {
+            return new ReviewFeedResponse<>(rows, null);
+        }
+        List<T> page = rows.subList(0, size);
+        return new ReviewFeedResponse<>(page, cursorOf.apply(page.get(size - 1)).encode());
+    }
+
+    public ProviderRatingSummaryResponse providerRatingSummary(Long providerId) {
+        try {
+            // O(1): single primary-key read of the maintained aggregate
+            ProviderRatingSummaryResponse response = aggregateService.find(providerId)
+                    .map(a -> new ProviderRatingSummaryResponse(
+                            providerId,
+                            a.average(),
+                            a.getRatingCount(),
+                            a.histogram()
+                    ))
+                    .orElseGet(() -> new ProviderRatingSummaryResponse(
+                            providerId,
+                            0.0,
+                            0L,
+                            ProviderRatingAggregate.empty(providerId).histogram()
+                    ));
 
             log.info("Provider rating summary computed successfully");
             return response;
@@ -181,6 +242,12 @@ public class RatingReviewService {
 
     // ---- helpers ----
 
+    // invalidates cached public GETs for this provider/service (commits with the review)
+    private void bumpPublicVersions(RatingReview rr) {
+        resourceVersions.bump(ResourceVersions.providerRatings(rr.getProviderId()));
+        resourceVersions.bump(ResourceVersions.serviceRatings(rr.getServiceId()));
+    }
+
     private void validateStars(Integer stars) {
         if (stars == null) {
             log.warn("Stars missing in rating request");
@@ -0,0 +1,30 @@
+package com.example.ServiceBooking.ratings;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for review feeds: position after (createdAt, ratingId), newest first.
+ */
+record ReviewCursor(LocalDateTime createdAt, Long ratingId) {
+
+    // sentinel that sorts after every real row, used for the first page
+    static final ReviewCursor START = new ReviewCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+    static ReviewCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) return START;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf('|');
+            return new ReviewCursor(LocalDateTime.parse(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+        } catch (RuntimeException ex) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+
+    String encode() {
+        String raw = createdAt + "|" + ratingId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,10 +1,13 @@
 package com.example.ServiceBooking.ratings.dto;
 
+import java.util.Map;
 
 
 public record ProviderRatingSummaryResponse(
         Long providerId,
         Double averageStars,
-        Long totalRatings
+        Long totalRatings,
+        // stars (1..5) -> number of ratings
+        Map<Integer, Long> starHistogram
 ) {}
 
@@ -0,0 +1,13 @@
+package com.example.ServiceBooking.ratings.dto;
+
+import java.time.LocalDateTime;
+
+// RatingReviewResponse without the comment (summary-only feed projection)
+public record RatingReviewSummaryResponse(
+        Long ratingId,
+        Long bookingId,
+        Long providerId,
+        Long serviceId,
+        Integer stars,
+        LocalDateTime createdAt
+) {}
@@ -0,0 +1,11 @@
+package com.example.ServiceBooking.ratings.dto;
+
+import java.util.List;
+
+/**
+ * One page of a cursor feed. nextCursor is null on the last page.
+ */
+public record ReviewFeedResponse<T>(
+        List<T> items,
+        String nextCursor
+) {}
@@ -27,12 +27,8 @@ public class ServiceCategoryController {
     // Create new category
     @PostMapping
     public void add(@Valid @RequestBody CategoryRequest request) {
-        log.trace("Entering add method");
-        log.debug("Processing add category request");
-        log.info("Add category requested");
         try {
             service.add(request);
-            log.debug("Category added successfully");
         } catch (Exception e) {
             log.error("Error adding category");
             throw e;
@@ -45,12 +41,8 @@ public class ServiceCategoryController {
     @PutMapping("/{id}")
     public void update(@PathVariable Long id,
                        @Valid @RequestBody CategoryRequest request) {
-        log.trace("Entering update method");
-        log.debug("Processing update category request");
-        log.info("Update category requested");
         try {
             service.update(id, request);
-            log.debug("Category updated successfully");
         } catch (Exception e) {
             log.error("Error updating category");
             throw e;
@@ -62,12 +54,8 @@ public class ServiceCategoryController {
     // Delete category
     @DeleteMapping("/{id}")
     public void delete(@PathVariable Long id) {
-        log.trace("Entering delete method");
-        log.debug("Processing delete category request");
-        log.info("Delete category requested");
         try {
             service.delete(id);
-            log.debug("Category deleted successfully");
         } catch (Exception e) {
             log.error("Error deleting category");
             throw e;
@@ -78,12 +66,8 @@ public class ServiceCategoryController {
     // List all categories
     @GetMapping
     public List<CategoryResponse> list() {
-        log.trace("Entering list method");
-        log.debug("Processing list categories request");
-        log.info("List categories requested");
         try {
             List<CategoryResponse> categories = service.list();
-            log.debug("Categories listed successfully");
             return categories;
         } catch (Exception e) {
             log.error("Error listing categories");
@@ -1,5 +1,6 @@
 package com.example.ServiceBooking.servicecatalog;
 
+import com.example.ServiceBooking.common.httpcache.ResourceVersions;
 import com.example.ServiceBooking.servicecatalog.dto.CategoryRequest;
 import com.example.ServiceBooking.servicecatalog.dto.CategoryResponse;
 import lombok.RequiredArgsConstructor;
@@ -14,23 +15,21 @@ import java.util.List;
 public class ServiceCategoryService {
 
     private final ServiceCategoryRepository categoryRepo;
+    private final ResourceVersions resourceVersions;
 
     public void add(CategoryRequest request) {
-        log.trace("Entering add method");
-        log.debug("Processing add category request");
         log.info("Adding new service category");
 
         ServiceCategory category = new ServiceCategory();
         category.setName(request.name());
         category.setDescription(request.description());
         categoryRepo.save(category);
+        resourceVersions.bump(ResourceVersions.CATALOG);
 
         log.debug("Service category added successfully");
     }
 
     public void update(Long id, CategoryRequest request) {
-        log.trace("Entering update method");
-        log.debug("Processing update category request");
         log.info("Updating service category");
 
         ServiceCategory category = categoryRepo.findById(id)
@@ -42,22 +41,21 @@ public class ServiceCategoryService {
         category.setName(request.name());
         category.setDescription(request.description());
         categoryRepo.save(category);
+        resourceVersions.bump(ResourceVersions.CATALOG);
 
         log.debug("Service category updated successfully");
     }
 
     public void delete(Long id) {
-        log.trace("Entering delete method");
-        log.debug("Processing delete category request");
         log.info("Deleting service category");
 
         categoryRepo.deleteById(id);
+        resourceVersions.bump(ResourceVersions.CATALOG);
 
         log.debug("Service category deleted successfully");
     }
 
     public List<CategoryResponse> list() {
-        log.trace("Entering list method");
         log.debug("Fetching all service categories");
         log.info("Listing all service categories");
 
@@ -30,12 +30,8 @@ public class SubServiceController {
             @PathVariable Long categoryId,
             @Valid @RequestBody SubServiceRequest request
     ) {
-        log.trace("Entering add method");
-        log.debug("Processing add sub-service request");
-        log.info("Add sub-service requested");
         try {
             service.add(categoryId, request);
-            log.debug("Sub-service added successfully");
         } catch (Exception e) {
             log.error("Error adding sub-service");
             throw e;
@@ -50,12 +46,8 @@ public class SubServiceController {
             @PathVariable Long id,
             @Valid @RequestBody SubServiceRequest request
     ) {
-        log.trace("Entering update method");
-        log.debug("Processing update sub-service request");
-        log.info("Update sub-service requested");
         try {
             service.update(id, request);
-            log.debug("Sub-service updated successfully");
         } catch (Exception e) {
             log.error("Error updating sub-service");
             throw e;
@@ -67,12 +59,8 @@ public class SubServiceController {
     // Delete sub-service by ID
     @DeleteMapping("/{id}")
     public void delete(@PathVariable Long id) {
-        log.trace("Entering delete method");
-        log.debug("Processing delete sub-service request");
-        log.info("Delete sub-service requested");
         try {
             service.delete(id);
-            log.debug("Sub-service deleted successfully");
         } catch (Exception e) {
             log.error("Error deleting sub-service");
             throw e;
@@ -83,12 +71,8 @@ public class SubServiceController {
     // Get all sub-services in a category
     @GetMapping("/category/{categoryId}")
     public List<SubServiceResponse> byCategory(@PathVariable Long categoryId) {
-        log.trace("Entering byCategory method");
-        log.debug("Processing get sub-services by category request");
-        log.info("Get sub-services by category requested");
         try {
             List<SubServiceResponse> subServices = service.byCategory(categoryId);
-            log.debug("Sub-services retrieved successfully");
             return subServices;
         } catch (Exception e) {
             log.error("Error retrieving sub-services by category");
@@ -103,12 +87,8 @@ public class SubServiceController {
             @RequestParam
             @NotBlank(message = "Search query is required")
             String q) {
-        log.trace("Entering search method");
-        log.debug("Processing search sub-services request");
-        log.info("Search sub-services requested");
         try {
             List<SubServiceResponse> results = service.search(q);
-            log.debug("Sub-service search completed successfully");
             return results;
         } catch (Exception e) {
             log.error("Error searching sub-services");
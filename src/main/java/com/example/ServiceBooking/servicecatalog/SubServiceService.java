@@ -1,5 +1,6 @@
 package com.example.ServiceBooking.servicecatalog;
 
+import com.example.ServiceBooking.common.httpcache.ResourceVersions;
 import com.example.ServiceBooking.servicecatalog.dto.SubServiceRequest;
 import com.example.ServiceBooking.servicecatalog.dto.SubServiceResponse;
 import lombok.RequiredArgsConstructor;
@@ -15,10 +16,9 @@ public class SubServiceService {
 
     private final SubServiceRepository subRepo;
     private final ServiceCategoryRepository categoryRepo;
+    private final ResourceVersions resourceVersions;
 
     public void add(Long categoryId, SubServiceRequest request) {
-        log.trace("Entering add method");
-        log.debug("Processing add sub-service request");
         log.info("Adding new sub-service");
 
         ServiceCategory category = categoryRepo.findById(categoryId)
@@ -34,13 +34,12 @@ public class SubServiceService {
         sub.setCategory(category);
 
         subRepo.save(sub);
+        resourceVersions.bump(ResourceVersions.CATALOG);
 
         log.debug("Sub-service added successfully");
     }
 
     public void update(Long id, SubServiceRequest request) {
-        log.trace("Entering update method");
-        log.debug("Processing update sub-service request");
         log.info("Updating sub-service");
 
         SubService sub = subRepo.findById(id)
@@ -54,22 +53,21 @@ public class SubServiceService {
         sub.setBasePrice(request.basePrice());
 
         subRepo.save(sub);
+        resourceVersions.bump(ResourceVersions.CATALOG);
 
         log.debug("Sub-service updated successfully");
     }
 
     public void delete(Long id) {
-        log.trace("Entering delete method");
-        log.debug("Processing delete sub-service request");
         log.info("Deleting sub-service");
 
         subRepo.deleteById(id);
+        resourceVersions.bump(ResourceVersions.CATALOG);
 
         log.debug("Sub-service deleted successfully");
     }
 
     public List<SubServiceResponse> byCategory(Long categoryId) {
-        log.trace("Entering byCategory method");
         log.debug("Fetching sub-services by category");
         log.info("Retrieving sub-services for category");
 
@@ -83,8 +81,6 @@ public class SubServiceService {
     }
 
     public List<SubServiceResponse> search(String keyword) {
-        log.trace("Entering search method");
-        log.debug("Processing sub-service search request");
         log.info("Searching sub-services");
 
         List<SubServiceResponse> results = subRepo.findByNameContainingIgnoreCase(keyword)
@@ -40,8 +40,6 @@ public class SupportTicketController {
     @PostMapping("/tickets")
     @PreAuthorize("hasRole('CUSTOMER')")
     public TicketResponse create(@Valid @RequestBody CreateTicketRequest req) {
-        log.info("Support ticket create request received");
-        log.debug("Creating ticket");
         return ticketService.createTicket(userId(), req);
     }
 
@@ -50,7 +48,6 @@ public class SupportTicketController {
     @GetMapping("/tickets/my")
     @PreAuthorize("hasRole('CUSTOMER')")
     public Page<TicketResponse> myTickets(@PageableDefault(size = 20, sort = "createdAt") Pageable pageable) {
-        log.info("Customer ticket history request received");
         return ticketService.myTickets(userId(), pageable);
     }
 
@@ -59,7 +56,6 @@ public class SupportTicketController {
     @GetMapping("/tickets/assigned")
     @PreAuthorize("hasAnyRole('SUPPORT_L1','SUPPORT_REFUND','SUPPORT_PROVIDER','SUPPORT_MANAGER')")
     public Page<TicketResponse> assigned(@PageableDefault(size = 20, sort = "createdAt") Pageable pageable) {
-        log.info("Agent assigned tickets request received");
         return ticketService.assignedTickets(userId(), pageable);
     }
 
@@ -68,8 +64,6 @@ public class SupportTicketController {
     @PutMapping("/tickets/{ticketId}")
     @PreAuthorize("hasAnyRole('SUPPORT_L1','SUPPORT_REFUND','SUPPORT_PROVIDER','SUPPORT_MANAGER')")
     public TicketResponse update(@PathVariable Long ticketId, @Valid @RequestBody UpdateTicketRequest req) {
-        log.info("Ticket update request received");
-        log.debug("Updating ticket");
         return ticketService.updateTicketAsAgent(userId(), role(), ticketId, req);
     }
 }
@@ -30,10 +30,6 @@ public class SupportTicketService {
 
     @Transactional
     public TicketResponse createTicket(Long customerId, CreateTicketRequest req) {
-        log.trace("Entering createTicket()");
-        log.debug("Validating ticket creation request (IDs not logged)");
-        log.info("Customer creating support ticket");
-
         // Optional booking validation
         if (req.bookingId() != null) {
             bookingRepo.findById(req.bookingId())
@@ -70,13 +66,13 @@ public class SupportTicketService {
 
         // Notify assigned agent + customer
         if (agentId != null) {
-            notificationService.createSystemNotification(
+            notificationService.createSupportNotification(
                     agentId,
                     "New Ticket Assigned: #" + saved.getTicketId() + " (" + saved.getTicketType() + ")"
             );
         }
 
-        notificationService.createSystemNotification(
+        notificationService.createSupportNotification(
                 customerId,
                 "Ticket created successfully. Ticket #" + saved.getTicketId()
         );
@@ -86,25 +82,15 @@ public class SupportTicketService {
     }
 
     public Page<TicketResponse> myTickets(Long customerId, Pageable pageable) {
-        log.trace("Entering myTickets()");
-        log.debug("Fetching tickets for customer");
-        log.info("Customer ticket history requested");
         return ticketRepo.findByCustomerIdOrderByCreatedAtDesc(customerId, pageable).map(this::toResponse);
     }
 
     public Page<TicketResponse> assignedTickets(Long agentId, Pageable pageable) {
-        log.trace("Entering assignedTickets()");
-        log.debug("Fetching tickets assigned to agent");
-        log.info("Agent assigned ticket list requested");
         return ticketRepo.findByAssignedAgentIdOrderByCreatedAtDesc(agentId, pageable).map(this::toResponse);
     }
 
     @Transactional
     public TicketResponse updateTicketAsAgent(Long agentId, Role agentRole, Long ticketId, UpdateTicketRequest req) {
-        log.trace("Entering updateTicketAsAgent()");
-        log.debug("Validating agent update request");
-        log.info("Support agent updating ticket");
-
         SupportTicket t = ticketRepo.findById(ticketId)
                 .orElseThrow(() -> {
                     log.warn("Ticket not found");
@@ -136,7 +122,7 @@ public class SupportTicketService {
         SupportTicket saved = ticketRepo.save(t);
 
         // Notify customer on updates
-        notificationService.createSystemNotification(
+        notificationService.createSupportNotification(
                 saved.getCustomerId(),
                 "Ticket #" + saved.getTicketId() + " updated. Status: " + saved.getStatus()
         );
@@ -148,10 +134,6 @@ public class SupportTicketService {
     // SLA Escalation Job (called by scheduler)
     @Transactional
     public int escalateBreachedTickets() {
-        log.trace("Entering escalateBreachedTickets()");
-        log.debug("Checking SLA breaches");
-        log.info("Running SLA escalation scan");
-
         List<SupportTicket> breached = ticketRepo.findByStatusInAndSlaDueAtBefore(
                 List.of(TicketStatus.OPEN, TicketStatus.IN_PROGRESS),
                 LocalDateTime.now()
@@ -169,13 +151,13 @@ public class SupportTicketService {
             t.setUpdatedAt(LocalDateTime.now());
 
             // notify customer + assigned manager
-            notificationService.createSystemNotification(
+            notificationService.createSupportNotification(
                     t.getCustomerId(),
                     "Ticket #" + t.getTicketId() + " escalated due to SLA breach"
             );
 
             if (t.getAssignedAgentId() != null) {
-                notificationService.createSystemNotification(
+                notificationService.createSupportNotification(
                         t.getAssignedAgentId(),
                         "Escalated Ticket Assigned: #" + t.getTicketId()
                 );
@@ -0,0 +1,51 @@
+package com.example.ServiceBooking.admin.export;
+
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ColumnarJsonTabularWriterTest {
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    @Test
+    void writesOneColumnMajorLinePerBatch() throws IOException {
+        List<JsonNode> lines = write(2, new Object[]{1L, "Pune"}, new Object[]{2L, null}, new Object[]{3L, "Delhi"});
+
+        assertThat(lines).hasSize(2);
+        assertThat(lines.get(0).get("rows").asInt()).isEqualTo(2);
+        assertThat(lines.get(0).get("columns").get("id").toString()).isEqualTo("[1,2]");
+        assertThat(lines.get(0).get("columns").get("city").toString()).isEqualTo("[\"Pune\",null]");
+        // the last, partial batch is written by finish()
+        assertThat(lines.get(1).get("rows").asInt()).isEqualTo(1);
+        assertThat(lines.get(1).get("columns").get("id").toString()).isEqualTo("[3]");
+    }
+
+    @Test
+    void emptyExportWritesNothing() throws IOException {
+        assertThat(write(2)).isEmpty();
+    }
+
+    @Test
+    void fullLastBatchIsNotFollowedByAnEmptyOne() throws IOException {
+        assertThat(write(2, new Object[]{1L, "Pune"}, new Object[]{2L, "Pune"})).hasSize(1);
+    }
+
+    private List<JsonNode> write(int batchRows, Object[]... rows) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ColumnarJsonTabularWriter writer = new ColumnarJsonTabularWriter(out, jsonMapper, batchRows);
+        writer.header(List.of("id", "city"));
+        for (Object[] row : rows) {
+            writer.row(row);
+        }
+        writer.finish();
+        return out.toString(StandardCharsets.UTF_8).lines().map(jsonMapper::readTree).toList();
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.ServiceBooking.admin.export;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvTabularWriterTest {
+
+    @Test
+    void writesHeaderAndRowsWithCrlf() throws IOException {
+        String csv = csv(List.of("id", "price", "createdAt"),
+                new Object[]{1L, new BigDecimal("1E+3"), LocalDateTime.of(2026, 1, 2, 3, 4)},
+                new Object[]{2L, null, null});
+
+        assertThat(csv).isEqualTo("id,price,createdAt\r\n1,1000,2026-01-02T03:04\r\n2,,\r\n");
+    }
+
+    @Test
+    void quotesSeparatorsQuotesAndLineBreaks() throws IOException {
+        String csv = csv(List.of("subject"),
+                new Object[]{"a,b"}, new Object[]{"say \"hi\""}, new Object[]{"two\nlines"});
+
+        assertThat(csv).isEqualTo("subject\r\n\"a,b\"\r\n\"say \"\"hi\"\"\"\r\n\"two\nlines\"\r\n");
+    }
+
+    @Test
+    void neutralisesFormulaPrefixes() throws IOException {
+        String csv = csv(List.of("subject"),
+                new Object[]{"=HYPERLINK(\"x\")"}, new Object[]{"+1"}, new Object[]{"-1"}, new Object[]{"@SUM(A1)"},
+                new Object[]{"\t=1+1"}, new Object[]{"\r=1+1"}, new Object[]{"a=b"});
+
+        assertThat(csv.split("\r\n", -1)).containsExactly(
+                "subject",
+                "\"'=HYPERLINK(\"\"x\"\")\"",
+                "'+1",
+                "'-1",
+                "'@SUM(A1)",
+                "'\t=1+1",
+                "\"'\r=1+1\"",
+                "a=b",
+                "");
+    }
+
+    @Test
+    void numbersAreNotTreatedAsFormulas() throws IOException {
+        String csv = csv(List.of("amount"), new Object[]{new BigDecimal("-12.50")}, new Object[]{-3L});
+
+        assertThat(csv).isEqualTo("amount\r\n-12.50\r\n-3\r\n");
+    }
+
+    private static String csv(List<String> columns, Object[]... rows) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CsvTabularWriter writer = new CsvTabularWriter(out);
+        writer.header(columns);
+        for (Object[] row : rows) {
+            writer.row(row);
+        }
+        writer.finish();
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
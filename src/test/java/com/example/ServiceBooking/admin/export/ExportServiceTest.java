@@ -0,0 +1,140 @@
+package com.example.ServiceBooking.admin.export;
+
+import com.example.ServiceBooking.common.querybudget.QueryBudgetPostProcessor;
+import com.example.ServiceBooking.common.querybudget.QueryStats;
+import com.example.ServiceBooking.common.querybudget.QueryTracking;
+import com.example.ServiceBooking.payment.Payment;
+import com.example.ServiceBooking.payment.PaymentMethod;
+import com.example.ServiceBooking.payment.PaymentStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Exports streamed from H2 (MySQL mode) through the same tuple query the service runs in production.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:export;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(PropertyPlaceholderAutoConfiguration.class)
+@Import({QueryBudgetPostProcessor.class, ExportServiceTest.Metrics.class})
+class ExportServiceTest {
+
+    private static final int PAYMENTS = 1_200;
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ExportService exports;
+
+    @BeforeEach
+    void setUp() {
+        exports = new ExportService(entityManager, transactionManager, null, JsonMapper.builder().build(),
+                "jdbc:h2:mem:export", 100, 500);
+
+        LocalDateTime base = LocalDateTime.of(2026, 3, 1, 10, 0);
+        for (int i = 0; i < PAYMENTS; i++) {
+            Payment p = new Payment();
+            p.setBookingId((long) i + 1);
+            p.setAmount(BigDecimal.valueOf(100 + i % 7));
+            p.setMethod(PaymentMethod.CASH);
+            p.setStatus(i % 5 == 0 ? PaymentStatus.RECORDED : PaymentStatus.PAID);
+            p.setPaidAt(base.plusHours(i));
+            entityManager.persist(p);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void csvExportStreamsEveryMatchingRowInOneQuery() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        QueryStats stats = QueryTracking.capture(() ->
+                exports.payments(PaymentStatus.PAID, null, null, ExportFormat.CSV, false).writeTo(out));
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines.get(0)).isEqualTo(String.join(",", ExportService.PAYMENT_COLUMNS));
+        assertThat(lines).hasSize(1 + PAYMENTS * 4 / 5);
+        // ids are not reset between tests
+        assertThat(lines.get(1)).matches("\\d+,2,101.00,CASH,PAID,2026-03-01T11:00");
+        stats.assertAtMost(1);
+        // tuples only: nothing was loaded into the persistence context
+        assertThat(entityManager.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+    }
+
+    @Test
+    void dateRangeAndGzipAreApplied() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exports.payments(null, LocalDate.of(2026, 3, 2), LocalDate.of(2026, 3, 2), ExportFormat.CSV, true).writeTo(out);
+
+        String csv;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            csv = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        // one day of hourly payments
+        assertThat(csv.lines()).hasSize(1 + 24);
+    }
+
+    @Test
+    void columnarExportBatchesRows() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exports.payments(null, null, null, ExportFormat.COLUMNAR_JSON, false).writeTo(out);
+
+        // 1,200 rows in batches of 500
+        assertThat(out.toString(StandardCharsets.UTF_8).lines())
+                .hasSize(3)
+                .last().asString().startsWith("{\"rows\":200,");
+    }
+
+    @Test
+    void mysqlExportsStreamRowByRow() {
+        assertThat(ExportService.fetchSize("jdbc:mysql://localhost:3306/servicedb", 1000))
+                .isEqualTo(ExportService.MYSQL_STREAMING);
+        assertThat(ExportService.fetchSize("jdbc:h2:mem:export", 1000)).isEqualTo(1000);
+    }
+}
@@ -0,0 +1,262 @@
+package com.example.ServiceBooking.analytics;
+
+import com.example.ServiceBooking.bookings.Booking;
+import com.example.ServiceBooking.bookings.BookingRepository;
+import com.example.ServiceBooking.bookings.dto.BookingStatus;
+import com.example.ServiceBooking.bookings.events.BookingEvent;
+import com.example.ServiceBooking.bookings.events.BookingEventRepository;
+import com.example.ServiceBooking.bookings.events.BookingEventService;
+import com.example.ServiceBooking.bookings.events.BookingEventType;
+import com.example.ServiceBooking.payment.Payment;
+import com.example.ServiceBooking.payment.PaymentMethod;
+import com.example.ServiceBooking.payment.PaymentRepository;
+import com.example.ServiceBooking.payment.PaymentStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Rollups folded from real outbox rows on H2 (MySQL mode). Not transactional: every service call commits
+ * on its own, as the scheduled job's calls do.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:rollups;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({AnalyticsRollupService.class, BookingEventService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AnalyticsRollupServiceTest {
+
+    private static final LocalDateTime MONDAY = LocalDateTime.of(2026, 3, 2, 10, 15);
+
+    @Autowired
+    private AnalyticsRollupService rollups;
+
+    @Autowired
+    private AnalyticsRollupRepository rollupRepo;
+
+    @Autowired
+    private BookingEventService events;
+
+    @Autowired
+    private BookingEventRepository eventRepo;
+
+    @Autowired
+    private BookingRepository bookingRepo;
+
+    @Autowired
+    private PaymentRepository paymentRepo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        rollupRepo.deleteAllInBatch();
+        eventRepo.deleteAllInBatch();
+        paymentRepo.deleteAllInBatch();
+        bookingRepo.deleteAllInBatch();
+    }
+
+    @Test
+    void everyEventIsCountedOnceAcrossBatches() {
+        history();
+
+        int batches = 0;
+        while (rollups.applyNextEvents(2) > 0) {
+            batches++;
+        }
+
+        // the job acceptance, start and reschedule count nothing, but are consumed all the same
+        assertThat(batches).isEqualTo(5);
+        assertThat(eventRepo.findNotRolledUp(Pageable.unpaged())).isEmpty();
+        AnalyticsRollup total = cell(RollupGrain.MONTH, MONDAY, RollupDimension.ALL, RollupDimension.ALL_KEY);
+        assertThat(total.getBookings()).isEqualTo(4);
+        assertThat(total.getCompleted()).isEqualTo(1);
+        assertThat(total.getCancelled()).isEqualTo(1);
+        assertThat(total.getPaidCount()).isEqualTo(1);
+        assertThat(total.getPaidAmount()).isEqualByComparingTo("450.00");
+        assertThat(cell(RollupGrain.MONTH, MONDAY, RollupDimension.CITY, "pune").getBookings()).isEqualTo(3);
+
+        // caught up: nothing is counted again
+        assertThat(rollups.applyNextEvents(2)).isZero();
+        assertThat(cell(RollupGrain.MONTH, MONDAY, RollupDimension.ALL, RollupDimension.ALL_KEY).getBookings()).isEqualTo(4);
+    }
+
+    @Test
+    void rolledBackBatchLeavesItsEventsPending() {
+        history();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        // counted and flagged in the same transaction: a failure after markRolledUp undoes both
+        assertThatThrownBy(() -> tx.executeWithoutResult(status -> {
+            rollups.applyNextEvents(100);
+            throw new IllegalStateException("crash after the batch");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(rollupRepo.count()).isZero();
+        assertThat(eventRepo.findNotRolledUp(Pageable.unpaged())).hasSize(10);
+
+        rollups.applyNextEvents(100);
+        assertThat(cell(RollupGrain.MONTH, MONDAY, RollupDimension.ALL, RollupDimension.ALL_KEY).getBookings()).isEqualTo(4);
+    }
+
+    @Test
+    void markPaidUpdatesOnlyOnce() {
+        Booking b = inTx(this::completedBooking);
+        Payment p = new Payment();
+        p.setBookingId(b.getId());
+        p.setAmount(new BigDecimal("450.00"));
+        p.setMethod(PaymentMethod.CASH);
+        p.setStatus(PaymentStatus.RECORDED);
+        Long paymentId = paymentRepo.save(p).getPaymentId();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        LocalDateTime first = MONDAY.plusHours(3);
+        Integer won = tx.execute(status -> paymentRepo.markPaid(paymentId, first));
+        Integer lost = tx.execute(status -> paymentRepo.markPaid(paymentId, first.plusMinutes(5)));
+
+        assertThat(won).isEqualTo(1);
+        assertThat(lost).isZero();
+        Payment paid = paymentRepo.findById(paymentId).orElseThrow();
+        assertThat(paid.getStatus()).isEqualTo(PaymentStatus.PAID);
+        assertThat(paid.getPaidAt()).isEqualTo(first);
+    }
+
+    @Test
+    void rebuildMatchesTheIncrementalResult() {
+        history();
+        while (rollups.applyNextEvents(5) > 0) {
+        }
+        Map<String, String> incremental = cells();
+
+        AnalyticsRollupJob job = new AnalyticsRollupJob(rollups, bookingRepo, paymentRepo, 2, false);
+        assertThat(job.rebuildAll()).isTrue();
+
+        assertThat(cells()).isEqualTo(incremental);
+        // the rebuild counted everything already in the outbox
+        assertThat(eventRepo.findNotRolledUp(Pageable.unpaged())).isEmpty();
+    }
+
+    @Test
+    void processedEventsArePurgedOnceRolledUpOrPastTheUnrolledMaxAge() {
+        history();
+        LocalDateTime now = LocalDateTime.now();
+        Integer marked = inTx(() -> eventRepo.markProcessed(
+                eventRepo.findAll().stream().map(BookingEvent::getId).toList(), now.minusDays(10)));
+        assertThat(marked).isEqualTo(10);
+
+        // rollups disabled: nothing is rolled up, so only the max age lets them go
+        Integer kept = inTx(() -> eventRepo.deleteProcessedBefore(now.minusDays(7), now.minusDays(30)));
+        assertThat(kept).isZero();
+
+        rollups.applyNextEvents(4);
+        Integer rolledUp = inTx(() -> eventRepo.deleteProcessedBefore(now.minusDays(7), now.minusDays(30)));
+        Integer expired = inTx(() -> eventRepo.deleteProcessedBefore(now.minusDays(7), now.minusDays(9)));
+        assertThat(rolledUp).isEqualTo(4);
+        assertThat(expired).isEqualTo(6);
+    }
+
+    // =========================
+    // FIXTURES
+    // =========================
+
+    /**
+     * Four bookings in March 2026 and the 10 events their lifecycles write:
+     * open job completed and paid, open job cancelled, slot booking rescheduled, open job still pending.
+     */
+    private void history() {
+        Booking done = inTx(this::completedBooking);
+        inTx(() -> {
+            LocalDateTime paidAt = MONDAY.plusDays(1);
+            Payment p = new Payment();
+            p.setBookingId(done.getId());
+            p.setAmount(new BigDecimal("450.00"));
+            p.setMethod(PaymentMethod.CASH);
+            p.setStatus(PaymentStatus.RECORDED);
+            Long paymentId = paymentRepo.save(p).getPaymentId();
+            paymentRepo.markPaid(paymentId, paidAt);
+            // as PaymentService: the event is written with the conditional update that won
+            BookingEvent paid = events.recordPayment(done, p.getAmount(), 1L);
+            paid.setCreatedAt(paidAt);
+
+            Booking cancelled = booking(BookingStatus.PENDING, "Pune", MONDAY.plusHours(1));
+            events.record(cancelled, null, BookingEventType.CREATED, 1L);
+            transition(cancelled, BookingStatus.CANCELLED, BookingEventType.CANCELLED);
+
+            Booking slot = booking(BookingStatus.ACCEPTED, "Mumbai", MONDAY.plusHours(2));
+            events.record(slot, null, BookingEventType.ACCEPTED, 1L);
+            slot.setDateTime(slot.getDateTime().plusDays(2));
+            events.record(slot, BookingStatus.ACCEPTED, BookingEventType.RESCHEDULED, 1L);
+
+            Booking pending = booking(BookingStatus.PENDING, "Pune", MONDAY.plusHours(3));
+            events.record(pending, null, BookingEventType.CREATED, 1L);
+            return null;
+        });
+        assertThat(eventRepo.count()).isEqualTo(10);
+    }
+
+    private Booking completedBooking() {
+        Booking b = booking(BookingStatus.PENDING, "Pune", MONDAY);
+        events.record(b, null, BookingEventType.CREATED, 1L);
+        transition(b, BookingStatus.ACCEPTED, BookingEventType.ACCEPTED);
+        transition(b, BookingStatus.STARTED, BookingEventType.STARTED);
+        transition(b, BookingStatus.COMPLETED, BookingEventType.COMPLETED);
+        return b;
+    }
+
+    private Booking booking(BookingStatus status, String city, LocalDateTime createdAt) {
+        Booking b = new Booking();
+        b.setCustomerId(11L);
+        b.setProviderId(21L);
+        b.setServiceId(31L);
+        b.setCity(city);
+        b.setStatus(status);
+        b.setCreatedAt(createdAt);
+        b.setDateTime(createdAt.plusDays(3));
+        b.setPrice(new BigDecimal("450.00"));
+        return bookingRepo.save(b);
+    }
+
+    private void transition(Booking b, BookingStatus to, BookingEventType type) {
+        BookingStatus from = b.getStatus();
+        b.setStatus(to);
+        events.record(b, from, type, 1L);
+    }
+
+    private <T> T inTx(Supplier<T> work) {
+        return new TransactionTemplate(transactionManager).execute(status -> work.get());
+    }
+
+    private AnalyticsRollup cell(RollupGrain grain, LocalDateTime at, RollupDimension dim, String key) {
+        return rollupRepo.findById(AnalyticsRollup.id(grain, grain.bucketStart(at), dim, key)).orElseThrow();
+    }
+
+    private Map<String, String> cells() {
+        return rollupRepo.findAll().stream().collect(Collectors.toMap(AnalyticsRollup::getId, r ->
+                r.getBookings() + "/" + r.getCompleted() + "/" + r.getCancelled() + "/"
+                        + r.getPaidCount() + "/" + r.getPaidAmount().stripTrailingZeros().toPlainString()));
+    }
+}
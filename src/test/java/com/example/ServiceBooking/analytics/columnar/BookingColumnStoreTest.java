@@ -0,0 +1,198 @@
+package com.example.ServiceBooking.analytics.columnar;
+
+import com.example.ServiceBooking.bookings.Booking;
+import com.example.ServiceBooking.bookings.BookingRepository;
+import com.example.ServiceBooking.bookings.dto.BookingStatus;
+import com.example.ServiceBooking.bookings.events.BookingEvent;
+import com.example.ServiceBooking.bookings.events.BookingEventRepository;
+import com.example.ServiceBooking.bookings.events.BookingEventType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Incremental refresh from booking_events against repositories backed by {@link #bookings} and {@link #events}.
+ * The id of every page read is recorded in {@link #scannedFrom}.
+ */
+class BookingColumnStoreTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2026, 3, 1, 10, 0);
+
+    private final List<Booking> bookings = new ArrayList<>();
+    private final List<BookingEvent> events = new ArrayList<>();
+    private final List<Long> scannedFrom = new ArrayList<>();
+
+    private BookingRepository bookingRepo;
+    private BookingEventRepository eventRepo;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepo = mock(BookingRepository.class);
+        when(bookingRepo.findByIdGreaterThanOrderByIdAsc(anyLong(), any())).thenAnswer(inv ->
+                page(bookings, Booking::getId, inv.getArgument(0), inv.getArgument(1)));
+
+        eventRepo = mock(BookingEventRepository.class);
+        when(eventRepo.findAfterId(anyLong(), any())).thenAnswer(inv -> {
+            scannedFrom.add(inv.getArgument(0));
+            return page(events, BookingEvent::getId, inv.getArgument(0), inv.getArgument(1));
+        });
+        when(eventRepo.findFirstIdCreatedSince(any())).thenReturn(null);
+        when(eventRepo.findMaxId()).thenAnswer(inv ->
+                events.stream().mapToLong(BookingEvent::getId).max().orElse(0));
+
+        booking(1L, "Pune", BookingStatus.PENDING);
+        booking(2L, "Mumbai", BookingStatus.ACCEPTED);
+        event(10L, 2L, BookingEventType.ACCEPTED, BookingStatus.ACCEPTED);
+    }
+
+    @Test
+    void eventsAppendNewBookingsAndPatchExistingOnes() {
+        BookingColumnStore store = store(120);
+
+        event(11L, 3L, BookingEventType.CREATED, BookingStatus.PENDING);
+        event(12L, 1L, BookingEventType.ACCEPTED, BookingStatus.ACCEPTED);
+        store.refresh();
+
+        assertThat(store.size()).isEqualTo(3);
+        assertThat(status(store, 1L)).isEqualTo(BookingStatus.ACCEPTED);
+        assertThat(status(store, 3L)).isEqualTo(BookingStatus.PENDING);
+    }
+
+    @Test
+    void paymentEventsLeaveTheRowAlone() {
+        BookingColumnStore store = store(120);
+
+        event(11L, 1L, BookingEventType.PAYMENT_PAID, null);
+        store.refresh();
+
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(status(store, 1L)).isEqualTo(BookingStatus.PENDING);
+    }
+
+    @Test
+    void reapplyingEventsInTheOverlapIsHarmless() {
+        BookingColumnStore store = store(120);
+        event(11L, 3L, BookingEventType.CREATED, BookingStatus.PENDING);
+        event(12L, 3L, BookingEventType.ACCEPTED, BookingStatus.ACCEPTED);
+
+        store.refresh();
+        store.refresh();
+        store.refresh();
+
+        assertThat(store.size()).isEqualTo(3);
+        assertThat(status(store, 3L)).isEqualTo(BookingStatus.ACCEPTED);
+    }
+
+    @Test
+    void lowerIdCommittedLateIsCaughtByTheOverlap() {
+        BookingColumnStore store = store(120);
+        event(12L, 3L, BookingEventType.CREATED, BookingStatus.PENDING);
+        store.refresh();
+
+        // 11 was allocated before 12 but its transaction commits after the refresh read 12
+        event(11L, 1L, BookingEventType.CANCELLED, BookingStatus.CANCELLED);
+        store.refresh();
+
+        assertThat(status(store, 1L)).isEqualTo(BookingStatus.CANCELLED);
+    }
+
+    @Test
+    void scansStartFromTheLastIdSeenWithoutOverlap() {
+        // nothing created in the window at load: start after the newest event
+        BookingColumnStore store = store(0);
+
+        event(11L, 3L, BookingEventType.CREATED, BookingStatus.PENDING);
+        assertThat(refreshFrom(store)).isEqualTo(10L);
+        event(12L, 3L, BookingEventType.ACCEPTED, BookingStatus.ACCEPTED);
+        assertThat(refreshFrom(store)).isEqualTo(11L);
+        assertThat(refreshFrom(store)).isEqualTo(12L);
+
+        assertThat(status(store, 3L)).isEqualTo(BookingStatus.ACCEPTED);
+    }
+
+    @Test
+    void loadReadsEventsFromTheFirstOneInTheOverlapWindow() {
+        when(eventRepo.findFirstIdCreatedSince(any())).thenReturn(10L);
+        BookingColumnStore store = store(120);
+
+        assertThat(refreshFrom(store)).isEqualTo(9L);
+    }
+
+    // =========================
+    // HELPERS
+    // =========================
+
+    private BookingColumnStore store(int overlapSeconds) {
+        BookingColumnStore store = new BookingColumnStore(bookingRepo, eventRepo, 2, overlapSeconds, true);
+        store.refresh();
+        assertThat(store.size()).isEqualTo(bookings.size());
+        return store;
+    }
+
+    /**
+     * @return the id the refresh started reading events after
+     */
+    private long refreshFrom(BookingColumnStore store) {
+        scannedFrom.clear();
+        store.refresh();
+        return scannedFrom.get(0);
+    }
+
+    private static BookingStatus status(BookingColumnStore store, long bookingId) {
+        BookingColumnStore.Snapshot s = store.snapshot();
+        for (int row = 0; row < s.size(); row++) {
+            if (s.columns().id[row] == bookingId) {
+                return BookingColumnStore.status(s.columns().status[row]);
+            }
+        }
+        throw new AssertionError("No row for booking " + bookingId);
+    }
+
+    private static <T> List<T> page(List<T> rows, Function<T, Long> id, Long afterId, Pageable pageable) {
+        return rows.stream()
+                .filter(r -> id.apply(r) > afterId)
+                .sorted(Comparator.comparing(id))
+                .limit(pageable.getPageSize())
+                .toList();
+    }
+
+    private void booking(Long id, String city, BookingStatus status) {
+        Booking b = new Booking();
+        b.setId(id);
+        b.setCity(city);
+        b.setServiceId(7L);
+        b.setStatus(status);
+        b.setCreatedAt(CREATED);
+        b.setDateTime(CREATED.plusDays(1));
+        b.setPrice(new BigDecimal("499.00"));
+        bookings.add(b);
+    }
+
+    private void event(Long id, Long bookingId, BookingEventType type, BookingStatus to) {
+        BookingEvent e = new BookingEvent();
+        e.setId(id);
+        e.setBookingId(bookingId);
+        e.setType(type);
+        e.setToStatus(to);
+        e.setCity("Pune");
+        e.setServiceId(7L);
+        e.setBookingCreatedAt(CREATED);
+        e.setBookingTime(CREATED.plusDays(1));
+        e.setAmount(new BigDecimal("499.00"));
+        e.setCreatedAt(LocalDateTime.now());
+        events.add(e);
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.ServiceBooking.analytics.columnar;
+
+import com.example.ServiceBooking.analytics.dto.ColumnarGroupResponse;
+import com.example.ServiceBooking.analytics.dto.ColumnarQueryRequest;
+import com.example.ServiceBooking.analytics.dto.ColumnarQueryResponse;
+import com.example.ServiceBooking.bookings.Booking;
+import com.example.ServiceBooking.bookings.BookingRepository;
+import com.example.ServiceBooking.bookings.dto.BookingStatus;
+import com.example.ServiceBooking.bookings.events.BookingEventRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Group-key packing against a brute-force count over the same bookings. Small leaves, so every query
+ * is split across the pool and merged.
+ */
+class ColumnarQueryEngineTest {
+
+    private static final String[] CITIES = {"Pune", "Mumbai", "Nagpur", null};
+    private static final BookingStatus[] STATUSES = BookingStatus.values();
+
+    private final List<Booking> bookings = new ArrayList<>();
+    private ColumnarQueryEngine engine;
+
+    @AfterEach
+    void tearDown() {
+        if (engine != null) {
+            engine.shutdown();
+        }
+    }
+
+    @Test
+    void groupsMatchABruteForceCountForOneToThreeDimensions() {
+        for (long id = 1; id <= 500; id++) {
+            booking(id, CITIES[(int) (id % CITIES.length)], 100 + id % 5, STATUSES[(int) (id % 3)],
+                    LocalDateTime.of(2026, 1 + (int) (id % 4), 1 + (int) (id % 28), 9, 0));
+        }
+        load();
+
+        for (List<ColumnarDimension> groupBy : List.of(
+                List.of(ColumnarDimension.CITY),
+                List.of(ColumnarDimension.STATUS, ColumnarDimension.CITY),
+                List.of(ColumnarDimension.MONTH, ColumnarDimension.SERVICE, ColumnarDimension.STATUS))) {
+            ColumnarQueryResponse response = engine.query(request(groupBy, null));
+
+            assertThat(counts(response)).as("group by %s", groupBy).isEqualTo(expected(groupBy));
+            assertThat(response.matchedRows()).isEqualTo(500);
+            // labels come back in the order they were asked for
+            assertThat(response.groups().get(0).key().keySet()).containsExactlyElementsOf(
+                    groupBy.stream().map(d -> d.name().toLowerCase()).toList());
+        }
+    }
+
+    @Test
+    void largeCodesInTheTopSlotDoNotBleedIntoTheOthers() {
+        // provider codes up to ~70k need 17 bits: the highest slot of a three-dimension key
+        for (long id = 1; id <= 70_000; id++) {
+            booking(id, "Pune", 1_000_000 + id, STATUSES[(int) (id % STATUSES.length)],
+                    LocalDateTime.of(2026, 12, 31, 23, 0).minusDays(id % 3));
+        }
+        load();
+
+        List<Long> last = List.of(1_069_998L, 1_069_999L, 1_070_000L);
+        List<ColumnarDimension> groupBy = List.of(ColumnarDimension.PROVIDER, ColumnarDimension.STATUS, ColumnarDimension.DAY);
+        ColumnarQueryResponse response = engine.query(request(groupBy, last));
+
+        assertThat(counts(response)).isEqualTo(Map.of(
+                List.of("1069998", STATUSES[69_998 % STATUSES.length].name(), "2026-12-29"), 1L,
+                List.of("1069999", STATUSES[69_999 % STATUSES.length].name(), "2026-12-31"), 1L,
+                List.of("1070000", STATUSES[70_000 % STATUSES.length].name(), "2026-12-30"), 1L));
+    }
+
+    @Test
+    void dictionaryPastTwentyOneBitsCannotBeGroupedBy() {
+        int maxCode = (1 << 21) - 1;
+
+        // codes 0..maxCode still fit a slot; one more value would wrap into the neighbouring one
+        ColumnarQueryEngine.checkGroupable(ColumnarDimension.PROVIDER, maxCode + 1);
+        assertThatThrownBy(() -> ColumnarQueryEngine.checkGroupable(ColumnarDimension.PROVIDER, maxCode + 2))
+                .hasMessage("Too many distinct PROVIDER values to group by");
+    }
+
+    @Test
+    void rejectsMoreThanThreeOrRepeatedDimensions() {
+        booking(1L, "Pune", 100L, BookingStatus.PENDING, LocalDateTime.of(2026, 1, 1, 9, 0));
+        load();
+
+        assertThatThrownBy(() -> engine.query(request(List.of(ColumnarDimension.CITY, ColumnarDimension.SERVICE,
+                ColumnarDimension.STATUS, ColumnarDimension.DAY), null)))
+                .hasMessage("At most 3 group-by dimensions are supported");
+        assertThatThrownBy(() -> engine.query(request(List.of(ColumnarDimension.CITY, ColumnarDimension.CITY), null)))
+                .hasMessage("Duplicate group-by dimension");
+    }
+
+    // =========================
+    // HELPERS
+    // =========================
+
+    private void load() {
+        BookingRepository bookingRepo = mock(BookingRepository.class);
+        when(bookingRepo.findByIdGreaterThanOrderByIdAsc(anyLong(), any())).thenAnswer(inv -> {
+            long afterId = inv.getArgument(0);
+            Pageable page = inv.getArgument(1);
+            return bookings.stream().filter(b -> b.getId() > afterId).limit(page.getPageSize()).toList();
+        });
+        BookingColumnStore store = new BookingColumnStore(bookingRepo, mock(BookingEventRepository.class),
+                5_000, 120, true);
+        store.refresh();
+        engine = new ColumnarQueryEngine(store, 4, 64);
+    }
+
+    private static ColumnarQueryRequest request(List<ColumnarDimension> groupBy, List<Long> providerIds) {
+        return new ColumnarQueryRequest(groupBy, ColumnarTimeBasis.SCHEDULED, null, null,
+                null, null, null, providerIds, 1000);
+    }
+
+    private static Map<List<String>, Long> counts(ColumnarQueryResponse response) {
+        Map<List<String>, Long> counts = new HashMap<>();
+        for (ColumnarGroupResponse g : response.groups()) {
+            counts.put(new ArrayList<>(g.key().values()), g.bookings());
+        }
+        return counts;
+    }
+
+    private Map<List<String>, Long> expected(List<ColumnarDimension> groupBy) {
+        return bookings.stream().collect(Collectors.groupingBy(
+                b -> groupBy.stream().map(d -> label(b, d)).collect(Collectors.toCollection(ArrayList::new)),
+                Collectors.counting()));
+    }
+
+    private static String label(Booking b, ColumnarDimension d) {
+        return switch (d) {
+            case CITY -> b.getCity() == null ? null : b.getCity().toLowerCase();
+            case SERVICE -> String.valueOf(b.getServiceId());
+            case PROVIDER -> String.valueOf(b.getProviderId());
+            case STATUS -> b.getStatus().name();
+            case DAY -> b.getDateTime().toLocalDate().toString();
+            case MONTH -> YearMonth.from(b.getDateTime()).toString();
+        };
+    }
+
+    private void booking(long id, String city, long serviceOrProvider, BookingStatus status, LocalDateTime at) {
+        Booking b = new Booking();
+        b.setId(id);
+        b.setCity(city);
+        b.setServiceId(serviceOrProvider);
+        b.setProviderId(serviceOrProvider);
+        b.setStatus(status);
+        b.setCreatedAt(at.minusDays(2));
+        b.setDateTime(at);
+        b.setPrice(new BigDecimal("250.00"));
+        bookings.add(b);
+    }
+}
@@ -0,0 +1,242 @@
+package com.example.ServiceBooking.bookings;
+
+import com.example.ServiceBooking.bookings.dto.BookingStatus;
+import com.example.ServiceBooking.bookings.events.BookingEvent;
+import com.example.ServiceBooking.bookings.events.BookingEventRepository;
+import com.example.ServiceBooking.bookings.events.BookingEventService;
+import com.example.ServiceBooking.bookings.events.BookingEventType;
+import com.example.ServiceBooking.providermanagement.AvailabilityStatus;
+import com.example.ServiceBooking.providermanagement.ProviderAvailability;
+import com.example.ServiceBooking.providermanagement.ProviderAvailabilityRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Transition rules compiled into the real conditional UPDATE on H2 (MySQL mode): rejections, the
+ * stale-version path and the slot release on cancel.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:statemachine;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(BookingEventService.class)
+class BookingStateMachineTest {
+
+    private static final Long CUSTOMER = 11L;
+    private static final Long PROVIDER = 21L;
+    private static final Long STRANGER = 99L;
+    private static final LocalDateTime AT = LocalDateTime.of(2026, 11, 2, 10, 0);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private BookingRepository bookingRepo;
+
+    @Autowired
+    private BookingEventRepository eventRepo;
+
+    @Autowired
+    private ProviderAvailabilityRepository availabilityRepo;
+
+    @Autowired
+    private BookingEventService events;
+
+    private SimpleMeterRegistry registry;
+    private BookingStateMachine machine;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        machine = new BookingStateMachine(bookingRepo, new BookingMetrics(registry), events, availabilityRepo);
+    }
+
+    @Test
+    void transitionsOutsideTheSourceStatesAreRejectedWithTheRuleMessage() {
+        Long pending = booking(BookingStatus.PENDING, null);
+        Long completed = booking(BookingStatus.COMPLETED, PROVIDER);
+
+        assertRejected(BookingStateMachine.Request.of(BookingAction.START, pending, PROVIDER),
+                "Not your booking");
+        assertRejected(BookingStateMachine.Request.of(BookingAction.CANCEL, completed, CUSTOMER),
+                "Cannot cancel a completed booking");
+        assertRejected(BookingStateMachine.Request.of(BookingAction.COMPLETE, completed, PROVIDER),
+                "Invalid booking state");
+        assertRejected(BookingStateMachine.Request.of(BookingAction.RESCHEDULE, pending, CUSTOMER),
+                "No provider assigned to this booking");
+
+        assertThat(status(pending)).isEqualTo(BookingStatus.PENDING);
+        assertThat(status(completed)).isEqualTo(BookingStatus.COMPLETED);
+        assertThat(eventRepo.count()).isZero();
+        // a plain invalid state is not a lost race
+        assertThat(registry.find("booking.contention").counters()).isEmpty();
+    }
+
+    @Test
+    void guardsRejectTheWrongActorOrCity() {
+        Long accepted = booking(BookingStatus.ACCEPTED, PROVIDER);
+        Long pending = booking(BookingStatus.PENDING, null);
+
+        assertRejected(BookingStateMachine.Request.of(BookingAction.PROVIDER_CANCEL, accepted, STRANGER),
+                "Not your booking");
+        assertRejected(BookingStateMachine.Request.of(BookingAction.CANCEL, accepted, STRANGER),
+                "Unauthorized cancellation");
+        assertRejected(BookingStateMachine.Request.of(BookingAction.RESCHEDULE, accepted, STRANGER),
+                "Unauthorized: only the customer can change this booking");
+        assertRejected(BookingStateMachine.Request.of(BookingAction.ACCEPT, pending, PROVIDER)
+                .assigning(PROVIDER).inCity("Mumbai"), "Booking is in a different city");
+
+        assertThat(status(accepted)).isEqualTo(BookingStatus.ACCEPTED);
+        assertThat(status(pending)).isEqualTo(BookingStatus.PENDING);
+    }
+
+    @Test
+    void acceptingAnAcceptedBookingCountsAsContention() {
+        Long id = booking(BookingStatus.PENDING, null);
+        machine.apply(BookingStateMachine.Request.of(BookingAction.ACCEPT, id, PROVIDER)
+                .assigning(PROVIDER).inCity("pune"));
+
+        assertRejected(BookingStateMachine.Request.of(BookingAction.ACCEPT, id, STRANGER)
+                .assigning(STRANGER).inCity("Pune"), "Booking already accepted by another provider");
+
+        assertThat(contention(BookingMetrics.ALREADY_ACCEPTED)).isEqualTo(1);
+        assertThat(bookingRepo.findById(id).orElseThrow().getProviderId()).isEqualTo(PROVIDER);
+    }
+
+    @Test
+    void staleVersionIsAnOptimisticLockFailure() {
+        Long id = booking(BookingStatus.ACCEPTED, PROVIDER);
+        long read = bookingRepo.findById(id).orElseThrow().getVersion();
+        // a concurrent change after the caller's read
+        bookingRepo.updateStartOtp(id, "hash", AT.minusHours(1));
+        entityManager.clear();
+
+        assertThatThrownBy(() -> machine.apply(BookingStateMachine.Request.of(BookingAction.START, id, PROVIDER)
+                .verifiedAt(AT).atVersion(read)))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+
+        assertThat(contention(BookingMetrics.STALE_BOOKING)).isEqualTo(1);
+        assertThat(status(id)).isEqualTo(BookingStatus.ACCEPTED);
+
+        // the retry reads the new version and wins
+        long current = bookingRepo.findById(id).orElseThrow().getVersion();
+        Booking started = machine.apply(BookingStateMachine.Request.of(BookingAction.START, id, PROVIDER)
+                .verifiedAt(AT).atVersion(current));
+        assertThat(started.getStatus()).isEqualTo(BookingStatus.STARTED);
+        assertThat(started.getPreviousStatus()).isEqualTo(BookingStatus.ACCEPTED);
+        assertThat(started.getVersion()).isEqualTo(current + 1);
+    }
+
+    @Test
+    void missingBookingIsNotFound() {
+        assertRejected(BookingStateMachine.Request.of(BookingAction.CANCEL, 12345L, CUSTOMER), "Booking not found");
+    }
+
+    @Test
+    void cancellingAnAcceptedBookingReleasesItsSlotAndRecordsTheEvent() {
+        Long id = booking(BookingStatus.ACCEPTED, PROVIDER);
+        Long slot = bookedSlot();
+
+        Booking cancelled = machine.apply(BookingStateMachine.Request.of(BookingAction.CANCEL, id, CUSTOMER));
+
+        assertThat(cancelled.getStatus()).isEqualTo(BookingStatus.CANCELLED);
+        assertThat(cancelled.getCancelledBy()).isEqualTo(CUSTOMER);
+        assertThat(slotStatus(slot)).isEqualTo(AvailabilityStatus.AVAILABLE);
+        assertThat(eventRepo.findAll()).singleElement().satisfies(e -> {
+            assertThat(e.getType()).isEqualTo(BookingEventType.CANCELLED);
+            assertThat(e.getFromStatus()).isEqualTo(BookingStatus.ACCEPTED);
+            assertThat(e.getToStatus()).isEqualTo(BookingStatus.CANCELLED);
+            assertThat(e.getActorId()).isEqualTo(CUSTOMER);
+        });
+    }
+
+    @Test
+    void startedOrUnacceptedBookingsKeepTheSlot() {
+        Long started = booking(BookingStatus.ACCEPTED, PROVIDER);
+        Long slot = bookedSlot();
+        machine.apply(BookingStateMachine.Request.of(BookingAction.START, started, PROVIDER).verifiedAt(AT));
+
+        machine.apply(BookingStateMachine.Request.of(BookingAction.CANCEL, started, PROVIDER));
+        assertThat(slotStatus(slot)).isEqualTo(AvailabilityStatus.BOOKED);
+
+        // same provider and time, but never accepted: the slot was not this booking's to free
+        Long pending = booking(BookingStatus.PENDING, PROVIDER);
+        machine.apply(BookingStateMachine.Request.of(BookingAction.CANCEL, pending, CUSTOMER));
+        assertThat(slotStatus(slot)).isEqualTo(AvailabilityStatus.BOOKED);
+
+        assertThat(eventRepo.findAll()).extracting(BookingEvent::getType)
+                .containsExactly(BookingEventType.STARTED, BookingEventType.CANCELLED, BookingEventType.CANCELLED);
+    }
+
+    // =========================
+    // HELPERS
+    // =========================
+
+    private void assertRejected(BookingStateMachine.Request req, String message) {
+        assertThatThrownBy(() -> machine.apply(req))
+                .isExactlyInstanceOf(RuntimeException.class)
+                .hasMessage(message);
+    }
+
+    private Long booking(BookingStatus status, Long providerId) {
+        Booking b = new Booking();
+        b.setCustomerId(CUSTOMER);
+        b.setProviderId(providerId);
+        b.setServiceId(31L);
+        b.setCity("Pune");
+        b.setStatus(status);
+        b.setCreatedAt(AT.minusDays(3));
+        b.setDateTime(AT);
+        b.setPrice(new BigDecimal("450.00"));
+        Long id = bookingRepo.save(b).getId();
+        entityManager.flush();
+        entityManager.clear();
+        return id;
+    }
+
+    private Long bookedSlot() {
+        ProviderAvailability slot = new ProviderAvailability();
+        slot.setProviderId(PROVIDER);
+        slot.setDate(AT.toLocalDate());
+        slot.setStartTime(AT.toLocalTime());
+        slot.setEndTime(AT.toLocalTime().plusHours(1));
+        slot.setStatus(AvailabilityStatus.BOOKED);
+        Long id = availabilityRepo.save(slot).getId();
+        entityManager.flush();
+        return id;
+    }
+
+    private BookingStatus status(Long bookingId) {
+        entityManager.clear();
+        return bookingRepo.findById(bookingId).orElseThrow().getStatus();
+    }
+
+    private AvailabilityStatus slotStatus(Long slotId) {
+        entityManager.clear();
+        return availabilityRepo.findById(slotId).orElseThrow().getStatus();
+    }
+
+    private double contention(String reason) {
+        Counter counter = registry.find("booking.contention").tag("reason", reason).counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.ServiceBooking.bookings.events;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Relay runs against the real outbox table on H2 (MySQL mode). Not transactional: every repository
+ * call commits on its own, as in the scheduled job.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:relay;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BookingEventRelayTest {
+
+    @Autowired
+    private BookingEventRepository repo;
+
+    private final List<Long> delivered = new ArrayList<>();
+    // event ids that throw, until removed
+    private final Set<Long> failing = new HashSet<>();
+
+    @AfterEach
+    void tearDown() {
+        repo.deleteAllInBatch();
+    }
+
+    @Test
+    void eventsAreDeliveredOnceInIdOrder() {
+        Long a = event(1L, BookingEventType.CREATED);
+        Long b = event(2L, BookingEventType.CREATED);
+        Long c = event(1L, BookingEventType.ACCEPTED);
+        BookingEventRelay relay = relay(2, 5);
+
+        // the first batch is full, so there may be more
+        assertThat(relay.relayBatch()).isTrue();
+        assertThat(relay.relayBatch()).isFalse();
+        assertThat(relay.relayBatch()).isFalse();
+
+        assertThat(delivered).containsExactly(a, b, c);
+        assertThat(repo.countByProcessedAtIsNull()).isZero();
+    }
+
+    @Test
+    void failingEventHoldsBackOnlyItsOwnBooking() {
+        Long created1 = event(1L, BookingEventType.CREATED);
+        Long created2 = event(2L, BookingEventType.CREATED);
+        Long accepted1 = event(1L, BookingEventType.ACCEPTED);
+        Long accepted2 = event(2L, BookingEventType.ACCEPTED);
+        failing.add(created1);
+        BookingEventRelay relay = relay(10, 5);
+
+        relay.relayBatch();
+
+        assertThat(delivered).containsExactly(created2, accepted2);
+        assertThat(repo.findById(created1).orElseThrow().getAttempts()).isEqualTo(1);
+        assertThat(repo.findById(accepted1).orElseThrow().getProcessedAt()).isNull();
+
+        // recovered: booking 1 catches up in order
+        failing.clear();
+        relay.relayBatch();
+
+        assertThat(delivered).containsExactly(created2, accepted2, created1, accepted1);
+        assertThat(repo.countByProcessedAtIsNull()).isZero();
+    }
+
+    @Test
+    void poisonEventIsParkedAfterMaxAttempts() {
+        Long poison = event(1L, BookingEventType.CREATED);
+        Long next = event(1L, BookingEventType.ACCEPTED);
+        failing.add(poison);
+        BookingEventRelay relay = relay(10, 3);
+
+        relay.relayBatch();
+        relay.relayBatch();
+        assertThat(delivered).isEmpty();
+
+        relay.relayBatch();
+
+        BookingEvent parked = repo.findById(poison).orElseThrow();
+        assertThat(parked.getParkedAt()).isNotNull();
+        assertThat(parked.getProcessedAt()).isNull();
+        assertThat(parked.getAttempts()).isEqualTo(3);
+        // the booking moves on past it
+        assertThat(delivered).containsExactly(next);
+
+        // out of the scan, and never purged
+        relay.relayBatch();
+        assertThat(delivered).containsExactly(next);
+        LocalDateTime future = LocalDateTime.now().plusYears(1);
+        repo.deleteProcessedBefore(future, future);
+        assertThat(repo.findById(poison)).isPresent();
+    }
+
+    // =========================
+    // HELPERS
+    // =========================
+
+    private BookingEventRelay relay(int batchSize, int maxAttempts) {
+        BookingEventSubscriber recorder = e -> {
+            if (failing.contains(e.getId())) {
+                throw new IllegalStateException("subscriber down");
+            }
+            delivered.add(e.getId());
+        };
+        return new BookingEventRelay(repo, List.of(recorder), batchSize, maxAttempts, 7, 30, true);
+    }
+
+    private Long event(Long bookingId, BookingEventType type) {
+        BookingEvent e = new BookingEvent();
+        e.setBookingId(bookingId);
+        e.setType(type);
+        e.setCreatedAt(LocalDateTime.now());
+        return repo.save(e).getId();
+    }
+}
@@ -0,0 +1,296 @@
+package com.example.ServiceBooking.common.datasource;
+
+import com.example.ServiceBooking.config.ReplicaDataSourceConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.http.Cookie;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routing against two separate in-memory databases, wired as {@code ReplicaDataSourceConfig} does
+ * (lazy proxy over the routing DataSource). Each database holds one row naming itself, so every
+ * read reports where it ran. The JPA cases run with an entity manager bound for the whole request,
+ * as open-in-view does.
+ */
+class ReplicaRoutingTest {
+
+    private MeterRegistry registry;
+    private LazyConnectionDataSourceProxy dataSource;
+    private LocalContainerEntityManagerFactoryBean jpa;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readOnlyTx;
+    private TransactionTemplate readWriteTx;
+    private ReadYourWritesTracker tracker;
+    private ReadYourWritesFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(database("primary"), database("replica"), registry);
+
+        dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbc = new JdbcTemplate(dataSource);
+        transactions(new DataSourceTransactionManager(dataSource));
+
+        tracker = new ReadYourWritesTracker(60_000);
+        filter = new ReadYourWritesFilter(tracker);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        if (jpa != null) {
+            jpa.destroy();
+        }
+    }
+
+    @Test
+    void getRequestReadOnlyTransactionReadsTheReplica() throws Exception {
+        List<String> served = new ArrayList<>();
+
+        request("GET", 42L, () -> served.add(readOnly()));
+
+        assertThat(served).containsExactly("replica");
+        assertThat(routes("replica")).isEqualTo(1);
+    }
+
+    @Test
+    void writesStayOnThePrimary() throws Exception {
+        List<String> served = new ArrayList<>();
+
+        request("POST", 42L, () -> {
+            served.add(readWriteTx.execute(tx -> {
+                jdbc.update("insert into marker(name) values ('written')");
+                return jdbc.queryForObject("select name from marker where name <> 'written'", String.class);
+            }));
+            // a read-only transaction inside a write request also stays on the primary
+            served.add(readOnly());
+        });
+        // read-write transaction inside a GET
+        request("GET", 7L, () -> served.add(readWrite()));
+
+        assertThat(served).containsExactly("primary", "primary", "primary");
+        assertThat(routes("replica")).isZero();
+    }
+
+    @Test
+    void stickyUserReadsThePrimaryAfterAWrite() throws Exception {
+        List<String> served = new ArrayList<>();
+
+        request("PUT", 42L, () -> readWriteTx.executeWithoutResult(tx ->
+                jdbc.update("insert into marker(name) values ('written')")));
+        request("GET", 42L, () -> served.add(readOnly()));
+        // other users are not affected
+        request("GET", 7L, () -> served.add(readOnly()));
+
+        assertThat(tracker.isSticky(42L)).isTrue();
+        assertThat(served).containsExactly("primary", "replica");
+    }
+
+    @Test
+    void stickinessFollowsTheUserToAnotherNode() throws Exception {
+        MockHttpServletResponse write = request("POST", 42L, null, () -> { });
+        Cookie sticky = write.getCookie(ReadYourWritesFilter.STICKY_COOKIE);
+        assertThat(sticky).isNotNull();
+
+        // another node: its own tracker has never seen the write
+        filter = new ReadYourWritesFilter(new ReadYourWritesTracker(60_000));
+        List<String> served = new ArrayList<>();
+        request("GET", 42L, sticky, () -> served.add(readOnly()));
+        request("GET", 42L, null, () -> served.add(readOnly()));
+        // a cookie claiming a window longer than the configured one is ignored
+        Cookie forged = new Cookie(ReadYourWritesFilter.STICKY_COOKIE, Long.toString(Long.MAX_VALUE));
+        request("GET", 42L, forged, () -> served.add(readOnly()));
+
+        assertThat(served).containsExactly("primary", "replica", "replica");
+    }
+
+    @Test
+    void jpaReadWriteTransactionAfterAReadOnlyOneInAGetUsesThePrimary() throws Exception {
+        jpaTransactions();
+        List<String> served = new ArrayList<>();
+
+        request("GET", 7L, () -> openEntityManagerInView(() -> {
+            served.add(readOnlyTx.execute(tx -> whereAmIJpa()));
+            served.add(readWriteTx.execute(tx -> whereAmIJpa()));
+            served.add(readOnlyTx.execute(tx -> whereAmIJpa()));
+        }));
+
+        assertThat(served).containsExactly("replica", "primary", "replica");
+    }
+
+    @Test
+    void jpaWritesInAGetLandOnThePrimary() throws Exception {
+        jpaTransactions();
+
+        request("GET", 7L, () -> openEntityManagerInView(() -> {
+            readOnlyTx.execute(tx -> whereAmIJpa());
+            readWriteTx.executeWithoutResult(tx ->
+                    entityManager().createNativeQuery("insert into marker(name) values ('written')").executeUpdate());
+        }));
+
+        // read-write goes to the primary and read-only to the replica even inside a replica scope
+        String onPrimary = ReadRouting.withReplica(() -> readWriteTx.execute(tx -> writtenRows()));
+        String onReplica = ReadRouting.withReplica(() -> readOnlyTx.execute(tx -> writtenRows()));
+        assertThat(onPrimary).isEqualTo("1");
+        assertThat(onReplica).isEqualTo("0");
+    }
+
+    @Test
+    void backgroundJobsStayOnThePrimary() {
+        // scheduler / async thread: no request scope
+        assertThat(readOnly()).isEqualTo("primary");
+        assertThat(readWrite()).isEqualTo("primary");
+
+        // exports opt in explicitly
+        String export = ReadRouting.withReplica(this::readOnly);
+        assertThat(export).isEqualTo("replica");
+        assertThat(ReadRouting.replicaAllowed()).isFalse();
+    }
+
+    @Test
+    void primaryOnlyOverridesAReplicaScope() {
+        String served = ReadRouting.withReplica(() -> {
+            try (ReadRouting.Scope primary = ReadRouting.primaryOnly()) {
+                return readOnly();
+            }
+        });
+
+        assertThat(served).isEqualTo("primary");
+    }
+
+    // =========================
+    // HELPERS
+    // =========================
+
+    private interface Work {
+        void run() throws Exception;
+    }
+
+    private void request(String method, Long userId, Work work) throws Exception {
+        request(method, userId, null, work);
+    }
+
+    private MockHttpServletResponse request(String method, Long userId, Cookie cookie, Work work) throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(userId.toString(), null, List.of()));
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/bookings");
+        if (cookie != null) {
+            request.setCookies(cookie);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, (req, res) -> {
+                try {
+                    work.run();
+                } catch (Exception ex) {
+                    throw new IllegalStateException(ex);
+                }
+            });
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        return response;
+    }
+
+    private void transactions(PlatformTransactionManager txManager) {
+        readOnlyTx = new TransactionTemplate(txManager);
+        readOnlyTx.setReadOnly(true);
+        readWriteTx = new TransactionTemplate(txManager);
+    }
+
+    /**
+     * Hibernate over the same routing DataSource, with the connection handling the replica config installs.
+     */
+    private void jpaTransactions() {
+        jpa = new LocalContainerEntityManagerFactoryBean();
+        jpa.setDataSource(dataSource);
+        jpa.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        jpa.setPackagesToScan(ReplicaRoutingTest.class.getPackageName());
+        jpa.getJpaPropertyMap().put("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        new ReplicaDataSourceConfig().releaseConnectionsAfterTransaction().customize(jpa.getJpaPropertyMap());
+        jpa.afterPropertiesSet();
+        transactions(new JpaTransactionManager(jpa.getObject()));
+    }
+
+    /**
+     * What OpenEntityManagerInViewInterceptor does around a request.
+     */
+    private void openEntityManagerInView(Runnable work) {
+        EntityManagerFactory emf = jpa.getObject();
+        EntityManager em = emf.createEntityManager();
+        TransactionSynchronizationManager.bindResource(emf, new EntityManagerHolder(em));
+        try {
+            work.run();
+        } finally {
+            TransactionSynchronizationManager.unbindResource(emf);
+            em.close();
+        }
+    }
+
+    private EntityManager entityManager() {
+        return EntityManagerFactoryUtils.getTransactionalEntityManager(jpa.getObject());
+    }
+
+    private String whereAmIJpa() {
+        return (String) entityManager()
+                .createNativeQuery("select name from marker where name <> 'written'")
+                .getSingleResult();
+    }
+
+    private String readOnly() {
+        return readOnlyTx.execute(tx -> whereAmI());
+    }
+
+    private String readWrite() {
+        return readWriteTx.execute(tx -> whereAmI());
+    }
+
+    private String whereAmI() {
+        return jdbc.queryForObject("select name from marker where name <> 'written'", String.class);
+    }
+
+    private String writtenRows() {
+        return jdbc.queryForObject("select count(*) from marker where name = 'written'", String.class);
+    }
+
+    private double routes(String target) {
+        return registry.get("datasource.routing").tag("target", target).counter().count();
+    }
+
+    private static JdbcDataSource database(String name) {
+        JdbcDataSource ds = new JdbcDataSource();
+        ds.setURL("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        ds.setUser("sa");
+        JdbcTemplate setup = new JdbcTemplate(ds);
+        setup.execute("create table marker(name varchar(20))");
+        setup.update("insert into marker(name) values (?)", name);
+        return ds;
+    }
+}
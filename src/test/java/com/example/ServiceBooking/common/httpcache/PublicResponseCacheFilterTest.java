@@ -0,0 +1,124 @@
+package com.example.ServiceBooking.common.httpcache;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PublicResponseCacheFilterTest {
+
+    private static final String PROVIDER_FEED = "/ratings/provider/7/feed";
+
+    private ResourceVersions versions;
+    private PublicResponseCacheFilter filter;
+    private int controllerCalls;
+
+    @BeforeEach
+    void setUp() {
+        versions = mock(ResourceVersions.class);
+        when(versions.current(ResourceVersions.providerRatings(7L))).thenReturn(new ResourceVersions.Version(3, 1_000_000L));
+        when(versions.current(ResourceVersions.CATALOG)).thenReturn(new ResourceVersions.Version(0, 0));
+        filter = new PublicResponseCacheFilter(versions, 10, 1024, 30);
+    }
+
+    @Test
+    void matchingIfNoneMatchIsAnsweredWithoutTheController() throws Exception {
+        MockHttpServletResponse first = get(PROVIDER_FEED, null);
+        String etag = first.getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletResponse revalidated = get(PROVIDER_FEED, etag);
+
+        assertThat(first.getStatus()).isEqualTo(200);
+        assertThat(etag).startsWith("W/\"");
+        assertThat(revalidated.getStatus()).isEqualTo(304);
+        assertThat(revalidated.getHeader(HttpHeaders.ETAG)).isEqualTo(etag);
+        assertThat(revalidated.getContentAsByteArray()).isEmpty();
+        assertThat(controllerCalls).isEqualTo(1);
+    }
+
+    @Test
+    void repeatedGetIsServedFromTheBodyCache() throws Exception {
+        get(PROVIDER_FEED, null);
+
+        MockHttpServletResponse again = get(PROVIDER_FEED, null);
+
+        assertThat(again.getStatus()).isEqualTo(200);
+        assertThat(again.getContentAsString()).isEqualTo("{\"call\":1}");
+        assertThat(again.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("public, max-age=30");
+        assertThat(controllerCalls).isEqualTo(1);
+    }
+
+    @Test
+    void aWriteChangesTheEtagAndRefreshesTheBody() throws Exception {
+        String before = get(PROVIDER_FEED, null).getHeader(HttpHeaders.ETAG);
+        when(versions.current(ResourceVersions.providerRatings(7L))).thenReturn(new ResourceVersions.Version(4, 2_000_000L));
+
+        MockHttpServletResponse after = get(PROVIDER_FEED, before);
+
+        assertThat(after.getStatus()).isEqualTo(200);
+        assertThat(after.getHeader(HttpHeaders.ETAG)).isNotEqualTo(before);
+        assertThat(after.getContentAsString()).isEqualTo("{\"call\":2}");
+        assertThat(after.getDateHeader(HttpHeaders.LAST_MODIFIED)).isEqualTo(2_000_000L);
+    }
+
+    @Test
+    void etagDependsOnVersionAndUrlOnly() {
+        ResourceVersions.Version v = new ResourceVersions.Version(3, 1_000_000L);
+
+        // what lets every instance answer the same validator
+        assertThat(PublicResponseCacheFilter.etag(v, PROVIDER_FEED))
+                .isEqualTo(PublicResponseCacheFilter.etag(new ResourceVersions.Version(3, 1_000_000L), PROVIDER_FEED));
+        assertThat(PublicResponseCacheFilter.etag(v, PROVIDER_FEED))
+                .isNotEqualTo(PublicResponseCacheFilter.etag(v, PROVIDER_FEED + "?cursor=abc"));
+        assertThat(PublicResponseCacheFilter.etag(v, PROVIDER_FEED))
+                .isNotEqualTo(PublicResponseCacheFilter.etag(new ResourceVersions.Version(4, 1_000_000L), PROVIDER_FEED));
+    }
+
+    @Test
+    void neverWrittenResourceHasNoLastModified() throws Exception {
+        MockHttpServletResponse response = get("/catalog/categories", null);
+
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNotNull();
+        assertThat(response.getHeader(HttpHeaders.LAST_MODIFIED)).isNull();
+    }
+
+    @Test
+    void resourceKeysCoverOnlyThePublicReads() {
+        assertThat(PublicResponseCacheFilter.resourceKey("/catalog/sub-services")).isEqualTo(ResourceVersions.CATALOG);
+        assertThat(PublicResponseCacheFilter.resourceKey("/ratings/provider/7")).isEqualTo("ratings:provider:7");
+        assertThat(PublicResponseCacheFilter.resourceKey("/ratings/provider/7/feed")).isEqualTo("ratings:provider:7");
+        assertThat(PublicResponseCacheFilter.resourceKey("/ratings/service/9/feed")).isEqualTo("ratings:service:9");
+
+        // role-protected, malformed or unrelated
+        assertThat(PublicResponseCacheFilter.resourceKey("/ratings/provider/7/summary")).isNull();
+        assertThat(PublicResponseCacheFilter.resourceKey("/ratings/provider/abc")).isNull();
+        assertThat(PublicResponseCacheFilter.resourceKey("/ratings/customer/7")).isNull();
+        assertThat(PublicResponseCacheFilter.resourceKey("/ratings/provider/7/feed/extra")).isNull();
+        assertThat(PublicResponseCacheFilter.resourceKey("/bookings/7")).isNull();
+    }
+
+    // =========================
+    // HELPERS
+    // =========================
+
+    private MockHttpServletResponse get(String path, String ifNoneMatch) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain controller = (req, res) -> {
+            controllerCalls++;
+            res.setContentType("application/json");
+            res.getWriter().write("{\"call\":" + controllerCalls + "}");
+        };
+        filter.doFilter(request, response, controller);
+        return response;
+    }
+}
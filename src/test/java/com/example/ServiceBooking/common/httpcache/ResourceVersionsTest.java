@@ -0,0 +1,90 @@
+package com.example.ServiceBooking.common.httpcache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two instances ("nodes") sharing the version table on H2 (MySQL mode), including the native upsert.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:resourceversions;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ResourceVersionsTest {
+
+    private static final String KEY = ResourceVersions.providerRatings(7L);
+
+    @Autowired
+    private ResourceVersionRepository repo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        repo.deleteAllInBatch();
+    }
+
+    @Test
+    void nodesAgreeOnTheVersionAndEtag() {
+        ResourceVersions a = new ResourceVersions(repo, 0);
+        ResourceVersions b = new ResourceVersions(repo, 0);
+        assertThat(a.current(KEY).counter()).isZero();
+
+        a.bump(KEY);
+        a.bump(KEY);
+
+        assertThat(b.current(KEY)).isEqualTo(a.current(KEY));
+        assertThat(b.current(KEY).counter()).isEqualTo(2);
+        assertThat(PublicResponseCacheFilter.etag(b.current(KEY), "/ratings/provider/7"))
+                .isEqualTo(PublicResponseCacheFilter.etag(a.current(KEY), "/ratings/provider/7"));
+        // other keys are untouched
+        assertThat(b.current(ResourceVersions.CATALOG).counter()).isZero();
+    }
+
+    @Test
+    void otherNodesSeeABumpOnceTheirCopyExpires() {
+        ResourceVersions writer = new ResourceVersions(repo, 60_000);
+        ResourceVersions reader = new ResourceVersions(repo, 60_000);
+        assertThat(reader.current(KEY).counter()).isZero();
+
+        writer.bump(KEY);
+
+        // the writing node drops its copy at once; the other one keeps it until the TTL
+        assertThat(writer.current(KEY).counter()).isEqualTo(1);
+        assertThat(reader.current(KEY).counter()).isZero();
+        assertThat(new ResourceVersions(repo, 60_000).current(KEY).counter()).isEqualTo(1);
+    }
+
+    @Test
+    void bumpCommitsWithTheWritersTransaction() {
+        ResourceVersions versions = new ResourceVersions(repo, 0);
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        tx.executeWithoutResult(status -> {
+            versions.bump(KEY);
+            status.setRollbackOnly();
+        });
+        assertThat(versions.current(KEY).counter()).isZero();
+
+        tx.executeWithoutResult(status -> versions.bump(KEY));
+        ResourceVersions.Version committed = versions.current(KEY);
+        assertThat(committed.counter()).isEqualTo(1);
+        assertThat(committed.lastModifiedMillis()).isPositive();
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.ServiceBooking.common.logging;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlDebugFilterTest {
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        MDC.clear();
+    }
+
+    @Test
+    void adminWithTheHeaderGetsSqlLoggingForThatRequestOnly() throws Exception {
+        authenticate("ADMIN");
+        MockHttpServletRequest request = request("true");
+
+        assertThat(sqlLoggedDuring(new SqlDebugFilter(true, "X-Debug-Sql"), request)).isTrue();
+
+        assertThat(MDC.get(SqlDebugTurboFilter.MDC_KEY)).isNull();
+        assertThat(request.getAttribute(SqlDebugFilter.REQUEST_ATTRIBUTE)).isEqualTo(Boolean.TRUE);
+    }
+
+    @Test
+    void headerIsIgnoredForEveryoneElse() throws Exception {
+        SqlDebugFilter filter = new SqlDebugFilter(true, "X-Debug-Sql");
+
+        // anonymous
+        assertThat(sqlLoggedDuring(filter, request("true"))).isFalse();
+
+        authenticate("CUSTOMER");
+        MockHttpServletRequest customer = request("true");
+        assertThat(sqlLoggedDuring(filter, customer)).isFalse();
+        assertThat(customer.getAttribute(SqlDebugFilter.REQUEST_ATTRIBUTE)).isNull();
+
+        authenticate("PROVIDER");
+        assertThat(sqlLoggedDuring(filter, request("true"))).isFalse();
+    }
+
+    @Test
+    void offUnlessEnabledAndAsked() throws Exception {
+        authenticate("ADMIN");
+
+        assertThat(sqlLoggedDuring(new SqlDebugFilter(false, "X-Debug-Sql"), request("true"))).isFalse();
+        assertThat(sqlLoggedDuring(new SqlDebugFilter(true, "X-Debug-Sql"), request(null))).isFalse();
+        assertThat(sqlLoggedDuring(new SqlDebugFilter(true, "X-Debug-Sql"), request("yes"))).isFalse();
+    }
+
+    // =========================
+    // HELPERS
+    // =========================
+
+    private static void authenticate(String role) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "7", null, List.of(new SimpleGrantedAuthority("ROLE_" + role))));
+    }
+
+    private static MockHttpServletRequest request(String header) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/bookings/1");
+        if (header != null) {
+            request.addHeader("X-Debug-Sql", header);
+        }
+        return request;
+    }
+
+    private static boolean sqlLoggedDuring(SqlDebugFilter filter, MockHttpServletRequest request) throws Exception {
+        boolean[] flagged = new boolean[1];
+        FilterChain chain = (req, res) -> flagged[0] = MDC.get(SqlDebugTurboFilter.MDC_KEY) != null;
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        return flagged[0];
+    }
+}
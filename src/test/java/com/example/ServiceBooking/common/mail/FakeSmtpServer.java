@@ -0,0 +1,170 @@
+package com.example.ServiceBooking.common.mail;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Minimal SMTP server on a loopback port: accepts everything (no AUTH/TLS) and counts connections and
+ * messages. {@code replyDelayNanos} stands in for the network round trip before every reply,
+ * {@link #dropConnections()} kills the open sessions and {@link #failNext(Fault)} injects one failure
+ * into the next transaction. Used by the mail tests and by {@code MailTransportBenchmark}.
+ */
+public final class FakeSmtpServer implements AutoCloseable {
+
+    public enum Fault {
+        /** answer the next MAIL FROM with 421 and close the session (server shutting down) */
+        REPLY_421,
+        /** close the session on the next MAIL FROM without replying (EOF) */
+        CLOSE,
+        /** answer the next RCPT TO with 550; the session stays up */
+        REJECT_RECIPIENT
+    }
+
+    private final ServerSocket server;
+    private final long replyDelayNanos;
+    private final ExecutorService sessions = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "fake-smtp");
+        t.setDaemon(true);
+        return t;
+    });
+    private final Set<Socket> open = ConcurrentHashMap.newKeySet();
+    private final AtomicLong connections = new AtomicLong();
+    private final AtomicLong messages = new AtomicLong();
+    private final AtomicReference<Fault> pendingFault = new AtomicReference<>();
+
+    public FakeSmtpServer(long replyDelayNanos) throws IOException {
+        this.server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        this.replyDelayNanos = replyDelayNanos;
+        sessions.execute(this::accept);
+    }
+
+    public int port() {
+        return server.getLocalPort();
+    }
+
+    public long connections() {
+        return connections.get();
+    }
+
+    public long messages() {
+        return messages.get();
+    }
+
+    /**
+     * Closes every open session and waits (up to a second) until their threads have ended.
+     */
+    public void dropConnections() {
+        for (Socket s : open) {
+            closeQuietly(s);
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (!open.isEmpty() && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+
+    public void failNext(Fault fault) {
+        pendingFault.set(fault);
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.close();
+        dropConnections();
+        sessions.shutdownNow();
+        try {
+            sessions.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void accept() {
+        while (!server.isClosed()) {
+            try {
+                Socket s = server.accept();
+                s.setTcpNoDelay(true);
+                connections.incrementAndGet();
+                open.add(s);
+                sessions.execute(() -> session(s));
+            } catch (IOException ex) {
+                // closed
+            }
+        }
+    }
+
+    private void session(Socket s) {
+        try (s) {
+            BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.US_ASCII));
+            OutputStream out = s.getOutputStream();
+            reply(out, "220 fake ESMTP");
+            String line;
+            while ((line = in.readLine()) != null) {
+                String verb = (line.length() < 4 ? line : line.substring(0, 4)).toUpperCase();
+                switch (verb) {
+                    case "EHLO" -> reply(out, "250-fake\r\n250 8BITMIME");
+                    case "MAIL" -> {
+                        if (pendingFault.compareAndSet(Fault.REPLY_421, null)) {
+                            reply(out, "421 4.3.2 Service shutting down");
+                            return;
+                        }
+                        if (pendingFault.compareAndSet(Fault.CLOSE, null)) {
+                            return;
+                        }
+                        reply(out, "250 OK");
+                    }
+                    case "RCPT" -> reply(out, pendingFault.compareAndSet(Fault.REJECT_RECIPIENT, null)
+                            ? "550 5.1.1 No such user" : "250 OK");
+                    case "HELO", "RSET", "NOOP" -> reply(out, "250 OK");
+                    case "DATA" -> {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            // discard the message
+                        }
+                        messages.incrementAndGet();
+                        reply(out, "250 OK queued");
+                    }
+                    case "QUIT" -> {
+                        reply(out, "221 Bye");
+                        return;
+                    }
+                    default -> reply(out, "502 Command not implemented");
+                }
+            }
+        } catch (IOException ex) {
+            // client went away, or dropConnections()
+        } finally {
+            open.remove(s);
+        }
+    }
+
+    private void reply(OutputStream out, String text) throws IOException {
+        if (replyDelayNanos > 0) {
+            LockSupport.parkNanos(replyDelayNanos);
+        }
+        out.write((text + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+
+    private static void closeQuietly(Socket s) {
+        try {
+            s.close();
+        } catch (IOException ex) {
+            // ignore
+        }
+    }
+}
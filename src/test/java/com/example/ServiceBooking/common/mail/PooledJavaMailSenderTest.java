@@ -0,0 +1,142 @@
+package com.example.ServiceBooking.common.mail;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.io.IOException;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Connection reuse, retirement and reconnects against {@link FakeSmtpServer}, through the real SMTP client.
+ */
+class PooledJavaMailSenderTest {
+
+    private static final int MAX_MESSAGES_PER_CONNECTION = 3;
+
+    private FakeSmtpServer server;
+    private MeterRegistry registry;
+    private PooledJavaMailSender sender;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new FakeSmtpServer(0);
+
+        JavaMailSenderImpl plain = new JavaMailSenderImpl();
+        plain.setHost("127.0.0.1");
+        plain.setPort(server.port());
+        Properties props = new Properties();
+        props.setProperty("mail.smtp.localhost", "localhost");
+        props.setProperty("mail.smtp.timeout", "5000");
+        plain.setJavaMailProperties(props);
+
+        registry = new SimpleMeterRegistry();
+        sender = new PooledJavaMailSender(registry, 2, MAX_MESSAGES_PER_CONNECTION, 60_000, 5_000)
+                .configuredFrom(plain);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        sender.close();
+        server.close();
+    }
+
+    @Test
+    void reusesOneConnectionForSequentialSends() {
+        send(3);
+
+        assertThat(server.messages()).isEqualTo(3);
+        assertThat(server.connections()).isEqualTo(1);
+        assertThat(counter("mail.smtp.connects")).isEqualTo(1);
+        assertThat(counter("mail.smtp.messages")).isEqualTo(3);
+    }
+
+    @Test
+    void retiresConnectionAfterMaxMessages() {
+        send(2 * MAX_MESSAGES_PER_CONNECTION + 1);
+
+        assertThat(server.messages()).isEqualTo(7);
+        assertThat(server.connections()).isEqualTo(3);
+        assertThat(registry.get("mail.smtp.connections").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void reconnectsWhenTheServerDroppedTheSession() {
+        send(1);
+        server.dropConnections();
+        send(1);
+
+        assertThat(server.messages()).isEqualTo(2);
+        assertThat(server.connections()).isEqualTo(2);
+        assertThat(counter("mail.smtp.retries")).isEqualTo(1);
+    }
+
+    @Test
+    void reconnectsOn421() {
+        send(1);
+        server.failNext(FakeSmtpServer.Fault.REPLY_421);
+        send(1);
+
+        assertThat(server.messages()).isEqualTo(2);
+        assertThat(server.connections()).isEqualTo(2);
+        assertThat(counter("mail.smtp.retries")).isEqualTo(1);
+    }
+
+    @Test
+    void reconnectsOnEofBeforeReply() {
+        send(1);
+        server.failNext(FakeSmtpServer.Fault.CLOSE);
+        send(1);
+
+        assertThat(server.messages()).isEqualTo(2);
+        assertThat(server.connections()).isEqualTo(2);
+        assertThat(counter("mail.smtp.retries")).isEqualTo(1);
+    }
+
+    @Test
+    void rejectedRecipientIsNotRetriedAndKeepsTheConnection() {
+        server.failNext(FakeSmtpServer.Fault.REJECT_RECIPIENT);
+
+        assertThatThrownBy(() -> send(1)).isInstanceOf(MailSendException.class);
+        send(1);
+
+        assertThat(server.messages()).isEqualTo(1);
+        assertThat(server.connections()).isEqualTo(1);
+        assertThat(counter("mail.smtp.retries")).isZero();
+    }
+
+    @Test
+    void secondFailureOnAFreshConnectionIsReported() {
+        send(1);
+        server.failNext(FakeSmtpServer.Fault.REPLY_421);
+        server.dropConnections();
+
+        // the dropped session is retried once; the 421 on the new one is then reported
+        assertThatThrownBy(() -> send(1)).isInstanceOf(MailSendException.class);
+        assertThat(server.messages()).isEqualTo(1);
+        assertThat(counter("mail.smtp.retries")).isEqualTo(1);
+    }
+
+    private void send(int count) {
+        for (int i = 0; i < count; i++) {
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setFrom("noreply@example.com");
+            message.setTo("user" + i + "@example.com");
+            message.setSubject("Booking #" + i + " update");
+            message.setText("Your job has started");
+            sender.send(message);
+        }
+    }
+
+    private double counter(String name) {
+        return registry.get(name).counter().count();
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.ServiceBooking.common.querybudget;
+
+import com.example.ServiceBooking.auth.Role;
+import com.example.ServiceBooking.auth.User;
+import com.example.ServiceBooking.auth.UserRepository;
+import com.example.ServiceBooking.bookings.Booking;
+import com.example.ServiceBooking.bookings.BookingRepository;
+import com.example.ServiceBooking.bookings.dto.BookingStatus;
+import com.example.ServiceBooking.notification.NotificationArchive;
+import com.example.ServiceBooking.notification.NotificationArchiveRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Statement budgets on real repository calls (H2 in MySQL mode), through the same
+ * counting DataSource and repository labels the application installs.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:querybudget;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+// the post-processor's @Value needs placeholder support, which the JPA slice leaves out
+@ImportAutoConfiguration(PropertyPlaceholderAutoConfiguration.class)
+@Import({QueryBudgetPostProcessor.class, QueryTrackingTest.Metrics.class})
+class QueryTrackingTest {
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private BookingRepository bookingRepo;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private NotificationArchiveRepository archiveRepo;
+
+    @Test
+    void customerBookingListIsOneStatement() {
+        User customer = user("customer@example.com", Role.CUSTOMER);
+        for (int i = 0; i < 5; i++) {
+            booking(customer.getId(), LocalDateTime.now().plusDays(i));
+        }
+        em.flush();
+        em.clear();
+
+        List<Booking> bookings = new ArrayList<>();
+        QueryStats stats = QueryTracking.capture(() -> bookings.addAll(bookingRepo.findByCustomerId(customer.getId())));
+
+        assertThat(bookings).hasSize(5);
+        stats.assertAtMost(1).assertNoRepeatedShapes(2);
+        assertThat(stats.rows()).isEqualTo(5);
+    }
+
+    @Test
+    void perRowLookupsTripTheRepeatedShapeCheck() {
+        List<Long> providerIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            providerIds.add(user("provider" + i + "@example.com", Role.PROVIDER).getId());
+        }
+        em.flush();
+        em.clear();
+
+        QueryStats oneByOne = QueryTracking.capture(() -> providerIds.forEach(userRepo::findById));
+
+        assertThat(oneByOne.statements()).isEqualTo(5);
+        assertThatThrownBy(() -> oneByOne.assertNoRepeatedShapes(3))
+                .isInstanceOf(AssertionError.class)
+                .hasMessageContaining("Possible N+1")
+                .hasMessageContaining("5 x ")
+                .hasMessageContaining("(from UserRepository.findById)");
+        assertThatThrownBy(() -> oneByOne.assertAtMost(2))
+                .isInstanceOf(AssertionError.class)
+                .hasMessageContaining("Expected at most 2 SQL statements but 5 ran");
+
+        em.clear();
+        QueryTracking.capture(() -> userRepo.findAllById(providerIds))
+                .assertAtMost(1)
+                .assertNoRepeatedShapes(2);
+    }
+
+    @Test
+    void archiveFeedSliceReadsOnlyTheRequestedRows() {
+        LocalDateTime base = LocalDateTime.now().minusDays(30);
+        for (long id = 1; id <= 7; id++) {
+            archived(id, 42L, base.plusHours(id));
+        }
+        archived(100L, 43L, base);
+        em.flush();
+        em.clear();
+
+        List<NotificationArchive> slice = new ArrayList<>();
+        QueryStats stats = QueryTracking.capture(() -> slice.addAll(archiveRepo.findFeedSlice(42L, 3, 2)));
+
+        // newest first: 7, 6, 5 are skipped
+        assertThat(slice).extracting(NotificationArchive::getNotificationId).containsExactly(4L, 3L);
+        stats.assertAtMost(1);
+        assertThat(stats.rows()).isEqualTo(2);
+    }
+
+    // =========================
+    // FIXTURES
+    // =========================
+
+    private User user(String email, Role role) {
+        User u = new User();
+        u.setName(email.substring(0, email.indexOf('@')));
+        u.setEmail(email);
+        u.setCity("Pune");
+        u.setRole(role);
+        return em.persist(u);
+    }
+
+    private void booking(Long customerId, LocalDateTime at) {
+        Booking b = new Booking();
+        b.setCustomerId(customerId);
+        b.setServiceId(1L);
+        b.setCity("Pune");
+        b.setLocation("Test address");
+        b.setDateTime(at);
+        b.setCreatedAt(LocalDateTime.now());
+        b.setPrice(BigDecimal.valueOf(499));
+        b.setStatus(BookingStatus.PENDING);
+        em.persist(b);
+    }
+
+    private void archived(Long notificationId, Long userId, LocalDateTime createdAt) {
+        NotificationArchive n = new NotificationArchive();
+        n.setNotificationId(notificationId);
+        n.setUserId(userId);
+        n.setMessage("Booking update " + notificationId);
+        n.setCreatedAt(createdAt);
+        n.setUpdatedAt(createdAt);
+        n.setArchivedAt(LocalDateTime.now());
+        em.persist(n);
+    }
+}
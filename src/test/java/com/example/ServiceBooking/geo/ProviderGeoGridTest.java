@@ -0,0 +1,103 @@
+package com.example.ServiceBooking.geo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProviderGeoGridTest {
+
+    private static final double CELL = 0.05;
+
+    @Test
+    void nearestMatchesBruteForceInDistanceOrder() {
+        Random random = new Random(7);
+        int n = 2_000;
+        long[] ids = new long[n];
+        double[] lats = new double[n];
+        double[] lons = new double[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = i + 1;
+            lats[i] = 18.52 + (random.nextDouble() - 0.5);
+            lons[i] = 73.86 + (random.nextDouble() - 0.5);
+        }
+        ProviderGeoGrid grid = ProviderGeoGrid.build(ids, lats, lons, CELL);
+
+        for (int q = 0; q < 50; q++) {
+            double lat = 18.52 + (random.nextDouble() - 0.5);
+            double lon = 73.86 + (random.nextDouble() - 0.5);
+
+            List<GeoMatch> expected = IntStream.range(0, n)
+                    .mapToObj(i -> new GeoMatch(ids[i], ProviderGeoGrid.distanceKm(lat, lon, lats[i], lons[i])))
+                    .filter(m -> m.distanceKm() <= 20)
+                    .sorted(Comparator.comparingDouble(GeoMatch::distanceKm))
+                    .limit(10)
+                    .toList();
+
+            assertThat(grid.nearest(lat, lon, 10, 20, null)).containsExactlyElementsOf(expected);
+        }
+    }
+
+    @Test
+    void nearestLooksAcrossCellBoundaries() {
+        // the query sits at the eastern edge of its cell; the closest point is just over the boundary
+        double edge = 73.85;
+        ProviderGeoGrid grid = ProviderGeoGrid.build(
+                new long[]{1, 2},
+                new double[]{18.52, 18.52},
+                new double[]{edge - 0.049, edge + 0.001},
+                CELL);
+
+        List<GeoMatch> matches = grid.nearest(18.52, edge - 0.001, 1, 50, null);
+
+        assertThat(matches).extracting(GeoMatch::providerId).containsExactly(2L);
+    }
+
+    @Test
+    void respectsKRadiusAndFilter() {
+        ProviderGeoGrid grid = ProviderGeoGrid.build(
+                new long[]{1, 2, 3, 4},
+                new double[]{18.520, 18.530, 18.540, 19.520},
+                new double[]{73.860, 73.860, 73.860, 73.860},
+                CELL);
+
+        assertThat(grid.nearest(18.52, 73.86, 2, 50, null))
+                .extracting(GeoMatch::providerId).containsExactly(1L, 2L);
+        // provider 4 is ~111 km away
+        assertThat(grid.nearest(18.52, 73.86, 10, 50, null))
+                .extracting(GeoMatch::providerId).containsExactly(1L, 2L, 3L);
+        assertThat(grid.nearest(18.52, 73.86, 2, 50, id -> id != 1))
+                .extracting(GeoMatch::providerId).containsExactly(2L, 3L);
+        assertThat(grid.within(18.52, 73.86, 1.5, null))
+                .extracting(GeoMatch::providerId).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void pointsInTheEdgeCellsOfTheGridAreFound() {
+        ProviderGeoGrid grid = ProviderGeoGrid.build(
+                new long[]{1, 2, 3, 4},
+                new double[]{90.0, -90.0, 0.0, 0.0},
+                new double[]{0.0, 0.0, 180.0, -180.0},
+                CELL);
+
+        assertThat(grid.nearest(89.99, 0.0, 1, 5, null)).extracting(GeoMatch::providerId).containsExactly(1L);
+        assertThat(grid.nearest(-89.99, 0.0, 1, 5, null)).extracting(GeoMatch::providerId).containsExactly(2L);
+        assertThat(grid.nearest(0.0, 179.99, 1, 5, null)).extracting(GeoMatch::providerId).containsExactly(3L);
+        assertThat(grid.nearest(0.0, -179.99, 1, 5, null)).extracting(GeoMatch::providerId).containsExactly(4L);
+        assertThat(grid.within(0.0, 179.99, 5, null)).extracting(GeoMatch::providerId).containsExactly(3L);
+        // longitude does not wrap: the antimeridian neighbours are ~40,000 km apart on the grid
+        assertThat(grid.nearest(0.0, 179.99, 2, 5, null)).extracting(GeoMatch::providerId).containsExactly(3L);
+    }
+
+    @Test
+    void emptyGridFindsNothing() {
+        ProviderGeoGrid grid = ProviderGeoGrid.empty(CELL);
+
+        assertThat(grid.nearest(18.52, 73.86, 5, 50, null)).isEmpty();
+        assertThat(grid.within(18.52, 73.86, 50, null)).isEmpty();
+    }
+}
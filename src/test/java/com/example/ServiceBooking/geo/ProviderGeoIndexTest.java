@@ -0,0 +1,98 @@
+package com.example.ServiceBooking.geo;
+
+import com.example.ServiceBooking.providermanagement.ProviderProfile;
+import com.example.ServiceBooking.providermanagement.ProviderProfileRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The change overlay between rebuilds, against a repository that returns whatever {@link #online} holds.
+ */
+class ProviderGeoIndexTest {
+
+    private final List<ProviderProfileRepository.ProviderLocationProjection> online = new ArrayList<>();
+    private ProviderGeoIndex index;
+
+    @BeforeEach
+    void setUp() {
+        ProviderProfileRepository repo = mock(ProviderProfileRepository.class);
+        when(repo.findOnlineProviderLocations()).thenAnswer(inv -> List.copyOf(online));
+        index = new ProviderGeoIndex(repo, 0.05, 25, 50, 20, 20);
+
+        located(1L, 18.520, 73.860);
+        located(2L, 18.530, 73.860);
+        located(3L, 18.540, 73.860);
+        index.refresh();
+    }
+
+    @Test
+    void providerGoingOfflineDisappearsBeforeTheNextRebuild() {
+        index.providerChanged(profile(1L, false, 18.520, 73.860));
+
+        assertThat(ids(index.nearest(18.52, 73.86, 2, 50, null))).containsExactly(2L, 3L);
+        assertThat(ids(index.within(18.52, 73.86, 50, null))).containsExactly(2L, 3L);
+    }
+
+    @Test
+    void movedAndNewProvidersAreMergedByDistance() {
+        // 3 moves next to the query point, 4 comes online in between
+        index.providerChanged(profile(3L, true, 18.5201, 73.860));
+        index.providerChanged(profile(4L, true, 18.525, 73.860));
+
+        assertThat(ids(index.nearest(18.52, 73.86, 3, 50, null))).containsExactly(1L, 3L, 4L);
+        assertThat(ids(index.nearest(18.52, 73.86, 10, 50, id -> id != 4))).containsExactly(1L, 3L, 2L);
+    }
+
+    @Test
+    void rebuildReplacesTheOverlay() {
+        index.providerChanged(profile(1L, false, 18.520, 73.860));
+        online.remove(0);
+        located(4L, 18.525, 73.860);
+        index.refresh();
+
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(ids(index.nearest(18.52, 73.86, 10, 50, null))).containsExactly(4L, 2L, 3L);
+
+        // a provider coming back after the rebuild is visible again through the overlay
+        index.providerChanged(profile(1L, true, 18.520, 73.860));
+        assertThat(ids(index.nearest(18.52, 73.86, 1, 50, null))).containsExactly(1L);
+    }
+
+    @Test
+    void assignmentCandidatesStayWithinTheAssignRadius() {
+        index.providerChanged(profile(5L, true, 18.80, 73.86));
+
+        // provider 5 is ~31 km away, beyond geo.assign.radius-km but inside geo.nearby.radius-km
+        assertThat(ids(index.assignmentCandidates(18.52, 73.86, null))).containsExactly(1L, 2L, 3L);
+        assertThat(ids(index.nearby(18.60, 73.86, null, null))).contains(5L);
+    }
+
+    private void located(long id, double lat, double lon) {
+        online.add(new ProviderProfileRepository.ProviderLocationProjection() {
+            public Long getProviderId() { return id; }
+            public Double getLatitude() { return lat; }
+            public Double getLongitude() { return lon; }
+        });
+    }
+
+    private static ProviderProfile profile(long id, boolean isOnline, double lat, double lon) {
+        ProviderProfile p = new ProviderProfile();
+        p.setUserId(id);
+        p.setApproved(true);
+        p.setOnline(isOnline);
+        p.setLatitude(lat);
+        p.setLongitude(lon);
+        return p;
+    }
+
+    private static List<Long> ids(List<GeoMatch> matches) {
+        return matches.stream().map(GeoMatch::providerId).toList();
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.ServiceBooking.geo;
+
+import com.example.ServiceBooking.providermanagement.ProviderServiceAreaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Rebuilds driven by {@link ServiceAreaIndex#providerChanged()}, against a repository returning {@link #areas}.
+ */
+class ServiceAreaIndexTest {
+
+    private final List<ProviderServiceAreaRepository.AreaProjection> areas = new ArrayList<>();
+    private final List<ProviderServiceAreaRepository.OfferingProjection> offerings = new ArrayList<>();
+    private ProviderServiceAreaRepository repo;
+    private ServiceAreaIndex index;
+
+    @BeforeEach
+    void setUp() {
+        repo = mock(ProviderServiceAreaRepository.class);
+        when(repo.findOnlineProviderAreas()).thenAnswer(inv -> List.copyOf(areas));
+        when(repo.findOnlineAreaProviderOfferings()).thenAnswer(inv -> List.copyOf(offerings));
+        index = new ServiceAreaIndex(repo, 600_000);
+
+        area(10L, "411");
+        offers(10L, 1L);
+        index.refreshIfStale();
+    }
+
+    @Test
+    void changeIsPickedUpByTheNextRefresh() {
+        area(20L, "411014");
+        offers(20L, 1L);
+        assertThat(index.providersCovering("411014", 1L)).containsExactly(10L);
+
+        index.providerChanged();
+        index.refreshIfStale();
+
+        assertThat(index.providersCovering("411014", 1L)).containsExactly(10L, 20L);
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void droppedAreaOrServiceDisappearsAfterRebuild() {
+        areas.clear();
+        area(10L, "412");
+        index.providerChanged();
+        index.refreshIfStale();
+
+        assertThat(index.providersCovering("411014", 1L)).isEmpty();
+        assertThat(index.providersCovering("412207", 1L)).containsExactly(10L);
+
+        offerings.clear();
+        index.providerChanged();
+        index.refreshIfStale();
+
+        assertThat(index.providersCovering("412207", 1L)).isEmpty();
+        assertThat(index.providersCovering("412207", null)).containsExactly(10L);
+    }
+
+    @Test
+    void noChangeNoRebuild() {
+        index.refreshIfStale();
+        index.refreshIfStale();
+
+        verify(repo, times(1)).findOnlineProviderAreas();
+    }
+
+    @Test
+    void oldIndexIsRebuiltEvenWithoutChanges() {
+        index = new ServiceAreaIndex(repo, 0);
+        index.refreshIfStale();
+        area(20L, "411014");
+        offers(20L, 1L);
+        index.refreshIfStale();
+
+        assertThat(index.providersCovering("411014", 1L)).containsExactly(10L, 20L);
+    }
+
+    private void area(long providerId, String prefix) {
+        areas.add(new ProviderServiceAreaRepository.AreaProjection() {
+            public Long getProviderId() { return providerId; }
+            public String getPincodePrefix() { return prefix; }
+        });
+    }
+
+    private void offers(long providerId, long subServiceId) {
+        offerings.add(new ProviderServiceAreaRepository.OfferingProjection() {
+            public Long getProviderId() { return providerId; }
+            public Long getSubServiceId() { return subServiceId; }
+        });
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.ServiceBooking.geo;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ServiceAreaTrieTest {
+
+    // provider 10: all of 411xxx; 20: exactly 411014; 30: 4110xx and 412xxx; 40: exactly 411015
+    private final ServiceAreaTrie trie = ServiceAreaTrie.build(
+            new long[]{10, 20, 30, 30, 40},
+            new String[]{"411", "411014", "4110", "412", "411015"},
+            new long[]{10, 20, 30, 40, 10, 99},
+            new long[]{1, 1, 1, 2, 2, 1});
+
+    @Test
+    void prefixAndExactAreasBothCover() {
+        assertThat(trie.providersCovering("411014", null)).containsExactly(10L, 20L, 30L);
+        assertThat(trie.providersCovering("411015", null)).containsExactly(10L, 30L, 40L);
+    }
+
+    @Test
+    void exactPincodeDoesNotCoverItsNeighbours() {
+        assertThat(trie.providersCovering("411016", null)).containsExactly(10L, 30L);
+        // a shorter prefix of a declared pincode is not covered by it
+        assertThat(trie.providersCovering("41101", null)).containsExactly(10L, 30L);
+    }
+
+    @Test
+    void prefixesOnlyCoverTheirOwnBranch() {
+        assertThat(trie.providersCovering("411101", null)).containsExactly(10L);
+        assertThat(trie.providersCovering("412207", null)).containsExactly(30L);
+        assertThat(trie.providersCovering("560001", null)).isEmpty();
+    }
+
+    @Test
+    void serviceFilterKeepsOnlyProvidersOfferingIt() {
+        assertThat(trie.providersCovering("411014", 1L)).containsExactly(10L, 20L, 30L);
+        assertThat(trie.providersCovering("411015", 2L)).containsExactly(10L, 40L);
+        assertThat(trie.providersCovering("411014", 3L)).isEmpty();
+        // 99 offers service 1 but declared no area
+        assertThat(trie.providers()).isEqualTo(4);
+    }
+
+    @Test
+    void nonDigitInputStopsAtTheLastMatchedNode() {
+        assertThat(trie.providersCovering("411-014", null)).containsExactly(10L);
+        assertThat(trie.providersCovering("", null)).isEmpty();
+        assertThat(ServiceAreaTrie.empty().providersCovering("411014", null)).isEmpty();
+    }
+}
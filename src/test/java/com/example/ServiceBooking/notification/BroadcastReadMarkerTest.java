@@ -0,0 +1,90 @@
+package com.example.ServiceBooking.notification;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BroadcastReadMarkerTest {
+
+    @Test
+    void everythingUpToReadThroughIsRead() {
+        BroadcastReadMarker marker = new BroadcastReadMarker();
+        marker.advanceTo(10);
+
+        assertThat(marker.hasRead(1)).isTrue();
+        assertThat(marker.hasRead(10)).isTrue();
+        assertThat(marker.hasRead(11)).isFalse();
+        assertThat(marker.readAbove()).isZero();
+        assertThat(marker.getReadBits()).isNull();
+    }
+
+    @Test
+    void readsAheadOfReadThroughAreKeptAsBits() {
+        BroadcastReadMarker marker = new BroadcastReadMarker();
+        marker.advanceTo(10);
+
+        marker.markRead(12);
+        marker.markRead(15);
+        marker.markRead(15);
+
+        assertThat(marker.hasRead(11)).isFalse();
+        assertThat(marker.hasRead(12)).isTrue();
+        assertThat(marker.hasRead(15)).isTrue();
+        assertThat(marker.readAbove()).isEqualTo(2);
+        assertThat(marker.getReadThrough()).isEqualTo(10);
+    }
+
+    @Test
+    void advancingShiftsTheBitsAndDropsTheOnesPassed() {
+        BroadcastReadMarker marker = new BroadcastReadMarker();
+        marker.markRead(2);
+        marker.markRead(3);
+        marker.markRead(7);
+
+        // the leading run 1..3 once 1 is read too
+        marker.markRead(1);
+        marker.advanceTo(3);
+
+        assertThat(marker.getReadThrough()).isEqualTo(3);
+        assertThat(marker.readAbove()).isEqualTo(1);
+        assertThat(marker.hasRead(6)).isFalse();
+        assertThat(marker.hasRead(7)).isTrue();
+
+        // read-all past the last bit leaves an empty bitmap
+        marker.advanceTo(20);
+        assertThat(marker.readAbove()).isZero();
+        assertThat(marker.getReadBits()).isNull();
+        assertThat(marker.hasRead(21)).isFalse();
+    }
+
+    @Test
+    void readFarAheadGivesUpTheOldestRatherThanGrowingTheRow() {
+        BroadcastReadMarker marker = new BroadcastReadMarker();
+        marker.markRead(5);
+        long far = 5 + BroadcastReadMarker.MAX_BITS + 100;
+
+        marker.markRead(far);
+
+        // the bitmap stays within MAX_BITS: everything below the new window counts as read
+        assertThat(marker.getReadThrough()).isEqualTo(far - BroadcastReadMarker.MAX_BITS);
+        assertThat(marker.hasRead(6)).isTrue();
+        assertThat(marker.hasRead(far - 1)).isFalse();
+        assertThat(marker.hasRead(far)).isTrue();
+        assertThat(marker.readAbove()).isEqualTo(1);
+        assertThat(marker.getReadBits().length).isLessThanOrEqualTo(BroadcastReadMarker.MAX_BITS / 8);
+        // ids past the window are never reported read
+        assertThat(marker.hasRead(far + BroadcastReadMarker.MAX_BITS)).isFalse();
+    }
+
+    @Test
+    void lastBitOfTheWindowFitsWithoutAdvancing() {
+        BroadcastReadMarker marker = new BroadcastReadMarker();
+        marker.advanceTo(100);
+
+        marker.markRead(100 + BroadcastReadMarker.MAX_BITS);
+
+        assertThat(marker.getReadThrough()).isEqualTo(100);
+        assertThat(marker.hasRead(100 + BroadcastReadMarker.MAX_BITS)).isTrue();
+        assertThat(marker.getReadBits().length).isEqualTo(BroadcastReadMarker.MAX_BITS / 8);
+    }
+}
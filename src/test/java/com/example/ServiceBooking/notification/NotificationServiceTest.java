@@ -0,0 +1,251 @@
+package com.example.ServiceBooking.notification;
+
+import com.example.ServiceBooking.auth.Role;
+import com.example.ServiceBooking.auth.User;
+import com.example.ServiceBooking.auth.UserRepository;
+import com.example.ServiceBooking.notification.stream.NotificationStreamHub;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unread counters and broadcast email retries against the real tables on H2 (MySQL mode), including
+ * the native seed query. Email and the SSE hub are mocked out.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:notifications;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class NotificationServiceTest {
+
+    private static final Long USER = 42L;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private NotificationRepository repo;
+
+    @Autowired
+    private NotificationUnreadCounterRepository counterRepo;
+
+    @Autowired
+    private BroadcastNotificationRepository broadcastRepo;
+
+    @Autowired
+    private BroadcastReadMarkerRepository markerRepo;
+
+    @Autowired
+    private BroadcastEmailRetryRepository retryRepo;
+
+    @Autowired
+    private NotificationArchiveRepository archiveRepo;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    private NotificationEmailSender emailSender;
+    private NotificationService service;
+
+    @BeforeEach
+    void setUp() {
+        emailSender = mock(NotificationEmailSender.class);
+        service = new NotificationService(repo, counterRepo, broadcastRepo, markerRepo, retryRepo, archiveRepo, userRepo,
+                emailSender, new NotificationMetrics(new SimpleMeterRegistry()),
+                mock(NotificationStreamHub.class), new NotificationWindows(0, 120, 300, 300, 900),
+                new NotificationLanes(50, 50, 10));
+    }
+
+    @Test
+    void newAndReopenedNotificationsIncrementTheCounter() {
+        service.createSystemNotification(USER, "Welcome");
+        service.upsertBookingNotification(USER, 7L, "Booking created");
+        // same booking row, still unread: no change
+        service.upsertBookingNotification(USER, 7L, "Booking accepted");
+        assertThat(unread(USER)).isEqualTo(2);
+
+        service.markAsRead(USER, bookingRow(7L));
+        assertThat(unread(USER)).isEqualTo(1);
+
+        // a read row that gets a new message is unread again
+        service.upsertBookingNotification(USER, 7L, "Job started");
+        assertThat(unread(USER)).isEqualTo(2);
+        assertThat(counter(USER)).isEqualTo(repo.countByUserIdAndReadFalse(USER));
+    }
+
+    @Test
+    void markingTheSameRowReadTwiceDecrementsOnce() {
+        service.upsertBookingNotification(USER, 7L, "Booking created");
+        service.upsertBookingNotification(USER, 8L, "Booking created");
+        Long id = bookingRow(7L);
+
+        service.markAsRead(USER, id);
+        service.markAsRead(USER, id);
+
+        assertThat(unread(USER)).isEqualTo(1);
+    }
+
+    @Test
+    void markAllReadClearsTheCounter() {
+        service.createSystemNotification(USER, "One");
+        service.createSystemNotification(USER, "Two");
+        service.createSystemNotification(USER, "Three");
+        service.createSystemNotification(7L, "Someone else");
+
+        assertThat(service.markAllAsRead(USER).marked()).isEqualTo(3);
+        assertThat(unread(USER)).isZero();
+        assertThat(service.markAllAsRead(USER).marked()).isZero();
+        assertThat(unread(USER)).isZero();
+        assertThat(unread(7L)).isEqualTo(1);
+    }
+
+    @Test
+    void firstChangeSeedsTheCounterFromExistingRows() {
+        // rows from before counters existed: no counter row, so the badge is a count
+        legacyUnread(USER, 3);
+        entityManager.flush();
+        assertThat(counterRepo.findById(USER)).isEmpty();
+        assertThat(unread(USER)).isEqualTo(3);
+
+        // the seed counts this transaction's new row as well, and does not add the delta on top
+        service.createSystemNotification(USER, "New");
+        assertThat(counter(USER)).isEqualTo(4);
+
+        // a decrement can be the first change too
+        legacyUnread(7L, 2);
+        service.markAsRead(7L, repo.findByUserIdOrderByCreatedAtDesc(7L,
+                PageRequest.of(0, 1)).getContent().get(0).getNotificationId());
+        assertThat(counter(7L)).isEqualTo(1);
+    }
+
+    @Test
+    void failedBroadcastRecipientIsRetriedAlone() {
+        admin("a@example.com");
+        Long flaky = admin("b@example.com");
+        broadcast("Platform maintenance tonight");
+        doThrow(new RuntimeException("SMTP down")).when(emailSender).send(eq("b@example.com"), anyString(), anyString());
+
+        assertThat(service.dispatchPendingNotifications()).isEqualTo(1);
+        entityManager.clear();
+        assertThat(broadcastRepo.findAll()).allMatch(BroadcastNotification::isSent);
+        List<BroadcastEmailRetry> retries = retryRepo.findAll();
+        assertThat(retries).singleElement().satisfies(r -> {
+            assertThat(r.getUserId()).isEqualTo(flaky);
+            assertThat(r.getAttempts()).isEqualTo(1);
+        });
+
+        // not due yet
+        service.dispatchPendingNotifications();
+        verify(emailSender, times(1)).send(eq("a@example.com"), anyString(), anyString());
+        verify(emailSender, times(1)).send(eq("b@example.com"), anyString(), anyString());
+
+        reset(emailSender);
+        makeRetriesDue();
+        assertThat(service.dispatchPendingNotifications()).isEqualTo(1);
+
+        verify(emailSender).send(eq("b@example.com"), anyString(), contains("Platform maintenance tonight"));
+        verify(emailSender, never()).send(eq("a@example.com"), anyString(), anyString());
+        assertThat(retryRepo.count()).isZero();
+    }
+
+    @Test
+    void broadcastEmailIsDroppedAfterTheLastAttempt() {
+        admin("b@example.com");
+        broadcast("Platform maintenance tonight");
+        doThrow(new RuntimeException("SMTP down")).when(emailSender).send(anyString(), anyString(), anyString());
+
+        service.dispatchPendingNotifications();
+        for (int attempt = 2; attempt < 5; attempt++) {
+            makeRetriesDue();
+            service.dispatchPendingNotifications();
+            assertThat(retryRepo.findAll()).singleElement().extracting(BroadcastEmailRetry::getAttempts).isEqualTo(attempt);
+        }
+        makeRetriesDue();
+        service.dispatchPendingNotifications();
+
+        assertThat(retryRepo.count()).isZero();
+        verify(emailSender, times(5)).send(eq("b@example.com"), anyString(), anyString());
+    }
+
+    // =========================
+    // HELPERS
+    // =========================
+
+    private long unread(Long userId) {
+        entityManager.flush();
+        entityManager.clear();
+        return service.unreadCount(userId).unread();
+    }
+
+    private long counter(Long userId) {
+        entityManager.flush();
+        entityManager.clear();
+        return counterRepo.findById(userId).orElseThrow().getUnreadCount();
+    }
+
+    private Long bookingRow(Long bookingId) {
+        return repo.findByUserIdAndBookingId(USER, bookingId).orElseThrow().getNotificationId();
+    }
+
+    private Long admin(String email) {
+        User u = new User();
+        u.setName(email);
+        u.setEmail(email);
+        u.setRole(Role.ADMIN);
+        return userRepo.save(u).getId();
+    }
+
+    private void broadcast(String message) {
+        LocalDateTime now = LocalDateTime.now();
+        BroadcastNotification b = new BroadcastNotification();
+        b.setTargetRole(Role.ADMIN);
+        b.setMessage(message);
+        b.setCategory(NotificationCategory.SYSTEM);
+        b.setCreatedAt(now.minusMinutes(10));
+        b.setDeliverAfter(now.minusMinutes(5));
+        broadcastRepo.save(b);
+    }
+
+    private void makeRetriesDue() {
+        retryRepo.findAll().forEach(r -> r.setNextAttemptAt(LocalDateTime.now().minusSeconds(1)));
+        entityManager.flush();
+    }
+
+    private void legacyUnread(Long userId, int count) {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < count; i++) {
+            Notification n = new Notification();
+            n.setUserId(userId);
+            n.setMessage("Old " + i);
+            n.setCategory(NotificationCategory.SYSTEM);
+            n.setCreatedAt(now.minusDays(1).plusMinutes(i));
+            n.setUpdatedAt(now.minusDays(1).plusMinutes(i));
+            n.setSent(true);
+            repo.save(n);
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.example.ServiceBooking.notification.stream;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Replay on reconnect and eviction of clients that stop reading, with emitters that record
+ * (or block on) what the sender pool writes.
+ */
+class NotificationStreamHubTest {
+
+    private MeterRegistry registry;
+    private NotificationStreamHub hub;
+
+    @AfterEach
+    void tearDown() {
+        hub.shutdown();
+    }
+
+    @Test
+    void reconnectWithLastEventIdReplaysWhatWasMissed() {
+        hub(64, 50, 4);
+        RecordingEmitter first = new RecordingEmitter();
+        hub.connect(42L, null, first);
+        hub.publish(42L, "notification", "one");
+        hub.publish(42L, "notification", "two");
+        hub.publish(42L, "notification", "three");
+        await(() -> first.events().size() == 3);
+
+        RecordingEmitter second = new RecordingEmitter();
+        hub.connect(42L, first.ids().get(0), second);
+        await(() -> second.events().size() == 2);
+
+        assertThat(second.names()).containsExactly("notification", "notification");
+        assertThat(second.ids()).containsExactlyElementsOf(first.ids().subList(1, 3));
+    }
+
+    @Test
+    void firstConnectGetsNoReplay() {
+        hub(64, 50, 4);
+        hub.publish(42L, "notification", "before");
+
+        RecordingEmitter emitter = new RecordingEmitter();
+        hub.connect(42L, null, emitter);
+        hub.publish(42L, "notification", "after");
+        await(() -> emitter.events().size() == 1);
+
+        assertThat(emitter.events().get(0)).contains("after");
+    }
+
+    @Test
+    void lastEventIdOlderThanTheReplayBufferGetsResync() {
+        hub(64, 2, 4);
+        RecordingEmitter first = new RecordingEmitter();
+        hub.connect(42L, null, first);
+        for (int i = 0; i < 5; i++) {
+            hub.publish(42L, "notification", "n" + i);
+        }
+        await(() -> first.events().size() == 5);
+
+        RecordingEmitter second = new RecordingEmitter();
+        hub.connect(42L, first.ids().get(0), second);
+        await(() -> second.events().size() == 1);
+
+        assertThat(second.names()).containsExactly(NotificationStreamHub.RESYNC);
+    }
+
+    @Test
+    void lastEventIdFromBeforeARestartGetsResync() {
+        hub(64, 50, 4);
+        RecordingEmitter emitter = new RecordingEmitter();
+        // an id handed out by an earlier process: this node's buffer for the user starts empty
+        hub.connect(42L, "1000", emitter);
+        await(() -> emitter.events().size() == 1);
+
+        assertThat(emitter.names()).containsExactly(NotificationStreamHub.RESYNC);
+    }
+
+    @Test
+    void stalledClientIsClosedAndOthersKeepReceiving() {
+        // one sender thread: without the watchdog the stalled write would starve every other stream
+        hub(64, 50, 1, 200);
+        RecordingEmitter stalled = new RecordingEmitter();
+        stalled.stall();
+        RecordingEmitter healthy = new RecordingEmitter();
+        hub.connect(1L, null, stalled);
+        hub.connect(2L, null, healthy);
+
+        hub.publish(1L, "notification", "stuck");
+        await(stalled::writing);
+        hub.publish(2L, "notification", "delivered");
+
+        await(() -> healthy.events().size() == 1);
+        assertThat(counter("notification.stream.stalls")).isEqualTo(1);
+        assertThat(gauge("notification.stream.connections")).isEqualTo(1);
+        assertThat(gauge("notification.stream.stalled-senders")).isEqualTo(1);
+        assertThat(stalled.completed).isFalse();
+
+        // the write finally returns: the response is ended and the extra sender goes away
+        stalled.resume();
+        await(() -> stalled.completed);
+        await(() -> gauge("notification.stream.stalled-senders") == 0);
+    }
+
+    @Test
+    void clientThatFallsTooFarBehindIsClosed() {
+        hub(2, 50, 4);
+        RecordingEmitter slow = new RecordingEmitter();
+        slow.stall();
+        hub.connect(42L, null, slow);
+
+        hub.publish(42L, "notification", "in flight");
+        await(slow::writing);
+        // two fit in the buffer, the third overflows it; publishing never waits for the stalled write
+        hub.publish(42L, "notification", "queued 1");
+        hub.publish(42L, "notification", "queued 2");
+        hub.publish(42L, "notification", "overflow");
+
+        assertThat(counter("notification.stream.overflows")).isEqualTo(1);
+        assertThat(gauge("notification.stream.connections")).isZero();
+
+        slow.resume();
+        await(() -> slow.completed);
+        // nothing queued behind the overflow was written
+        assertThat(slow.events()).hasSize(1);
+    }
+
+    // =========================
+    // HELPERS
+    // =========================
+
+    private void hub(int bufferSize, int replaySize, int senderThreads) {
+        hub(bufferSize, replaySize, senderThreads, 60_000);
+    }
+
+    private void hub(int bufferSize, int replaySize, int senderThreads, long sendTimeoutMillis) {
+        registry = new SimpleMeterRegistry();
+        hub = new NotificationStreamHub(registry, bufferSize, replaySize, 5, 60_000, 3_600, 10,
+                senderThreads, sendTimeoutMillis);
+    }
+
+    private double counter(String name) {
+        return registry.get(name).counter().count();
+    }
+
+    private double gauge(String name) {
+        return registry.get(name).gauge().value();
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Condition not met within 5s");
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(ex);
+            }
+        }
+    }
+
+    /**
+     * Records each written event as its SSE text; {@link #stall()} makes the next write block, ignoring
+     * interrupts, the way a write to a client that stopped reading does.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final List<String> events = new CopyOnWriteArrayList<>();
+        private volatile CountDownLatch gate;
+        private volatile boolean writing;
+        volatile boolean completed;
+
+        void stall() {
+            gate = new CountDownLatch(1);
+        }
+
+        void resume() {
+            gate.countDown();
+        }
+
+        boolean writing() {
+            return writing;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            String text = builder.build().stream()
+                    .map(ResponseBodyEmitter.DataWithMediaType::getData)
+                    .map(Object::toString)
+                    .collect(Collectors.joining());
+            if (text.startsWith(":")) return; // heartbeat
+            writing = true;
+            CountDownLatch g = gate;
+            if (g != null) {
+                awaitUninterruptibly(g);
+            }
+            events.add(text);
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        List<String> events() {
+            return events;
+        }
+
+        List<String> ids() {
+            return field("id:");
+        }
+
+        List<String> names() {
+            return field("event:");
+        }
+
+        private List<String> field(String prefix) {
+            return events.stream()
+                    .flatMap(e -> e.lines().filter(l -> l.startsWith(prefix)).limit(1))
+                    .map(l -> l.substring(prefix.length()))
+                    .toList();
+        }
+
+        private static void awaitUninterruptibly(CountDownLatch latch) {
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    if (latch.await(10, TimeUnit.SECONDS)) break;
+                    throw new IllegalStateException("Stalled write was never resumed");
+                } catch (InterruptedException ex) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
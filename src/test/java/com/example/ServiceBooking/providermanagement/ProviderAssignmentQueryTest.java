@@ -0,0 +1,144 @@
+package com.example.ServiceBooking.providermanagement;
+
+import com.example.ServiceBooking.auth.Role;
+import com.example.ServiceBooking.auth.User;
+import com.example.ServiceBooking.servicecatalog.ServiceCategory;
+import com.example.ServiceBooking.servicecatalog.SubService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The database re-check auto-assignment runs on candidates from the in-memory indexes.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:assignment;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ProviderAssignmentQueryTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private ProviderProfileRepository profileRepo;
+
+    private SubService plumbing;
+    private SubService painting;
+
+    @BeforeEach
+    void setUp() {
+        ServiceCategory home = new ServiceCategory();
+        home.setName("Home");
+        em.persist(home);
+        plumbing = subService(home, "Plumbing");
+        painting = subService(home, "Painting");
+    }
+
+    @Test
+    void keepsOnlyApprovedOnlineProvidersStillOfferingTheService() {
+        Long offering = provider("a", "Pune", true, true, plumbing);
+        Long otherService = provider("b", "Pune", true, true, painting);
+        Long offline = provider("c", "Pune", true, false, plumbing);
+        Long unapproved = provider("d", "Pune", false, true, plumbing);
+        em.flush();
+        em.clear();
+
+        List<Long> ids = List.of(offering, otherService, offline, unapproved);
+
+        assertThat(profileRepo.findAssignableProviderIdsIn(ids, plumbing.getId(), null, null))
+                .containsExactly(offering);
+    }
+
+    @Test
+    void cityIsCheckedWhenGiven() {
+        Long pune = provider("a", "Pune", true, true, plumbing);
+        Long mumbai = provider("b", "Mumbai", true, true, plumbing);
+        em.flush();
+        em.clear();
+
+        List<Long> ids = List.of(pune, mumbai);
+
+        assertThat(profileRepo.findAssignableProviderIdsIn(ids, plumbing.getId(), "pune", null)).containsExactly(pune);
+        assertThat(profileRepo.findAssignableProviderIdsIn(ids, plumbing.getId(), null, null))
+                .containsExactlyInAnyOrder(pune, mumbai);
+    }
+
+    @Test
+    void pincodeMustStillBeCoveredWhenGiven() {
+        Long wholeCity = provider("a", "Pune", true, true, plumbing);
+        area(wholeCity, "411");
+        Long exact = provider("b", "Pune", true, true, plumbing);
+        area(exact, "411014");
+        Long elsewhere = provider("c", "Pune", true, true, plumbing);
+        area(elsewhere, "4110");
+        area(elsewhere, "412");
+        Long droppedArea = provider("d", "Pune", true, true, plumbing);
+        em.flush();
+        em.clear();
+
+        List<Long> ids = List.of(wholeCity, exact, elsewhere, droppedArea);
+
+        assertThat(profileRepo.findAssignableProviderIdsIn(ids, plumbing.getId(), null, "411014"))
+                .containsExactlyInAnyOrder(wholeCity, exact, elsewhere);
+        assertThat(profileRepo.findAssignableProviderIdsIn(ids, plumbing.getId(), null, "411020"))
+                .containsExactlyInAnyOrder(wholeCity, elsewhere);
+        assertThat(profileRepo.findAssignableProviderIdsIn(ids, plumbing.getId(), null, "413001")).isEmpty();
+        // the service is checked together with the area
+        assertThat(profileRepo.findAssignableProviderIdsIn(ids, painting.getId(), null, "411014")).isEmpty();
+    }
+
+    // =========================
+    // FIXTURES
+    // =========================
+
+    private SubService subService(ServiceCategory category, String name) {
+        SubService s = new SubService();
+        s.setName(name);
+        s.setCategory(category);
+        return em.persist(s);
+    }
+
+    private void area(Long providerId, String prefix) {
+        ProviderServiceArea a = new ProviderServiceArea();
+        a.setProviderId(providerId);
+        a.setPincodePrefix(prefix);
+        em.persist(a);
+    }
+
+    private Long provider(String name, String city, boolean approved, boolean online, SubService... offers) {
+        User u = new User();
+        u.setName(name);
+        u.setEmail(name + "@example.com");
+        u.setCity(city);
+        u.setRole(Role.PROVIDER);
+        em.persist(u);
+
+        ProviderProfile p = new ProviderProfile();
+        p.setUser(u);
+        p.setCity(city);
+        p.setApproved(approved);
+        p.setOnline(online);
+        em.persist(p);
+
+        for (SubService s : offers) {
+            ProviderService ps = new ProviderService();
+            ps.setProvider(p);
+            ps.setSubService(s);
+            em.persist(ps);
+        }
+        return u.getId();
+    }
+}
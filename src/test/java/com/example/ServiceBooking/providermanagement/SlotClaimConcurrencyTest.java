@@ -0,0 +1,146 @@
+package com.example.ServiceBooking.providermanagement;
+
+import com.example.ServiceBooking.bookings.SlotUnavailableException;
+import com.example.ServiceBooking.common.GlobalExceptionHandler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two bookings racing for one slot on H2 (MySQL mode), each in its own transaction as bookSlot runs.
+ * The first claim's row lock is held until its transaction ends, so the second waits and then loses.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:slotclaim;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SlotClaimConcurrencyTest {
+
+    private static final Long PROVIDER = 5L;
+    private static final LocalDate DATE = LocalDate.of(2026, 11, 2);
+    private static final LocalTime START = LocalTime.of(10, 0);
+    private static final LocalTime END = LocalTime.of(11, 0);
+
+    @Autowired
+    private ProviderAvailabilityRepository availabilityRepo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ExecutorService pool = Executors.newFixedThreadPool(2);
+
+    @BeforeEach
+    void setUp() {
+        ProviderAvailability slot = new ProviderAvailability();
+        slot.setProviderId(PROVIDER);
+        slot.setDate(DATE);
+        slot.setStartTime(START);
+        slot.setEndTime(END);
+        slot.setStatus(AvailabilityStatus.AVAILABLE);
+        availabilityRepo.save(slot);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+        availabilityRepo.deleteAllInBatch();
+    }
+
+    @Test
+    void concurrentClaimsOfOneSlotHaveOneWinnerAndOneConflict() throws Exception {
+        CountDownLatch firstClaimed = new CountDownLatch(1);
+        CountDownLatch commitFirst = new CountDownLatch(1);
+
+        CompletableFuture<HttpStatus> first = CompletableFuture.supplyAsync(() -> book(() -> {
+            firstClaimed.countDown();
+            await(commitFirst);
+        }), pool);
+        assertThat(firstClaimed.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<HttpStatus> second = CompletableFuture.supplyAsync(() -> book(() -> { }), pool);
+
+        // the first transaction still holds the row lock its UPDATE took
+        Thread.sleep(300);
+        assertThat(second).isNotDone();
+
+        commitFirst.countDown();
+        assertThat(first.get(10, TimeUnit.SECONDS)).isEqualTo(HttpStatus.OK);
+        assertThat(second.get(10, TimeUnit.SECONDS)).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(availabilityRepo.findByProviderIdAndDateAndStatusOrderByStartTimeAsc(
+                PROVIDER, DATE, AvailabilityStatus.BOOKED)).hasSize(1);
+    }
+
+    @Test
+    void rolledBackClaimLeavesTheSlotForTheNextBooking() throws Exception {
+        new TransactionTemplate(transactionManager).executeWithoutResult(tx -> {
+            assertThat(availabilityRepo.claimSlot(PROVIDER, DATE, START, END)).isEqualTo(1);
+            // a later step of the booking failed
+            tx.setRollbackOnly();
+        });
+
+        HttpStatus next = CompletableFuture.supplyAsync(() -> book(() -> { }), pool).get(10, TimeUnit.SECONDS);
+
+        assertThat(next).isEqualTo(HttpStatus.OK);
+    }
+
+    // =========================
+    // HELPERS
+    // =========================
+
+    /**
+     * The claim step of bookSlot in its own transaction; {@code afterClaim} runs before commit.
+     *
+     * @return the status the request would be answered with
+     */
+    private HttpStatus book(Runnable afterClaim) {
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(tx -> {
+                if (availabilityRepo.claimSlot(PROVIDER, DATE, START, END) == 0) {
+                    throw new SlotUnavailableException("Slot not available");
+                }
+                afterClaim.run();
+            });
+            return HttpStatus.OK;
+        } catch (SlotUnavailableException ex) {
+            return HttpStatus.valueOf(new GlobalExceptionHandler()
+                    .handleSlotUnavailable(ex, new MockHttpServletRequest("POST", "/bookings/slot"))
+                    .getStatusCode().value());
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(10, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Latch not released");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+}
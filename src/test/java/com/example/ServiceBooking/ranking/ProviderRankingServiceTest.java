@@ -0,0 +1,207 @@
+package com.example.ServiceBooking.ranking;
+
+import com.example.ServiceBooking.bookings.Booking;
+import com.example.ServiceBooking.bookings.BookingRepository;
+import com.example.ServiceBooking.bookings.dto.BookingStatus;
+import com.example.ServiceBooking.ratings.RatingReview;
+import com.example.ServiceBooking.ratings.RatingReviewRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Rank formula over real ratings and bookings on H2 (MySQL mode):
+ * score = (prior * platformMean + decayedStars) / (prior + decayedWeight) * (1 - (cancelled + 1) / (completed + cancelled + 10)).
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ranking;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ProviderRankingServiceTest {
+
+    private static final double HALF_LIFE_DAYS = 90;
+    private static final double PRIOR_WEIGHT = 5;
+    // no cancellations and no completed jobs: (0 + 1) / (0 + 10)
+    private static final double NO_HISTORY = 0.9;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private RatingReviewRepository ratingRepo;
+
+    @Autowired
+    private BookingRepository bookingRepo;
+
+    private ProviderRankingService ranking;
+    private long nextBookingId = 1;
+
+    @BeforeEach
+    void setUp() {
+        ranking = service();
+    }
+
+    @Test
+    void fewRatingsAreShrunkTowardsThePlatformMean() {
+        LocalDateTime now = LocalDateTime.now();
+        rate(1L, 5, now);
+        rateMany(2L, 5, 10, now);
+        rateMany(3L, 1, 10, now);
+
+        ranking.refresh();
+
+        double mean = (5 + 50 + 10) / 21.0;
+        assertThat((double) ranking.score(1L)).isCloseTo(bayes(mean, 5, 1) * NO_HISTORY, within(1e-3));
+        assertThat((double) ranking.score(2L)).isCloseTo(bayes(mean, 50, 10) * NO_HISTORY, within(1e-3));
+        assertThat((double) ranking.score(3L)).isCloseTo(bayes(mean, 10, 10) * NO_HISTORY, within(1e-3));
+        // a provider with no history gets the platform mean
+        assertThat((double) ranking.score(99L)).isCloseTo(mean * NO_HISTORY, within(1e-3));
+        assertThat(ranking.rank(List.of(99L, 1L, 3L, 2L))).containsExactly(2L, 1L, 99L, 3L);
+        assertThat(ranking.topK(List.of(99L, 1L, 3L, 2L), 2)).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void starsLoseHalfTheirWeightPerHalfLife() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime twoHalfLives = now.minusDays(180);
+        rate(1L, 1, twoHalfLives);
+        rate(1L, 5, now);
+        rate(2L, 5, twoHalfLives);
+        rate(2L, 1, now);
+
+        ranking.refresh();
+
+        double mean = (0.25 + 5 + 1.25 + 1) / 2.5;
+        assertThat((double) ranking.score(1L)).isCloseTo(bayes(mean, 0.25 + 5, 1.25) * NO_HISTORY, within(1e-3));
+        assertThat((double) ranking.score(2L)).isCloseTo(bayes(mean, 1.25 + 1, 1.25) * NO_HISTORY, within(1e-3));
+        assertThat(ranking.score(1L)).isGreaterThan(ranking.score(2L));
+    }
+
+    @Test
+    void onlyTheProvidersOwnCancellationsCountAgainstThem() {
+        LocalDateTime lastMonth = LocalDateTime.now().minusMonths(1);
+        for (Long provider : List.of(1L, 2L, 3L)) {
+            rate(provider, 4, lastMonth);
+            jobs(provider, BookingStatus.COMPLETED, null, 4, lastMonth);
+        }
+        // customer cancellations are not the provider's
+        jobs(1L, BookingStatus.CANCELLED, 11L, 4, lastMonth);
+        jobs(2L, BookingStatus.CANCELLED, 2L, 4, lastMonth);
+        // legacy rows without a canceller don't count either
+        jobs(3L, BookingStatus.CANCELLED, null, 4, lastMonth);
+
+        ranking.refresh();
+
+        assertThat(ranking.score(1L)).isEqualTo(ranking.score(3L));
+        assertThat(ranking.score(2L)).isLessThan(ranking.score(1L));
+        // same decay on both counts: 4 completed and 4 cancelled weigh the same
+        double rate1 = 1 - ranking.score(1L) / bayes(4, 4, 1);
+        double rate2 = 1 - ranking.score(2L) / bayes(4, 4, 1);
+        double completedWeight = 1 / rate1 - 10;
+        assertThat(rate2).isCloseTo((completedWeight + 1) / (2 * completedWeight + 10), within(1e-4));
+    }
+
+    @Test
+    void oldCancellationsFadeOut() {
+        LocalDateTime now = LocalDateTime.now();
+        for (Long provider : List.of(1L, 2L, 3L)) {
+            rate(provider, 4, now);
+        }
+        jobs(1L, BookingStatus.CANCELLED, 1L, 4, now.minusYears(2));
+        jobs(2L, BookingStatus.CANCELLED, 2L, 4, now.minusMonths(1));
+
+        ranking.refresh();
+
+        // past the horizon: as if there were none
+        assertThat(ranking.score(1L)).isEqualTo(ranking.score(3L));
+        assertThat(ranking.score(2L)).isLessThan(ranking.score(3L));
+    }
+
+    @Test
+    void incrementalRefreshMatchesAFullRebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        RatingReview edited = rate(1L, 5, now.minusDays(30));
+        rateMany(2L, 3, 3, now.minusDays(10));
+        ranking.refresh();
+
+        // re-rated: replaces the old stars rather than adding to them
+        edited.setStars(1);
+        edited.setRatedAt(LocalDateTime.now());
+        rate(2L, 5, LocalDateTime.now());
+        rate(4L, 4, LocalDateTime.now());
+        entityManager.flush();
+        ranking.refresh();
+        // nothing changed: rows re-read inside the overlap are not counted twice
+        ranking.refresh();
+
+        ProviderRankingService rebuilt = service();
+        rebuilt.refresh();
+        for (Long provider : List.of(1L, 2L, 4L, 99L)) {
+            assertThat((double) ranking.score(provider)).isCloseTo(rebuilt.score(provider), within(1e-4));
+        }
+        assertThat(ranking.score(1L)).isLessThan(ranking.score(2L));
+    }
+
+    // =========================
+    // HELPERS
+    // =========================
+
+    private ProviderRankingService service() {
+        return new ProviderRankingService(ratingRepo, bookingRepo, HALF_LIFE_DAYS, PRIOR_WEIGHT, 144);
+    }
+
+    private static double bayes(double priorMean, double decayedSum, double decayedWeight) {
+        return (PRIOR_WEIGHT * priorMean + decayedSum) / (PRIOR_WEIGHT + decayedWeight);
+    }
+
+    private RatingReview rate(Long providerId, int stars, LocalDateTime at) {
+        RatingReview r = new RatingReview();
+        r.setBookingId(nextBookingId++);
+        r.setProviderId(providerId);
+        r.setServiceId(31L);
+        r.setStars(stars);
+        r.setCreatedAt(at);
+        r.setRatedAt(at);
+        RatingReview saved = ratingRepo.save(r);
+        entityManager.flush();
+        return saved;
+    }
+
+    private void rateMany(Long providerId, int stars, int count, LocalDateTime at) {
+        for (int i = 0; i < count; i++) {
+            rate(providerId, stars, at);
+        }
+    }
+
+    private void jobs(Long providerId, BookingStatus status, Long cancelledBy, int count, LocalDateTime at) {
+        for (int i = 0; i < count; i++) {
+            Booking b = new Booking();
+            b.setCustomerId(11L);
+            b.setProviderId(providerId);
+            b.setServiceId(31L);
+            b.setCity("Pune");
+            b.setStatus(status);
+            b.setCancelledBy(cancelledBy);
+            b.setCreatedAt(at.minusDays(2));
+            b.setDateTime(at);
+            b.setPrice(new BigDecimal("450.00"));
+            bookingRepo.save(b);
+        }
+        entityManager.flush();
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.ServiceBooking.ratings;
+
+import com.example.ServiceBooking.bookings.Booking;
+import com.example.ServiceBooking.bookings.BookingRepository;
+import com.example.ServiceBooking.bookings.dto.BookingStatus;
+import com.example.ServiceBooking.common.httpcache.ResourceVersionRepository;
+import com.example.ServiceBooking.common.httpcache.ResourceVersions;
+import com.example.ServiceBooking.ratings.dto.SubmitRatingRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Incremental provider rating totals on H2 (MySQL mode), checked against a rebuild from ratings_reviews.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ratingaggregates;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(RatingAggregateService.class)
+class RatingAggregateServiceTest {
+
+    private static final Long CUSTOMER = 11L;
+    private static final Long PROVIDER = 21L;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private RatingAggregateService aggregates;
+
+    @Autowired
+    private RatingReviewRepository ratingRepo;
+
+    @Autowired
+    private BookingRepository bookingRepo;
+
+    @Autowired
+    private ResourceVersionRepository resourceVersionRepo;
+
+    private RatingReviewService ratings;
+
+    @BeforeEach
+    void setUp() {
+        ratings = new RatingReviewService(ratingRepo, bookingRepo, aggregates, new ResourceVersions(resourceVersionRepo, 0));
+    }
+
+    @Test
+    void firstRatingsCreateAndExtendTheAggregate() {
+        assertThat(aggregates.find(PROVIDER)).isEmpty();
+
+        ratings.submitRating(CUSTOMER, new SubmitRatingRequest(completedBooking(), 4));
+        ratings.submitRating(CUSTOMER, new SubmitRatingRequest(completedBooking(), 5));
+
+        assertThat(totals()).isEqualTo("9/2 {1=0, 2=0, 3=0, 4=1, 5=1}");
+        assertThat(aggregates.find(PROVIDER).orElseThrow().average()).isEqualTo(4.5);
+        assertMatchesRebuild();
+    }
+
+    @Test
+    void reRatingMovesTheRatingBetweenBuckets() {
+        Long bookingId = completedBooking();
+        ratings.submitRating(CUSTOMER, new SubmitRatingRequest(bookingId, 4));
+        ratings.submitRating(CUSTOMER, new SubmitRatingRequest(completedBooking(), 3));
+
+        ratings.submitRating(CUSTOMER, new SubmitRatingRequest(bookingId, 1));
+        // same stars again: nothing to change
+        ratings.submitRating(CUSTOMER, new SubmitRatingRequest(bookingId, 1));
+
+        ProviderRatingAggregate a = aggregates.find(PROVIDER).orElseThrow();
+        assertThat(a.getRatingCount()).isEqualTo(2);
+        assertThat(a.getStarSum()).isEqualTo(4);
+        assertThat(a.getStars4()).isZero();
+        assertThat(a.getStars1()).isEqualTo(1);
+        assertThat(a.getStars3()).isEqualTo(1);
+        assertMatchesRebuild();
+    }
+
+    @Test
+    void removedRatingIsTakenOutOfTheTotals() {
+        ratings.submitRating(CUSTOMER, new SubmitRatingRequest(completedBooking(), 2));
+        Long removedBooking = completedBooking();
+        ratings.submitRating(CUSTOMER, new SubmitRatingRequest(removedBooking, 5));
+
+        RatingReview removed = ratingRepo.findByBookingId(removedBooking).orElseThrow();
+        ProviderRatingAggregate a = aggregates.lockForUpdate(PROVIDER);
+        ratingRepo.delete(removed);
+        aggregates.applyChange(a, removed.getStars(), null);
+
+        assertThat(totals()).isEqualTo("2/1 {1=0, 2=1, 3=0, 4=0, 5=0}");
+        assertMatchesRebuild();
+
+        // the last one leaves an empty row, not a negative one
+        a = aggregates.lockForUpdate(PROVIDER);
+        aggregates.applyChange(a, 2, null);
+        assertThat(aggregates.find(PROVIDER).orElseThrow().average()).isZero();
+        assertThat(totals()).isEqualTo("0/0 {1=0, 2=0, 3=0, 4=0, 5=0}");
+    }
+
+    @Test
+    void rebuildCorrectsDriftedTotals() {
+        ratings.submitRating(CUSTOMER, new SubmitRatingRequest(completedBooking(), 3));
+        ProviderRatingAggregate a = aggregates.find(PROVIDER).orElseThrow();
+        a.setStarSum(100);
+        a.setStars5(7);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(aggregates.rebuildProviders(List.of(PROVIDER))).isEqualTo(1);
+
+        assertThat(totals()).isEqualTo("3/1 {1=0, 2=0, 3=1, 4=0, 5=0}");
+    }
+
+    // =========================
+    // HELPERS
+    // =========================
+
+    private Long completedBooking() {
+        Booking b = new Booking();
+        b.setCustomerId(CUSTOMER);
+        b.setProviderId(PROVIDER);
+        b.setServiceId(31L);
+        b.setCity("Pune");
+        b.setStatus(BookingStatus.COMPLETED);
+        b.setCreatedAt(LocalDateTime.now().minusDays(2));
+        b.setDateTime(LocalDateTime.now().minusDays(1));
+        b.setPrice(new BigDecimal("450.00"));
+        return bookingRepo.save(b).getId();
+    }
+
+    private String totals() {
+        entityManager.flush();
+        entityManager.clear();
+        ProviderRatingAggregate a = aggregates.find(PROVIDER).orElseThrow();
+        return a.getStarSum() + "/" + a.getRatingCount() + " " + a.histogram();
+    }
+
+    private void assertMatchesRebuild() {
+        String incremental = totals();
+        aggregates.rebuildProviders(List.of(PROVIDER));
+        assertThat(totals()).isEqualTo(incremental);
+    }
+}
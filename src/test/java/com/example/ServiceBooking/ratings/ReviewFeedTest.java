@@ -0,0 +1,179 @@
+package com.example.ServiceBooking.ratings;
+
+import com.example.ServiceBooking.bookings.BookingRepository;
+import com.example.ServiceBooking.common.httpcache.ResourceVersionRepository;
+import com.example.ServiceBooking.common.httpcache.ResourceVersions;
+import com.example.ServiceBooking.ratings.dto.RatingReviewResponse;
+import com.example.ServiceBooking.ratings.dto.RatingReviewSummaryResponse;
+import com.example.ServiceBooking.ratings.dto.ReviewFeedResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Keyset review feeds on H2 (MySQL mode): newest first, ties on createdAt broken by rating id.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reviewfeed;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ReviewFeedTest {
+
+    private static final Long PROVIDER = 21L;
+    private static final Long SERVICE = 31L;
+    private static final LocalDateTime T = LocalDateTime.of(2026, 5, 4, 12, 0);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private RatingReviewRepository repo;
+
+    @Autowired
+    private ResourceVersionRepository resourceVersionRepo;
+
+    private RatingReviewService service;
+    private long nextBookingId = 1;
+
+    @BeforeEach
+    void setUp() {
+        service = new RatingReviewService(repo, mock(BookingRepository.class), mock(RatingAggregateService.class),
+                new ResourceVersions(resourceVersionRepo, 0));
+    }
+
+    @Test
+    void pagesWalkTiesInRatingIdOrderWithoutGapsOrRepeats() {
+        Long older = review(PROVIDER, T.minusDays(1));
+        // five reviews in the same instant
+        List<Long> tied = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            tied.add(review(PROVIDER, T));
+        }
+        Long newest = review(PROVIDER, T.plusHours(1));
+        review(99L, T);
+
+        List<Long> walked = walk(2, false);
+
+        assertThat(walked).containsExactly(newest, tied.get(4), tied.get(3), tied.get(2), tied.get(1), tied.get(0), older);
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        for (int i = 0; i < 4; i++) {
+            review(PROVIDER, T.plusMinutes(i));
+        }
+
+        ReviewFeedResponse<?> first = service.providerFeed(PROVIDER, null, 2, false);
+        ReviewFeedResponse<?> second = service.providerFeed(PROVIDER, first.nextCursor(), 2, false);
+
+        // an exactly full last page: the extra row fetched is what tells there is no more
+        assertThat(first.nextCursor()).isNotNull();
+        assertThat(second.items()).hasSize(2);
+        assertThat(second.nextCursor()).isNull();
+
+        assertThat(service.providerFeed(7L, null, 2, false).items()).isEmpty();
+        assertThat(service.providerFeed(7L, null, 2, false).nextCursor()).isNull();
+    }
+
+    @Test
+    void newReviewsDoNotShiftLaterPages() {
+        for (int i = 0; i < 4; i++) {
+            review(PROVIDER, T.plusMinutes(i));
+        }
+        ReviewFeedResponse<?> first = service.providerFeed(PROVIDER, null, 2, false);
+
+        review(PROVIDER, T.plusDays(1));
+        ReviewFeedResponse<?> second = service.providerFeed(PROVIDER, first.nextCursor(), 2, false);
+
+        assertThat(ids(second)).doesNotContainAnyElementsOf(ids(first));
+        assertThat(ids(second)).hasSize(2);
+    }
+
+    @Test
+    void summaryAndServiceFeedsPageTheSameWay() {
+        Long a = review(PROVIDER, T);
+        Long b = review(PROVIDER, T);
+        Long c = review(PROVIDER, T.minusMinutes(1));
+
+        assertThat(walk(1, true)).containsExactly(b, a, c);
+
+        ReviewFeedResponse<?> page = service.serviceFeed(SERVICE, null, 2, true);
+        assertThat(page.items()).allSatisfy(r -> assertThat(r).isInstanceOf(RatingReviewSummaryResponse.class));
+        assertThat(ids(page)).containsExactly(b, a);
+        assertThat(ids(service.serviceFeed(SERVICE, page.nextCursor(), 2, true))).containsExactly(c);
+    }
+
+    @Test
+    void invalidCursorOrSizeIsRejected() {
+        String notBase64 = "%%%";
+        String noSeparator = Base64.getUrlEncoder().encodeToString("2026-05-04T12:00".getBytes(StandardCharsets.UTF_8));
+        String badDate = Base64.getUrlEncoder().encodeToString("yesterday|12".getBytes(StandardCharsets.UTF_8));
+        String badId = Base64.getUrlEncoder().encodeToString("2026-05-04T12:00|x".getBytes(StandardCharsets.UTF_8));
+
+        for (String cursor : List.of(notBase64, noSeparator, badDate, badId)) {
+            assertThatThrownBy(() -> service.providerFeed(PROVIDER, cursor, 10, false))
+                    .hasMessage("Invalid cursor");
+        }
+        assertThatThrownBy(() -> service.providerFeed(PROVIDER, null, 0, false))
+                .hasMessage("size must be between 1 and 100");
+        assertThatThrownBy(() -> service.serviceFeed(SERVICE, null, 101, false))
+                .hasMessage("size must be between 1 and 100");
+        // blank is the first page
+        assertThat(service.providerFeed(PROVIDER, " ", 10, false).nextCursor()).isNull();
+    }
+
+    // =========================
+    // HELPERS
+    // =========================
+
+    private List<Long> walk(int size, boolean summaryOnly) {
+        List<Long> walked = new ArrayList<>();
+        String cursor = null;
+        do {
+            ReviewFeedResponse<?> page = service.providerFeed(PROVIDER, cursor, size, summaryOnly);
+            assertThat(page.items()).hasSizeLessThanOrEqualTo(size);
+            walked.addAll(ids(page));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        return walked;
+    }
+
+    private static List<Long> ids(ReviewFeedResponse<?> page) {
+        return page.items().stream()
+                .map(r -> r instanceof RatingReviewResponse full
+                        ? full.ratingId()
+                        : ((RatingReviewSummaryResponse) r).ratingId())
+                .toList();
+    }
+
+    private Long review(Long providerId, LocalDateTime createdAt) {
+        RatingReview r = new RatingReview();
+        r.setBookingId(nextBookingId++);
+        r.setProviderId(providerId);
+        r.setServiceId(SERVICE);
+        r.setStars(4);
+        r.setComment("Good job");
+        r.setCreatedAt(createdAt);
+        Long id = repo.save(r).getRatingId();
+        entityManager.flush();
+        return id;
+    }
+}